@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -134,6 +134,8 @@ public class Messages extends NLS {
 	public static String PROCESS_ID_LABEL;
 	public static String PersistencePage_CAPTION_LOG_ROTATION_LIMIT_KB;
 	public static String PersistencePage_CAPTION_PERSISTENCE_DIRECTORY;
+	public static String PersistencePage_CAPTION_RETENTION_DAYS;
+	public static String PersistencePage_CAPTION_RETENTION_SIZE_KB;
 	public static String PersistencePage_DESCRIPTION;
 	public static String PersistencePage_ERROR_DIRECTORY_MUST_EXIST_OR_BE_CREATABLE;
 	public static String PoolTableSectionPart_SECTION_TEXT;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -63,6 +63,7 @@ public class PersistencePage extends FieldEditorPreferencePage implements IWorkb
 	protected void createFieldEditors() {
 		createPersistenceDirectory();
 		createLogRotationLimit();
+		createRetentionLimits();
 		createSpace();
 	}
 
@@ -80,6 +81,17 @@ public class PersistencePage extends FieldEditorPreferencePage implements IWorkb
 		logRotationLimit.setValidRange(1, Integer.MAX_VALUE);
 	}
 
+	private void createRetentionLimits() {
+		IntFieldEditor retentionSize = new IntFieldEditor(PreferencesKeys.PROPERTY_PERSISTENCE_RETENTION_SIZE_KB,
+				Messages.PersistencePage_CAPTION_RETENTION_SIZE_KB, getFieldEditorParent());
+		addField(retentionSize);
+		retentionSize.setValidRange(0, Integer.MAX_VALUE);
+		IntFieldEditor retentionDays = new IntFieldEditor(PreferencesKeys.PROPERTY_PERSISTENCE_RETENTION_DAYS,
+				Messages.PersistencePage_CAPTION_RETENTION_DAYS, getFieldEditorParent());
+		addField(retentionDays);
+		retentionDays.setValidRange(0, Integer.MAX_VALUE);
+	}
+
 	private void createPersistenceDirectory() {
 		DirectoryFieldEditor persistenceDirectory = new DirectoryFieldEditor(
 				PreferencesKeys.PROPERTY_PERSISTENCE_DIRECTORY, Messages.PersistencePage_CAPTION_PERSISTENCE_DIRECTORY,
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2023, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2023, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2023, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -159,6 +159,7 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 	private static final String PLUGIN_ID = "org.openjdk.jmc.flightrecorder.flamegraph"; //$NON-NLS-1$
 	private static final String ATTRIBUTE_SELECTION_SEPARATOR_ID = "AttrSelectionSep"; //$NON-NLS-1$
 	private static final int MODEL_EXECUTOR_THREADS_NUMBER = 3;
+	private static final long PROGRESS_INTERVAL_MS = 500;
 	private static final ExecutorService MODEL_EXECUTOR = Executors.newFixedThreadPool(MODEL_EXECUTOR_THREADS_NUMBER,
 			new ThreadFactory() {
 				private final ThreadGroup group = new ThreadGroup("FlamegraphModelCalculationGroup"); //$NON-NLS-1$
@@ -356,13 +357,15 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 				if (attribute != null) {
 					filteredItems = filteredItems.apply(ItemFilters.hasAttribute(attribute));
 				}
+				var rootFrameDescription = createRootNodeDescription(items);
+				// Show partial trees while aggregating, large selections can take a long time
 				var treeModel = new StacktraceTreeModel(filteredItems, view.frameSeparator, !view.threadRootAtTop,
-						attribute, () -> isInvalid);
+						attribute, () -> isInvalid, PROGRESS_INTERVAL_MS,
+						partialRoot -> view.setPartialModel(this, convert(partialRoot), rootFrameDescription));
 				if (isInvalid) {
 					return;
 				}
-				var rootFrameDescription = createRootNodeDescription(items);
-				var frameBoxList = convert(treeModel);
+				var frameBoxList = convert(treeModel.getRoot());
 				if (!isInvalid) {
 					view.modelState = ModelState.FINISHED;
 					view.setModel(items, frameBoxList, rootFrameDescription);
@@ -379,10 +382,10 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 			}
 		}
 
-		private static List<FrameBox<Node>> convert(StacktraceTreeModel model) {
+		private static List<FrameBox<Node>> convert(Node root) {
 			var nodes = new ArrayList<FrameBox<Node>>();
 
-			FrameBox.flattenAndCalculateCoordinate(nodes, model.getRoot(), Node::getChildren, Node::getCumulativeWeight,
+			FrameBox.flattenAndCalculateCoordinate(nodes, root, Node::getChildren, Node::getCumulativeWeight,
 					node -> node.getChildren().stream().mapToDouble(Node::getCumulativeWeight).sum(), 0.0d, 1.0d, 0);
 
 			return nodes;
@@ -815,6 +818,18 @@ public class FlamegraphSwingView extends ViewPart implements ISelectionListener
 		}
 	}
 
+	private void setPartialModel(
+		ModelRebuildRunnable rebuild, List<FrameBox<Node>> flatFrameList, String rootFrameDescription) {
+		SwingUtilities.invokeLater(() -> {
+			// Drop the snapshot if the selection has changed since it was taken
+			if (!rebuild.isInvalid && ModelState.STARTED.equals(modelState)) {
+				flamegraphView.setModel(new FrameModel<>(rootFrameDescription,
+						(frameA, frameB) -> Objects.equals(frameA.actualNode.getFrame(), frameB.actualNode.getFrame()),
+						flatFrameList));
+			}
+		});
+	}
+
 	private void saveFlamegraph() {
 		var future = new CompletableFuture<Path>();
 
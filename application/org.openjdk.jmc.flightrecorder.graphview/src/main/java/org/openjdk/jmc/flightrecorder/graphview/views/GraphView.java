@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -40,7 +40,10 @@ import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -62,6 +65,7 @@ import org.eclipse.swt.browser.ProgressEvent;
 import org.eclipse.swt.custom.SashForm;
 import org.eclipse.swt.events.MenuDetectEvent;
 import org.eclipse.swt.events.MenuDetectListener;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Menu;
@@ -76,6 +80,7 @@ import org.openjdk.jmc.common.item.ItemCollectionToolkit;
 import org.openjdk.jmc.common.util.Pair;
 import org.openjdk.jmc.common.util.StringToolkit;
 import org.openjdk.jmc.flightrecorder.serializers.dot.DotSerializer;
+import org.openjdk.jmc.flightrecorder.serializers.dot.DotSerializer.ConfigurationKey;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator.FrameCategorization;
 import org.openjdk.jmc.flightrecorder.stacktrace.graph.Pruning;
@@ -152,6 +157,13 @@ public class GraphView extends ViewPart implements ISelectionListener {
 	}
 
 	private static final int MODEL_EXECUTOR_THREADS_NUMBER = 3;
+	// Node budget that is derived from the size of the view
+	private static final int AUTO_NODES = 0;
+	// Area in pixels that a node with its edges needs to be readable
+	private static final int AUTO_NODE_AREA = 200 * 60;
+	private static final int AUTO_MIN_NODES = 10;
+	private static final int AUTO_MAX_NODES = 1000;
+	private static final Map<ConfigurationKey, String> DOT_CONFIGURATION = createDotConfiguration();
 	private static final ExecutorService MODEL_EXECUTOR = Executors.newFixedThreadPool(MODEL_EXECUTOR_THREADS_NUMBER,
 			new ThreadFactory() {
 				private ThreadGroup group = new ThreadGroup("GraphModelCalculationGroup");
@@ -172,6 +184,9 @@ public class GraphView extends ViewPart implements ISelectionListener {
 	private ModelRebuildRunnable modelRebuildRunnable;
 	private int maxNodesRendered = 100;
 	private NodeThresholdSelection nodeThresholdSelection;
+	private boolean pageLoaded;
+	// The node and edge statements currently shown, by name
+	private Map<String, String> shownStatements = new LinkedHashMap<>();
 
 	@Override
 	public void init(IViewSite site, IMemento memento) throws PartInitException {
@@ -193,9 +208,9 @@ public class GraphView extends ViewPart implements ISelectionListener {
 
 	private class NodeThresholdSelection extends Action implements IMenuCreator {
 		private Menu menu;
-		private final List<Pair<String, Integer>> items = Arrays.asList(new Pair<>("10", 10), new Pair<>("20", 20),
-				new Pair<>("30", 30), new Pair<>("40", 40), new Pair<>("50", 50), new Pair<>("100", 100),
-				new Pair<>("500", 500), new Pair<>("1000", 1000));
+		private final List<Pair<String, Integer>> items = Arrays.asList(new Pair<>("Auto", AUTO_NODES),
+				new Pair<>("10", 10), new Pair<>("20", 20), new Pair<>("30", 30), new Pair<>("40", 40),
+				new Pair<>("50", 50), new Pair<>("100", 100), new Pair<>("500", 500), new Pair<>("1000", 1000));
 
 		NodeThresholdSelection() {
 			super("Max Nodes", IAction.AS_DROP_DOWN_MENU);
@@ -295,12 +310,23 @@ public class GraphView extends ViewPart implements ISelectionListener {
 
 		currentItems = items;
 		modelState = ModelState.NOT_STARTED;
-		modelRebuildRunnable = new ModelRebuildRunnable(this, frameSeparator, items, maxNodesRendered);
+		modelRebuildRunnable = new ModelRebuildRunnable(this, frameSeparator, items, getNodeBudget());
 		if (!modelRebuildRunnable.isInvalid) {
 			MODEL_EXECUTOR.execute(modelRebuildRunnable);
 		}
 	}
 
+	private int getNodeBudget() {
+		if (maxNodesRendered != AUTO_NODES) {
+			return maxNodesRendered;
+		}
+		if (browser == null || browser.isDisposed()) {
+			return AUTO_MAX_NODES;
+		}
+		Point size = browser.getSize();
+		return Math.max(AUTO_MIN_NODES, Math.min(AUTO_MAX_NODES, size.x * size.y / AUTO_NODE_AREA));
+	}
+
 	private void setModel(final IItemCollection items, final String dotString) {
 		if (ModelState.FINISHED.equals(modelState) && items.equals(currentItems) && !browser.isDisposed()) {
 			setViewerInput(dotString);
@@ -308,6 +334,40 @@ public class GraphView extends ViewPart implements ISelectionListener {
 	}
 
 	private void setViewerInput(String model) {
+		Map<String, String> statements = new LinkedHashMap<>();
+		StringBuilder header = new StringBuilder();
+		for (String line : model.split("\n")) {
+			int keyEnd = line.indexOf(" [");
+			if (line.startsWith("N") && keyEnd > 0) {
+				statements.put(line.substring(0, keyEnd), line);
+			} else if (!line.equals("}")) {
+				header.append(line).append('\n');
+			}
+		}
+		if (pageLoaded && !shownStatements.isEmpty() && !statements.isEmpty()) {
+			// Only send the nodes and edges that were removed or changed
+			StringBuilder removed = new StringBuilder();
+			for (String key : shownStatements.keySet()) {
+				if (!statements.containsKey(key)) {
+					removed.append(key).append('\n');
+				}
+			}
+			StringBuilder changed = new StringBuilder();
+			for (Map.Entry<String, String> entry : statements.entrySet()) {
+				if (!Objects.equals(shownStatements.get(entry.getKey()), entry.getValue())) {
+					changed.append(entry.getValue()).append('\n');
+				}
+			}
+			shownStatements = statements;
+			browser.execute(String.format("updateGraph(String.raw`%s`, String.raw`%s`, String.raw`%s`);", header,
+					removed, changed));
+			return;
+		}
+		shownStatements = statements;
+		if (pageLoaded) {
+			browser.execute(String.format("processGraph(String.raw`%s`);", model));
+			return;
+		}
 		browser.setText(HTML_PAGE);
 
 		browser.addProgressListener(new ProgressAdapter() {
@@ -323,8 +383,9 @@ public class GraphView extends ViewPart implements ISelectionListener {
 			@Override
 			public void completed(ProgressEvent event) {
 				browser.removeProgressListener(this);
-				browser.execute(String.format("processGraph(`%s`);", model));
+				browser.execute(String.format("processGraph(String.raw`%s`);", model));
 				loaded = true;
+				pageLoaded = true;
 			}
 		});
 	}
@@ -337,7 +398,16 @@ public class GraphView extends ViewPart implements ISelectionListener {
 	}
 
 	private static String render(StacktraceGraphModel model, int maxNodesRendered) {
-		return DotSerializer.toDot(model, maxNodesRendered, DotSerializer.getDefaultConfiguration());
+		return DotSerializer.toDot(model, maxNodesRendered, DOT_CONFIGURATION);
+	}
+
+	private static Map<ConfigurationKey, String> createDotConfiguration() {
+		Map<ConfigurationKey, String> configuration = DotSerializer.getDefaultConfiguration();
+		configuration.put(ConfigurationKey.CollapseChains, Boolean.TRUE.toString());
+		configuration.put(ConfigurationKey.OtherNodeFraction, "0.01");
+		// Lets the page update only the nodes and edges that changed between selections
+		configuration.put(ConfigurationKey.StableNodeNames, Boolean.TRUE.toString());
+		return configuration;
 	}
 
 	private static String loadLibraries(String ... libs) {
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.heatmap.views;
+
+import java.util.Iterator;
+import java.util.function.BooleanSupplier;
+
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.Aggregators.MergingAggregator;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemConsumer;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+
+/**
+ * Event counts per time bin, computed from the start times of the events. This is all the heatmap
+ * page needs, so the events themselves never have to be sent to the browser.
+ */
+final class HeatmapModel {
+	// Bin widths in milliseconds, the smallest one that keeps the number of bins down is used
+	private static final long[] BIN_WIDTHS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 15000, 30000,
+			60000, 120000, 300000, 600000, 900000, 1800000, 3600000};
+	// Enough to fill a large screen with cells of a few pixels
+	static final int MAX_BINS = 10000;
+	// The bin width used for complete selections, finer bins are only used when zooming in
+	static final long DEFAULT_MIN_BIN_WIDTH = 100;
+
+	private static final HeatmapModel EMPTY = new HeatmapModel(0, DEFAULT_MIN_BIN_WIDTH, new long[0]);
+
+	private final long startMillis;
+	private final long binMillis;
+	private final long[] counts;
+
+	private HeatmapModel(long startMillis, long binMillis, long[] counts) {
+		this.startMillis = startMillis;
+		this.binMillis = binMillis;
+		this.counts = counts;
+	}
+
+	/**
+	 * Bins all events in a collection.
+	 *
+	 * @param items
+	 *            the events to bin
+	 * @param stopFlag
+	 *            checked between the passes over the events
+	 * @return the model, or {@code null} if stopped
+	 */
+	static HeatmapModel create(IItemCollection items, BooleanSupplier stopFlag) {
+		IQuantity first = items.getAggregate(Aggregators.min(JfrAttributes.START_TIME));
+		if (stopFlag.getAsBoolean()) {
+			return null;
+		}
+		IQuantity last = items.getAggregate(Aggregators.max(JfrAttributes.START_TIME));
+		if (first == null || last == null) {
+			return EMPTY;
+		}
+		return create(items, first.clampedLongValueIn(UnitLookup.EPOCH_MS),
+				last.clampedLongValueIn(UnitLookup.EPOCH_MS), DEFAULT_MIN_BIN_WIDTH, stopFlag);
+	}
+
+	/**
+	 * Bins the events in a collection that start within a time range. Events outside of the range
+	 * are skipped.
+	 *
+	 * @param items
+	 *            the events to bin
+	 * @param fromMillis
+	 *            the start of the range, in milliseconds since epoch
+	 * @param toMillis
+	 *            the end of the range (inclusive), in milliseconds since epoch
+	 * @param minBinMillis
+	 *            the smallest bin width to use
+	 * @param stopFlag
+	 *            checked before binning
+	 * @return the model, or {@code null} if stopped
+	 */
+	static HeatmapModel create(
+		IItemCollection items, long fromMillis, long toMillis, long minBinMillis, BooleanSupplier stopFlag) {
+		if (stopFlag.getAsBoolean()) {
+			return null;
+		}
+		long binMillis = getBinWidth(toMillis - fromMillis, minBinMillis);
+		long start = Math.floorDiv(fromMillis, binMillis) * binMillis;
+		int binCount = (int) ((toMillis - start) / binMillis) + 1;
+		return items.getAggregate(new BinningAggregator(start, binMillis, binCount, fromMillis, toMillis));
+	}
+
+	private static long getBinWidth(long rangeMillis, long minBinMillis) {
+		for (long width : BIN_WIDTHS) {
+			if (width >= minBinMillis && rangeMillis / width < MAX_BINS) {
+				return width;
+			}
+		}
+		long largest = BIN_WIDTHS[BIN_WIDTHS.length - 1];
+		return (rangeMillis / MAX_BINS / largest + 1) * largest;
+	}
+
+	long getTotalCount() {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * @return the model as a JSON object with the start time and bin width in milliseconds and the
+	 *         counts of all bins
+	 */
+	String toJson() {
+		StringBuilder json = new StringBuilder(32 + counts.length * 4);
+		json.append("{\"start\":").append(startMillis).append(",\"binMs\":").append(binMillis) //$NON-NLS-1$ //$NON-NLS-2$
+				.append(",\"counts\":["); //$NON-NLS-1$
+		for (int i = 0; i < counts.length; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append(counts[i]);
+		}
+		return json.append("]}").toString(); //$NON-NLS-1$
+	}
+
+	private static class BinConsumer implements IItemConsumer<BinConsumer> {
+		private final IMemberAccessor<IQuantity, IItem> startTimeAccessor;
+		private final long startMillis;
+		private final long binMillis;
+		private final long fromMillis;
+		private final long toMillis;
+		private final long[] counts;
+
+		BinConsumer(IMemberAccessor<IQuantity, IItem> startTimeAccessor, long startMillis, long binMillis, int binCount,
+				long fromMillis, long toMillis) {
+			this.startTimeAccessor = startTimeAccessor;
+			this.startMillis = startMillis;
+			this.binMillis = binMillis;
+			this.fromMillis = fromMillis;
+			this.toMillis = toMillis;
+			counts = new long[binCount];
+		}
+
+		@Override
+		public void consume(IItem item) {
+			IQuantity startTime = startTimeAccessor.getMember(item);
+			if (startTime != null) {
+				long time = startTime.clampedLongValueIn(UnitLookup.EPOCH_MS);
+				if (time >= fromMillis && time <= toMillis) {
+					counts[(int) ((time - startMillis) / binMillis)]++;
+				}
+			}
+		}
+
+		@Override
+		public BinConsumer merge(BinConsumer other) {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += other.counts[i];
+			}
+			return this;
+		}
+	}
+
+	private static class BinningAggregator extends MergingAggregator<HeatmapModel, BinConsumer> {
+		private final long startMillis;
+		private final long binMillis;
+		private final int binCount;
+		private final long fromMillis;
+		private final long toMillis;
+
+		BinningAggregator(long startMillis, long binMillis, int binCount, long fromMillis, long toMillis) {
+			super("Heatmap", null, UnitLookup.UNKNOWN); //$NON-NLS-1$
+			this.startMillis = startMillis;
+			this.binMillis = binMillis;
+			this.binCount = binCount;
+			this.fromMillis = fromMillis;
+			this.toMillis = toMillis;
+		}
+
+		@Override
+		public boolean acceptType(IType<IItem> type) {
+			return JfrAttributes.START_TIME.getAccessor(type) != null;
+		}
+
+		@Override
+		public BinConsumer newItemConsumer(IType<IItem> type) {
+			return new BinConsumer(JfrAttributes.START_TIME.getAccessor(type), startMillis, binMillis, binCount,
+					fromMillis, toMillis);
+		}
+
+		@Override
+		public HeatmapModel getValue(BinConsumer consumer) {
+			return new HeatmapModel(startMillis, binMillis, consumer.counts);
+		}
+
+		@Override
+		public HeatmapModel getValue(Iterator<BinConsumer> consumers) {
+			// No events of any accepted type gives no consumers, but still an empty range
+			HeatmapModel model = super.getValue(consumers);
+			return model != null ? model : new HeatmapModel(startMillis, binMillis, new long[binCount]);
+		}
+	}
+}
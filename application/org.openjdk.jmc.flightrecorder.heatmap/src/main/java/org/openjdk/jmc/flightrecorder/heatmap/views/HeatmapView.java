@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -51,6 +51,7 @@ import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.browser.BrowserFunction;
 import org.eclipse.swt.browser.ProgressAdapter;
 import org.eclipse.swt.browser.ProgressEvent;
 import org.eclipse.swt.custom.SashForm;
@@ -66,7 +67,6 @@ import org.eclipse.ui.part.ViewPart;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.ItemCollectionToolkit;
 import org.openjdk.jmc.common.util.StringToolkit;
-import org.openjdk.jmc.flightrecorder.serializers.json.IItemCollectionJsonSerializer;
 import org.openjdk.jmc.flightrecorder.ui.FlightRecorderUI;
 import org.openjdk.jmc.ui.common.util.AdapterUtil;
 import org.openjdk.jmc.ui.misc.DisplayToolkit;
@@ -87,11 +87,14 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 	private static class ModelRebuildRunnable implements Runnable {
 		private final HeatmapView view;
 		private IItemCollection items;
+		// The visible time range in milliseconds since epoch, or null for all events
+		private final long[] range;
 		private volatile boolean isInvalid;
 
-		private ModelRebuildRunnable(HeatmapView view, IItemCollection items) {
+		private ModelRebuildRunnable(HeatmapView view, IItemCollection items, long[] range) {
 			this.view = view;
 			this.items = items;
+			this.range = range;
 		}
 
 		private void setInvalid() {
@@ -108,12 +111,14 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 				if (isInvalid) {
 					return;
 				}
-				String eventsJson = IItemCollectionJsonSerializer.toJsonString(items, () -> isInvalid);
-				if (isInvalid) {
+				HeatmapModel model = range == null ? HeatmapModel.create(items, () -> isInvalid)
+						: HeatmapModel.create(items, range[0], range[1], 1, () -> isInvalid);
+				if (model == null || isInvalid) {
 					return;
 				} else {
+					String modelJson = model.toJson();
 					view.modelState = ModelState.FINISHED;
-					DisplayToolkit.inDisplayThread().execute(() -> view.setModel(items, eventsJson));
+					DisplayToolkit.inDisplayThread().execute(() -> view.setModel(items, modelJson, range == null));
 				}
 			} catch (Exception e) {
 				exception = e;
@@ -129,6 +134,40 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 		}
 	}
 
+	/**
+	 * Called by the page to zoom, with the start and end of the range to show in milliseconds since
+	 * epoch, or without arguments to show all events again.
+	 */
+	private class ZoomFunction extends BrowserFunction {
+
+		ZoomFunction(Browser browser) {
+			super(browser, "zoomHeatmap");
+		}
+
+		@Override
+		public Object function(Object[] arguments) {
+			if (currentItems == null) {
+				return null;
+			}
+			if (arguments.length == 2 && arguments[0] instanceof Number && arguments[1] instanceof Number) {
+				long from = ((Number) arguments[0]).longValue();
+				long to = ((Number) arguments[1]).longValue();
+				if (from <= to) {
+					triggerRebuildTask(currentItems, new long[] {from, to});
+				}
+			} else if (fullModelJson != null) {
+				// The complete model has already been calculated, no need to bin again
+				if (modelRebuildRunnable != null) {
+					modelRebuildRunnable.setInvalid();
+				}
+				updateHeatmap(fullModelJson);
+			} else {
+				triggerRebuildTask(currentItems, null);
+			}
+			return null;
+		}
+	}
+
 	private static final int MODEL_EXECUTOR_THREADS_NUMBER = 3;
 	private static final ExecutorService MODEL_EXECUTOR = Executors.newFixedThreadPool(MODEL_EXECUTOR_THREADS_NUMBER,
 			new ThreadFactory() {
@@ -145,6 +184,9 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 	private Browser browser;
 	private SashForm container;
 	private IItemCollection currentItems;
+	// The model for all events of the current items, kept for zooming out
+	private String fullModelJson;
+	private boolean pageLoaded;
 	private volatile ModelState modelState = ModelState.NONE;
 	private ModelRebuildRunnable modelRebuildRunnable;
 
@@ -165,6 +207,7 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 		container = new SashForm(parent, SWT.HORIZONTAL);
 		browser = new Browser(container, SWT.NONE);
 		container.setMaximizedControl(browser);
+		new ZoomFunction(browser);
 		browser.addMenuDetectListener(new MenuDetectListener() {
 			@Override
 			public void menuDetected(MenuDetectEvent e) {
@@ -196,6 +239,11 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 	}
 
 	private void triggerRebuildTask(IItemCollection items) {
+		fullModelJson = null;
+		triggerRebuildTask(items, null);
+	}
+
+	private void triggerRebuildTask(IItemCollection items, long[] range) {
 		// Release old model calculation before building a new
 		if (modelRebuildRunnable != null) {
 			modelRebuildRunnable.setInvalid();
@@ -203,19 +251,31 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 
 		currentItems = items;
 		modelState = ModelState.NOT_STARTED;
-		modelRebuildRunnable = new ModelRebuildRunnable(this, items);
+		modelRebuildRunnable = new ModelRebuildRunnable(this, items, range);
 		if (!modelRebuildRunnable.isInvalid) {
 			MODEL_EXECUTOR.execute(modelRebuildRunnable);
 		}
 	}
 
-	private void setModel(final IItemCollection items, final String eventsJson) {
+	private void setModel(final IItemCollection items, final String modelJson, boolean isFullModel) {
 		if (ModelState.FINISHED.equals(modelState) && items.equals(currentItems) && !browser.isDisposed()) {
-			setViewerInput(eventsJson);
+			if (isFullModel) {
+				fullModelJson = modelJson;
+			}
+			if (pageLoaded) {
+				updateHeatmap(modelJson);
+			} else {
+				setViewerInput(modelJson);
+			}
 		}
 	}
 
-	private void setViewerInput(String eventsJson) {
+	private void updateHeatmap(String modelJson) {
+		// The model only contains numbers, so it can be passed as is
+		browser.execute(String.format("updateHeatmap(`%s`);", modelJson));
+	}
+
+	private void setViewerInput(String modelJson) {
 		browser.setText(HTML_PAGE);
 
 		browser.addProgressListener(new ProgressAdapter() {
@@ -231,8 +291,9 @@ public class HeatmapView extends ViewPart implements ISelectionListener {
 			@Override
 			public void completed(ProgressEvent event) {
 				browser.removeProgressListener(this);
-				browser.execute(String.format("updateHeatmap(`%s`);", eventsJson));
+				updateHeatmap(modelJson);
 				loaded = true;
+				pageLoaded = true;
 			}
 		});
 	}
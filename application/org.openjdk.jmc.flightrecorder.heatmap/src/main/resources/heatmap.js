@@ -1,5 +1,5 @@
 /*
- Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  Copyright (c) 2021, Datadog, Inc. All rights reserved.
 
  DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -47,16 +47,18 @@ class Logger {
 }
 const chart = {
 	data: [],
+	binMs: 100,
+	dragStart: -1,
 };
 
 window.logger = new Logger();
 
 try {
 	function updateHeatmap(jsonStr) {
-		const rawData = JSON.parse(jsonStr);
-		const eventTimes = getEventTimes(rawData);
-		const binnedData = getBinnedData(eventTimes);
-		chart.data = binnedData;
+		const model = JSON.parse(jsonStr);
+		chart.binMs = model.binMs;
+		chart.data = getBinnedData(model);
+		chart.dragStart = -1;
 		renderHeatmap(chart.data);
 	}
 
@@ -64,6 +66,13 @@ try {
 		renderHeatmap(chart.data);
 	}
 	d3.select(window).on("resize", resizeSVG);
+	// Cancel a zoom selection that ends outside of the cells
+	d3.select(window).on("mouseup", () => {
+		if (chart.dragStart >= 0) {
+			chart.dragStart = -1;
+			renderHeatmap(chart.data);
+		}
+	});
 
 	function range(from, to) {
 		const result = [];
@@ -73,26 +82,35 @@ try {
 		return result;
 	}
 
-	function getEventTimes(rawData) {
-		return rawData.events
-			.filter((event) => event.attributes)
-			.map(
-				(event) =>
-					event.attributes.startTime ||
-					event.attributes.endTime ||
-					event.attributes["(endTime)"]
-			)
-			.map((time) => new Date(time / 10e5));
+	// The bins are calculated by the view, only the counts are passed to the page
+	function getBinnedData(model) {
+		return model.counts.map((count, i) => ({
+			x0: new Date(model.start + i * model.binMs),
+			x1: new Date(model.start + (i + 1) * model.binMs),
+			length: count,
+		}));
+	}
+
+	function zoom(fromIndex, toIndex) {
+		if (typeof zoomHeatmap === "function") {
+			const from = Math.min(fromIndex, toIndex);
+			const to = Math.max(fromIndex, toIndex);
+			zoomHeatmap(chart.data[from].x0.getTime(), chart.data[to].x1.getTime() - 1);
+		}
+	}
+
+	function resetZoom() {
+		if (typeof zoomHeatmap === "function") {
+			zoomHeatmap();
+		}
 	}
 
-	function getBinnedData(eventTimes) {
-		const scale = d3.scaleTime().domain(d3.extent(eventTimes)).nice(); // ♥️♥️♥️
-		const timeRangeMs = scale.domain()[1] - scale.domain()[0];
-		const binFn = d3
-			.bin()
-			.domain(scale.domain())
-			.thresholds(timeRangeMs / 100);
-		return binFn(eventTimes);
+	function isSelected(i, current) {
+		return (
+			chart.dragStart >= 0 &&
+			i >= Math.min(chart.dragStart, current) &&
+			i <= Math.max(chart.dragStart, current)
+		);
 	}
 
 	function getChartConfig(binnedData) {
@@ -135,6 +153,7 @@ try {
 	}
 
 	function renderHeatmap(binnedData) {
+		d3.select("#heatmap").selectAll("*").remove();
 		if (!binnedData || binnedData.length < 2) {
 			d3.select("#heatmap").append("p").text("No data in current selection.");
 			return;
@@ -150,7 +169,9 @@ try {
 			height,
 		} = chartConfig;
 		const colorScale = getColorScale(binnedData);
-		const xDomain = range(0, numCols).map((val) => (val * 100) / 1000);
+		const binMs = chart.binMs;
+		const xDomain = range(0, numCols).map((val) => (val * binMs) / 1000);
+		const xPrecision = binMs >= 1000 ? 0 : binMs >= 100 ? 1 : binMs >= 10 ? 2 : 3;
 		const yDomain = [
 			d3.min(binnedData, (d) => d.x0),
 			d3.max(binnedData, (d) => d.x1),
@@ -180,7 +201,7 @@ try {
 					d3
 						.axisBottom(xScale)
 						.tickValues(xDomain.filter(xTickFilter))
-						.tickFormat((d) => `${d3.format(".1f")(d)} s`)
+						.tickFormat((d) => `${d3.format(`.${xPrecision}f`)(d)} s`)
 				)
 				.selectAll("text")
 				.attr("y", 0)
@@ -221,21 +242,39 @@ try {
 				.attr("height", cellSize)
 				.attr("width", cellSize)
 				.style("cursor", "pointer")
-				.on("mouseover", function () {
-					const target = d3.select(this);
-					target.attr("fill", "gold");
+				.on("mousedown", function (event, d) {
+					event.preventDefault();
+					chart.dragStart = binnedData.indexOf(d);
+				})
+				.on("mouseup", function (event, d) {
+					const dragEnd = binnedData.indexOf(d);
+					if (chart.dragStart >= 0 && chart.dragStart !== dragEnd) {
+						zoom(chart.dragStart, dragEnd);
+					}
+					chart.dragStart = -1;
+				})
+				.on("dblclick", resetZoom)
+				.on("mouseover", function (event, d) {
+					if (chart.dragStart < 0) {
+						d3.select(this).attr("fill", "gold");
+					} else {
+						const current = binnedData.indexOf(d);
+						g.selectAll("rect").attr("fill", (d, i) =>
+							isSelected(i, current) ? "gold" : colorScale(d.length)
+						);
+					}
 				})
 				.on("mouseout", function () {
-					const target = d3.select(this);
-					target.attr("fill", (d) => colorScale(d.length));
+					if (chart.dragStart < 0) {
+						const target = d3.select(this);
+						target.attr("fill", (d) => colorScale(d.length));
+					}
 				})
 				.append("title")
 				.text(
 					(d) => `${d3.timeFormat("%H:%M:%S.%L")(d.x0)} ${d.length} events`
 				);
 
-		d3.select("#heatmap").selectAll("*").remove();
-
 		const svg = d3
 			.select("#heatmap")
 			.append("svg")
@@ -258,7 +297,8 @@ try {
 			.append("text")
 			.text(
 				`This is a heatmap of ${eventCount} events recorded
-				between ${formatDate(yDomain[0])} and ${formatDate(yDomain[1])}.`
+				between ${formatDate(yDomain[0])} and ${formatDate(yDomain[1])}.
+				Drag across cells to zoom in, double-click to show all events.`
 			)
 			.attr("transform", `translate(${width / 2},${height + 75})`)
 			.attr("fill", "#777")
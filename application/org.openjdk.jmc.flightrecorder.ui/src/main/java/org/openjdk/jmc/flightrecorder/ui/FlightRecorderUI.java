@@ -131,15 +131,11 @@ public final class FlightRecorderUI extends MCAbstractUIPlugin {
 		}
 	}
 
-	public IQuantity getItemListSize() {
-		return parseItemListSize(getPreferenceStore().getString(PreferenceKeys.PROPERTY_ITEM_LIST_SIZE));
-	}
-
-	public static IQuantity parseItemListSize(String size) {
+	public static IQuantity parseNumber(String number, IQuantity defaultValue) {
 		try {
-			return UnitLookup.NUMBER.parsePersisted(size);
+			return UnitLookup.NUMBER.parsePersisted(number);
 		} catch (QuantityConversionException e) {
-			return PreferenceKeys.DEFAULT_ITEM_LIST_SIZE;
+			return defaultValue;
 		}
 	}
 
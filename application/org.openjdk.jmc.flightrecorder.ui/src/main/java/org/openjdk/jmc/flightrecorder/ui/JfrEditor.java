@@ -383,6 +383,9 @@ public class JfrEditor extends EditorPart implements INavigationLocationProvider
 
 	void repositoryLoaded(EventArrays repo, IRange<IQuantity> fullRange) {
 		if (!resultContainer.isDisposed()) {
+			if (items != null) {
+				items.getModelService().dispose();
+			}
 			items = new StreamModel(repo);
 			this.fullRange = fullRange;
 			try {
@@ -404,6 +407,9 @@ public class JfrEditor extends EditorPart implements INavigationLocationProvider
 	@Override
 	public void dispose() {
 		ruleEngine.dispose();
+		if (items != null) {
+			items.getModelService().dispose();
+		}
 		FlightRecorderUI.getDefault().getPreferenceStore().removePropertyChangeListener(analysisEnabledListener);
 		super.dispose();
 	}
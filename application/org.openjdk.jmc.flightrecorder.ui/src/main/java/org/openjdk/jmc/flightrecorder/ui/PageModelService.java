@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.ui;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import org.openjdk.jmc.common.IStateful;
+import org.openjdk.jmc.common.item.IItemFilter;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+import org.openjdk.jmc.common.util.StateToolkit;
+
+/**
+ * Computes models for the pages of a recording, such as histogram rows or trees, on a shared
+ * bounded pool of background threads.
+ * <p>
+ * Each computation is submitted for a slot, typically the viewer that will show the result. A new
+ * submission for the same slot cancels the previous one if nobody else is waiting for it. Results
+ * can be cached with a key built by {@link #key(Object, IRange, IItemFilter)}, so that returning to
+ * a page, range or filter that was recently shown does not recompute the model. Cached results are
+ * softly referenced and are released when memory is needed.
+ */
+public class PageModelService {
+
+	private static final int MAX_CACHED_MODELS = 128;
+	private static final int THREAD_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+	private static final ExecutorService EXECUTOR = createExecutor();
+
+	private final Map<Object, SoftReference<Object>> cache = new LinkedHashMap<Object, SoftReference<Object>>(16, 0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, SoftReference<Object>> eldest) {
+			return size() > MAX_CACHED_MODELS;
+		}
+	};
+	private final Map<Object, Computation<?>> running = new HashMap<>();
+	private final Map<Object, Computation<?>> bySlot = new HashMap<>();
+	private boolean disposed;
+
+	/**
+	 * A running computation and the number of slots waiting for its result.
+	 */
+	private static class Computation<T> {
+		final Object key;
+		final CompletableFuture<T> result = new CompletableFuture<>();
+		Future<?> task;
+		int waiting;
+
+		Computation(Object key) {
+			this.key = key;
+		}
+	}
+
+	private static class ModelKey {
+		private final Object component;
+		private final IRange<IQuantity> range;
+		private final Object filter;
+
+		ModelKey(Object component, IRange<IQuantity> range, Object filter) {
+			this.component = component;
+			this.range = range;
+			this.filter = filter;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(component, range, filter);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof ModelKey) {
+				ModelKey other = (ModelKey) obj;
+				return component.equals(other.component) && Objects.equals(range, other.range)
+						&& Objects.equals(filter, other.filter);
+			}
+			return false;
+		}
+	}
+
+	private static ExecutorService createExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread thread = new Thread(r, "Page Model Computation " + THREAD_NUMBER.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Log a failed computation. Meant to be used with {@link CompletableFuture#exceptionally}.
+	 * Cancelled computations are not logged, since they have been superseded.
+	 *
+	 * @param ex
+	 *            the failure
+	 * @return {@code null}
+	 */
+	public static Void logFailure(Throwable ex) {
+		if (!(ex instanceof CancellationException || ex.getCause() instanceof CancellationException)) {
+			FlightRecorderUI.getDefault().getLogger().log(Level.SEVERE, "Failed to compute page model", ex); //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	/**
+	 * Create a cache key for a model.
+	 *
+	 * @param component
+	 *            identifies what is computed, for example a page and table id
+	 * @param range
+	 *            the time range of the items the model is computed from, or {@code null} for all
+	 *            items
+	 * @param filter
+	 *            the filter applied to the items, or {@code null} if not filtered. Persistable
+	 *            filters that are equal in content give equal keys, other filters are compared by
+	 *            identity.
+	 * @return a key that can be used for {@link #compute(Object, Object, Supplier)}
+	 */
+	public static Object key(Object component, IRange<IQuantity> range, IItemFilter filter) {
+		Object filterKey = filter;
+		if (filter instanceof IStateful) {
+			try {
+				filterKey = StateToolkit.toXMLString((IStateful) filter);
+			} catch (RuntimeException e) {
+				// Fall back to identity
+			}
+		}
+		return new ModelKey(Objects.requireNonNull(component), range, filterKey);
+	}
+
+	/**
+	 * Compute a model in the background, or get it from the cache.
+	 *
+	 * @param slot
+	 *            the consumer of the result, a previous computation for the same slot is cancelled
+	 *            unless it is also waited for by another slot
+	 * @param key
+	 *            the cache key for the model, or {@code null} if the model should not be cached
+	 * @param modelBuilder
+	 *            builds the model, called on a background thread. Long running builders may check
+	 *            {@link Thread#isInterrupted()} and stop early when the computation is cancelled.
+	 * @return a future that is completed with the model, or cancelled if superseded
+	 */
+	public synchronized <T> CompletableFuture<T> compute(Object slot, Object key, Supplier<T> modelBuilder) {
+		release(bySlot.remove(slot));
+		if (key != null) {
+			SoftReference<Object> ref = cache.get(key);
+			Object cached = ref == null ? null : ref.get();
+			if (cached != null) {
+				@SuppressWarnings("unchecked")
+				T model = (T) cached;
+				return CompletableFuture.completedFuture(model);
+			}
+			@SuppressWarnings("unchecked")
+			Computation<T> existing = (Computation<T>) running.get(key);
+			if (existing != null) {
+				existing.waiting++;
+				bySlot.put(slot, existing);
+				return existing.result;
+			}
+		}
+		Computation<T> computation = new Computation<>(key);
+		computation.waiting = 1;
+		if (disposed) {
+			computation.result.cancel(false);
+			return computation.result;
+		}
+		if (key != null) {
+			running.put(key, computation);
+		}
+		bySlot.put(slot, computation);
+		computation.task = EXECUTOR.submit(() -> run(slot, computation, modelBuilder));
+		return computation.result;
+	}
+
+	private <T> void run(Object slot, Computation<T> computation, Supplier<T> modelBuilder) {
+		if (computation.result.isDone()) {
+			return;
+		}
+		try {
+			T model = modelBuilder.get();
+			synchronized (this) {
+				if (computation.key != null && running.remove(computation.key) == computation && model != null
+						&& !Thread.currentThread().isInterrupted()) {
+					cache.put(computation.key, new SoftReference<>(model));
+				}
+				bySlot.values().removeIf(c -> c == computation);
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				computation.result.completeExceptionally(new CancellationException());
+			} else {
+				computation.result.complete(model);
+			}
+		} catch (RuntimeException | Error e) {
+			synchronized (this) {
+				if (computation.key != null) {
+					running.remove(computation.key, computation);
+				}
+				bySlot.values().removeIf(c -> c == computation);
+			}
+			computation.result.completeExceptionally(e);
+		}
+	}
+
+	private void release(Computation<?> computation) {
+		if (computation != null && --computation.waiting == 0 && !computation.result.isDone()) {
+			if (computation.key != null) {
+				running.remove(computation.key, computation);
+			}
+			computation.result.cancel(false);
+			computation.task.cancel(true);
+		}
+	}
+
+	/**
+	 * Get a cached model. This is meant for model builders that first need to do some work in the
+	 * background to know the key of the model they build.
+	 *
+	 * @param key
+	 *            the cache key for the model
+	 * @return the cached model, or {@code null} if not cached
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> T getCached(Object key) {
+		SoftReference<Object> ref = cache.get(key);
+		return ref == null ? null : (T) ref.get();
+	}
+
+	/**
+	 * Cache a model built by a model builder, see {@link #getCached(Object)}. Nothing is cached if
+	 * the calling computation has been cancelled.
+	 *
+	 * @param key
+	 *            the cache key for the model
+	 * @param model
+	 *            the model to cache
+	 */
+	public synchronized void putCached(Object key, Object model) {
+		if (!disposed && model != null && !Thread.currentThread().isInterrupted()) {
+			cache.put(key, new SoftReference<>(model));
+		}
+	}
+
+	/**
+	 * Cancel any computation for a slot, for example when its viewer is disposed.
+	 *
+	 * @param slot
+	 *            the slot to cancel
+	 */
+	public synchronized void cancel(Object slot) {
+		release(bySlot.remove(slot));
+	}
+
+	/**
+	 * Cancel all computations and clear the cache. Called when the recording is closed.
+	 */
+	public synchronized void dispose() {
+		disposed = true;
+		for (Computation<?> computation : bySlot.values()) {
+			computation.waiting = 1;
+			release(computation);
+		}
+		bySlot.clear();
+		running.clear();
+		cache.clear();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -36,6 +36,7 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -64,6 +65,8 @@ public class StreamModel {
 	private final Set<IRange<IQuantity>> chunkRanges;
 	private final IItemCollection constantPools;
 	private final IItemCollection constants;
+	private final PageModelService modelService = new PageModelService();
+	private CompletableFuture<ThreadActivityIndex> threadActivityIndex;
 
 	StreamModel(EventArrays eventsByType) {
 		this.eventsByType = eventsByType.getArrays();
@@ -80,6 +83,25 @@ public class StreamModel {
 		return constants;
 	}
 
+	/**
+	 * @return the service used by pages to compute and cache models for this recording
+	 */
+	public PageModelService getModelService() {
+		return modelService;
+	}
+
+	/**
+	 * @return the index of the events of this recording by thread, built in the background on the
+	 *         first call
+	 */
+	public synchronized CompletableFuture<ThreadActivityIndex> getThreadActivityIndex() {
+		if (threadActivityIndex == null) {
+			threadActivityIndex = CompletableFuture
+					.supplyAsync(() -> ThreadActivityIndex.build(eventsByType, chunkRanges));
+		}
+		return threadActivityIndex;
+	}
+
 	public IItemCollection getItems(IRange<IQuantity> range, IItemFilter filter) {
 		IItemIterable[] rangedStreams = Stream.of(eventsByType).map(ea -> {
 			IType<IItem> eventType = ea.getType();
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.ui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemFilter;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemCollectionToolkit;
+import org.openjdk.jmc.common.item.ItemIterableToolkit;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IRange;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.common.util.PredicateToolkit;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.internal.EventArray;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+
+/**
+ * An index of the events of a recording by thread. It is built once per recording and lets the
+ * thread pages find the events and the lifespan of a thread without scanning the whole recording.
+ * Only events with a duration are indexed, since those are the ones shown in thread lanes, together
+ * with the thread start and end events that make up the lifespans.
+ * <p>
+ * The events of each thread are kept in primitive arrays of start time, end time and event type,
+ * sorted on start time, so that the events in a time range are found with binary searches. All
+ * times are in epoch nanoseconds.
+ */
+public class ThreadActivityIndex {
+
+	private static final int MAX_CACHED_FILTERS = 32;
+	private static final long[] NO_TIMES = new long[0];
+
+	private final IType<IItem>[] types;
+	private final Set<IRange<IQuantity>> chunkRanges;
+	private final Map<IMCThread, ThreadActivity> activityByThread;
+	private final Map<IItemFilter, Predicate<IItem>[]> typePredicates = new LinkedHashMap<IItemFilter, Predicate<IItem>[]>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IItemFilter, Predicate<IItem>[]> eldest) {
+			return size() > MAX_CACHED_FILTERS;
+		}
+	};
+
+	private static class ThreadActivity {
+		// Events sorted on start time
+		long[] starts;
+		long[] ends;
+		// The largest end time of the events up to and including each index
+		long[] maxEnds;
+		int[] types;
+		IItem[] items;
+		int size;
+		long[] threadStarts = NO_TIMES;
+		long[] threadEnds = NO_TIMES;
+
+		ThreadActivity() {
+			starts = new long[16];
+			ends = new long[16];
+			types = new int[16];
+			items = new IItem[16];
+		}
+
+		void add(long start, long end, int type, IItem item) {
+			if (size == starts.length) {
+				int capacity = size * 2;
+				starts = Arrays.copyOf(starts, capacity);
+				ends = Arrays.copyOf(ends, capacity);
+				types = Arrays.copyOf(types, capacity);
+				items = Arrays.copyOf(items, capacity);
+			}
+			starts[size] = start;
+			ends[size] = end;
+			types[size] = type;
+			items[size] = item;
+			size++;
+		}
+
+		void complete() {
+			starts = Arrays.copyOf(starts, size);
+			ends = Arrays.copyOf(ends, size);
+			types = Arrays.copyOf(types, size);
+			items = Arrays.copyOf(items, size);
+			sort(0, size - 1);
+			maxEnds = new long[size];
+			long maxEnd = Long.MIN_VALUE;
+			for (int i = 0; i < size; i++) {
+				maxEnd = Math.max(maxEnd, ends[i]);
+				maxEnds[i] = maxEnd;
+			}
+			Arrays.sort(threadStarts);
+			Arrays.sort(threadEnds);
+		}
+
+		/**
+		 * Quicksort of the parallel event arrays on start time. The events of each type are already
+		 * sorted, so the arrays are mostly made of sorted runs.
+		 */
+		private void sort(int low, int high) {
+			while (high - low > 16) {
+				int middle = (low + high) >>> 1;
+				long pivot = median(starts[low], starts[middle], starts[high]);
+				int i = low;
+				int j = high;
+				while (i <= j) {
+					while (starts[i] < pivot) {
+						i++;
+					}
+					while (starts[j] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						swap(i++, j--);
+					}
+				}
+				// Recurse into the smaller part to bound the stack depth
+				if (j - low < high - i) {
+					sort(low, j);
+					low = i;
+				} else {
+					sort(i, high);
+					high = j;
+				}
+			}
+			for (int i = low + 1; i <= high; i++) {
+				for (int j = i; j > low && starts[j - 1] > starts[j]; j--) {
+					swap(j - 1, j);
+				}
+			}
+		}
+
+		private static long median(long a, long b, long c) {
+			return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+		}
+
+		private void swap(int i, int j) {
+			long start = starts[i];
+			starts[i] = starts[j];
+			starts[j] = start;
+			long end = ends[i];
+			ends[i] = ends[j];
+			ends[j] = end;
+			int type = types[i];
+			types[i] = types[j];
+			types[j] = type;
+			IItem item = items[i];
+			items[i] = items[j];
+			items[j] = item;
+		}
+
+		/**
+		 * @return the index of the first event that may end at or after {@code time}
+		 */
+		int fromIndex(long time) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (maxEnds[middle] < time) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * @return the index after the last event that starts at or before {@code time}
+		 */
+		int toIndex(long time) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (starts[middle] <= time) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+
+	private ThreadActivityIndex(IType<IItem>[] types, Set<IRange<IQuantity>> chunkRanges,
+			Map<IMCThread, ThreadActivity> activityByThread) {
+		this.types = types;
+		this.chunkRanges = chunkRanges;
+		this.activityByThread = activityByThread;
+	}
+
+	/**
+	 * Builds the index for the events of a recording.
+	 *
+	 * @param eventsByType
+	 *            the events of a recording
+	 * @param chunkRanges
+	 *            the chunk ranges of the recording, used for the item collections returned by the
+	 *            index
+	 * @return a new index
+	 */
+	@SuppressWarnings("unchecked")
+	static ThreadActivityIndex build(EventArray[] eventsByType, Set<IRange<IQuantity>> chunkRanges) {
+		IType<IItem>[] types = new IType[eventsByType.length];
+		Map<IMCThread, ThreadActivity> activityByThread = new HashMap<>();
+		for (int typeIndex = 0; typeIndex < eventsByType.length; typeIndex++) {
+			IType<IItem> type = eventsByType[typeIndex].getType();
+			types[typeIndex] = type;
+			IMemberAccessor<IMCThread, IItem> threadAccessor = JfrAttributes.EVENT_THREAD.getAccessor(type);
+			IMemberAccessor<IQuantity, IItem> startAccessor = JfrAttributes.START_TIME.getAccessor(type);
+			IMemberAccessor<IQuantity, IItem> endAccessor = JfrAttributes.END_TIME.getAccessor(type);
+			boolean isThreadStart = JdkTypeIDs.JAVA_THREAD_START.equals(type.getIdentifier());
+			boolean isThreadEnd = JdkTypeIDs.JAVA_THREAD_END.equals(type.getIdentifier());
+			boolean hasDuration = startAccessor != endAccessor;
+			if (threadAccessor == null || startAccessor == null || endAccessor == null
+					|| !(hasDuration || isThreadStart || isThreadEnd)) {
+				continue;
+			}
+			for (IItem item : eventsByType[typeIndex].getEvents()) {
+				IMCThread thread = threadAccessor.getMember(item);
+				if (thread == null) {
+					continue;
+				}
+				long start = toEpochNanos(startAccessor.getMember(item));
+				long end = toEpochNanos(endAccessor.getMember(item));
+				ThreadActivity activity = activityByThread.computeIfAbsent(thread, t -> new ThreadActivity());
+				if (hasDuration) {
+					activity.add(start, end, typeIndex, item);
+				}
+				if (isThreadStart) {
+					activity.threadStarts = append(activity.threadStarts, start);
+				} else if (isThreadEnd) {
+					activity.threadEnds = append(activity.threadEnds, end);
+				}
+			}
+		}
+		activityByThread.values().forEach(ThreadActivity::complete);
+		return new ThreadActivityIndex(types, chunkRanges, activityByThread);
+	}
+
+	private static long toEpochNanos(IQuantity time) {
+		return time.clampedLongValueIn(UnitLookup.EPOCH_NS);
+	}
+
+	private static long[] append(long[] times, long time) {
+		long[] result = Arrays.copyOf(times, times.length + 1);
+		result[times.length] = time;
+		return result;
+	}
+
+	/**
+	 * @param thread
+	 *            a thread
+	 * @return the sorted start times of the thread start events of the thread
+	 */
+	public long[] getThreadStarts(IMCThread thread) {
+		ThreadActivity activity = activityByThread.get(thread);
+		return activity == null ? NO_TIMES : activity.threadStarts.clone();
+	}
+
+	/**
+	 * @param thread
+	 *            a thread
+	 * @return the sorted end times of the thread end events of the thread
+	 */
+	public long[] getThreadEnds(IMCThread thread) {
+		ThreadActivity activity = activityByThread.get(thread);
+		return activity == null ? NO_TIMES : activity.threadEnds.clone();
+	}
+
+	/**
+	 * Gets all events of a thread that match a filter.
+	 *
+	 * @param thread
+	 *            a thread
+	 * @param filter
+	 *            the filter to apply to the events
+	 * @return the matching events
+	 */
+	public IItemCollection getItems(IMCThread thread, IItemFilter filter) {
+		ThreadActivity activity = activityByThread.get(thread);
+		if (activity == null) {
+			return ItemCollectionToolkit.EMPTY;
+		}
+		return getItems(activity, 0, activity.size, Long.MIN_VALUE, filter);
+	}
+
+	/**
+	 * Gets the events of a thread that overlap a time range and match a filter.
+	 *
+	 * @param thread
+	 *            a thread
+	 * @param range
+	 *            the time range
+	 * @param filter
+	 *            the filter to apply to the events
+	 * @return the matching events
+	 */
+	public IItemCollection getItems(IMCThread thread, IRange<IQuantity> range, IItemFilter filter) {
+		ThreadActivity activity = activityByThread.get(thread);
+		if (activity == null) {
+			return ItemCollectionToolkit.EMPTY;
+		}
+		long rangeStart = toEpochNanos(range.getStart());
+		int from = activity.fromIndex(rangeStart);
+		int to = activity.toIndex(toEpochNanos(range.getEnd()));
+		return getItems(activity, from, to, rangeStart, filter);
+	}
+
+	private IItemCollection getItems(ThreadActivity activity, int from, int to, long minEnd, IItemFilter filter) {
+		Predicate<IItem>[] predicates = getTypePredicates(filter);
+		int[] counts = new int[types.length];
+		boolean[] matches = new boolean[to - from];
+		for (int i = from; i < to; i++) {
+			Predicate<IItem> predicate = predicates[activity.types[i]];
+			// Events before the range may still be included since the end times are not sorted
+			if (predicate != null && activity.ends[i] >= minEnd && predicate.test(activity.items[i])) {
+				matches[i - from] = true;
+				counts[activity.types[i]]++;
+			}
+		}
+		IItem[][] itemsByType = new IItem[types.length][];
+		int[] filled = new int[types.length];
+		for (int i = from; i < to; i++) {
+			if (matches[i - from]) {
+				int type = activity.types[i];
+				if (itemsByType[type] == null) {
+					itemsByType[type] = new IItem[counts[type]];
+				}
+				itemsByType[type][filled[type]++] = activity.items[i];
+			}
+		}
+		IItemIterable[] iterables = new IItemIterable[types.length];
+		int iterableCount = 0;
+		for (int type = 0; type < types.length; type++) {
+			if (itemsByType[type] != null) {
+				IItem[] typeItems = itemsByType[type];
+				iterables[iterableCount++] = ItemIterableToolkit.build(() -> Arrays.stream(typeItems), types[type]);
+			}
+		}
+		if (iterableCount == 0) {
+			return ItemCollectionToolkit.EMPTY;
+		}
+		IItemIterable[] result = Arrays.copyOf(iterables, iterableCount);
+		return ItemCollectionToolkit.build(() -> Arrays.stream(result), chunkRanges);
+	}
+
+	/**
+	 * @return the predicate of the filter for each type, or {@code null} for types where it can
+	 *         never match
+	 */
+	@SuppressWarnings("unchecked")
+	private Predicate<IItem>[] getTypePredicates(IItemFilter filter) {
+		synchronized (typePredicates) {
+			Predicate<IItem>[] predicates = typePredicates.get(filter);
+			if (predicates == null) {
+				predicates = new Predicate[types.length];
+				for (int i = 0; i < types.length; i++) {
+					Predicate<IItem> predicate = filter.getPredicate(types[i]);
+					predicates[i] = PredicateToolkit.isFalseGuaranteed(predicate) ? null : predicate;
+				}
+				typePredicates.put(filter, predicates);
+			}
+			return predicates;
+		}
+	}
+}
@@ -679,7 +679,7 @@ public class DataPageToolkit {
 		Iterator<? extends IItem> items, IType<IItem> type, IAttribute<IQuantity> xAttribute,
 		IMemberAccessor<? extends IQuantity, IItem> yAccessor) {
 		IMemberAccessor<IQuantity, IItem> xAccessor = xAttribute.getAccessor(type);
-		return QuantitySeries.all(items, xAccessor, yAccessor);
+		return QuantitySeries.decimated(items, xAccessor, yAccessor);
 	}
 
 	public static void createChartTooltip(ChartCanvas chart) {
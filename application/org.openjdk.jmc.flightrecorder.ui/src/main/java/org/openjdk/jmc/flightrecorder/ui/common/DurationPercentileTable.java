@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019, 2025, Red Hat Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -61,6 +61,7 @@ import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.Pair;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.ui.PageModelService;
 import org.openjdk.jmc.flightrecorder.ui.common.DurationHdrHistogram.DurationItemConsumer;
 import org.openjdk.jmc.flightrecorder.ui.messages.internal.Messages;
 import org.openjdk.jmc.ui.UIPlugin;
@@ -71,6 +72,7 @@ import org.openjdk.jmc.ui.column.IColumn;
 import org.openjdk.jmc.ui.column.TableSettings;
 import org.openjdk.jmc.ui.misc.BackgroundFractionDrawer;
 import org.openjdk.jmc.ui.misc.DelegatingLabelProvider;
+import org.openjdk.jmc.ui.misc.DisplayToolkit;
 import org.openjdk.jmc.ui.misc.OptimisticComparator;
 
 /**
@@ -199,14 +201,40 @@ public class DurationPercentileTable {
 	 *            a collection of events to use as input for this table
 	 */
 	public void update(IItemCollection itemCol) {
-		// Add the value of each aggregate to our data model
+		showRows(buildRows(itemCol));
+	}
+
+	/**
+	 * Updates the data in this table with events from the item collection, like
+	 * {@link #update(IItemCollection)}, but computes the percentiles in the background. An update
+	 * that has not finished yet is cancelled.
+	 *
+	 * @param itemCol
+	 *            a collection of events to use as input for this table
+	 * @param modelService
+	 *            the service to compute the percentiles with
+	 */
+	public void update(IItemCollection itemCol, PageModelService modelService) {
+		modelService.compute(this, null, () -> buildRows(itemCol))
+				.thenAcceptAsync(this::showRows, DisplayToolkit.inDisplayThread())
+				.exceptionally(PageModelService::logFailure);
+	}
+
+	private List<DurationPercentileTableRow> buildRows(IItemCollection itemCol) {
+		// Add the value of each aggregate to our data model. The aggregators are copied since their
+		// histograms are filled in, and a cancelled computation may still be running.
 		DurationPercentileTableModel model = new DurationPercentileTableModel(itemCol);
-		Arrays.stream(aggregators).parallel().forEach(model::addAggregate);
+		Arrays.stream(aggregators).map(DurationPercentileAggregator::copy).parallel().forEach(model::addAggregate);
+
+		// Build rows for each percentile
+		return model.buildRows();
+	}
 
-		// Build rows for each percentile and set in the table
-		List<DurationPercentileTableRow> rows = model.buildRows();
-		updateColumnVisibilty(rows.get(0));
-		manager.getViewer().setInput(rows);
+	private void showRows(List<DurationPercentileTableRow> rows) {
+		if (!manager.getViewer().getControl().isDisposed()) {
+			updateColumnVisibilty(rows.get(0));
+			manager.getViewer().setInput(rows);
+		}
 	}
 
 	private void updateColumnVisibilty(DurationPercentileTableRow row) {
@@ -303,6 +331,13 @@ public class DurationPercentileTable {
 			this.countColId = countColId;
 		}
 
+		/**
+		 * @return a new aggregator for the same series, with an empty histogram
+		 */
+		public DurationPercentileAggregator copy() {
+			return new DurationPercentileAggregator(typeId, durationColId, countColId);
+		}
+
 		@Override
 		public boolean acceptType(IType<IItem> type) {
 			if (typeId == null || type == null) {
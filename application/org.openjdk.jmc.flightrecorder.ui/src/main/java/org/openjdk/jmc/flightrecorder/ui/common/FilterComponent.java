@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -52,7 +52,6 @@ import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.forms.widgets.FormToolkit;
 import org.openjdk.jmc.common.IState;
 import org.openjdk.jmc.common.IWritableState;
-import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.IItemFilter;
 import org.openjdk.jmc.common.util.StateToolkit;
@@ -250,10 +249,7 @@ public class FilterComponent {
 	}
 
 	public void filterChangeHelper(IItemFilter filter, ItemList table, IItemCollection items) {
-		filterChangeHelper(filter, table::show, () -> {
-			Object input = table.getManager().getViewer().getInput();
-			return input instanceof IItem[] ? ((IItem[]) input).length : 0;
-		}, items);
+		filterChangeHelper(filter, table::show, table::getItemCount, items);
 	}
 
 	/**
@@ -34,31 +34,40 @@ package org.openjdk.jmc.flightrecorder.ui.common;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.IStructuredSelection;
-import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
-import org.eclipse.osgi.util.NLS;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
 import org.openjdk.jmc.common.collection.SimpleArray;
 import org.openjdk.jmc.common.item.IAttribute;
 import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
 import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.item.ItemToolkit;
 import org.openjdk.jmc.common.unit.LinearKindOfQuantity;
-import org.openjdk.jmc.common.util.SortedHead;
-import org.openjdk.jmc.flightrecorder.ui.FlightRecorderUI;
-import org.openjdk.jmc.flightrecorder.ui.messages.internal.Messages;
 import org.openjdk.jmc.ui.UIPlugin;
 import org.openjdk.jmc.ui.accessibility.FocusTracker;
 import org.openjdk.jmc.ui.column.ColumnBuilder;
@@ -67,7 +76,13 @@ import org.openjdk.jmc.ui.column.ColumnManager.ColumnComparator;
 import org.openjdk.jmc.ui.column.IColumn;
 import org.openjdk.jmc.ui.column.TableSettings;
 import org.openjdk.jmc.ui.handlers.MCContextMenuManager;
+import org.openjdk.jmc.ui.misc.DisplayToolkit;
 
+/**
+ * A virtual table showing all items it is given. Items are only pulled from the input when their
+ * rows become visible. Sorting and search filtering produce a permutation of row indices into the
+ * items, which is computed in the background for large inputs.
+ */
 public class ItemList {
 
 	public static class ItemListBuilder {
@@ -114,35 +129,41 @@ public class ItemList {
 		}
 	}
 
-	private final int maxSize = (int) FlightRecorderUI.getDefault().getItemListSize().longValue();
-	private final IItem[] maxSizeArray = new IItem[maxSize + 1];
-	private final ColumnManager columnManager;
-	// FIXME: JMC-5127 - Don't initialize to 1000 elements
-	private final SimpleArray<IItem> tail = new SimpleArray<>(new IItem[1000]);
+	/**
+	 * Inputs up to this size are sorted and filtered directly in the UI thread, avoiding a flicker
+	 * of unsorted rows.
+	 */
+	private static final int SYNC_ROW_LIMIT = 10_000;
+	private static final int CANCEL_CHECK_INTERVAL = 4096;
+	private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+	/*
+	 * A single thread is enough since a new sort or filter makes the previous one for the same list
+	 * obsolete, and obsolete tasks return at their next cancellation check. The queue is therefore
+	 * never longer than the number of item lists that were updated at about the same time.
+	 */
+	private static final ExecutorService SORTER = createSorter();
 
-	private ExtraRowTableViewer tableViewer;
+	private final ColumnManager columnManager;
+	private final ItemTableViewer tableViewer;
 	private MCContextMenuManager menuManager;
 
+	private LazyItems items = new LazyItems(new IItem[0]);
+	// Indices into items for the rows in display order, or null if all items are shown in input order
+	private int[] rows;
+	private int rowCount;
+	private ColumnComparator sortComparator;
+	// Incremented to make any ongoing background sort or filter obsolete
+	private volatile int generation;
+
 	private ItemList(Composite container, List<IColumn> columns, TableSettings tableSettings, int style) {
-		tableViewer = new ExtraRowTableViewer(container,
+		tableViewer = new ItemTableViewer(container,
 				SWT.MULTI | SWT.VIRTUAL | SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | style);
-		tableViewer.setContentProvider(ArrayContentProvider.getInstance());
+		tableViewer.setContentProvider(new LazyItemContentProvider());
 		ColumnViewerToolTipSupport.enableFor(tableViewer);
 		Consumer<ColumnComparator> onSortChange = comparator -> {
-			Object input = tableViewer.getInput();
-			if (input instanceof IItem[] && comparator != null) {
-				IItem[] head = (IItem[]) input;
-				if (tail.size() > 0) {
-					Iterator<IItem> oldTailIterator = tail.iterator();
-					tail.clear();
-					// addSorted will write to the array in tail, but not faster than it is read
-					SortedHead.addSorted(oldTailIterator, head, tail, comparator);
-				} else {
-					Arrays.sort(head, comparator);
-				}
-				tableViewer.refresh();
-				tableViewer.setSelection(StructuredSelection.EMPTY);
-			}
+			sortComparator = comparator;
+			tableViewer.getTable().deselectAll();
+			updateRows();
 		};
 		if (UIPlugin.getDefault().getAccessibilityMode()) {
 			FocusTracker.enableFocusTracking(tableViewer.getTable());
@@ -151,6 +172,17 @@ public class ItemList {
 		columnManager = ColumnManager.build(tableViewer, columns, tableSettings, onSortChange);
 	}
 
+	private static ExecutorService createSorter() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				r -> {
+					Thread thread = new Thread(r, "Item List Sorter " + THREAD_NUMBER.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
 	public ColumnManager getManager() {
 		return columnManager;
 	}
@@ -169,67 +201,311 @@ public class ItemList {
 		return () -> list.stream();
 	}
 
+	/**
+	 * @return the number of items shown, before search filtering
+	 */
+	public int getItemCount() {
+		return items.size;
+	}
+
+	/**
+	 * Select all rows. This materializes all items in the list.
+	 */
+	public void selectAll() {
+		tableViewer.selectAll();
+	}
+
+	/**
+	 * Show the items in a collection. The items are counted, but only pulled from the collection as
+	 * their rows become visible or when they are sorted or filtered.
+	 */
 	public void show(IItemCollection items) {
-		show(items.stream().flatMap(iterable -> iterable.stream()).iterator());
+		long count = 0;
+		for (IItemIterable iterable : items) {
+			count += iterable.getItemCount();
+		}
+		show(new LazyItems(items.iterator(), (int) Math.min(count, Integer.MAX_VALUE - 8)));
 	}
 
+	/**
+	 * Show the items of an iterator. Since the number of items is not known in advance, they are
+	 * all collected directly.
+	 */
 	public void show(Iterator<? extends IItem> it) {
-		boolean showEllipsisMessage = false;
-		int count = 0;
-
-		while (it.hasNext() && count < maxSizeArray.length - 1) {
-			maxSizeArray[count++] = it.next();
+		SimpleArray<IItem> collected = new SimpleArray<>(new IItem[1000]);
+		while (it.hasNext()) {
+			collected.add(it.next());
 		}
-		IItem[] head;
-		if (count < maxSizeArray.length) {
-			head = Arrays.copyOf(maxSizeArray, count);
+		show(new LazyItems(collected.elements()));
+	}
+
+	private void show(LazyItems newItems) {
+		generation++;
+		// FIXME: Remove and make table handle model updates with preserved selection.
+		// If selection is not cleared the viewer tries to preserve selection but selects the wrong rows.
+		tableViewer.getTable().deselectAll();
+		items = newItems;
+		rows = null;
+		rowCount = items.size;
+		tableViewer.setInput(items);
+		tableViewer.setItemCount(rowCount);
+		updateRows();
+	}
+
+	public void onSearchFilterChange() {
+		tableViewer.refresh();
+	}
+
+	/**
+	 * Recalculate the rows to show from the current items, search filters and sort order. Small
+	 * inputs are handled directly, larger ones in the background while the previous rows remain.
+	 */
+	private void updateRows() {
+		int gen = ++generation;
+		LazyItems items = this.items;
+		ViewerFilter[] filters = tableViewer.getFilters();
+		ColumnComparator comparator = sortComparator;
+		if (items.size == 0 || (filters.length == 0 && comparator == null)) {
+			tableViewer.showRows(null, items.size);
+		} else if (items.size <= SYNC_ROW_LIMIT) {
+			int[] newRows = computeRows(items, filters, comparator, () -> false);
+			tableViewer.showRows(newRows, newRows.length);
 		} else {
-			head = maxSizeArray;
-		}
-
-		ColumnComparator columnComparator = columnManager.getColumnComparator();
-		tail.clear();
-		if (it.hasNext()) {
-			showEllipsisMessage = true;
-			if (columnComparator != null) {
-				SortedHead.addSorted(it, head, tail, columnComparator);
-			} else {
-				while (it.hasNext()) {
-					tail.add(it.next());
-				}
+			BooleanSupplier cancelled = () -> gen != generation;
+			CompletableFuture.supplyAsync(() -> computeRows(items, filters, comparator, cancelled), SORTER)
+					.thenAcceptAsync(newRows -> {
+						if (newRows != null && gen == generation && !tableViewer.getTable().isDisposed()) {
+							tableViewer.showRows(newRows, newRows.length);
+						}
+					}, DisplayToolkit.inDisplayThread());
+		}
+	}
+
+	/**
+	 * @return the indices of the items that pass all filters, in sort order, or {@code null} if
+	 *         cancelled
+	 */
+	private int[] computeRows(
+		LazyItems input, ViewerFilter[] filters, ColumnComparator comparator, BooleanSupplier cancelled) {
+		IItem[] items = input.loadAll(cancelled);
+		if (items == null) {
+			return null;
+		}
+		int[] newRows = new int[items.length];
+		int count = 0;
+		for (int i = 0; i < items.length; i++) {
+			if (i % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+				return null;
+			}
+			if (items[i] != null && isSelected(filters, input, items[i])) {
+				newRows[count++] = i;
 			}
-		} else if (columnComparator != null) {
-			Arrays.sort(head, columnComparator);
 		}
-		if (showEllipsisMessage) {
-			setEllipsisMessage();
-		} else {
-			clearEllipsisMessage();
+		if (comparator != null && !RowOrder.sort(items, newRows, count, comparator, cancelled)) {
+			return null;
 		}
+		if (count < newRows.length) {
+			int[] trimmed = new int[count];
+			System.arraycopy(newRows, 0, trimmed, 0, count);
+			return trimmed;
+		}
+		return newRows;
+	}
 
-		// FIXME: Remove and make table handle model updates with preserved selection.
-		// If selection is not cleared the viewer tries to preserve selection but selects the wrong rows.
-		((TableViewer) columnManager.getViewer()).getTable().deselectAll();
-		columnManager.getViewer().setInput(head);
+	private boolean isSelected(ViewerFilter[] filters, Object input, IItem item) {
+		for (ViewerFilter filter : filters) {
+			if (!filter.select(tableViewer, input, item)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private IItem getRowItem(int row) {
+		return items.get(rows == null ? row : rows[row]);
 	}
 
-	private void setEllipsisMessage() {
-		// FIXME: Would like for this item to be displayed with a different font...
-		tableViewer.setExtraMessage(NLS.bind(Messages.ITEM_LIST_ELLIPSIS_TEXT, maxSize, maxSize + tail.size()));
+	/**
+	 * The items of an input. Items are pulled from the input iterators as far as they have been
+	 * requested, so that showing the first rows of a large collection does not walk all of it.
+	 * Access is synchronized since background sorting loads all items while the UI thread may
+	 * request rows.
+	 */
+	private static class LazyItems {
+
+		private static final int LOAD_CHUNK_SIZE = 16 * 1024;
+
+		final int size;
+		private final Iterator<IItemIterable> iterables;
+		private Iterator<? extends IItem> current = Collections.emptyIterator();
+		private IItem[] loaded;
+		private int loadedCount;
+
+		LazyItems(IItem[] items) {
+			size = items.length;
+			iterables = Collections.emptyIterator();
+			loaded = items;
+			loadedCount = items.length;
+		}
+
+		LazyItems(Iterator<IItemIterable> iterables, int size) {
+			this.size = size;
+			this.iterables = iterables;
+			loaded = new IItem[Math.min(size, 1024)];
+		}
+
+		/**
+		 * @return the item at an index, or {@code null} if the input turned out to have fewer items
+		 *         than it was counted to have
+		 */
+		synchronized IItem get(int index) {
+			load(index + 1);
+			return index < loadedCount ? loaded[index] : null;
+		}
+
+		synchronized int getLoadedCount() {
+			return loadedCount;
+		}
+
+		/**
+		 * Load all items in chunks, letting the UI thread get rows in between.
+		 *
+		 * @return all items, or {@code null} if cancelled
+		 */
+		IItem[] loadAll(BooleanSupplier cancelled) {
+			while (true) {
+				synchronized (this) {
+					if (loadedCount >= size || !load(loadedCount + LOAD_CHUNK_SIZE)) {
+						// All elements are set even if the input had fewer items than counted
+						return loaded.length == size ? loaded : (loaded = Arrays.copyOf(loaded, size));
+					}
+				}
+				if (cancelled.getAsBoolean()) {
+					return null;
+				}
+			}
+		}
+
+		/**
+		 * @return {@code false} if the input has no more items
+		 */
+		private boolean load(int count) {
+			count = Math.min(count, size);
+			if (count > loaded.length) {
+				loaded = Arrays.copyOf(loaded, (int) Math.min(size, Math.max(count, loaded.length * 2L)));
+			}
+			while (loadedCount < count) {
+				while (!current.hasNext()) {
+					if (!iterables.hasNext()) {
+						return false;
+					}
+					current = iterables.next().iterator();
+				}
+				loaded[loadedCount++] = current.next();
+			}
+			return true;
+		}
 	}
 
-	private void clearEllipsisMessage() {
-		tableViewer.setExtraMessage(null);
+	/**
+	 * Supplies the rows of the virtual table on demand. JFace does not apply viewer filters or
+	 * comparators to lazy content, that is handled by {@link ItemList#updateRows()}.
+	 */
+	private class LazyItemContentProvider implements ILazyContentProvider {
+
+		@Override
+		public void updateElement(int index) {
+			if (index < rowCount) {
+				IItem item = getRowItem(index);
+				if (item != null) {
+					tableViewer.replace(item, index);
+				}
+			}
+		}
+
+		@Override
+		public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		}
+
+		@Override
+		public void dispose() {
+		}
 	}
 
-	public void onSearchFilterChange() {
-		long numRows = tableViewer.getNumRowsDisplayed();
-		if (numRows < maxSize) {
-			clearEllipsisMessage();
-		} else {
-			setEllipsisMessage();
+	/**
+	 * A table viewer that maps selections between items and row indices without materializing the
+	 * rows, which the default lazy table viewer does for every selected row.
+	 */
+	private class ItemTableViewer extends TableViewer {
+
+		ItemTableViewer(Composite parent, int style) {
+			super(parent, style);
+		}
+
+		@Override
+		public void refresh() {
+			// Filters or columns may have changed
+			updateRows();
+		}
+
+		void selectAll() {
+			getTable().selectAll();
+			updateSelection(getSelection());
+		}
+
+		void showRows(int[] newRows, int newCount) {
+			preservingSelection(() -> {
+				rows = newRows;
+				rowCount = newCount;
+				setItemCount(newCount);
+				getTable().clearAll();
+			});
+		}
+
+		@Override
+		protected List<?> getSelectionFromWidget() {
+			int[] indices = getTable().getSelectionIndices();
+			List<IItem> selected = new ArrayList<>(indices.length);
+			for (int index : indices) {
+				if (index < rowCount) {
+					IItem item = getRowItem(index);
+					if (item != null) {
+						selected.add(item);
+					}
+				}
+			}
+			return selected;
+		}
+
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		@Override
+		protected void setSelectionToWidget(List list, boolean reveal) {
+			Table table = getTable();
+			if (list == null || list.isEmpty()) {
+				table.deselectAll();
+				return;
+			}
+			Set<Object> elements = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>(list.size()));
+			elements.addAll(list);
+			// Items that have not been loaded yet have never been shown, so they can not be selected
+			int searchCount = rows == null ? Math.min(rowCount, items.getLoadedCount()) : rowCount;
+			int[] indices = new int[Math.min(list.size(), searchCount)];
+			int count = 0;
+			for (int row = 0; row < searchCount && count < indices.length; row++) {
+				if (elements.contains(getRowItem(row))) {
+					indices[count++] = row;
+				}
+			}
+			if (count < indices.length) {
+				int[] trimmed = new int[count];
+				System.arraycopy(indices, 0, trimmed, 0, count);
+				indices = trimmed;
+			}
+			table.setSelection(indices);
+			if (reveal) {
+				table.showSelection();
+			}
 		}
-		tableViewer.refresh();
 	}
 
 	/**
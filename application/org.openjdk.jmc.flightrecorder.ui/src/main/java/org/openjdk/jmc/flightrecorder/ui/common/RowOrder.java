@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.ui.common;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntBinaryOperator;
+
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IUnit;
+import org.openjdk.jmc.ui.column.ColumnManager.ColumnComparator;
+import org.openjdk.jmc.ui.misc.OptimisticComparator;
+
+/**
+ * Sorts table rows given as indices into an item array. Quantity columns with a common unit are
+ * sorted on extracted primitive keys, other columns fall back to the column comparator. The sort is
+ * stable, so rows with equal keys keep their relative order.
+ */
+final class RowOrder {
+
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private RowOrder() {
+	}
+
+	/**
+	 * Sort a range of row indices.
+	 *
+	 * @param items
+	 *            the items that the row indices refer to
+	 * @param rows
+	 *            the row indices to sort in place
+	 * @param count
+	 *            the number of rows to sort, starting from the first row
+	 * @param comparator
+	 *            the column comparator that defines the order
+	 * @param cancelled
+	 *            checked between sort passes, the sort is abandoned when it returns {@code true}
+	 * @return {@code true} if the rows were sorted, {@code false} if the sort was cancelled
+	 */
+	static boolean sort(IItem[] items, int[] rows, int count, ColumnComparator comparator, BooleanSupplier cancelled) {
+		return sort(rows, count, createRowComparator(items, rows, count, comparator), cancelled);
+	}
+
+	private static IntBinaryOperator createRowComparator(
+		IItem[] items, int[] rows, int count, ColumnComparator comparator) {
+		IMemberAccessor<?, Object> cellAccessor = comparator.getColumn().getCellAccessor();
+		// The primitive keys only give the same order as the default comparator
+		if (cellAccessor == null || !(comparator.getColumn().getComparator() instanceof OptimisticComparator)) {
+			return (r1, r2) -> comparator.compare(items[r1], items[r2]);
+		}
+		IUnit unit = null;
+		boolean integral = true;
+		for (int i = 0; i < count; i++) {
+			Object cell = cellAccessor.getMember(items[rows[i]]);
+			if (!(cell instanceof IQuantity)) {
+				return (r1, r2) -> comparator.compare(items[r1], items[r2]);
+			}
+			IQuantity quantity = (IQuantity) cell;
+			if (unit == null) {
+				unit = quantity.getUnit();
+			} else if (!unit.equals(quantity.getUnit())) {
+				return (r1, r2) -> comparator.compare(items[r1], items[r2]);
+			}
+			Number number = quantity.numberValue();
+			integral &= number instanceof Long || number instanceof Integer;
+		}
+		int sign = comparator.isSortAscending() ? 1 : -1;
+		if (integral) {
+			long[] keys = new long[items.length];
+			for (int i = 0; i < count; i++) {
+				keys[rows[i]] = ((IQuantity) cellAccessor.getMember(items[rows[i]])).longValue();
+			}
+			return (r1, r2) -> sign * Long.compare(keys[r1], keys[r2]);
+		}
+		double[] keys = new double[items.length];
+		for (int i = 0; i < count; i++) {
+			keys[rows[i]] = ((IQuantity) cellAccessor.getMember(items[rows[i]])).doubleValue();
+		}
+		return (r1, r2) -> sign * Double.compare(keys[r1], keys[r2]);
+	}
+
+	/**
+	 * Bottom-up merge sort, with insertion sorted runs as the first pass.
+	 */
+	private static boolean sort(int[] rows, int count, IntBinaryOperator comparator, BooleanSupplier cancelled) {
+		for (int start = 0; start < count; start += INSERTION_SORT_THRESHOLD) {
+			int end = Math.min(start + INSERTION_SORT_THRESHOLD, count);
+			for (int i = start + 1; i < end; i++) {
+				int row = rows[i];
+				int j = i - 1;
+				while (j >= start && comparator.applyAsInt(rows[j], row) > 0) {
+					rows[j + 1] = rows[j];
+					j--;
+				}
+				rows[j + 1] = row;
+			}
+		}
+		int[] src = rows;
+		int[] dst = new int[count];
+		for (int width = INSERTION_SORT_THRESHOLD; width < count; width *= 2) {
+			if (cancelled.getAsBoolean()) {
+				return false;
+			}
+			for (int start = 0; start < count; start += 2 * width) {
+				int mid = Math.min(start + width, count);
+				int end = Math.min(start + 2 * width, count);
+				merge(src, dst, start, mid, end, comparator);
+			}
+			int[] tmp = src;
+			src = dst;
+			dst = tmp;
+		}
+		if (src != rows) {
+			System.arraycopy(src, 0, rows, 0, count);
+		}
+		return true;
+	}
+
+	private static void merge(int[] src, int[] dst, int start, int mid, int end, IntBinaryOperator comparator) {
+		int left = start;
+		int right = mid;
+		for (int i = start; i < end; i++) {
+			if (right >= end || (left < mid && comparator.applyAsInt(src[left], src[right]) <= 0)) {
+				dst[i] = src[left++];
+			} else {
+				dst[i] = src[right++];
+			}
+		}
+	}
+}
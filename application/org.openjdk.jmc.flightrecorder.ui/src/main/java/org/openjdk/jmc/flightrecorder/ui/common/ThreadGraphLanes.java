@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -38,6 +38,7 @@ import static org.openjdk.jmc.ui.charts.QuantitySpanRenderer.MISSING_START;
 import java.awt.Color;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -63,12 +64,14 @@ import org.openjdk.jmc.common.item.IItemIterable;
 import org.openjdk.jmc.common.item.ItemCollectionToolkit;
 import org.openjdk.jmc.common.item.ItemFilters;
 import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
 import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
 import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
 import org.openjdk.jmc.flightrecorder.ui.EventTypeFolderNode;
 import org.openjdk.jmc.flightrecorder.ui.FlightRecorderUI;
 import org.openjdk.jmc.flightrecorder.ui.StreamModel;
+import org.openjdk.jmc.flightrecorder.ui.ThreadActivityIndex;
 import org.openjdk.jmc.flightrecorder.ui.common.LaneEditor.LaneDefinition;
 import org.openjdk.jmc.flightrecorder.ui.messages.internal.Messages;
 import org.openjdk.jmc.ui.charts.IQuantitySeries;
@@ -102,6 +105,8 @@ public class ThreadGraphLanes {
 		this.actions = new ArrayList<>();
 		this.typeTree = dataSourceSupplier.get()
 				.getTypeTree(dataSourceSupplier.get().getItems().stream().filter(this::typeWithThreadAndDuration));
+		// Start building the index so that it is likely to be ready when the lanes are next rebuilt
+		dataSourceSupplier.get().getThreadActivityIndex();
 	}
 
 	protected EventTypeFolderNode getTypeTree() {
@@ -167,13 +172,32 @@ public class ThreadGraphLanes {
 	}
 
 	public IXDataRenderer buildThreadRenderer(Object thread, IItemCollection items) {
+		return buildThreadRenderer(thread, items, false);
+	}
+
+	/**
+	 * Builds the renderer for the lanes and the lifespan of a thread.
+	 *
+	 * @param thread
+	 *            the thread
+	 * @param items
+	 *            the items to show in the lanes of the thread
+	 * @param allThreadItems
+	 *            {@code true} if {@code items} are all the events of the thread in the recording,
+	 *            in which case the lanes can be taken from the thread activity index if it is ready
+	 * @return the thread renderer
+	 */
+	public IXDataRenderer buildThreadRenderer(Object thread, IItemCollection items, boolean allThreadItems) {
 		this.resetTooltipTitle();
+		ThreadActivityIndex index = thread instanceof IMCThread
+				? dataSourceSupplier.get().getThreadActivityIndex().getNow(null) : null;
 		String threadName = thread == null ? "" : ((IMCThread) thread).getThreadName(); //$NON-NLS-1$
 		// FIXME: Workaround since this method can be called from super class constructor. Refactor to avoid this.
 		List<LaneDefinition> laneFilters = this.laneDefs == null ? Collections.emptyList() : this.laneDefs;
 		List<IXDataRenderer> lanes = new ArrayList<>(laneFilters.size());
 		laneFilters.stream().filter(ld -> ld.isEnabled()).forEach(lane -> {
-			IItemCollection laneItems = items.apply(lane.getFilter());
+			IItemCollection laneItems = index != null && allThreadItems
+					? index.getItems((IMCThread) thread, lane.getFilter()) : items.apply(lane.getFilter());
 			if (laneItems.iterator().hasNext()) {
 				ISpanSeries<IItem> laneSeries = QuantitySeries.max(laneItems, JfrAttributes.START_TIME,
 						JfrAttributes.END_TIME);
@@ -186,15 +210,25 @@ public class ThreadGraphLanes {
 		});
 		IXDataRenderer renderer = !lanes.isEmpty() ? RendererToolkit.uniformRows(lanes)
 				: new ItemRow(RendererToolkit.empty(), ItemCollectionToolkit.EMPTY);
-		IItemCollection itemsAndThreadLifespan = addThreadLifeSpanEvents(thread, items);
+		IQuantitySeries<?> threadRanges;
+		if (index != null) {
+			threadRanges = threadRanges(threadName, toQuantities(index.getThreadStarts((IMCThread) thread)),
+					toQuantities(index.getThreadEnds((IMCThread) thread)));
+		} else {
+			threadRanges = threadRanges(threadName, addThreadLifeSpanEvents(thread, items));
+		}
 		// If the lane doesn't match a filter, display the Thread name as the tooltip title
 		if (this.getTooltipTitle() == null) {
 			this.setTooltipTitle(threadName);
 		} else {
 			this.resetTooltipTitle();
 		}
-		return new QuantitySpanRenderer(threadRanges(threadName, itemsAndThreadLifespan), renderer, THREAD_BG_COLOR, 10,
-				threadName, this.getTooltipTitle(), thread);
+		return new QuantitySpanRenderer(threadRanges, renderer, THREAD_BG_COLOR, 10, threadName, this.getTooltipTitle(),
+				thread);
+	}
+
+	private static Iterator<IQuantity> toQuantities(long[] epochNanos) {
+		return Arrays.stream(epochNanos).mapToObj(UnitLookup.EPOCH_NS::quantity).iterator();
 	}
 
 	private IItemCollection addThreadLifeSpanEvents(Object thread, final IItemCollection items) {
@@ -210,7 +244,10 @@ public class ThreadGraphLanes {
 		IItemCollection endEvents = items.apply(ItemFilters.type(JdkTypeIDs.JAVA_THREAD_END));
 		Iterator<IQuantity> start = startEvents.values(JfrAttributes.START_TIME).get().sorted().iterator();
 		Iterator<IQuantity> end = endEvents.values(JfrAttributes.END_TIME).get().sorted().iterator();
+		return threadRanges(threadName, start, end);
+	}
 
+	private IQuantitySeries<?> threadRanges(String threadName, Iterator<IQuantity> start, Iterator<IQuantity> end) {
 		ArrayList<IQuantity> startList = new ArrayList<>();
 		ArrayList<IQuantity> endList = new ArrayList<>();
 		IQuantity sq = start.hasNext() ? start.next() : MISSING_START;
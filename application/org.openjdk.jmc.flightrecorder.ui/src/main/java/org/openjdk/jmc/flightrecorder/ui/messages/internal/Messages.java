@@ -295,11 +295,6 @@ public class Messages extends NLS {
 	public static String ITEM_CHART_SHOW_IN_BAR_CHART;
 	public static String ITEM_CHART_SHOW_IN_LINE_CHART;
 	public static String ITEM_CHART_TIMELINE_SELECTION;
-	public static String ITEM_LIST_ELLIPSIS_TEXT;
-	public static String ITEM_LIST_SIZE_LESS_THAN_ZERO;
-	public static String ITEM_LIST_SIZE_PREF;
-	public static String ITEM_LIST_SIZE_PREF_TOOLTIP;
-	public static String ITEM_LIST_SIZE_UNPARSABLE;
 	public static String ItemHandlerPage_DEFAULT_PAGE_NAME;
 	public static String ItemHandlerPage_PAGE_EVENTS_COUNT_TOOLTIP;
 	public static String ItemHandlerPage_SET_TOPICS_ACTION;
@@ -209,9 +209,8 @@ abstract class ChartAndTableUI implements IPageUI {
 		this.timeRange = timeRange;
 		table.show(getItems());
 
-		Object[] tableInput = ((Object[]) table.getManager().getViewer().getInput());
-		if (selectionItems != null && tableInput != null) {
-			table.getManager().getViewer().setSelection(new StructuredSelection(tableInput));
+		if (selectionItems != null) {
+			table.selectAll();
 		} else {
 			table.getManager().getViewer().setSelection(null);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -437,7 +437,7 @@ public class ExceptionsPage extends AbstractDataPage {
 					yValues.add(yValueAccessor.getMember(item).subtract(first));
 				}
 			}
-			IQuantitySeries<?> adjustedStatsSeries = QuantitySeries.all(xValues, yValues);
+			IQuantitySeries<?> adjustedStatsSeries = QuantitySeries.decimated(xValues, yValues);
 			return adjustedStatsSeries;
 		}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -107,6 +107,7 @@ import org.openjdk.jmc.flightrecorder.ui.IDisplayablePage;
 import org.openjdk.jmc.flightrecorder.ui.IPageContainer;
 import org.openjdk.jmc.flightrecorder.ui.IPageDefinition;
 import org.openjdk.jmc.flightrecorder.ui.IPageUI;
+import org.openjdk.jmc.flightrecorder.ui.PageModelService;
 import org.openjdk.jmc.flightrecorder.ui.StreamModel;
 import org.openjdk.jmc.flightrecorder.ui.common.AbstractDataPage;
 import org.openjdk.jmc.flightrecorder.ui.common.BucketBuilder;
@@ -141,6 +142,7 @@ import org.openjdk.jmc.ui.handlers.ActionToolkit;
 import org.openjdk.jmc.ui.handlers.MCContextMenuManager;
 import org.openjdk.jmc.ui.misc.ActionUiToolkit;
 import org.openjdk.jmc.ui.misc.ChartCanvas;
+import org.openjdk.jmc.ui.misc.DisplayToolkit;
 import org.openjdk.jmc.ui.misc.PersistableSashForm;
 
 public class GarbageCollectionsPage extends AbstractDataPage {
@@ -179,6 +181,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 	private static final String PHASE_LIST = "phaseList"; //$NON-NLS-1$
 	private static final String METASPACE_LIST = "metaspaceList"; //$NON-NLS-1$
 	private static final String ACTIVITY_LANES_ID = "threadActivityLanes"; //$NON-NLS-1$
+	private static final String GC_TABLE_MODEL_ID = "GarbageCollections.Table"; //$NON-NLS-1$
 
 	private final static Color LONGEST_PAUSE_COLOR = DataPageToolkit.GC_BASE_COLOR.brighter();
 	private final static Color SUM_OF_PAUSES_COLOR = DataPageToolkit.GC_BASE_COLOR.brighter().brighter();
@@ -298,6 +301,8 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 		private ItemList phasesList;
 		private FilterComponent phasesFilter;
 		private ItemList metaspaceList;
+		// Selection to restore when the GC table has been computed
+		private SelectionState pendingGcListSelection;
 		private FilterComponent metaspaceFilter;
 		private Composite tenuringComposite;
 		private StackLayout tenuringLayout;
@@ -469,7 +474,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 			tableFilter.loadState(state.getChild(GC_TABLE_FILTER));
 			phasesFilter.loadState(state.getChild(PHASE_TABLE_FILTER));
 			metaspaceFilter.loadState(state.getChild(METASPACE_TABLE_FILTER));
-			gcList.setSelectionState(gcListSelection);
+			pendingGcListSelection = gcListSelection;
 			phasesList.getManager().setSelectionState(phasesSelection);
 			metaspaceList.getManager().setSelectionState(metaspaceSelection);
 			mm = (MCContextMenuManager) chartCanvas.getContextMenu();
@@ -549,11 +554,9 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 			IItemCollection items = selectionItems != null ? selectionItems : getDataSource().getItems();
 			items = items.apply(JdkFilters.GARBAGE_COLLECTION);
 			if (tableFilter.isVisible()) {
-				updateTable(ItemCollectionToolkit.filterIfNotNull(items, newFilter));
-				Object input = gcList.getViewer().getInput();
-				tableFilter.setColor(input instanceof Object[] && ((Object[]) input).length > 0 ? 1 : 0);
+				updateTable(ItemCollectionToolkit.filterIfNotNull(items, newFilter), newFilter);
 			} else {
-				updateTable(items);
+				updateTable(items, null);
 			}
 			tableFilterState = newFilter;
 		}
@@ -671,14 +674,48 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 		}
 
 		private void saveToLocal() {
-			gcListSelection = gcList.getSelectionState();
+			gcListSelection = pendingGcListSelection != null ? pendingGcListSelection : gcList.getSelectionState();
 			phasesSelection = phasesList.getManager().getSelectionState();
 			metaspaceSelection = metaspaceList.getManager().getSelectionState();
 			gcInfoTabSelection = gcInfoFolder.getSelectionIndex();
 			flavorSelectorState = flavorSelector.getFlavorSelectorState();
 		}
 
-		private void updateTable(IItemCollection gcs) {
+		/**
+		 * Compute the GC table rows in the background and show them.
+		 *
+		 * @param gcs
+		 *            the GC events to show
+		 * @param filter
+		 *            the table filter that has been applied to the events, or {@code null}
+		 */
+		private void updateTable(IItemCollection gcs, IItemFilter filter) {
+			// Only the rows for all GCs can be cached, other selections have no key
+			Object key = selectionItems == null ? PageModelService.key(GC_TABLE_MODEL_ID, null, filter) : null;
+			IItemCollection allItems = getDataSource().getItems();
+			getDataSource().getModelService().compute(gcList, key, () -> buildGcRows(gcs, allItems))
+					.thenAcceptAsync(this::showGcRows, DisplayToolkit.inDisplayThread())
+					.exceptionally(PageModelService::logFailure);
+		}
+
+		private void showGcRows(Object[] rows) {
+			if (gcList.getViewer().getControl().isDisposed()) {
+				return;
+			}
+			gcList.getViewer().setInput(rows);
+			if (tableFilter.isVisible()) {
+				tableFilter.setColor(rows.length > 0 ? 1 : 0);
+			}
+			if (pendingGcListSelection != null) {
+				gcList.setSelectionState(pendingGcListSelection);
+				pendingGcListSelection = null;
+			}
+		}
+
+		/**
+		 * Called in the background, so only uses its arguments.
+		 */
+		private Object[] buildGcRows(IItemCollection gcs, IItemCollection allItems) {
 			Map<Object, GC> gcMap = new HashMap<>();
 			gcs.forEach(is -> {
 				IMemberAccessor<IQuantity, IItem> gcIdAccessor = JdkAttributes.GC_ID.getAccessor(is.getType());
@@ -706,7 +743,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 					logDuplicateGcId(gcMap.put(gcIdAccessor.getMember(item), value));
 				});
 			});
-			IItemCollection refItems = getDataSource().getItems().apply(JdkFilters.REFERENCE_STATISTICS);
+			IItemCollection refItems = allItems.apply(JdkFilters.REFERENCE_STATISTICS);
 			refItems.forEach(is -> {
 				IMemberAccessor<IQuantity, IItem> gdIdAccessor = JdkAttributes.GC_ID.getAccessor(is.getType());
 				IMemberAccessor<String, IItem> typeAccessor = JdkAttributes.REFERENCE_STATISTICS_TYPE
@@ -720,7 +757,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 					}
 				});
 			});
-			IItemCollection heapItems = getDataSource().getItems().apply(JdkFilters.HEAP_SUMMARY);
+			IItemCollection heapItems = allItems.apply(JdkFilters.HEAP_SUMMARY);
 			heapItems.forEach(is -> {
 				IMemberAccessor<IQuantity, IItem> gcIdAccessor = JdkAttributes.GC_ID.getAccessor(is.getType());
 				IMemberAccessor<String, IItem> gcWhenAccessor = JdkAttributes.GC_WHEN.getAccessor(is.getType());
@@ -745,7 +782,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 				});
 			});
 
-			IItemCollection metaspaceItems = getDataSource().getItems().apply(JdkFilters.METASPACE_SUMMARY);
+			IItemCollection metaspaceItems = allItems.apply(JdkFilters.METASPACE_SUMMARY);
 			metaspaceItems.forEach(is -> {
 				IMemberAccessor<IQuantity, IItem> gcIdAccessor = JdkAttributes.GC_ID.getAccessor(is.getType());
 				IMemberAccessor<String, IItem> gcWhenAccessor = JdkAttributes.GC_WHEN.getAccessor(is.getType());
@@ -772,7 +809,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 					}
 				});
 			});
-			gcList.getViewer().setInput(gcMap.values().toArray());
+			return gcMap.values().toArray();
 		}
 
 		private void onShow(Boolean show) {
@@ -793,7 +830,7 @@ public class GarbageCollectionsPage extends AbstractDataPage {
 			this.currentRange = timeRange;
 			selectionItems = items;
 			IItemCollection gcs = items != null ? items : getDataSource().getItems();
-			updateTable(gcs.apply(JdkFilters.GARBAGE_COLLECTION));
+			updateTable(gcs.apply(JdkFilters.GARBAGE_COLLECTION), null);
 			updateChart();
 		}
 
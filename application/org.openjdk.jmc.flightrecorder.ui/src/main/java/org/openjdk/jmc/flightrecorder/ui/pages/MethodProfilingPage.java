@@ -35,6 +35,7 @@ package org.openjdk.jmc.flightrecorder.ui.pages;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.stream.Stream;
@@ -103,6 +104,7 @@ import org.openjdk.jmc.flightrecorder.ui.IDisplayablePage;
 import org.openjdk.jmc.flightrecorder.ui.IPageContainer;
 import org.openjdk.jmc.flightrecorder.ui.IPageDefinition;
 import org.openjdk.jmc.flightrecorder.ui.IPageUI;
+import org.openjdk.jmc.flightrecorder.ui.PageModelService;
 import org.openjdk.jmc.flightrecorder.ui.StreamModel;
 import org.openjdk.jmc.flightrecorder.ui.common.AbstractDataPage;
 import org.openjdk.jmc.flightrecorder.ui.common.DataPageToolkit;
@@ -133,6 +135,7 @@ public class MethodProfilingPage extends AbstractDataPage {
 	private static final String COUNT_IMG_KEY = "countColor"; //$NON-NLS-1$
 	private static final String SIBLINGS_IMG_KEY = "siblingsColor"; //$NON-NLS-1$
 	private static final String PERCENTAGE_COL_ID = "HotMethods.Percentage"; //$NON-NLS-1$
+	private static final String SUCCESSOR_MODEL_ID = "HotMethods.Successors:"; //$NON-NLS-1$
 	private static final Color SIBLINGS_COUNT_COLOR = SWTColorToolkit.getColor(new RGB(170, 250, 170));
 	private static final Color COUNT_COLOR = SWTColorToolkit.getColor(new RGB(100, 200, 100));
 
@@ -423,7 +426,7 @@ public class MethodProfilingPage extends AbstractDataPage {
 
 		private CompletableFuture<StacktraceModel> getModelPreparer(
 			StacktraceModel model, boolean materializeSelectedBranches) {
-			return CompletableFuture.supplyAsync(() -> {
+			return getDataSource().getModelService().compute(predecessorTree, null, () -> {
 				Fork root = model.getRootFork();
 				if (materializeSelectedBranches) {
 					Branch selectedBranch = getLastSelectedBranch(root);
@@ -436,32 +439,20 @@ public class MethodProfilingPage extends AbstractDataPage {
 		}
 
 		private CompletableFuture<SuccessorTreeModel> getSuccessorModelPreparer(IItemCollection items) {
-			return CompletableFuture.supplyAsync(() -> {
-				IItem execSample = null;
-				if (items.hasItems()) {
-					IItemIterable itemIterable = items.iterator().next();
-					if (itemIterable.hasItems()) {
-						execSample = itemIterable.iterator().next();
-					}
-				}
-				if (execSample == null) {
-					return null;
-				}
-				@SuppressWarnings("deprecation")
-				IMemberAccessor<IMCStackTrace, IItem> accessor = ItemToolkit.accessor(JfrAttributes.EVENT_STACKTRACE);
-				IMCStackTrace stackTrace = accessor.getMember(execSample);
-				String methodName = null;
-				String typeName = null;
-				if (stackTrace != null) {
-					if (!stackTrace.getFrames().isEmpty()) {
-						IMCFrame topFrame = stackTrace.getFrames().get(0);
-						methodName = topFrame.getMethod().getMethodName();
-						typeName = topFrame.getMethod().getType().getFullName();
-					}
-				}
+			PageModelService modelService = getDataSource().getModelService();
+			return modelService.compute(successorTree, null, () -> {
+				IMCFrame topFrame = getTopFrame(items);
+				String methodName = topFrame == null ? null : topFrame.getMethod().getMethodName();
+				String typeName = topFrame == null ? null : topFrame.getMethod().getType().getFullName();
 				if (methodName == null || typeName == null) {
 					return null;
 				}
+				// The successors only depend on the method, as they are calculated from all samples
+				Object key = PageModelService.key(SUCCESSOR_MODEL_ID + typeName + '#' + methodName, null, TABLE_ITEMS);
+				SuccessorTreeModel cached = modelService.getCached(key);
+				if (cached != null) {
+					return cached;
+				}
 				MethodFilter methodFilter = new JdkFilters.MethodFilter(typeName, methodName);
 				IItemCollection methodEvents = getDataSource().getItems()
 						.apply(ItemFilters.and(TABLE_ITEMS, methodFilter));
@@ -472,10 +463,31 @@ public class MethodProfilingPage extends AbstractDataPage {
 				}
 				SuccessorTreeModel model = new SuccessorTreeModel();
 				model.root = convertToSuccessorNode(model, null, successorRoot);
+				modelService.putCached(key, model);
 				return model;
 			});
 		}
 
+		private IMCFrame getTopFrame(IItemCollection items) {
+			IItem execSample = null;
+			if (items.hasItems()) {
+				IItemIterable itemIterable = items.iterator().next();
+				if (itemIterable.hasItems()) {
+					execSample = itemIterable.iterator().next();
+				}
+			}
+			if (execSample == null) {
+				return null;
+			}
+			@SuppressWarnings("deprecation")
+			IMemberAccessor<IMCStackTrace, IItem> accessor = ItemToolkit.accessor(JfrAttributes.EVENT_STACKTRACE);
+			IMCStackTrace stackTrace = accessor.getMember(execSample);
+			if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+				return null;
+			}
+			return stackTrace.getFrames().get(0);
+		}
+
 		// See JMC-6787
 		@SuppressWarnings("deprecation")
 		private Branch getLastSelectedBranch(Fork fromFork) {
@@ -504,6 +516,10 @@ public class MethodProfilingPage extends AbstractDataPage {
 	}
 
 	private static Void handleModelBuilException(Throwable ex) {
+		if (ex instanceof CancellationException || ex.getCause() instanceof CancellationException) {
+			// Superseded by a newer selection
+			return null;
+		}
 		FlightRecorderUI.getDefault().getLogger().log(Level.SEVERE, "Failed to build stacktrace view model", ex); //$NON-NLS-1$
 		return null;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -550,7 +550,7 @@ public class SocketIOPage extends AbstractDataPage {
 
 				itemList.show(selectedItems);
 				pageContainer.showSelection(selectedItems);
-				percentileTable.update(selectedItems);
+				percentileTable.update(selectedItems, getDataSource().getModelService());
 			}
 		}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -425,8 +425,9 @@ public class ThreadsPage extends AbstractDataPage {
 			boolean useDefaultSelection = rows.size() > 1;
 			if (lanes.getLaneDefinitions().stream().anyMatch(a -> a.isEnabled()) && selection.getRowCount() > 0) {
 				if (this.reloadThreads) {
+					boolean allItems = isShowingAllItems();
 					this.threadRows = selection
-							.getSelectedRows((object, items) -> lanes.buildThreadRenderer(object, items))
+							.getSelectedRows((object, items) -> lanes.buildThreadRenderer(object, items, allItems))
 							.collect(Collectors.toList());
 					chartCanvas.setNumItems(this.threadRows.size());
 					textCanvas.setNumItems(this.threadRows.size());
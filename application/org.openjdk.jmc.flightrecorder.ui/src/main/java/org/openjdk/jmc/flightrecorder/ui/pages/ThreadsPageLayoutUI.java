@@ -99,6 +99,7 @@ abstract class ThreadsPageLayoutUI extends ChartAndTableUI {
 	private Composite zoomPanContainer;
 	private ChartButtonGroup buttonGroup;
 	private IItemCollection selectionItems;
+	private boolean tableFiltered;
 	private IItemFilter pageFilter;
 	private IRange<IQuantity> timeRange;
 	protected SashForm canvasSash;
@@ -291,6 +292,7 @@ abstract class ThreadsPageLayoutUI extends ChartAndTableUI {
 
 	protected void onFilterChange(IItemFilter filter) {
 		IItemCollection items = getItems();
+		tableFiltered = tableFilterComponent.isVisible() && filter != null;
 		if (tableFilterComponent.isVisible()) {
 			table.show(items.apply(filter));
 			tableFilterComponent.setColor(table.getAllRows().getRowCount());
@@ -322,9 +324,8 @@ abstract class ThreadsPageLayoutUI extends ChartAndTableUI {
 		this.timeRange = timeRange;
 		table.show(getItems());
 
-		Object[] tableInput = ((Object[]) table.getManager().getViewer().getInput());
-		if (selectionItems != null && tableInput != null) {
-			table.getManager().getViewer().setSelection(new StructuredSelection(tableInput));
+		if (selectionItems != null) {
+			table.selectAll();
 		} else {
 			table.getManager().getViewer().setSelection(null);
 		}
@@ -340,6 +341,14 @@ abstract class ThreadsPageLayoutUI extends ChartAndTableUI {
 		textCanvas.replaceRenderer(rendererRoot);
 	}
 
+	/**
+	 * @return {@code true} if the table rows hold all the events of their threads, that is, neither
+	 *         a selection nor a table filter is applied
+	 */
+	protected boolean isShowingAllItems() {
+		return selectionItems == null && !tableFiltered;
+	}
+
 	private IItemCollection getItems() {
 		return selectionItems != null ? selectionItems.apply(pageFilter) : model.getItems().apply(pageFilter);
 	}
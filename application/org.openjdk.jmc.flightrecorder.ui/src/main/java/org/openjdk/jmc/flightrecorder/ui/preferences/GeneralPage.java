@@ -90,7 +90,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 
 	private Text timespanValue;
 	private Text selectionStoreValue;
-	private Text itemListValue;
 	private Text propertiesArrayStringSizeValue;
 	private Text editorRuleEvaluationThreadsValue;
 
@@ -147,14 +146,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 		selectionStoreValue.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
 		QuantityKindProposal.install(selectionStoreValue, UnitLookup.NUMBER);
 
-		Label itemListLabel = new Label(defaultTimespanContainer, SWT.NONE);
-		itemListLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
-		itemListLabel.setText(Messages.ITEM_LIST_SIZE_PREF);
-		itemListLabel.setToolTipText(Messages.ITEM_LIST_SIZE_PREF_TOOLTIP);
-		itemListValue = new Text(defaultTimespanContainer, SWT.BORDER);
-		itemListValue.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, true, false));
-		QuantityKindProposal.install(itemListValue, UnitLookup.NUMBER);
-
 		Label propertiesArrayStringSizeLabel = new Label(defaultTimespanContainer, SWT.NONE);
 		propertiesArrayStringSizeLabel.setLayoutData(new GridData(SWT.FILL, SWT.CENTER, false, false));
 		propertiesArrayStringSizeLabel.setText(Messages.PREFERENCES_PROPERTIES_ARRAY_STRING_SIZE_TEXT);
@@ -174,7 +165,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 		loadDumpTypeFromPrefStore(false);
 		loadTimespanFromPrefStore(false);
 		loadSelectionStoreSizeFromPrefStore(false);
-		loadItemListSizeFromPrefStore(false);
 		loadPropertiesArrayStringSizeFromPrefStore(false);
 		loadEditorRuleEvaluationThreadsFromPrefStore(false);
 		timespanValue.addModifyListener(new ModifyListener() {
@@ -189,12 +179,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 				validatePage();
 			}
 		});
-		itemListValue.addModifyListener(new ModifyListener() {
-			@Override
-			public void modifyText(ModifyEvent e) {
-				validatePage();
-			}
-		});
 		propertiesArrayStringSizeValue.addModifyListener(new ModifyListener() {
 			@Override
 			public void modifyText(ModifyEvent e) {
@@ -215,19 +199,15 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 		String error = validateSelectionStoreSize(selectionStoreValue.getText());
 		setErrorMessage(error);
 
-		String error2 = validateItemListSize(selectionStoreValue.getText());
+		String error2 = FlightRecorderUI.validateDumpTimespan(timespanValue.getText());
 		if (error == null) {
 			setErrorMessage(error2);
 		}
-		String error3 = FlightRecorderUI.validateDumpTimespan(timespanValue.getText());
+		String error3 = validateNumEvaluationThreads(editorRuleEvaluationThreadsValue.getText());
 		if (error == null && error2 == null) {
 			setErrorMessage(error3);
 		}
-		String error4 = validateNumEvaluationThreads(editorRuleEvaluationThreadsValue.getText());
-		if (error == null && error2 == null && error3 == null) {
-			setErrorMessage(error4);
-		}
-		setValid(error == null && error2 == null && error3 == null && error4 == null);
+		setValid(error == null && error2 == null && error3 == null);
 	}
 
 	public static String validateNumEvaluationThreads(String text) {
@@ -254,18 +234,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 		return null;
 	}
 
-	public static String validateItemListSize(String text) {
-		try {
-			IQuantity size = UnitLookup.NUMBER.parseInteractive(text);
-			if (size.longValue() <= 0) {
-				return Messages.ITEM_LIST_SIZE_LESS_THAN_ZERO;
-			}
-		} catch (QuantityConversionException qce) {
-			return NLS.bind(Messages.ITEM_LIST_SIZE_UNPARSABLE, qce.getLocalizedMessage());
-		}
-		return null;
-	}
-
 	private void loadDumpTypeFromPrefStore(boolean loadDefault) {
 		int dumpType = loadDefault ? getPreferenceStore().getDefaultInt(PreferenceKeys.PROPERTY_DEFAULT_DUMP_TYPE)
 				: getPreferenceStore().getInt(PreferenceKeys.PROPERTY_DEFAULT_DUMP_TYPE);
@@ -287,24 +255,20 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 		selectionStoreValue.setText(FlightRecorderUI.parseSelectionStoreSize(size).interactiveFormat());
 	}
 
-	private void loadItemListSizeFromPrefStore(boolean loadDefault) {
-		String size = loadDefault ? getPreferenceStore().getDefaultString(PreferenceKeys.PROPERTY_ITEM_LIST_SIZE)
-				: getPreferenceStore().getString(PreferenceKeys.PROPERTY_ITEM_LIST_SIZE);
-		itemListValue.setText(FlightRecorderUI.parseItemListSize(size).interactiveFormat());
-	}
-
 	private void loadPropertiesArrayStringSizeFromPrefStore(boolean loadDefault) {
 		String size = loadDefault
 				? getPreferenceStore().getDefaultString(PreferenceKeys.PROPERTY_MAXIMUM_PROPERTIES_ARRAY_STRING_SIZE)
 				: getPreferenceStore().getString(PreferenceKeys.PROPERTY_MAXIMUM_PROPERTIES_ARRAY_STRING_SIZE);
-		propertiesArrayStringSizeValue.setText(FlightRecorderUI.parseItemListSize(size).interactiveFormat());
+		propertiesArrayStringSizeValue.setText(FlightRecorderUI
+				.parseNumber(size, PreferenceKeys.DEFAULT_PROPERTIES_ARRAY_STRING_SIZE).interactiveFormat());
 	}
 
 	private void loadEditorRuleEvaluationThreadsFromPrefStore(boolean loadDefault) {
 		String size = loadDefault
 				? getPreferenceStore().getDefaultString(PreferenceKeys.PROPERTY_NUM_EDITOR_RULE_EVALUATION_THREADS)
 				: getPreferenceStore().getString(PreferenceKeys.PROPERTY_NUM_EDITOR_RULE_EVALUATION_THREADS);
-		editorRuleEvaluationThreadsValue.setText(FlightRecorderUI.parseItemListSize(size).interactiveFormat());
+		editorRuleEvaluationThreadsValue.setText(FlightRecorderUI
+				.parseNumber(size, PreferenceKeys.DEFAULT_NUM_EDITOR_RULE_EVALUATION_THREADS).interactiveFormat());
 	}
 
 	private Button createRemoveRecordingsCheckBox(Composite parent) {
@@ -350,7 +314,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 		loadDumpTypeFromPrefStore(true);
 		loadTimespanFromPrefStore(true);
 		loadSelectionStoreSizeFromPrefStore(true);
-		loadItemListSizeFromPrefStore(true);
 		loadPropertiesArrayStringSizeFromPrefStore(true);
 		loadEditorRuleEvaluationThreadsFromPrefStore(true);
 		super.performDefaults();
@@ -380,13 +343,6 @@ public class GeneralPage extends PreferencePage implements IWorkbenchPreferenceP
 			setErrorMessage(qce.getLocalizedMessage());
 			return false;
 		}
-		try {
-			IQuantity size = UnitLookup.NUMBER.parseInteractive(itemListValue.getText());
-			getPreferenceStore().setValue(PreferenceKeys.PROPERTY_ITEM_LIST_SIZE, size.persistableString());
-		} catch (QuantityConversionException qce) {
-			setErrorMessage(qce.getLocalizedMessage());
-			return false;
-		}
 		try {
 			IQuantity size = UnitLookup.NUMBER.parseInteractive(propertiesArrayStringSizeValue.getText());
 			getPreferenceStore().setValue(PreferenceKeys.PROPERTY_MAXIMUM_PROPERTIES_ARRAY_STRING_SIZE,
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -57,8 +57,6 @@ public class Initializer extends AbstractPreferenceInitializer {
 
 		store.setDefault(PreferenceKeys.PROPERTY_SELECTION_STORE_SIZE,
 				PreferenceKeys.DEFAULT_SELECTION_STORE_SIZE.persistableString());
-		store.setDefault(PreferenceKeys.PROPERTY_ITEM_LIST_SIZE,
-				PreferenceKeys.DEFAULT_ITEM_LIST_SIZE.persistableString());
 
 		store.setDefault(PreferenceKeys.PROPERTY_MAXIMUM_PROPERTIES_ARRAY_STRING_SIZE,
 				PreferenceKeys.DEFAULT_PROPERTIES_ARRAY_STRING_SIZE.persistableString());
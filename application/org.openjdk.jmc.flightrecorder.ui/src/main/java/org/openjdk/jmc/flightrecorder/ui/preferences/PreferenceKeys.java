@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -59,9 +59,6 @@ public class PreferenceKeys {
 	public static final String PROPERTY_SELECTION_STORE_SIZE = "flightrecorder.selectionstore.size"; //$NON-NLS-1$
 	public static final IQuantity DEFAULT_SELECTION_STORE_SIZE = UnitLookup.NUMBER_UNITY.quantity(10);
 
-	public static final String PROPERTY_ITEM_LIST_SIZE = "flightrecorder.itemlist.size"; //$NON-NLS-1$
-	public static final IQuantity DEFAULT_ITEM_LIST_SIZE = UnitLookup.NUMBER_UNITY.quantity(10_000);
-
 	public static final String PROPERTY_MAXIMUM_PROPERTIES_ARRAY_STRING_SIZE = "flightrecorder.properties.array.string.size"; //$NON-NLS-1$
 	public static final IQuantity DEFAULT_PROPERTIES_ARRAY_STRING_SIZE = UnitLookup.NUMBER_UNITY.quantity(200);
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -193,7 +193,10 @@ public final class SubsamplingProvider extends AbstractOptimizingProvider {
 	}
 
 	private AbstractSampler createSampleBuffer(int width) {
-		Iterator<IXYData<Long, Number>> it = m_dataSeries.createIterator(m_requestedStartX, m_requestedEndX);
+		// Integration needs every sample, while subsampling only needs as many samples as the width
+		Iterator<IXYData<Long, Number>> it = isIntegrate()
+				? m_dataSeries.createIterator(m_requestedStartX, m_requestedEndX)
+				: m_dataSeries.createIterator(m_requestedStartX, m_requestedEndX, width);
 		if (!it.hasNext()) {
 			return isIntegrate() ? new IntegratingSubsamplingBuffer(0) : new SubsamplingBuffer(0);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,12 +32,16 @@
  */
 package org.openjdk.jmc.rjmx.persistence.internal;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.openjdk.jmc.common.io.IOToolkit;
@@ -58,6 +62,10 @@ class AttributeWriter implements IMRIValueListener {
 	private boolean isEnabled;
 	private Boolean isRunning;
 	private long maxFileSize;
+	// Values are written a block at a time
+	private final long[] pendingTimestamps = new long[BlockPersistenceFile.BLOCK_SIZE];
+	private final double[] pendingValues = new double[BlockPersistenceFile.BLOCK_SIZE];
+	private int pendingCount;
 
 	AttributeWriter(MRI mri, File persistenceDir, long maxFileSize) {
 		this.mri = mri;
@@ -65,6 +73,34 @@ class AttributeWriter implements IMRIValueListener {
 		setPersistenceDir(persistenceDir);
 	}
 
+	/**
+	 * Read the start times of the series of an attribute.
+	 *
+	 * @param attributeDir
+	 *            the directory with the files of the attribute
+	 * @return the start times in epoch ns, in the order they were written
+	 * @throws IOException
+	 *             if the series file could not be read
+	 */
+	static List<Long> readSeriesStarts(File attributeDir) throws IOException {
+		List<Long> seriesStarts = new ArrayList<>();
+		try (DataInputStream seriesFileStream = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(new File(attributeDir, SERIES_FILE_NAME))))) {
+			while (seriesFileStream.available() > 0) {
+				seriesStarts.add(seriesFileStream.readLong());
+			}
+		}
+		return seriesStarts;
+	}
+
+	synchronized File getPersistenceDir() {
+		return dir;
+	}
+
+	synchronized File getCurrentFile() {
+		return currentFile;
+	}
+
 	synchronized void setMaxFileSize(long maxFileSize) {
 		this.maxFileSize = maxFileSize;
 	}
@@ -73,6 +109,9 @@ class AttributeWriter implements IMRIValueListener {
 		persistenceDir = new File(persistenceDir, StringToolkit.encodeFilename(mri.getQualifiedName()));
 		if (!persistenceDir.equals(dir)) {
 			// Directory changed
+			if (dir != null) {
+				writePendingBlock();
+			}
 			dir = persistenceDir;
 			IOToolkit.closeSilently(currentFileStream);
 			currentFileStream = null;
@@ -83,7 +122,7 @@ class AttributeWriter implements IMRIValueListener {
 				if (listFiles != null) {
 					for (File f : listFiles) {
 						try {
-							PersistenceFile pfr = new PersistenceFile(f);
+							PersistenceFile pfr = PersistenceFile.open(f);
 							if (!pfr.isCorrupt()) {
 								existingFiles.add(pfr);
 							}
@@ -93,7 +132,8 @@ class AttributeWriter implements IMRIValueListener {
 					}
 				}
 				existingFiles.sort(PersistenceFile.PERSISTENCE_FILE_START_COMPARATOR);
-				if (existingFiles.size() > 0) {
+				// Only continue writing to the latest file if it is in the current format
+				if (existingFiles.size() > 0 && existingFiles.get(existingFiles.size() - 1).isAppendable()) {
 					currentFile = existingFiles.get(existingFiles.size() - 1).file;
 					currentFileSize = currentFile.length();
 				}
@@ -118,6 +158,7 @@ class AttributeWriter implements IMRIValueListener {
 
 	synchronized void stop() {
 		isRunning = false;
+		writePendingBlock();
 		IOToolkit.closeSilently(currentFileStream);
 		currentFileStream = null;
 	}
@@ -145,19 +186,33 @@ class AttributeWriter implements IMRIValueListener {
 					return;
 				}
 			}
+			pendingTimestamps[pendingCount] = timestamp;
+			pendingValues[pendingCount] = value;
+			pendingCount++;
+			if (pendingCount == pendingTimestamps.length) {
+				writePendingBlock();
+			}
+		}
+	}
+
+	private void writePendingBlock() {
+		if (pendingCount == 0) {
+			return;
+		}
+		byte[] block = BlockPersistenceFile.encodeBlock(pendingTimestamps, pendingValues, pendingCount);
+		pendingCount = 0;
+		try {
+			ensureWriter(block.length);
+			doWrite(block);
+		} catch (IOException e) {
 			try {
-				ensureWriter();
-				doWrite(timestamp, value);
-			} catch (IOException e) {
-				try {
-					createNewWriter();
-					doWrite(timestamp, value);
-				} catch (IOException e1) {
-					IOToolkit.closeSilently(currentFileStream);
-					currentFileStream = null;
-					currentFile = null;
-					RJMXPlugin.getDefault().getLogger().log(Level.WARNING, "Failed to write event", e1); //$NON-NLS-1$
-				}
+				createNewWriter();
+				doWrite(block);
+			} catch (IOException e1) {
+				IOToolkit.closeSilently(currentFileStream);
+				currentFileStream = null;
+				currentFile = null;
+				RJMXPlugin.getDefault().getLogger().log(Level.WARNING, "Failed to write events", e1); //$NON-NLS-1$
 			}
 		}
 	}
@@ -175,14 +230,13 @@ class AttributeWriter implements IMRIValueListener {
 		}
 	}
 
-	private void doWrite(long timestamp, double value) throws IOException {
-		currentFileStream.writeLong(timestamp);
-		currentFileStream.writeDouble(value);
-		currentFileSize += PersistenceFile.EVENT_SIZE;
+	private void doWrite(byte[] block) throws IOException {
+		currentFileStream.write(block);
+		currentFileSize += block.length;
 	}
 
-	private void ensureWriter() throws IOException {
-		if (currentFileSize + PersistenceFile.EVENT_SIZE > maxFileSize) {
+	private void ensureWriter(int blockSize) throws IOException {
+		if (currentFileSize + blockSize > maxFileSize) {
 			createNewWriter();
 		} else if (currentFileStream == null) {
 			if (currentFile != null) {
@@ -199,11 +253,11 @@ class AttributeWriter implements IMRIValueListener {
 		currentFileStream = null;
 		File file;
 		do {
-			String fileName = "values_" + System.currentTimeMillis() + PersistenceFile.FILE_EXT; //$NON-NLS-1$
+			String fileName = "values_" + System.currentTimeMillis() + PersistenceFile.BLOCK_FILE_EXT; //$NON-NLS-1$
 			file = new File(dir, fileName);
 		} while (file.exists());
 		currentFileStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
-		currentFileStream.writeUTF(mri.getQualifiedName());
+		BlockPersistenceFile.writeFileHeader(currentFileStream, mri);
 		currentFileStream.flush();
 		currentFileSize = file.length();
 		currentFile = file;
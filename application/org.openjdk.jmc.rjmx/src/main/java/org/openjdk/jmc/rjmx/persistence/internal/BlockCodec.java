@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.persistence.internal;
+
+import org.openjdk.jmc.common.xydata.DefaultTimestampedData;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+
+/**
+ * Compresses blocks of timestamped values in the style of the Gorilla time series database.
+ * Timestamps are stored as the difference between consecutive deltas, which is mostly a few bits
+ * for regularly sampled values. Values are stored as the XOR with the previous value, omitting the
+ * leading and trailing zero bits, which is only a few bits for slowly changing values.
+ */
+final class BlockCodec {
+
+	/**
+	 * Flag set if all timestamps in the block are whole milliseconds, and are stored in
+	 * milliseconds.
+	 */
+	static final int FLAG_MILLISECOND_TIMESTAMPS = 1;
+
+	private static final long NANOS_PER_MILLISECOND = 1000 * 1000L;
+
+	private BlockCodec() {
+		// Not to be instantiated
+	}
+
+	/**
+	 * Encoded block data.
+	 */
+	static class EncodedBlock {
+		final int flags;
+		final byte[] data;
+		final int length;
+
+		EncodedBlock(int flags, byte[] data, int length) {
+			this.flags = flags;
+			this.data = data;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Encode timestamps and values.
+	 *
+	 * @param timestamps
+	 *            timestamps in epoch ns
+	 * @param values
+	 *            values
+	 * @param count
+	 *            the number of timestamps and values to encode, at least one
+	 * @return the encoded block
+	 */
+	static EncodedBlock encode(long[] timestamps, double[] values, int count) {
+		int flags = FLAG_MILLISECOND_TIMESTAMPS;
+		for (int i = 0; i < count; i++) {
+			if (timestamps[i] % NANOS_PER_MILLISECOND != 0) {
+				flags = 0;
+				break;
+			}
+		}
+		long divisor = (flags & FLAG_MILLISECOND_TIMESTAMPS) != 0 ? NANOS_PER_MILLISECOND : 1;
+		BitWriter out = new BitWriter(count * 4 + 16);
+		long previousTimestamp = timestamps[0] / divisor;
+		long previousDelta = 0;
+		long previousBits = Double.doubleToRawLongBits(values[0]);
+		int previousLeading = -1;
+		int previousTrailing = 0;
+		out.write(previousTimestamp, 64);
+		out.write(previousBits, 64);
+		for (int i = 1; i < count; i++) {
+			long timestamp = timestamps[i] / divisor;
+			long delta = timestamp - previousTimestamp;
+			writeDeltaOfDelta(out, delta - previousDelta);
+			previousTimestamp = timestamp;
+			previousDelta = delta;
+
+			long bits = Double.doubleToRawLongBits(values[i]);
+			long xor = bits ^ previousBits;
+			previousBits = bits;
+			if (xor == 0) {
+				out.write(0, 1);
+				continue;
+			}
+			out.write(1, 1);
+			int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+			int trailing = Long.numberOfTrailingZeros(xor);
+			if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+				// The meaningful bits fit in the window of the previous value
+				out.write(0, 1);
+				out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+			} else {
+				int significant = 64 - leading - trailing;
+				out.write(1, 1);
+				out.write(leading, 5);
+				out.write(significant - 1, 6);
+				out.write(xor >>> trailing, significant);
+				previousLeading = leading;
+				previousTrailing = trailing;
+			}
+		}
+		return new EncodedBlock(flags, out.getData(), out.getLength());
+	}
+
+	/**
+	 * Decode a block.
+	 *
+	 * @param data
+	 *            the encoded block data
+	 * @param flags
+	 *            the flags of the encoded block
+	 * @param count
+	 *            the number of values in the block
+	 * @param result
+	 *            the array to put the decoded values in
+	 * @param offset
+	 *            the index in the array to put the first decoded value at
+	 */
+	static void decode(byte[] data, int flags, int count, ITimestampedData[] result, int offset) {
+		long multiplier = (flags & FLAG_MILLISECOND_TIMESTAMPS) != 0 ? NANOS_PER_MILLISECOND : 1;
+		BitReader in = new BitReader(data);
+		long timestamp = in.read(64);
+		long delta = 0;
+		long bits = in.read(64);
+		int leading = 0;
+		int trailing = 0;
+		result[offset] = new DefaultTimestampedData(timestamp * multiplier, Double.longBitsToDouble(bits));
+		for (int i = 1; i < count; i++) {
+			delta += readDeltaOfDelta(in);
+			timestamp += delta;
+			if (in.read(1) != 0) {
+				if (in.read(1) != 0) {
+					leading = (int) in.read(5);
+					int significant = (int) in.read(6) + 1;
+					trailing = 64 - leading - significant;
+				}
+				bits ^= in.read(64 - leading - trailing) << trailing;
+			}
+			result[offset + i] = new DefaultTimestampedData(timestamp * multiplier, Double.longBitsToDouble(bits));
+		}
+	}
+
+	private static void writeDeltaOfDelta(BitWriter out, long deltaOfDelta) {
+		if (deltaOfDelta == 0) {
+			out.write(0, 1);
+		} else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+			out.write(0b10, 2);
+			out.write(deltaOfDelta + 63, 7);
+		} else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+			out.write(0b110, 3);
+			out.write(deltaOfDelta + 255, 9);
+		} else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+			out.write(0b1110, 4);
+			out.write(deltaOfDelta + 2047, 12);
+		} else if (deltaOfDelta >= Integer.MIN_VALUE && deltaOfDelta <= Integer.MAX_VALUE) {
+			out.write(0b11110, 5);
+			out.write(deltaOfDelta, 32);
+		} else {
+			out.write(0b11111, 5);
+			out.write(deltaOfDelta, 64);
+		}
+	}
+
+	private static long readDeltaOfDelta(BitReader in) {
+		if (in.read(1) == 0) {
+			return 0;
+		} else if (in.read(1) == 0) {
+			return in.read(7) - 63;
+		} else if (in.read(1) == 0) {
+			return in.read(9) - 255;
+		} else if (in.read(1) == 0) {
+			return in.read(12) - 2047;
+		} else if (in.read(1) == 0) {
+			return (int) in.read(32);
+		} else {
+			return in.read(64);
+		}
+	}
+
+	private static class BitWriter {
+		private byte[] data;
+		private long bitLength;
+
+		BitWriter(int initialCapacity) {
+			data = new byte[initialCapacity];
+		}
+
+		/**
+		 * Write the lowest bits of a value, most significant bit first.
+		 */
+		void write(long value, int bitCount) {
+			for (int i = bitCount - 1; i >= 0; i--) {
+				int byteIndex = (int) (bitLength >>> 3);
+				if (byteIndex == data.length) {
+					byte[] newData = new byte[data.length * 2];
+					System.arraycopy(data, 0, newData, 0, data.length);
+					data = newData;
+				}
+				if (((value >>> i) & 1) != 0) {
+					data[byteIndex] |= 0x80 >>> (bitLength & 7);
+				}
+				bitLength++;
+			}
+		}
+
+		byte[] getData() {
+			return data;
+		}
+
+		int getLength() {
+			return (int) ((bitLength + 7) >>> 3);
+		}
+	}
+
+	private static class BitReader {
+		private final byte[] data;
+		private long position;
+
+		BitReader(byte[] data) {
+			this.data = data;
+		}
+
+		/**
+		 * Read bits into the lowest bits of a value, most significant bit first.
+		 */
+		long read(int bitCount) {
+			long value = 0;
+			for (int i = 0; i < bitCount; i++) {
+				int bit = (data[(int) (position >>> 3)] >>> (7 - (position & 7))) & 1;
+				value = (value << 1) | bit;
+				position++;
+			}
+			return value;
+		}
+	}
+}
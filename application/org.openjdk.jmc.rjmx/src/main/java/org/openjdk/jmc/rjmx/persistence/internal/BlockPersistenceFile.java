@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.persistence.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+
+/**
+ * A persistence file in the compressed block format. The file starts with the qualified name of the
+ * attribute, a format version, the resolution of the values and the time range of the recorded
+ * values that the file replaces. That is followed by blocks of values compressed by
+ * {@link BlockCodec}. Each block has a header with the number of values, the time range and the
+ * value range of the block, which allows readers to skip the blocks outside of a requested time
+ * range without decompressing them.
+ * <p>
+ * Files written by {@link PersistenceCompactor} hold downsampled values. Files with recorded values
+ * have a resolution of 0, and only replace the time range of their own values.
+ * <p>
+ * Blocks are only ever appended, so a file that was not closed properly only loses its last,
+ * partially written, block.
+ */
+public class BlockPersistenceFile extends PersistenceFile {
+
+	static final int FORMAT_VERSION = 1;
+	/**
+	 * The maximum number of values in a block.
+	 */
+	public static final int BLOCK_SIZE = 256;
+	// Data length, value count, flags, min and max timestamp, min and max value
+	private static final int BLOCK_HEADER_SIZE = 4 + 4 + 1 + 8 + 8 + 8 + 8;
+
+	private static class BlockInfo {
+		final int position;
+		final int length;
+		final int count;
+		final int flags;
+		final long minTime;
+		final long maxTime;
+
+		BlockInfo(int position, int length, int count, int flags, long minTime, long maxTime) {
+			this.position = position;
+			this.length = length;
+			this.count = count;
+			this.flags = flags;
+			this.minTime = minTime;
+			this.maxTime = maxTime;
+		}
+	}
+
+	private final List<BlockInfo> blocks = new ArrayList<>();
+	private final boolean corrupt;
+
+	BlockPersistenceFile(File file) throws IOException {
+		super(file);
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			corrupt = !readHeaders(channel);
+		}
+		if (resolution == 0) {
+			coveredStart = start;
+			coveredEnd = end;
+		}
+	}
+
+	/**
+	 * Read the file header and the headers of all blocks.
+	 *
+	 * @return {@code false} if the file ends with a partial block
+	 */
+	private boolean readHeaders(FileChannel channel) throws IOException {
+		// Format version, resolution, covered start and end
+		ByteBuffer buffer = readHeader(channel, 1 + 3 * 8);
+		mri = MRI.createFromQualifiedName(readUTF(buffer));
+		if (!buffer.hasRemaining()) {
+			throw new IOException("Truncated file header"); //$NON-NLS-1$
+		}
+		int version = buffer.get();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported persistence format version " + version); //$NON-NLS-1$
+		}
+		if (buffer.remaining() < 3 * 8) {
+			throw new IOException("Truncated file header"); //$NON-NLS-1$
+		}
+		resolution = buffer.getLong();
+		coveredStart = buffer.getLong();
+		coveredEnd = buffer.getLong();
+		long fileLen = channel.size();
+		if (fileLen > Integer.MAX_VALUE) {
+			throw new IOException("File too large: " + file.getPath()); //$NON-NLS-1$
+		}
+		int position = buffer.position();
+		start = Long.MAX_VALUE;
+		end = Long.MAX_VALUE;
+		while (position + BLOCK_HEADER_SIZE <= fileLen) {
+			ByteBuffer header = read(channel, position, BLOCK_HEADER_SIZE);
+			int length = header.getInt();
+			int count = header.getInt();
+			int flags = header.get();
+			long minTime = header.getLong();
+			long maxTime = header.getLong();
+			int dataPosition = position + BLOCK_HEADER_SIZE;
+			if (length < 0 || count <= 0 || length > fileLen - dataPosition) {
+				break;
+			}
+			blocks.add(new BlockInfo(dataPosition, length, count, flags, minTime, maxTime));
+			if (eventCount == 0) {
+				start = minTime;
+				end = maxTime;
+			} else {
+				start = Math.min(start, minTime);
+				end = Math.max(end, maxTime);
+			}
+			eventCount += count;
+			position = dataPosition + length;
+		}
+		return position == fileLen;
+	}
+
+	/**
+	 * Write the start of a new file.
+	 *
+	 * @param out
+	 *            the stream to write to
+	 * @param mri
+	 *            the attribute that the file is for
+	 */
+	public static void writeFileHeader(DataOutputStream out, MRI mri) throws IOException {
+		writeFileHeader(out, mri, 0, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Write the start of a new file with downsampled values.
+	 *
+	 * @param out
+	 *            the stream to write to
+	 * @param mri
+	 *            the attribute that the file is for
+	 * @param resolution
+	 *            the interval in ns that the values have been downsampled to
+	 * @param coveredStart
+	 *            the timestamp of the first original value that the file replaces, in epoch ns
+	 * @param coveredEnd
+	 *            the timestamp of the last original value that the file replaces, in epoch ns
+	 */
+	public static void writeFileHeader(
+		DataOutputStream out, MRI mri, long resolution, long coveredStart, long coveredEnd) throws IOException {
+		out.writeUTF(mri.getQualifiedName());
+		out.writeByte(FORMAT_VERSION);
+		out.writeLong(resolution);
+		out.writeLong(coveredStart);
+		out.writeLong(coveredEnd);
+	}
+
+	/**
+	 * Encode a block of values, including its header.
+	 *
+	 * @param timestamps
+	 *            timestamps in epoch ns
+	 * @param values
+	 *            values
+	 * @param count
+	 *            the number of values to write, at least one
+	 * @return the encoded block
+	 */
+	public static byte[] encodeBlock(long[] timestamps, double[] values, int count) {
+		long minTime = Long.MAX_VALUE;
+		long maxTime = Long.MIN_VALUE;
+		// NaN values are not included in the value range
+		double minValue = Double.POSITIVE_INFINITY;
+		double maxValue = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			minTime = Math.min(minTime, timestamps[i]);
+			maxTime = Math.max(maxTime, timestamps[i]);
+			if (!Double.isNaN(values[i])) {
+				minValue = Math.min(minValue, values[i]);
+				maxValue = Math.max(maxValue, values[i]);
+			}
+		}
+		BlockCodec.EncodedBlock block = BlockCodec.encode(timestamps, values, count);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(BLOCK_HEADER_SIZE + block.length);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(block.length);
+			out.writeInt(count);
+			out.writeByte(block.flags);
+			out.writeLong(minTime);
+			out.writeLong(maxTime);
+			out.writeDouble(minValue);
+			out.writeDouble(maxValue);
+			out.write(block.data, 0, block.length);
+		} catch (IOException e) {
+			// Can not happen when writing to a byte array
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	@Override
+	public boolean isCorrupt() {
+		return corrupt;
+	}
+
+	@Override
+	public boolean isAppendable() {
+		return !corrupt && resolution == 0;
+	}
+
+	/**
+	 * Get the values in the blocks that overlap a time range. Only the overlapping blocks are paged
+	 * in from the file.
+	 */
+	@Override
+	public ITimestampedData[] getEvents(long min, long max) throws IOException {
+		int first = 0;
+		while (first < blocks.size() && blocks.get(first).maxTime < min) {
+			first++;
+		}
+		int last = first;
+		int count = 0;
+		while (last < blocks.size() && blocks.get(last).minTime <= max) {
+			count += blocks.get(last).count;
+			last++;
+		}
+		ITimestampedData[] events = new ITimestampedData[count];
+		if (count > 0) {
+			ByteBuffer buffer = map(file);
+			int offset = 0;
+			for (int i = first; i < last; i++) {
+				BlockInfo block = blocks.get(i);
+				byte[] data = new byte[block.length];
+				buffer.get(block.position, data);
+				BlockCodec.decode(data, block.flags, block.count, events, offset);
+				offset += block.count;
+			}
+		}
+		return events;
+	}
+}
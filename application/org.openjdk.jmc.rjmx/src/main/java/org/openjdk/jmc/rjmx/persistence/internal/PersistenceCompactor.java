@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.persistence.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.openjdk.jmc.common.io.IOToolkit;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.RJMXPlugin;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+
+/**
+ * Keeps the persisted values of attributes within a disk budget. Values older than a day are
+ * replaced by one minute averages, and values older than a week by ten minute averages. The
+ * downsampled values are written in one file per day, so that they can age further and be deleted a
+ * day at a time. When the files of an attribute still use more space than allowed, or hold values
+ * older than allowed, the oldest files are deleted. Without limits, which is the default, only the
+ * downsampling is done.
+ * <p>
+ * The file that is currently written to, and the latest file of each attribute, are never touched.
+ * Compaction runs on a shared background thread, see {@link #schedule(Runnable)}.
+ */
+public class PersistenceCompactor {
+
+	private static final long COMPACTION_INTERVAL_MINUTES = 10;
+	private static final String TEMP_FILE_EXT = ".tmp"; //$NON-NLS-1$
+	private static final long NANOS_PER_MILLISECOND = 1000 * 1000L;
+	private static final long NANOS_PER_DAY = TimeUnit.DAYS.toNanos(1);
+	// Pairs of the age that values must have and the resolution to downsample them to, coarsest first
+	private static final long[][] TIERS = {{TimeUnit.DAYS.toNanos(7), TimeUnit.MINUTES.toNanos(10)},
+			{TimeUnit.DAYS.toNanos(1), TimeUnit.MINUTES.toNanos(1)}};
+
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "JMX Persistence Compactor"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	private final long maxSize;
+	private final long maxAge;
+
+	/**
+	 * @param maxSize
+	 *            the maximum number of bytes to keep per attribute, or 0 for no limit
+	 * @param maxAge
+	 *            the maximum age in ns of the values to keep, or 0 for no limit
+	 */
+	public PersistenceCompactor(long maxSize, long maxAge) {
+		this.maxSize = maxSize;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Run a task periodically on the compaction thread.
+	 *
+	 * @param task
+	 *            the task to run
+	 * @return a future that can be used to cancel the task
+	 */
+	static ScheduledFuture<?> schedule(Runnable task) {
+		return EXECUTOR.scheduleWithFixedDelay(task, 1, COMPACTION_INTERVAL_MINUTES, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Compact the files of all attributes in a directory.
+	 *
+	 * @param directory
+	 *            a directory with one subdirectory per attribute
+	 * @param activeFiles
+	 *            files that are currently being written to
+	 */
+	void compactAll(File directory, Collection<File> activeFiles) {
+		File[] attributeDirs = directory.listFiles(File::isDirectory);
+		if (attributeDirs != null) {
+			long now = System.currentTimeMillis() * NANOS_PER_MILLISECOND;
+			for (File attributeDir : attributeDirs) {
+				compact(attributeDir, activeFiles, now);
+			}
+		}
+	}
+
+	/**
+	 * Compact the files of one attribute.
+	 *
+	 * @param attributeDir
+	 *            the directory with the files of the attribute
+	 * @param activeFiles
+	 *            files that are currently being written to
+	 * @param now
+	 *            the current time, in epoch ns
+	 */
+	public void compact(File attributeDir, Collection<File> activeFiles, long now) {
+		List<PersistenceFile> files = listFiles(attributeDir);
+		for (PersistenceFile superseded : PersistenceFile.removeSuperseded(files)) {
+			delete(superseded.file);
+		}
+		for (long[] tier : TIERS) {
+			List<PersistenceFile> run = new ArrayList<>();
+			// Only consecutive files are merged, so that files never overlap in time
+			for (int i = 0; i < files.size(); i++) {
+				PersistenceFile f = files.get(i);
+				// Previously downsampled files are included so that values of the same day end up in one file
+				if (isRemovable(files, i, activeFiles) && f.resolution <= tier[1] && f.end < now - tier[0]) {
+					run.add(f);
+				} else {
+					downsample(attributeDir, run, tier[1]);
+					run.clear();
+				}
+			}
+			downsample(attributeDir, run, tier[1]);
+			files = listFiles(attributeDir);
+		}
+		long totalSize = 0;
+		for (PersistenceFile f : files) {
+			totalSize += f.file.length();
+		}
+		for (int i = 0; i < files.size() && isRemovable(files, i, activeFiles); i++) {
+			PersistenceFile f = files.get(i);
+			if ((maxSize > 0 && totalSize > maxSize) || (maxAge > 0 && f.end < now - maxAge)) {
+				totalSize -= f.file.length();
+				// The persisted values keep growing past the limits as long as this fails
+				delete(f.file, Level.WARNING);
+			} else {
+				break;
+			}
+		}
+	}
+
+	private static boolean isRemovable(List<PersistenceFile> files, int index, Collection<File> activeFiles) {
+		return index < files.size() - 1 && !activeFiles.contains(files.get(index).file);
+	}
+
+	private static List<PersistenceFile> listFiles(File attributeDir) {
+		List<PersistenceFile> files = new ArrayList<>();
+		File[] listFiles = attributeDir.listFiles(PersistenceFile.FILTER);
+		if (listFiles != null) {
+			for (File f : listFiles) {
+				try {
+					PersistenceFile pf = PersistenceFile.open(f);
+					if (pf.eventCount > 0) {
+						files.add(pf);
+					}
+				} catch (Exception e) {
+					// Ignore invalid files, they are also ignored when reading
+				}
+			}
+		}
+		files.sort(PersistenceFile.PERSISTENCE_FILE_START_COMPARATOR);
+		return files;
+	}
+
+	/**
+	 * Replace files with files with values downsampled to a resolution, one file per day. Each
+	 * value in the new files is the average of the values in one interval of the resolution length.
+	 * Values from different series are never averaged together.
+	 */
+	private static void downsample(File attributeDir, List<PersistenceFile> files, long resolution) {
+		int firstFiner = 0;
+		while (firstFiner < files.size() && files.get(firstFiner).resolution >= resolution) {
+			firstFiner++;
+		}
+		if (firstFiner == files.size()) {
+			return;
+		}
+		// Leave files of earlier days that already have the resolution as they are
+		long firstDay = Math.floorDiv(files.get(firstFiner).start, NANOS_PER_DAY);
+		int skip = 0;
+		while (skip < firstFiner && Math.floorDiv(files.get(skip).end, NANOS_PER_DAY) < firstDay) {
+			skip++;
+		}
+		files = files.subList(skip, files.size());
+		PersistenceFile first = files.get(0);
+		Downsampler downsampler = new Downsampler(attributeDir, first.getMRI(), resolution, first.coveredStart,
+				files.get(files.size() - 1).coveredEnd);
+		try {
+			downsampler.seriesStarts = AttributeWriter.readSeriesStarts(attributeDir);
+			for (PersistenceFile f : files) {
+				for (ITimestampedData value : f.getEvents(f.start, f.end)) {
+					downsampler.add(value.getX(), value.getY().doubleValue());
+				}
+			}
+			downsampler.finish();
+		} catch (IOException e) {
+			RJMXPlugin.getDefault().getLogger().log(Level.WARNING,
+					"Could not downsample persisted values in " + attributeDir.getPath(), e); //$NON-NLS-1$
+			downsampler.close();
+			downsampler.written.forEach(PersistenceCompactor::delete);
+			return;
+		}
+		List<File> renamed = new ArrayList<>();
+		for (File tempFile : downsampler.written) {
+			String baseName = tempFile.getName().substring(0, tempFile.getName().length() - TEMP_FILE_EXT.length());
+			File target = new File(attributeDir, baseName + PersistenceFile.BLOCK_FILE_EXT);
+			for (int n = 2; target.exists(); n++) {
+				target = new File(attributeDir, baseName + "_" + n + PersistenceFile.BLOCK_FILE_EXT); //$NON-NLS-1$
+			}
+			if (tempFile.renameTo(target)) {
+				renamed.add(target);
+			} else {
+				RJMXPlugin.getDefault().getLogger().log(Level.WARNING, "Could not rename " + tempFile.getPath()); //$NON-NLS-1$
+				// Keep the original files rather than a partial replacement
+				downsampler.written.forEach(PersistenceCompactor::delete);
+				renamed.forEach(PersistenceCompactor::delete);
+				return;
+			}
+		}
+		// Files that can not be deleted now are ignored when reading, and deleted on the next run
+		for (PersistenceFile f : files) {
+			delete(f.file);
+		}
+	}
+
+	private static void delete(File file) {
+		delete(file, Level.FINE);
+	}
+
+	private static void delete(File file, Level failureLevel) {
+		if (file.exists() && !file.delete()) {
+			RJMXPlugin.getDefault().getLogger().log(failureLevel, "Could not delete " + file.getPath()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Averages values over intervals and writes the averages in blocks, to one temporary file per
+	 * day.
+	 */
+	private static class Downsampler {
+		private final File attributeDir;
+		private final MRI mri;
+		private final long resolution;
+		private final long coveredStart;
+		private final long coveredEnd;
+		final List<File> written = new ArrayList<>();
+		List<Long> seriesStarts;
+		private DataOutputStream out;
+		private long day;
+		private final long[] timestamps = new long[BlockPersistenceFile.BLOCK_SIZE];
+		private final double[] values = new double[BlockPersistenceFile.BLOCK_SIZE];
+		private int pendingCount;
+		private int seriesIndex;
+		// The current interval
+		private long bucket;
+		private long firstTimestamp;
+		private long timestampSum;
+		private int count;
+		private double valueSum;
+		private int valueCount;
+
+		Downsampler(File attributeDir, MRI mri, long resolution, long coveredStart, long coveredEnd) {
+			this.attributeDir = attributeDir;
+			this.mri = mri;
+			this.resolution = resolution;
+			this.coveredStart = coveredStart;
+			this.coveredEnd = coveredEnd;
+		}
+
+		void add(long timestamp, double value) throws IOException {
+			boolean newSeries = false;
+			while (seriesIndex < seriesStarts.size() && seriesStarts.get(seriesIndex) <= timestamp) {
+				newSeries = true;
+				seriesIndex++;
+			}
+			long valueBucket = Math.floorDiv(timestamp, resolution);
+			if (count > 0 && (valueBucket != bucket || newSeries)) {
+				flushBucket();
+			}
+			if (count == 0) {
+				bucket = valueBucket;
+				firstTimestamp = timestamp;
+			}
+			timestampSum += timestamp - firstTimestamp;
+			count++;
+			if (!Double.isNaN(value)) {
+				valueSum += value;
+				valueCount++;
+			}
+		}
+
+		void finish() throws IOException {
+			if (count > 0) {
+				flushBucket();
+			}
+			writePendingBlock();
+			if (out != null) {
+				out.close();
+				out = null;
+			}
+		}
+
+		void close() {
+			IOToolkit.closeSilently(out);
+			out = null;
+		}
+
+		private void flushBucket() throws IOException {
+			long timestamp = firstTimestamp + timestampSum / count;
+			// Intervals never cross day boundaries since days are a multiple of the resolution
+			long valueDay = Math.floorDiv(timestamp, NANOS_PER_DAY);
+			if (out == null || valueDay != day) {
+				openDayFile(valueDay);
+			}
+			timestamps[pendingCount] = timestamp;
+			values[pendingCount] = valueCount > 0 ? valueSum / valueCount : Double.NaN;
+			pendingCount++;
+			if (pendingCount == timestamps.length) {
+				writePendingBlock();
+			}
+			timestampSum = 0;
+			count = 0;
+			valueSum = 0;
+			valueCount = 0;
+		}
+
+		private void writePendingBlock() throws IOException {
+			if (pendingCount > 0) {
+				out.write(BlockPersistenceFile.encodeBlock(timestamps, values, pendingCount));
+				pendingCount = 0;
+			}
+		}
+
+		private void openDayFile(long valueDay) throws IOException {
+			writePendingBlock();
+			if (out != null) {
+				out.close();
+				out = null;
+			}
+			day = valueDay;
+			long dayStart = valueDay * NANOS_PER_DAY;
+			File tempFile = new File(attributeDir, "values_" + dayStart / NANOS_PER_MILLISECOND + "_" //$NON-NLS-1$ //$NON-NLS-2$
+					+ TimeUnit.NANOSECONDS.toSeconds(resolution) + "s" + TEMP_FILE_EXT); //$NON-NLS-1$
+			written.add(tempFile);
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			BlockPersistenceFile.writeFileHeader(out, mri, resolution, Math.max(coveredStart, dayStart),
+					Math.min(coveredEnd, dayStart + NANOS_PER_DAY - 1));
+		}
+	}
+}
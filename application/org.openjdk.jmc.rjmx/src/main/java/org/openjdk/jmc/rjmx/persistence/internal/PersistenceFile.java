@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -37,23 +37,40 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 
-import org.openjdk.jmc.common.xydata.DefaultTimestampedData;
 import org.openjdk.jmc.common.xydata.ITimestampedData;
 import org.openjdk.jmc.rjmx.common.subscription.MRI;
 
-class PersistenceFile {
+/**
+ * A file with persisted attribute values. Files are either in the original format with uncompressed
+ * values, see {@link RawPersistenceFile}, or in the compressed block format, see
+ * {@link BlockPersistenceFile}. The format is given by the file extension.
+ * <p>
+ * Values are read through memory mappings, which lets the operating system page in only the parts
+ * of a file that are actually used, and avoids copying the file contents through intermediate
+ * buffers. The headers are read without mapping the file when it is opened, since a mapping keeps
+ * the file from being deleted on some platforms until it has been garbage collected, and the
+ * compactor opens all files of an attribute before deleting some of them.
+ */
+public abstract class PersistenceFile {
 
 	static final String FILE_EXT = ".persisted_jmx_data"; //$NON-NLS-1$
+	static final String BLOCK_FILE_EXT = ".persisted_jmx_blocks"; //$NON-NLS-1$
 
 	public static final FilenameFilter FILTER = new FilenameFilter() {
 
 		@Override
 		public boolean accept(File dir, String name) {
-			return name.toLowerCase(Locale.ENGLISH).endsWith(FILE_EXT);
+			String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+			return lowerCaseName.endsWith(FILE_EXT) || lowerCaseName.endsWith(BLOCK_FILE_EXT);
 		}
 	};
 
@@ -64,60 +81,229 @@ class PersistenceFile {
 		}
 	};
 
-	static final int EVENT_SIZE = 8 + 8;
 	final File file;
-	ITimestampedData[] events;
-	final long eventsStart;
-	final int eventCount;
-	final long start;
-	final long end;
-	final MRI mri;
-	final long fileLen;
-
-	PersistenceFile(File file) throws IOException {
+	MRI mri;
+	int eventCount;
+	long start;
+	long end;
+	/**
+	 * The interval in ns that the values have been downsampled to, or 0 if the values are as
+	 * recorded.
+	 */
+	long resolution;
+	/**
+	 * The time range of the recorded values that this file replaces. Differs from the start and end
+	 * of the file for downsampled files.
+	 */
+	long coveredStart;
+	long coveredEnd;
+
+	PersistenceFile(File file) {
 		this.file = file;
-		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) { //$NON-NLS-1$
-			mri = MRI.createFromQualifiedName(raf.readUTF());
-			fileLen = raf.length();
-			eventsStart = raf.getFilePointer();
-			eventCount = (int) ((fileLen - eventsStart) / EVENT_SIZE);
-			if (eventCount > 0) {
-				start = raf.readLong();
-				raf.seek(eventsStart + (long) (eventCount - 1) * EVENT_SIZE);
-				end = raf.readLong();
-			} else {
-				start = Long.MAX_VALUE;
-				end = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Open a persistence file of either format.
+	 *
+	 * @param file
+	 *            the file to open
+	 * @return the opened file
+	 * @throws IOException
+	 *             if the file could not be read
+	 */
+	public static PersistenceFile open(File file) throws IOException {
+		if (file.getName().toLowerCase(Locale.ENGLISH).endsWith(BLOCK_FILE_EXT)) {
+			return new BlockPersistenceFile(file);
+		}
+		return new RawPersistenceFile(file);
+	}
+
+	/**
+	 * @return {@code true} if the file has been truncated or is otherwise damaged
+	 */
+	public abstract boolean isCorrupt();
+
+	/**
+	 * @return {@code true} if new values can be appended to the file
+	 */
+	public abstract boolean isAppendable();
+
+	/**
+	 * Get the values in the file. The time range is a hint, values outside of the range may also be
+	 * returned.
+	 *
+	 * @param min
+	 *            the start of the time range, in epoch ns
+	 * @param max
+	 *            the end of the time range, in epoch ns
+	 * @return the values, in timestamp order
+	 * @throws IOException
+	 *             if the file could not be read
+	 */
+	public abstract ITimestampedData[] getEvents(long min, long max) throws IOException;
+
+	public MRI getMRI() {
+		return mri;
+	}
+
+	/**
+	 * @return the file on disk
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the number of values in the file
+	 */
+	public int getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * @return the timestamp of the first value in the file, in epoch ns
+	 */
+	public long getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the timestamp of the last value in the file, in epoch ns
+	 */
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the interval in ns that the values have been downsampled to, or 0 if the values are
+	 *         as recorded
+	 */
+	public long getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * @return the start of the time range of the recorded values that this file replaces, in epoch
+	 *         ns
+	 */
+	public long getCoveredStart() {
+		return coveredStart;
+	}
+
+	/**
+	 * @return the end of the time range of the recorded values that this file replaces, in epoch ns
+	 */
+	public long getCoveredEnd() {
+		return coveredEnd;
+	}
+
+	/**
+	 * Remove files that have been replaced by downsampled files from a list. Such files are
+	 * normally deleted directly when the downsampled file has been written, but may be left if the
+	 * deletion fails.
+	 *
+	 * @param files
+	 *            the files to check, sorted by start time
+	 * @return the removed files
+	 */
+	public static List<PersistenceFile> removeSuperseded(List<PersistenceFile> files) {
+		List<PersistenceFile> superseded = new ArrayList<>();
+		for (PersistenceFile f : files) {
+			// Downsampled values are written in one file per day, so a file may be covered by two files
+			if (isCovered(files, f, f.start) && isCovered(files, f, f.end)) {
+				superseded.add(f);
+			}
+		}
+		for (Iterator<PersistenceFile> it = files.iterator(); it.hasNext();) {
+			if (superseded.contains(it.next())) {
+				it.remove();
 			}
 		}
+		return superseded;
 	}
 
-	boolean isCorrupt() {
-		return eventsStart + (long) eventCount * EVENT_SIZE != fileLen;
+	private static boolean isCovered(List<PersistenceFile> files, PersistenceFile f, long timestamp) {
+		for (PersistenceFile downsampled : files) {
+			if (downsampled.resolution > f.resolution && downsampled.coveredStart <= timestamp
+					&& timestamp <= downsampled.coveredEnd) {
+				return true;
+			}
+		}
+		return false;
 	}
 
-	synchronized ITimestampedData[] getEvents(long min, long max) throws IOException {
-		if (events == null) {
-			// TODO: For now read all data
-			events = new ITimestampedData[eventCount];
-			try (RandomAccessFile raf = new RandomAccessFile(file, "r")) { //$NON-NLS-1$
-				readEvents(raf, 0, eventCount);
+	/**
+	 * Read the start of a file header, which is the qualified name of the attribute followed by a
+	 * number of format specific bytes.
+	 *
+	 * @param channel
+	 *            the file to read from
+	 * @param size
+	 *            the number of bytes to read after the name
+	 * @return a buffer with the header, positioned at the start of the name, or with less data if
+	 *         the file is shorter than the header
+	 */
+	static ByteBuffer readHeader(FileChannel channel, int size) throws IOException {
+		ByteBuffer nameLength = read(channel, 0, 2);
+		if (nameLength.remaining() < 2) {
+			return nameLength;
+		}
+		return read(channel, 0, 2 + Short.toUnsignedInt(nameLength.getShort(0)) + size);
+	}
+
+	/**
+	 * Read a part of a file without mapping it.
+	 *
+	 * @param channel
+	 *            the file to read from
+	 * @param position
+	 *            the position in the file to read from
+	 * @param length
+	 *            the number of bytes to read
+	 * @return a buffer with the bytes that were read, fewer than requested at the end of the file
+	 */
+	static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				break;
 			}
 		}
-		return events;
+		buffer.flip();
+		return buffer;
 	}
 
-	MRI getMRI() {
-		return mri;
+	/**
+	 * Map a whole file into memory for reading.
+	 *
+	 * @param file
+	 *            the file to map
+	 * @return a read only buffer with the file contents
+	 * @throws IOException
+	 *             if the file could not be mapped
+	 */
+	static ByteBuffer map(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File too large: " + file.getPath()); //$NON-NLS-1$
+			}
+			// The mapping stays valid after the channel has been closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
 	}
 
-	private void readEvents(RandomAccessFile raf, int index, int count) throws IOException {
-		byte[] data = new byte[count * EVENT_SIZE];
-		raf.seek(eventsStart + (long) index * EVENT_SIZE);
-		raf.readFully(data);
-		DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
-		for (int i = 0; i < count; i++) {
-			events[index + i] = new DefaultTimestampedData(dis.readLong(), dis.readDouble());
+	/**
+	 * Read a string written by {@link java.io.DataOutput#writeUTF(String)} from the current
+	 * position of a buffer.
+	 */
+	static String readUTF(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < 2
+				|| buffer.remaining() < 2 + Short.toUnsignedInt(buffer.getShort(buffer.position()))) {
+			throw new IOException("Truncated file header"); //$NON-NLS-1$
 		}
+		byte[] bytes = new byte[2 + Short.toUnsignedInt(buffer.getShort(buffer.position()))];
+		buffer.get(bytes);
+		return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,10 +32,7 @@
  */
 package org.openjdk.jmc.rjmx.persistence.internal;
 
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
@@ -49,7 +46,6 @@ import java.util.Observer;
 import java.util.Set;
 import java.util.logging.Level;
 
-import org.openjdk.jmc.common.io.IOToolkit;
 import org.openjdk.jmc.common.util.StringToolkit;
 import org.openjdk.jmc.common.xydata.ITimestampedData;
 import org.openjdk.jmc.rjmx.RJMXPlugin;
@@ -167,7 +163,8 @@ public class PersistenceReader implements IMRIService, IAttributeStorageService
 		@Override
 		public Iterator<ITimestampedData> createIterator(long min, long max) {
 			if (this.min <= max && this.max >= min) {
-				return new FileIterator(files.iterator(), this.min, this.max);
+				// Only read the files and blocks that overlap the requested part of the series
+				return new FileIterator(files.iterator(), Math.max(this.min, min), Math.min(this.max, max));
 			} else {
 				return Collections.<ITimestampedData> emptyList().iterator();
 			}
@@ -263,7 +260,7 @@ public class PersistenceReader implements IMRIService, IAttributeStorageService
 		if (listFiles != null) {
 			for (File f : listFiles) {
 				try {
-					PersistenceFile pf = new PersistenceFile(f);
+					PersistenceFile pf = PersistenceFile.open(f);
 					if (pf.eventCount > 0) {
 						files.add(pf);
 					}
@@ -274,21 +271,16 @@ public class PersistenceReader implements IMRIService, IAttributeStorageService
 			}
 		}
 		files.sort(PersistenceFile.PERSISTENCE_FILE_START_COMPARATOR);
-		List<Long> seriesStart = new ArrayList<>();
-		DataInputStream seriesFileStream = null;
-		File seriesFile = new File(attributeDir, AttributeWriter.SERIES_FILE_NAME);
+		// Skip files left behind by an interrupted compaction
+		PersistenceFile.removeSuperseded(files);
+		List<Long> seriesStart;
 		try {
-			seriesFileStream = new DataInputStream(new BufferedInputStream(new FileInputStream(seriesFile)));
-			while (seriesFileStream.available() > 0) {
-				seriesStart.add(seriesFileStream.readLong());
-			}
+			seriesStart = AttributeWriter.readSeriesStarts(attributeDir);
 		} catch (IOException e) {
 			// Log warning and ignore file
-			RJMXPlugin.getDefault().getLogger().log(Level.WARNING,
-					"Error while reading persisted data from file " + seriesFile.getPath(), e); //$NON-NLS-1$
+			RJMXPlugin.getDefault().getLogger().log(Level.WARNING, "Error while reading persisted data from file " //$NON-NLS-1$
+					+ new File(attributeDir, AttributeWriter.SERIES_FILE_NAME).getPath(), e);
 			return;
-		} finally {
-			IOToolkit.closeSilently(seriesFileStream);
 		}
 		PersistenceStorage storage = new PersistenceStorage();
 		if (seriesStart.isEmpty()) {
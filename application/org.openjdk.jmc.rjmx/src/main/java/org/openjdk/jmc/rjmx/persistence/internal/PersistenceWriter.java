@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -36,9 +36,13 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
 
@@ -56,6 +60,7 @@ public class PersistenceWriter implements IPersistenceService, IDisposableServic
 	private final String uid;
 	private boolean running;
 	private final ISubscriptionService service;
+	private ScheduledFuture<?> compaction;
 
 	public PersistenceWriter(String uid, ISubscriptionService service) {
 		this.service = service;
@@ -94,17 +99,46 @@ public class PersistenceWriter implements IPersistenceService, IDisposableServic
 			}
 		}
 		running = true;
+		if (compaction == null) {
+			compaction = PersistenceCompactor.schedule(this::compact);
+		}
 	}
 
 	@Override
 	public synchronized void stop() {
 		running = false;
+		if (compaction != null) {
+			compaction.cancel(false);
+			compaction = null;
+		}
 		for (AttributeWriter writer : attributes.values()) {
 			service.removeMRIValueListener(writer);
 			writer.stop();
 		}
 	}
 
+	private void compact() {
+		IEclipsePreferences preferences = RJMXPlugin.getDefault().getRJMXPreferences();
+		File persistenceDirectory;
+		List<File> activeFiles = new ArrayList<>();
+		synchronized (this) {
+			persistenceDirectory = calculatePersistenceDirectory(preferences.get(
+					PreferencesKeys.PROPERTY_PERSISTENCE_DIRECTORY, PreferencesKeys.DEFAULT_PERSISTENCE_DIRECTORY));
+			for (AttributeWriter writer : attributes.values()) {
+				File currentFile = writer.getCurrentFile();
+				if (currentFile != null) {
+					activeFiles.add(currentFile);
+				}
+			}
+		}
+		// Compact without holding the lock, the files being written to are left alone
+		long maxSize = preferences.getLong(PreferencesKeys.PROPERTY_PERSISTENCE_RETENTION_SIZE_KB,
+				PreferencesKeys.DEFAULT_PERSISTENCE_RETENTION_SIZE_KB) * 1024;
+		long maxAge = TimeUnit.DAYS.toNanos(preferences.getLong(PreferencesKeys.PROPERTY_PERSISTENCE_RETENTION_DAYS,
+				PreferencesKeys.DEFAULT_PERSISTENCE_RETENTION_DAYS));
+		new PersistenceCompactor(maxSize, maxAge).compactAll(persistenceDirectory, activeFiles);
+	}
+
 	@Override
 	public synchronized void add(MRI mri) {
 		AttributeWriter writer = getWriter(mri);
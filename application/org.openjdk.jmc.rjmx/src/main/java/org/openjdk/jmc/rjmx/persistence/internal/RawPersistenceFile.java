@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
+ * 
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ * 
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.persistence.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.openjdk.jmc.common.xydata.DefaultTimestampedData;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+
+/**
+ * A persistence file in the original format, where each value is stored uncompressed as a long
+ * timestamp and a double value. Only read, new values are written in the block format.
+ */
+class RawPersistenceFile extends PersistenceFile {
+
+	static final int EVENT_SIZE = 8 + 8;
+	ITimestampedData[] events;
+	final long eventsStart;
+	final long fileLen;
+
+	RawPersistenceFile(File file) throws IOException {
+		super(file);
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = readHeader(channel, 0);
+			mri = MRI.createFromQualifiedName(readUTF(buffer));
+			fileLen = channel.size();
+			eventsStart = buffer.position();
+			eventCount = (int) ((fileLen - eventsStart) / EVENT_SIZE);
+			if (eventCount > 0) {
+				start = read(channel, eventsStart, 8).getLong();
+				end = read(channel, eventsStart + (eventCount - 1) * (long) EVENT_SIZE, 8).getLong();
+			} else {
+				start = Long.MAX_VALUE;
+				end = Long.MAX_VALUE;
+			}
+		}
+		coveredStart = start;
+		coveredEnd = end;
+	}
+
+	@Override
+	public boolean isCorrupt() {
+		return eventsStart + (long) eventCount * EVENT_SIZE != fileLen;
+	}
+
+	@Override
+	public boolean isAppendable() {
+		return false;
+	}
+
+	@Override
+	public synchronized ITimestampedData[] getEvents(long min, long max) throws IOException {
+		if (events == null) {
+			// TODO: For now read all data
+			ByteBuffer buffer = map(file);
+			events = new ITimestampedData[eventCount];
+			for (int i = 0; i < eventCount; i++) {
+				int position = (int) eventsStart + i * EVENT_SIZE;
+				events[i] = new DefaultTimestampedData(buffer.getLong(position), buffer.getDouble(position + 8));
+			}
+		}
+		return events;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -60,6 +60,10 @@ public class Initializer extends AbstractPreferenceInitializer {
 
 		preferences.putLong(PreferencesKeys.PROPERTY_PERSISTENCE_LOG_ROTATION_LIMIT_KB,
 				PreferencesKeys.DEFAULT_PERSISTENCE_LOG_ROTATION_LIMIT_KB);
+		preferences.putLong(PreferencesKeys.PROPERTY_PERSISTENCE_RETENTION_SIZE_KB,
+				PreferencesKeys.DEFAULT_PERSISTENCE_RETENTION_SIZE_KB);
+		preferences.putLong(PreferencesKeys.PROPERTY_PERSISTENCE_RETENTION_DAYS,
+				PreferencesKeys.DEFAULT_PERSISTENCE_RETENTION_DAYS);
 		preferences.put(PreferencesKeys.PROPERTY_PERSISTENCE_DIRECTORY,
 				new File(PreferencesKeys.DEFAULT_PERSISTENCE_DIRECTORY).getPath());
 		preferences.putInt(PreferencesKeys.PROPERTY_LIST_AGGREGATE_SIZE, PreferencesKeys.DEFAULT_LIST_AGGREGATE_SIZE);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -64,6 +64,15 @@ public class PreferencesKeys {
 	// Persistence
 	public static final String PROPERTY_PERSISTENCE_LOG_ROTATION_LIMIT_KB = "rjmx.services.persistence.log.rotation.limit"; //$NON-NLS-1$
 	public static final long DEFAULT_PERSISTENCE_LOG_ROTATION_LIMIT_KB = 100;
+	/**
+	 * Maximum size of the persisted values of each attribute, 0 for no limit. No values are deleted
+	 * by default.
+	 */
+	public static final String PROPERTY_PERSISTENCE_RETENTION_SIZE_KB = "rjmx.services.persistence.retention.size"; //$NON-NLS-1$
+	public static final long DEFAULT_PERSISTENCE_RETENTION_SIZE_KB = 0;
+	/** Maximum age of persisted values, 0 for no limit. No values are deleted by default. */
+	public static final String PROPERTY_PERSISTENCE_RETENTION_DAYS = "rjmx.services.persistence.retention.days"; //$NON-NLS-1$
+	public static final long DEFAULT_PERSISTENCE_RETENTION_DAYS = 0;
 	public static final String PROPERTY_PERSISTENCE_DIRECTORY = "rjmx.services.persistence.directory"; //$NON-NLS-1$
 	public static final String DEFAULT_PERSISTENCE_DIRECTORY = CorePlugin.getDefault().getWorkspaceDirectory().getPath()
 			+ File.separator + "persisted_jmx_data" + File.separator; //$NON-NLS-1$
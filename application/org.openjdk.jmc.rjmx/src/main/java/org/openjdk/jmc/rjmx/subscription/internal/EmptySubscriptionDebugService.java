@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -52,4 +52,19 @@ public class EmptySubscriptionDebugService implements ISubscriptionDebugService
 	public Collection<IMRISubscriptionDebugInformation> getDebugInformation() {
 		return Collections.emptyList();
 	}
+
+	@Override
+	public long getSamplingLag() {
+		return 0;
+	}
+
+	@Override
+	public long getMaxSamplingLag() {
+		return 0;
+	}
+
+	@Override
+	public long getSkippedSampleCount() {
+		return 0;
+	}
 }
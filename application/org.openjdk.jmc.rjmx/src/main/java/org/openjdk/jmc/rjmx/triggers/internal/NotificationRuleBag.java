@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -35,21 +35,22 @@ package org.openjdk.jmc.rjmx.triggers.internal;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 
 import org.openjdk.jmc.rjmx.common.IConnectionHandle;
-import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
-import org.openjdk.jmc.rjmx.common.subscription.ISubscriptionService;
-import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
 import org.openjdk.jmc.rjmx.triggers.IActivatableTriggerAction;
 import org.openjdk.jmc.rjmx.triggers.TriggerRule;
 
+/**
+ * The rules registered for one connection. The rules are evaluated by a
+ * {@link TriggerEvaluationEngine} while the connection is active.
+ */
 class NotificationRuleBag {
 
-	private final Map<TriggerRule, IMRIValueListener> rules = new HashMap<>();
+	private final Set<TriggerRule> rules = new HashSet<>();
+	private final TriggerEvaluationEngine engine = new TriggerEvaluationEngine();
 	private WeakReference<IConnectionHandle> handleRef = new WeakReference<>(null);
 	private final String serverGuid;
 
@@ -61,33 +62,34 @@ class NotificationRuleBag {
 		assert (handle.getServerDescriptor().getGUID().equals(serverGuid));
 		handleRef = new WeakReference<>(handle);
 
-		Iterator<Map.Entry<TriggerRule, IMRIValueListener>> rulesIter = rules.entrySet().iterator();
+		Iterator<TriggerRule> rulesIter = rules.iterator();
 		while (rulesIter.hasNext()) {
-			Map.Entry<TriggerRule, IMRIValueListener> rule = rulesIter.next();
-			if (!activateRule(rule.getKey(), rule.getValue(), handle)) {
+			TriggerRule rule = rulesIter.next();
+			if (!isActivatable(rule, handle)) {
 				rulesIter.remove();
+				engine.removeRule(rule);
+			} else {
+				engine.addRule(rule);
 			}
 		}
+		engine.activate(handle);
 	}
 
 	void deactivate() {
 		try (IConnectionHandle handle = handleRef.get()) {
-			for (Entry<TriggerRule, IMRIValueListener> rule : rules.entrySet()) {
-				deactivateRule(rule.getKey(), rule.getValue(), handle);
-			}
+			engine.deactivate(handle);
 		} catch (IOException e) {
 		}
 	}
 
 	Collection<TriggerRule> getAllRegisteredRules() {
-		return rules.keySet();
+		return rules;
 	}
 
 	boolean removeRule(TriggerRule r) {
 		if (r != null && r.getTrigger() != null && r.getTrigger().getAttributeDescriptor() != null) {
-			IMRIValueListener listener = rules.remove(r);
-			if (listener != null) {
-				deactivateRule(r, listener, handleRef.get());
+			if (rules.remove(r)) {
+				engine.removeRule(r);
 				return true;
 			}
 		}
@@ -96,46 +98,32 @@ class NotificationRuleBag {
 
 	boolean addRule(final TriggerRule r) {
 		if (r == null || r.getTrigger() == null || r.getTrigger().getAttributeDescriptor() == null
-				|| rules.containsKey(r)) {
+				|| rules.contains(r)) {
 			return false;
 		}
-		IMRIValueListener listener = new IMRIValueListener() {
-
-			@Override
-			public void valueChanged(MRIValueEvent event) {
-				r.getTrigger().triggerOn(handleRef.get(), r, event);
-			}
-		};
-
-		boolean activateOk = activateRule(r, listener, handleRef.get());
-		rules.put(r, listener);
-		return activateOk;
+		rules.add(r);
+		IConnectionHandle handle = handleRef.get();
+		if (handle == null || !handle.isConnected()) {
+			// Evaluated once the connection is activated
+			engine.addRule(r);
+			return false;
+		}
+		if (isActivatable(r, handle)) {
+			engine.addRule(r);
+			return true;
+		}
+		return false;
 	}
 
 	/**
-	 * Activates rule, returns true if the action of the rule is support, false otherwise.
+	 * Returns true if the action of the rule is supported on the connection, false otherwise.
 	 *
 	 * @param r
 	 * @param handle
 	 * @return
 	 */
-	private boolean activateRule(TriggerRule r, IMRIValueListener listener, IConnectionHandle handle) {
-		if (handle != null && handle.isConnected() && (!(r.getAction() instanceof IActivatableTriggerAction)
-				|| ((IActivatableTriggerAction) r.getAction()).isActivatable(handle))) {
-			handle.getServiceOrDummy(ISubscriptionService.class)
-					.addMRIValueListener(r.getTrigger().getAttributeDescriptor(), listener);
-			return true;
-		}
-		return false;
-	}
-
-	private void deactivateRule(TriggerRule r, IMRIValueListener listener, IConnectionHandle handle) {
-		if (handle != null && handle.isConnected()) {
-			handle.getServiceOrDummy(ISubscriptionService.class).removeMRIValueListener(listener);
-		}
-		if (r.getTrigger() instanceof NotificationTrigger) {
-			// FIXME: This needs to go away...
-			r.getTrigger().clearState(serverGuid);
-		}
+	private static boolean isActivatable(TriggerRule r, IConnectionHandle handle) {
+		return handle.isConnected() && (!(r.getAction() instanceof IActivatableTriggerAction)
+				|| ((IActivatableTriggerAction) r.getAction()).isActivatable(handle));
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -48,6 +48,7 @@ import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
 import org.openjdk.jmc.rjmx.subscription.internal.ExtendedMRIMetadataToolkit;
 import org.openjdk.jmc.rjmx.triggers.IExceptionHandler;
 import org.openjdk.jmc.rjmx.triggers.ITrigger;
+import org.openjdk.jmc.rjmx.triggers.ITriggerAction;
 import org.openjdk.jmc.rjmx.triggers.IValueEvaluator;
 import org.openjdk.jmc.rjmx.triggers.TriggerEvent;
 import org.openjdk.jmc.rjmx.triggers.TriggerRule;
@@ -87,6 +88,7 @@ public class NotificationTrigger implements ITrigger {
 	private static final int STATE_WAITING_SUSTAIN_LOW = 4;
 
 	private static final int TRIGGER_ERROR_HANDLING_LIMIT_TIME_MS = 60000;
+	private static final long NO_TIMESTAMP = Long.MIN_VALUE;
 
 	// XML elements
 	private static final String XML_ELEMENT_LIMIT_PERIOD = "trigger_limit_period"; //$NON-NLS-1$
@@ -116,17 +118,21 @@ public class NotificationTrigger implements ITrigger {
 	/**
 	 * This class and the uidToStateStoreMap is here to work around a bug where each rule instance
 	 * is accessed by several connections. This class associates the state of each trigger with a
-	 * connection uid.
+	 * connection uid. {@link TriggerEvaluationEngine} keeps its own state for each rule and
+	 * connection instead.
 	 */
 	static class StateStore {
 		int m_lastTriggeredState = STATE_START;
 		// Flag to keep track on what kind of event was triggered last.
 		int m_triggerState = STATE_START;
 
-		// Trigger flags
-		Long m_lastSwitchEventTimestamp;
-		Long m_lastTriggerEventTimestamp;
-		Long m_lastTriggerErrorTimestamp;
+		// Trigger timestamps, NO_TIMESTAMP if not set
+		long m_lastSwitchEventTimestamp = NO_TIMESTAMP;
+		long m_lastTriggerEventTimestamp = NO_TIMESTAMP;
+		long m_lastTriggerErrorTimestamp = NO_TIMESTAMP;
+
+		// Actions for the trigger run in order, but not on the thread evaluating the trigger
+		final TriggerActionDispatcher.ActionQueue m_actions = new TriggerActionDispatcher.ActionQueue();
 	}
 
 	/**
@@ -193,12 +199,14 @@ public class NotificationTrigger implements ITrigger {
 	}
 
 	private StateStore getStateStoreForUID(String uid) {
-		StateStore store = uidToStateStoreMap.get(uid);
-		if (store == null) {
-			store = new StateStore();
-			uidToStateStoreMap.put(uid, store);
+		synchronized (uidToStateStoreMap) {
+			StateStore store = uidToStateStoreMap.get(uid);
+			if (store == null) {
+				store = new StateStore();
+				uidToStateStoreMap.put(uid, store);
+			}
+			return store;
 		}
-		return store;
 	}
 
 	/**
@@ -235,21 +243,51 @@ public class NotificationTrigger implements ITrigger {
 		try {
 			triggered = getValueEvaluator().triggerOn(eventValue);
 		} catch (Exception e) {
-			if (stateStore.m_lastTriggerErrorTimestamp == null || (aspectEvent.getTimestamp()
-					- stateStore.m_lastTriggerErrorTimestamp >= TRIGGER_ERROR_HANDLING_LIMIT_TIME_MS)) {
-				stateStore.m_lastTriggerErrorTimestamp = aspectEvent.getTimestamp();
-				handleException(connectionHandle, rule, e, null);
-			}
+			handleEvaluationError(stateStore, connectionHandle, rule, aspectEvent, e);
 			return;
 		}
+		evaluate(stateStore, connectionHandle, rule, aspectEvent, triggered);
+	}
 
+	/**
+	 * Report that the value evaluator failed. Errors are reported at most once per minute.
+	 */
+	void handleEvaluationError(
+		StateStore stateStore, IConnectionHandle connectionHandle, TriggerRule rule, MRIValueEvent aspectEvent,
+		Exception e) {
+		if (stateStore.m_lastTriggerErrorTimestamp == NO_TIMESTAMP || (aspectEvent.getTimestamp()
+				- stateStore.m_lastTriggerErrorTimestamp >= TRIGGER_ERROR_HANDLING_LIMIT_TIME_MS)) {
+			stateStore.m_lastTriggerErrorTimestamp = aspectEvent.getTimestamp();
+			handleException(connectionHandle, rule, e, null);
+		}
+	}
+
+	/**
+	 * Update the trigger state with an evaluated value, and trigger if the state changes from the
+	 * current state (depending on the trigger settings).
+	 *
+	 * @param stateStore
+	 *            the state of the trigger for the connection
+	 * @param connectionHandle
+	 *            the connection handle
+	 * @param rule
+	 *            the rule that we're checking
+	 * @param aspectEvent
+	 *            the event that was evaluated
+	 * @param triggered
+	 *            the result of the value evaluator for the event
+	 */
+	void evaluate(
+		StateStore stateStore, IConnectionHandle connectionHandle, TriggerRule rule, MRIValueEvent aspectEvent,
+		boolean triggered) {
+		long timestamp = aspectEvent.getTimestamp();
 		if (stateStore.m_triggerState == STATE_START || getSustainTimeMillis() == 0) {
 			if (triggered) {
 				stateStore.m_triggerState = STATE_WAITING_SUSTAIN_HIGH;
 			} else {
 				stateStore.m_triggerState = STATE_WAITING_SUSTAIN_LOW;
 			}
-			stateStore.m_lastSwitchEventTimestamp = aspectEvent.getTimestamp();
+			stateStore.m_lastSwitchEventTimestamp = timestamp;
 		}
 
 		switch (stateStore.m_triggerState) {
@@ -257,43 +295,42 @@ public class NotificationTrigger implements ITrigger {
 			if (triggered) {
 				if ((stateStore.m_lastTriggeredState == STATE_TRIGGER_LOW
 						|| stateStore.m_lastTriggeredState == STATE_START)
-						&& aspectEvent.getTimestamp()
-								- stateStore.m_lastSwitchEventTimestamp.longValue() >= getSustainTimeMillis()) {
-					if (stateStore.m_lastTriggerEventTimestamp == null || (aspectEvent.getTimestamp()
-							- stateStore.m_lastTriggerEventTimestamp.longValue() >= getLimitTimeMillis())) {
-						doTrigger(STATE_TRIGGER_HIGH, connectionHandle, rule, aspectEvent,
+						&& timestamp - stateStore.m_lastSwitchEventTimestamp >= getSustainTimeMillis()) {
+					if (stateStore.m_lastTriggerEventTimestamp == NO_TIMESTAMP
+							|| (timestamp - stateStore.m_lastTriggerEventTimestamp >= getLimitTimeMillis())) {
+						doTrigger(stateStore, STATE_TRIGGER_HIGH, connectionHandle, rule, aspectEvent,
 								(getTriggerOn() & TRIGGER_ON_RULE_TRIGGERED) > 0);
 					}
 				}
 			} else {
-				stateStore.m_lastSwitchEventTimestamp = aspectEvent.getTimestamp();
+				stateStore.m_lastSwitchEventTimestamp = timestamp;
 				stateStore.m_triggerState = STATE_WAITING_SUSTAIN_LOW;
 			}
 			break;
 		case STATE_TRIGGER_HIGH:
 			if (!triggered) {
-				stateStore.m_lastSwitchEventTimestamp = aspectEvent.getTimestamp();
+				stateStore.m_lastSwitchEventTimestamp = timestamp;
 				stateStore.m_triggerState = STATE_WAITING_SUSTAIN_LOW;
 			}
 			break;
 		case STATE_TRIGGER_LOW:
 			if (triggered) {
-				stateStore.m_lastSwitchEventTimestamp = aspectEvent.getTimestamp();
+				stateStore.m_lastSwitchEventTimestamp = timestamp;
 				stateStore.m_triggerState = STATE_WAITING_SUSTAIN_HIGH;
 			}
 			break;
 		case STATE_WAITING_SUSTAIN_LOW:
 			if (!triggered) {
-				if (stateStore.m_lastTriggeredState == STATE_TRIGGER_HIGH && (aspectEvent.getTimestamp()
-						- stateStore.m_lastSwitchEventTimestamp.longValue() >= getSustainTimeMillis())) {
-					if (stateStore.m_lastTriggerEventTimestamp == null || (aspectEvent.getTimestamp()
-							- stateStore.m_lastTriggerEventTimestamp.longValue() >= getLimitTimeMillis())) {
-						doTrigger(STATE_TRIGGER_LOW, connectionHandle, rule, aspectEvent,
+				if (stateStore.m_lastTriggeredState == STATE_TRIGGER_HIGH
+						&& (timestamp - stateStore.m_lastSwitchEventTimestamp >= getSustainTimeMillis())) {
+					if (stateStore.m_lastTriggerEventTimestamp == NO_TIMESTAMP
+							|| (timestamp - stateStore.m_lastTriggerEventTimestamp >= getLimitTimeMillis())) {
+						doTrigger(stateStore, STATE_TRIGGER_LOW, connectionHandle, rule, aspectEvent,
 								(getTriggerOn() & TRIGGER_ON_RULE_RECOVERED) > 0);
 					}
 				}
 			} else {
-				stateStore.m_lastSwitchEventTimestamp = aspectEvent.getTimestamp();
+				stateStore.m_lastSwitchEventTimestamp = timestamp;
 				stateStore.m_triggerState = STATE_WAITING_SUSTAIN_HIGH;
 			}
 			break;
@@ -303,20 +340,21 @@ public class NotificationTrigger implements ITrigger {
 	}
 
 	/**
-	 * Note: This method will only trigger an action if the constraints checks out.
+	 * Note: This method will only trigger an action if the constraints checks out. The action is
+	 * run asynchronously.
 	 *
+	 * @param stateStore
 	 * @param triggState
 	 * @param connectionHandle
 	 * @param rule
 	 * @param aspectEvent
 	 */
 	private void doTrigger(
-		int triggState, IConnectionHandle connectionHandle, TriggerRule rule, MRIValueEvent aspectEvent,
-		boolean notificationEnabled) {
-		StateStore stateStore = getStateStoreForUID(connectionHandle.getServerDescriptor().getGUID());
+		StateStore stateStore, int triggState, IConnectionHandle connectionHandle, TriggerRule rule,
+		MRIValueEvent aspectEvent, boolean notificationEnabled) {
 		TriggerEvent event = new TriggerEvent(connectionHandle, rule, aspectEvent.getValue(),
 				triggState == STATE_TRIGGER_HIGH,
-				(int) (aspectEvent.getTimestamp() - stateStore.m_lastSwitchEventTimestamp.longValue()));
+				(int) (aspectEvent.getTimestamp() - stateStore.m_lastSwitchEventTimestamp));
 		if (!checkConstraints(rule, event)) {
 			return;
 		}
@@ -324,13 +362,14 @@ public class NotificationTrigger implements ITrigger {
 		stateStore.m_triggerState = triggState;
 		if (notificationEnabled) {
 			stateStore.m_lastTriggerEventTimestamp = aspectEvent.getTimestamp();
-			String triggerMessage = NotificationToolkit.prettyPrint(event);
-			// FIXME: The invocation of the actions should be added to a queue and dispatched in a separate thread
-			try {
-				rule.getAction().handleNotificationEvent(event);
-			} catch (Throwable e) {
-				handleException(connectionHandle, rule, e, triggerMessage);
-			}
+			ITriggerAction action = rule.getAction();
+			stateStore.m_actions.dispatch(() -> {
+				try {
+					action.handleNotificationEvent(event);
+				} catch (Throwable e) {
+					handleException(connectionHandle, rule, e, NotificationToolkit.prettyPrint(event));
+				}
+			});
 		}
 	}
 
@@ -521,7 +560,9 @@ public class NotificationTrigger implements ITrigger {
 	 * @param uid
 	 */
 	public void clearState(String uid) {
-		uidToStateStoreMap.remove(uid);
+		synchronized (uidToStateStoreMap) {
+			uidToStateStoreMap.remove(uid);
+		}
 	}
 
 }
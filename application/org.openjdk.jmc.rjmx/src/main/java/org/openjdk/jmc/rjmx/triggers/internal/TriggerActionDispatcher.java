@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.triggers.internal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs trigger actions on a small shared thread pool, so that slow actions, like heap dumps or
+ * diagnostic commands, never hold up the threads that sample attribute values. Actions queued in
+ * the same {@link ActionQueue} run one at a time, in the order they were queued.
+ */
+public final class TriggerActionDispatcher {
+	private static final Logger LOGGER = Logger.getLogger("org.openjdk.jmc.rjmx.triggers"); //$NON-NLS-1$
+
+	private static final int MAX_THREADS = 4;
+	/**
+	 * The maximum number of actions waiting in one queue.
+	 */
+	public static final int MAX_QUEUED_ACTIONS = 16;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+	private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<>(1024), r -> {
+				Thread thread = new Thread(r, "Trigger Action Dispatcher " + THREAD_COUNT.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private TriggerActionDispatcher() {
+		// Not to be instantiated
+	}
+
+	/**
+	 * A queue of actions that run one at a time. There is at most one task per queue waiting in, or
+	 * running on, the thread pool.
+	 */
+	public static class ActionQueue {
+		private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+		private boolean scheduled;
+
+		/**
+		 * Queue an action. If the queue is full, because previous actions have not completed yet,
+		 * the action is dropped.
+		 *
+		 * @param action
+		 *            the action to run
+		 */
+		public void dispatch(Runnable action) {
+			synchronized (this) {
+				if (pending.size() >= MAX_QUEUED_ACTIONS) {
+					LOGGER.log(Level.WARNING, "Too many pending trigger actions, dropping action"); //$NON-NLS-1$
+					return;
+				}
+				pending.add(action);
+				if (scheduled) {
+					return;
+				}
+				scheduled = true;
+			}
+			try {
+				EXECUTOR.execute(this::runPending);
+			} catch (RejectedExecutionException e) {
+				synchronized (this) {
+					pending.clear();
+					scheduled = false;
+				}
+				LOGGER.log(Level.WARNING, "Trigger action dispatcher is overloaded, dropping actions"); //$NON-NLS-1$
+			}
+		}
+
+		private void runPending() {
+			while (true) {
+				Runnable action;
+				synchronized (this) {
+					action = pending.poll();
+					if (action == null) {
+						scheduled = false;
+						return;
+					}
+				}
+				try {
+					action.run();
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Trigger action failed", e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+}
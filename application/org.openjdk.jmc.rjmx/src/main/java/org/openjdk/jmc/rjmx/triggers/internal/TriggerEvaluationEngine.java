@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.triggers.internal;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IUnit;
+import org.openjdk.jmc.rjmx.common.IConnectionHandle;
+import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
+import org.openjdk.jmc.rjmx.common.subscription.ISubscriptionService;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
+import org.openjdk.jmc.rjmx.subscription.internal.ExtendedMRIMetadataToolkit;
+import org.openjdk.jmc.rjmx.triggers.IValueEvaluator;
+import org.openjdk.jmc.rjmx.triggers.TriggerRule;
+
+/**
+ * Evaluates the trigger rules of one connection. Rules are indexed by attribute, so that each
+ * attribute has a single subscription listener regardless of the number of rules for it, and the
+ * unit of each value is only looked up once. Each rule keeps its trigger state in a
+ * {@link NotificationTrigger.StateStore} of its own, instead of looking it up by connection on
+ * every value.
+ * <p>
+ * Number limits are converted to the unit of the attribute once, after which values are compared as
+ * primitive doubles. Other conditions are evaluated by the value evaluator of the rule.
+ * <p>
+ * Rules are added and removed by one thread at a time, while values may be evaluated concurrently
+ * by the subscription threads.
+ */
+public class TriggerEvaluationEngine {
+
+	private final Map<MRI, AttributeRules> attributes = new HashMap<>();
+	// The attribute that each rule was added for
+	private final Map<TriggerRule, MRI> ruleAttributes = new HashMap<>();
+	private volatile WeakReference<IConnectionHandle> handleRef = new WeakReference<>(null);
+
+	/**
+	 * A number limit converted to a unit. Immutable, so that the limit, the unit and the converted
+	 * value are always seen together by concurrent evaluations.
+	 */
+	private static class ConvertedLimit {
+		final IQuantity limit;
+		final IUnit unit;
+		final double value;
+
+		ConvertedLimit(IQuantity limit, IUnit unit, double value) {
+			this.limit = limit;
+			this.unit = unit;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * A rule and its trigger state.
+	 */
+	private static class RuleEntry {
+		final TriggerRule rule;
+		volatile NotificationTrigger.StateStore state = new NotificationTrigger.StateStore();
+		// The last number limit converted, or null if none has been converted yet
+		private volatile ConvertedLimit convertedLimit;
+
+		RuleEntry(TriggerRule rule) {
+			this.rule = rule;
+		}
+
+		boolean triggerOn(IValueEvaluator evaluator, Object value, IUnit unit, Object evaluatedValue) throws Exception {
+			if (unit != null) {
+				if (evaluator instanceof ValueEvaluatorNumberMax) {
+					double max = convertLimit(((ValueEvaluatorNumberMax) evaluator).getMax(), unit);
+					double doubleValue = ((Number) value).doubleValue();
+					// NaN means that the limit could not be converted, let the evaluator report it
+					if (!Double.isNaN(max) && !Double.isNaN(doubleValue)) {
+						return doubleValue > max;
+					}
+				} else if (evaluator instanceof ValueEvaluatorNumberMin) {
+					double min = convertLimit(((ValueEvaluatorNumberMin) evaluator).getMin(), unit);
+					double doubleValue = ((Number) value).doubleValue();
+					if (!Double.isNaN(min) && !Double.isNaN(doubleValue)) {
+						return doubleValue < min;
+					}
+				}
+			}
+			return evaluator.triggerOn(evaluatedValue);
+		}
+
+		private double convertLimit(IQuantity limit, IUnit unit) {
+			ConvertedLimit converted = convertedLimit;
+			if (converted == null || limit != converted.limit || unit != converted.unit) {
+				if (limit == null || !limit.getUnit().getContentType().equals(unit.getContentType())) {
+					return Double.NaN;
+				}
+				converted = new ConvertedLimit(limit, unit, limit.doubleValueIn(unit));
+				convertedLimit = converted;
+			}
+			return converted.value;
+		}
+	}
+
+	/**
+	 * The rules for one attribute.
+	 */
+	private class AttributeRules implements IMRIValueListener {
+		// Copied on change, so that values can be evaluated while rules are added and removed
+		volatile RuleEntry[] entries = new RuleEntry[0];
+
+		@Override
+		public void valueChanged(MRIValueEvent event) {
+			Object value = event.getValue();
+			IConnectionHandle handle = handleRef.get();
+			if (value == null || handle == null) {
+				// if we have no value we shouldn't trigger.
+				return;
+			}
+			IUnit unit = null;
+			Object evaluatedValue = value;
+			if (value instanceof Number) {
+				unit = ExtendedMRIMetadataToolkit.getUnit(handle, event.getMRI());
+				if (unit != null) {
+					evaluatedValue = unit.quantity((Number) value);
+				}
+			}
+			for (RuleEntry entry : entries) {
+				NotificationTrigger trigger = entry.rule.getTrigger();
+				NotificationTrigger.StateStore state = entry.state;
+				boolean triggered;
+				try {
+					triggered = entry.triggerOn(trigger.getValueEvaluator(), value, unit, evaluatedValue);
+				} catch (Exception e) {
+					trigger.handleEvaluationError(state, handle, entry.rule, event, e);
+					continue;
+				}
+				trigger.evaluate(state, handle, entry.rule, event, triggered);
+			}
+		}
+	}
+
+	/**
+	 * Start evaluating rules on a connection.
+	 *
+	 * @param handle
+	 *            the connection
+	 */
+	public synchronized void activate(IConnectionHandle handle) {
+		unsubscribe(handleRef.get());
+		handleRef = new WeakReference<>(handle);
+		for (Map.Entry<MRI, AttributeRules> e : attributes.entrySet()) {
+			handle.getServiceOrDummy(ISubscriptionService.class).addMRIValueListener(e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Stop evaluating rules and clear the trigger states.
+	 *
+	 * @param handle
+	 *            the connection, or {@code null} if it is already closed
+	 */
+	public synchronized void deactivate(IConnectionHandle handle) {
+		unsubscribe(handle);
+		handleRef = new WeakReference<>(null);
+		for (AttributeRules rules : attributes.values()) {
+			for (RuleEntry entry : rules.entries) {
+				entry.state = new NotificationTrigger.StateStore();
+			}
+		}
+	}
+
+	private void unsubscribe(IConnectionHandle handle) {
+		if (handle != null && handle.isConnected()) {
+			for (AttributeRules rules : attributes.values()) {
+				handle.getServiceOrDummy(ISubscriptionService.class).removeMRIValueListener(rules);
+			}
+		}
+	}
+
+	/**
+	 * Start evaluating a rule. The rule must have a trigger with an attribute.
+	 *
+	 * @param rule
+	 *            the rule to add
+	 */
+	public synchronized void addRule(TriggerRule rule) {
+		if (ruleAttributes.containsKey(rule)) {
+			return;
+		}
+		MRI mri = rule.getTrigger().getAttributeDescriptor();
+		ruleAttributes.put(rule, mri);
+		AttributeRules rules = attributes.get(mri);
+		if (rules == null) {
+			rules = new AttributeRules();
+			attributes.put(mri, rules);
+			IConnectionHandle handle = handleRef.get();
+			if (handle != null && handle.isConnected()) {
+				handle.getServiceOrDummy(ISubscriptionService.class).addMRIValueListener(mri, rules);
+			}
+		}
+		RuleEntry[] entries = Arrays.copyOf(rules.entries, rules.entries.length + 1);
+		entries[entries.length - 1] = new RuleEntry(rule);
+		rules.entries = entries;
+	}
+
+	/**
+	 * Stop evaluating a rule.
+	 *
+	 * @param rule
+	 *            the rule to remove
+	 */
+	public synchronized void removeRule(TriggerRule rule) {
+		MRI mri = ruleAttributes.remove(rule);
+		AttributeRules rules = mri != null ? attributes.get(mri) : null;
+		if (rules == null) {
+			return;
+		}
+		RuleEntry[] entries = rules.entries;
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].rule == rule) {
+				RuleEntry[] newEntries = new RuleEntry[entries.length - 1];
+				System.arraycopy(entries, 0, newEntries, 0, i);
+				System.arraycopy(entries, i + 1, newEntries, i, newEntries.length - i);
+				rules.entries = newEntries;
+				break;
+			}
+		}
+		if (rules.entries.length == 0) {
+			attributes.remove(mri);
+			IConnectionHandle handle = handleRef.get();
+			if (handle != null && handle.isConnected()) {
+				handle.getServiceOrDummy(ISubscriptionService.class).removeMRIValueListener(rules);
+			}
+		}
+	}
+}
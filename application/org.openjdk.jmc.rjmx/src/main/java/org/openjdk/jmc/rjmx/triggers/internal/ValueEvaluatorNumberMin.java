@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,6 +32,7 @@
  */
 package org.openjdk.jmc.rjmx.triggers.internal;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.osgi.util.NLS;
@@ -97,8 +98,10 @@ public final class ValueEvaluatorNumberMin implements IValueEvaluator {
 							val.displayUsing(IDisplayable.EXACT), m_min.displayUsing(IDisplayable.EXACT)));
 		}
 		boolean result = val.compareTo(m_min) < 0;
-		LOGGER.info("ValueEvaluatorNumberMin: " + val.persistableString() + " < " + m_min.persistableString() + " = " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				+ result);
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine("ValueEvaluatorNumberMin: " + val.persistableString() + " < " + m_min.persistableString() //$NON-NLS-1$ //$NON-NLS-2$
+					+ " = " + result); //$NON-NLS-1$
+		}
 		return result;
 	}
 
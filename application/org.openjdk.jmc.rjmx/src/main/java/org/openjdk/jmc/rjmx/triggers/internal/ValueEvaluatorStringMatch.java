@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,7 +32,9 @@
  */
 package org.openjdk.jmc.rjmx.triggers.internal;
 
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 import org.w3c.dom.Element;
 
@@ -49,6 +51,7 @@ public final class ValueEvaluatorStringMatch implements IValueEvaluator {
 	private static final String XML_ELEMENT_MATCHSTRING = "maxvalue"; //$NON-NLS-1$
 
 	private String m_matchString;
+	private volatile Pattern m_pattern;
 
 	/**
 	 * Constructor. Used when constructing from XML.
@@ -63,7 +66,7 @@ public final class ValueEvaluatorStringMatch implements IValueEvaluator {
 	 *            see class comment.
 	 */
 	public ValueEvaluatorStringMatch(String matchString) {
-		m_matchString = matchString;
+		setMatchString(matchString);
 	}
 
 	/**
@@ -71,10 +74,13 @@ public final class ValueEvaluatorStringMatch implements IValueEvaluator {
 	 */
 	@Override
 	public boolean triggerOn(Object val) {
-		if (val != null && m_matchString != null) {
-			boolean result = matcher(val.toString(), m_matchString);
-			LOGGER.info("ValueEvaluatorStringMatch:" + val.toString() + " matches " + m_matchString + " = " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-					+ result);
+		Pattern pattern = m_pattern;
+		if (val != null && pattern != null) {
+			boolean result = pattern.matcher(val.toString()).matches();
+			if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine("ValueEvaluatorStringMatch:" + val.toString() + " matches " + m_matchString + " = " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						+ result);
+			}
 			return result;
 		} else {
 			return false;
@@ -82,31 +88,26 @@ public final class ValueEvaluatorStringMatch implements IValueEvaluator {
 	}
 
 	/**
-	 * Naive implementation of a wildcard matcher.
-	 * <p>
-	 * Assumes s != null and matchString != null
+	 * Compile a match string to a regular expression, where '*' matches any number of characters
+	 * and '?' matches exactly one character.
 	 */
-	private boolean matcher(String s, String matchString) {
-		if (s.length() == 0) {
-			return matchString.length() == 0 || matchString.equals("*"); //$NON-NLS-1$
-		}
-		if (matchString.length() == 0) {
-			return false;
-		}
-		if (matchString.charAt(0) == '*') // recursive check
-		{
-			for (int n = 0; n <= s.length(); n++) {
-				if (matcher(s.substring(n), matchString.substring(1))) {
-					return true;
+	private static Pattern compile(String matchString) {
+		StringBuilder regex = new StringBuilder();
+		int literalStart = 0;
+		for (int i = 0; i < matchString.length(); i++) {
+			char c = matchString.charAt(i);
+			if (c == '*' || c == '?') {
+				if (i > literalStart) {
+					regex.append(Pattern.quote(matchString.substring(literalStart, i)));
 				}
+				regex.append(c == '*' ? ".*" : "."); //$NON-NLS-1$ //$NON-NLS-2$
+				literalStart = i + 1;
 			}
-		} else if (matchString.charAt(0) == '?') {
-			return matcher(s.substring(1), matchString.substring(1));
-		} else if (matchString.charAt(0) == s.charAt(0)) {
-			return matcher(s.substring(1), matchString.substring(1));
 		}
-
-		return false;
+		if (matchString.length() > literalStart) {
+			regex.append(Pattern.quote(matchString.substring(literalStart)));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
 	}
 
 	/**
@@ -132,6 +133,7 @@ public final class ValueEvaluatorStringMatch implements IValueEvaluator {
 	 */
 	public void setMatchString(String matchString) {
 		m_matchString = matchString;
+		m_pattern = matchString != null ? compile(matchString) : null;
 	}
 
 	@Override
@@ -33,15 +33,22 @@
  */
 package org.openjdk.jmc.ui.websocket;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
 import java.nio.channels.ClosedChannelException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
-import java.util.function.Function;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
@@ -49,6 +56,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.websocket.api.Callback;
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
 import org.eclipse.jetty.websocket.server.WebSocketUpgradeHandler;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.flightrecorder.serializers.dot.DotSerializer;
@@ -65,7 +73,21 @@ public class MCWebsocketServer {
 	private List<WebsocketConnectionHandler> treeHandlers = new CopyOnWriteArrayList<>();
 	private List<WebsocketConnectionHandler> graphHandlers = new CopyOnWriteArrayList<>();
 	private final ExecutorService executorService = Executors.newSingleThreadExecutor();
-	private IItemCollection currentSelection = null;
+	// All messages are serialized and sent from this thread, which keeps the fragments of one
+	// message from interleaving with another message on the same session
+	private final ExecutorService sendExecutorService = Executors.newSingleThreadExecutor();
+	private volatile IItemCollection currentSelection = null;
+
+	/**
+	 * Writes a representation of a selection to a writer.
+	 */
+	private interface SelectionSerializer {
+		/**
+		 * @return {@code true} if the whole selection was written, {@code false} if writing was
+		 *         stopped
+		 */
+		boolean write(IItemCollection items, Writer writer, BooleanSupplier stopFlag) throws IOException;
+	}
 
 	public MCWebsocketServer(int port) {
 		executorService.execute(() -> startServer(port));
@@ -82,20 +104,17 @@ public class MCWebsocketServer {
 			container.setMaxBinaryMessageSize(Long.MAX_VALUE);
 			container.setIdleTimeout(Duration.ofMillis(Long.MAX_VALUE));
 			container.addMapping("/events/*", (req, resp, callback) -> {
-				String eventsJson = MCWebsocketServer.toEventsJsonString(currentSelection);
-				WebsocketConnectionHandler handler = new WebsocketConnectionHandler(eventsJson);
+				WebsocketConnectionHandler handler = createHandler(MCWebsocketServer::writeEventsJson);
 				handlers.add(handler);
 				return handler;
 			});
 			container.addMapping("/tree/*", (req, resp, callback) -> {
-				String treeJson = MCWebsocketServer.toTreeModelJsonString(currentSelection);
-				WebsocketConnectionHandler handler = new WebsocketConnectionHandler(treeJson);
+				WebsocketConnectionHandler handler = createHandler(MCWebsocketServer::writeTreeModelJson);
 				treeHandlers.add(handler);
 				return handler;
 			});
 			container.addMapping("/graph/*", (req, resp, callback) -> {
-				String dot = MCWebsocketServer.toGraphModelDotString(currentSelection);
-				WebsocketConnectionHandler handler = new WebsocketConnectionHandler(dot);
+				WebsocketConnectionHandler handler = createHandler(MCWebsocketServer::writeGraphModelDot);
 				graphHandlers.add(handler);
 				return handler;
 			});
@@ -110,6 +129,16 @@ public class MCWebsocketServer {
 		}
 	}
 
+	private WebsocketConnectionHandler createHandler(SelectionSerializer serializer) {
+		// The current selection is sent as the first message once the connection is open
+		return new WebsocketConnectionHandler(session -> {
+			IItemCollection selection = currentSelection;
+			if (selection != null) {
+				send(selection, Collections.singletonList(session), serializer);
+			}
+		});
+	}
+
 	public void notifyAll(IItemCollection events) {
 		currentSelection = events;
 		notifyAllEventHandlers(events);
@@ -118,85 +147,189 @@ public class MCWebsocketServer {
 	}
 
 	private void notifyAllEventHandlers(IItemCollection events) {
-		handlers = notifyAllHandlers(events, handlers, MCWebsocketServer::toEventsJsonString);
+		handlers = notifyAllHandlers(events, handlers, MCWebsocketServer::writeEventsJson);
 	}
 
 	private void notifyAllGraphHandlers(IItemCollection events) {
-		graphHandlers = notifyAllHandlers(events, graphHandlers, MCWebsocketServer::toGraphModelDotString);
+		graphHandlers = notifyAllHandlers(events, graphHandlers, MCWebsocketServer::writeGraphModelDot);
 	}
 
 	private void notifyAllTreeHandlers(IItemCollection events) {
-		treeHandlers = notifyAllHandlers(events, treeHandlers, MCWebsocketServer::toTreeModelJsonString);
+		treeHandlers = notifyAllHandlers(events, treeHandlers, MCWebsocketServer::writeTreeModelJson);
 	}
 
-	private static String toEventsJsonString(IItemCollection items) {
-		if (items == null) {
-			return null;
-		}
-		return IItemCollectionJsonSerializer.toJsonString(items);
+	private static boolean writeEventsJson(IItemCollection items, Writer writer, BooleanSupplier stopFlag)
+			throws IOException {
+		return IItemCollectionJsonSerializer.toJson(items, writer, stopFlag);
 	}
 
-	private static String toGraphModelDotString(IItemCollection items) {
-		if (items == null) {
-			return null;
-		}
+	private static boolean writeGraphModelDot(IItemCollection items, Writer writer, BooleanSupplier stopFlag)
+			throws IOException {
 		FrameSeparator frameSeparator = new FrameSeparator(FrameCategorization.METHOD, false);
 		StacktraceGraphModel model = new StacktraceGraphModel(frameSeparator, items, null);
-		return DotSerializer.toDot(model, 10_000, new HashMap<>());
+		return DotSerializer.toDot(model, 10_000, new HashMap<>(), writer, stopFlag);
 	}
 
-	private static String toTreeModelJsonString(IItemCollection items) {
-		if (items == null) {
-			return null;
-		}
-		StacktraceTreeModel model = new StacktraceTreeModel(items);
-		return FlameGraphJsonSerializer.toJson(model);
+	private static boolean writeTreeModelJson(IItemCollection items, Writer writer, BooleanSupplier stopFlag)
+			throws IOException {
+		FrameSeparator frameSeparator = new FrameSeparator(FrameCategorization.METHOD, false);
+		StacktraceTreeModel model = new StacktraceTreeModel(items, frameSeparator, false, null, stopFlag);
+		// A model that was stopped while being built is incomplete and must not be written
+		return !stopFlag.getAsBoolean() && FlameGraphJsonSerializer.toJson(model, writer, stopFlag);
 	}
 
 	private List<WebsocketConnectionHandler> notifyAllHandlers(
-		IItemCollection events, List<WebsocketConnectionHandler> handlers,
-		Function<IItemCollection, String> jsonSerializer) {
+		IItemCollection events, List<WebsocketConnectionHandler> handlers, SelectionSerializer serializer) {
 		handlers = handlers.stream().filter(h -> h.isConnected()).collect(Collectors.toList());
 		if (handlers.size() == 0 || events == null) {
 			// do nothing if no handlers are registered
 			return handlers;
 		}
-		String json = jsonSerializer.apply(events);
-		handlers.forEach(handler -> handler.sendMessage(json));
+		List<Session> sessions = handlers.stream().map(h -> h.session).collect(Collectors.toList());
+		send(events, sessions, serializer);
 		return handlers;
 	}
 
+	/**
+	 * Serializes the selection once and streams it to all the sessions as a fragmented text
+	 * message. Sending is stopped as soon as another selection is made, since that selection will
+	 * be sent to the same sessions.
+	 */
+	private void send(IItemCollection items, List<Session> sessions, SelectionSerializer serializer) {
+		sendExecutorService.execute(() -> {
+			WebsocketTextWriter writer = new WebsocketTextWriter(sessions);
+			try {
+				if (serializer.write(items, writer, () -> items != currentSelection)) {
+					writer.close();
+				} else {
+					writer.abort(StatusCode.TRY_AGAIN_LATER, "Selection changed while sending");
+				}
+			} catch (IOException | RuntimeException e) {
+				WebsocketPlugin.getLogger().log(Level.WARNING, "Failed to send message", e);
+				writer.abort(StatusCode.SERVER_ERROR, "Failed to send selection");
+			}
+		});
+	}
+
 	public void shutdown() throws Exception {
 		server.stop();
+		sendExecutorService.shutdownNow();
 	}
 
-	public static class WebsocketConnectionHandler implements Session.Listener.AutoDemanding {
-		private String firstMessage;
-		private Session session;
+	/**
+	 * Sends the text written to it as partial text frames. A frame is sent whenever enough text has
+	 * been buffered, and the writer waits for it to be sent to all sessions before accepting more
+	 * text. Closing the writer sends the last frame and completes the message. Aborting the writer
+	 * instead makes sure that no incomplete message is ever presented as a complete one.
+	 */
+	private static class WebsocketTextWriter extends Writer {
+		private static final int FRAGMENT_SIZE = 64 * 1024;
 
-		WebsocketConnectionHandler(String firstMessage) {
-			this.firstMessage = firstMessage;
+		private final List<Session> sessions;
+		private final StringBuilder fragment = new StringBuilder(FRAGMENT_SIZE);
+		private boolean started;
+		private boolean closed;
+
+		WebsocketTextWriter(List<Session> sessions) {
+			this.sessions = new ArrayList<>(sessions);
 		}
 
-		boolean isConnected() {
-			return session != null && session.isOpen();
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			int end = off + len;
+			while (off < end) {
+				int count = Math.min(end - off, FRAGMENT_SIZE - fragment.length());
+				fragment.append(cbuf, off, count);
+				off += count;
+				if (fragment.length() >= FRAGMENT_SIZE) {
+					sendFragment(false);
+				}
+			}
+		}
+
+		@Override
+		public void flush() {
+			// Fragments are sent when full, flushing early would only create small frames
 		}
 
-		public void sendMessage(String message) {
-			if (isConnected()) {
-				WebsocketPlugin.getLogger().log(Level.INFO, "Sending message to " + session.getRemoteSocketAddress());
-				session.sendText(message, Callback.NOOP);
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				sendFragment(true);
+			}
+		}
+
+		/**
+		 * Drops the message. If parts of it have already been sent, the message can not be
+		 * completed without truncating it, so the sessions are closed instead. The clients can
+		 * then reconnect and will be sent the current selection.
+		 */
+		void abort(int statusCode, String reason) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			fragment.setLength(0);
+			if (started) {
+				for (Session session : sessions) {
+					session.close(statusCode, reason, Callback.NOOP);
+				}
+			}
+		}
+
+		private void sendFragment(boolean last) throws IOException {
+			started = true;
+			String text;
+			if (!last && Character.isHighSurrogate(fragment.charAt(fragment.length() - 1))) {
+				// Keep surrogate pairs in the same frame
+				text = fragment.substring(0, fragment.length() - 1);
+				fragment.delete(0, fragment.length() - 1);
+			} else {
+				text = fragment.toString();
+				fragment.setLength(0);
+			}
+			List<Callback.Completable> callbacks = new ArrayList<>(sessions.size());
+			for (Session session : sessions) {
+				Callback.Completable callback = new Callback.Completable();
+				session.sendPartialText(text, last, callback);
+				callbacks.add(callback);
+			}
+			for (int i = callbacks.size() - 1; i >= 0; i--) {
+				try {
+					callbacks.get(i).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				} catch (ExecutionException e) {
+					WebsocketPlugin.getLogger().log(Level.INFO,
+							"Stopped sending to " + sessions.get(i).getRemoteSocketAddress(), e.getCause());
+					sessions.remove(i);
+				}
 			}
+			if (sessions.isEmpty()) {
+				throw new IOException("No open websocket session left to send to");
+			}
+		}
+	}
+
+	public static class WebsocketConnectionHandler implements Session.Listener.AutoDemanding {
+		private final Consumer<Session> onOpen;
+		private volatile Session session;
+
+		WebsocketConnectionHandler(Consumer<Session> onOpen) {
+			this.onOpen = onOpen;
+		}
+
+		boolean isConnected() {
+			return session != null && session.isOpen();
 		}
 
 		@Override
 		public void onWebSocketOpen(Session sess) {
 			this.session = sess;
 			WebsocketPlugin.getLogger().log(Level.INFO, "Socket connected to " + sess.getRemoteSocketAddress());
-			if (firstMessage != null) {
-				sess.sendText(firstMessage, Callback.NOOP);
-				firstMessage = null;
-			}
+			onOpen.accept(sess);
 		}
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -45,40 +45,109 @@ import org.openjdk.jmc.common.item.IItemIterable;
 import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.item.ItemToolkit;
 import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IScalarAffineTransform;
+import org.openjdk.jmc.common.unit.IUnit;
 
 public class QuantitySeries<T> {
 
+	// Decimated series keep all values when there are no more than this many per pixel column
+	private static final int VALUES_PER_COLUMN = 4;
+
+	private static class MaxEntry {
+		final IQuantity x;
+		final IQuantity y;
+		final IItem item;
+
+		MaxEntry(IQuantity x, IQuantity y, IItem item) {
+			this.x = x;
+			this.y = y;
+			this.item = item;
+		}
+	}
+
+	/**
+	 * Items sorted on x, with a pyramid of their maximum y values.
+	 */
+	private static class MaxItems {
+		final IItem[] items;
+		final IQuantity[] yValues;
+		final IUnit xUnit;
+		final SeriesPyramid pyramid;
+
+		MaxItems(IItemCollection items, IAttribute<IQuantity> xAttribute, IAttribute<IQuantity> yAttribute) {
+			List<MaxEntry> entries = new ArrayList<>();
+			for (IItemIterable next : items) {
+				IMemberAccessor<IQuantity, IItem> xValueAccessor = xAttribute.getAccessor(next.getType());
+				IMemberAccessor<IQuantity, ? super IItem> yValueAccessor = yAttribute.getAccessor(next.getType());
+				for (IItem item : next) {
+					IQuantity x = xValueAccessor.getMember(item);
+					IQuantity y = yValueAccessor.getMember(item);
+					if (x != null && y != null) {
+						entries.add(new MaxEntry(x, y, item));
+					}
+				}
+			}
+			entries.sort((a, b) -> a.x.compareTo(b.x));
+			int size = entries.size();
+			this.items = new IItem[size];
+			yValues = new IQuantity[size];
+			xUnit = size > 0 ? entries.get(0).x.getUnit() : null;
+			IUnit yUnit = size > 0 ? entries.get(0).y.getUnit() : null;
+			long[] xs = new long[size];
+			double[] ys = new double[size];
+			for (int i = 0; i < size; i++) {
+				MaxEntry entry = entries.get(i);
+				xs[i] = entry.x.clampedLongValueIn(xUnit);
+				ys[i] = entry.y.doubleValueIn(yUnit);
+				yValues[i] = entry.y;
+				this.items[i] = entry.item;
+			}
+			pyramid = new SeriesPyramid(xs, ys, false);
+		}
+	}
+
+	/**
+	 * Create a span series with the item with the largest y value for each pixel column. Items
+	 * before the visible range are included in the first column. The items are sorted and
+	 * summarized once, when first rendered, so that later renderings only take time proportional to
+	 * the number of pixel columns.
+	 */
 	// FIXME: Move and rename
 	public static ISpanSeries<IItem> max(
 		IItemCollection items, IAttribute<IQuantity> xAttribute, IAttribute<IQuantity> yAttribute) {
 		return new ISpanSeries<IItem>() {
+			private MaxItems maxItems;
 
 			@Override
 			public XYQuantities<IItem[]> getQuantities(SubdividedQuantityRange xBucketRange) {
 				SubdividedQuantityRange xRange = xBucketRange.copyWithPixelSubdividers();
 				IQuantity[] values = new IQuantity[xRange.getNumSubdividers()];
 				IItem[] itemsArray = new IItem[xRange.getNumSubdividers()];
-				for (IItemIterable next : items) {
-					IMemberAccessor<IQuantity, IItem> xValueAccessor = xAttribute.getAccessor(next.getType());
-					IMemberAccessor<IQuantity, ? super IItem> yValueAccessor = yAttribute.getAccessor(next.getType());
-					for (IItem item : next) {
-						int xPos = xRange.getFloorSubdivider(xValueAccessor.getMember(item));
-						if (xPos < values.length) {
-							xPos = xPos < 0 ? 0 : xPos;
-							IQuantity value = yValueAccessor.getMember(item);
-							if (value != null) {
-								IQuantity currentValue = values[xPos];
-								if ((currentValue == null) || value.compareTo(currentValue) > 0) {
-									values[xPos] = value;
-									itemsArray[xPos] = item;
-								}
-							}
+				MaxItems sorted = getMaxItems();
+				if (sorted.items.length > 0) {
+					IScalarAffineTransform pixelToX = xRange.toPixelTransform(sorted.xUnit).invert();
+					int columnStart = 0;
+					for (int column = 0; column < values.length; column++) {
+						int columnEnd = Math.max(columnStart,
+								sorted.pyramid.ceilingIndex(pixelToX.targetFloor(column + 1)));
+						int index = sorted.pyramid.maxIndex(columnStart, columnEnd);
+						if (index >= 0) {
+							values[column] = sorted.yValues[index];
+							itemsArray[column] = sorted.items[index];
 						}
+						columnStart = columnEnd;
 					}
 				}
 				return XYQuantities.create(itemsArray, Arrays.asList(values), xRange);
 			}
 
+			private synchronized MaxItems getMaxItems() {
+				if (maxItems == null) {
+					maxItems = new MaxItems(items, xAttribute, yAttribute);
+				}
+				return maxItems;
+			}
+
 			@Override
 			public IQuantity getStartX(IItem item) {
 				return xAttribute.getAccessor(ItemToolkit.getItemType(item)).getMember(item);
@@ -109,19 +178,138 @@ public class QuantitySeries<T> {
 
 			@Override
 			public XYQuantities<T> getQuantities(SubdividedQuantityRange xBucketRange) {
-				int from = Collections.binarySearch(xValues, xBucketRange.getStart());
-				if (from < 0) {
-					// On inexact match
-					from = Math.max((-from - 1) - 1, 0); // use index before returned value
-				}
-				int to = Collections.binarySearch(xValues, xBucketRange.getEnd());
-				if (to < 0) {
-					// On inexact match
-					to = Math.min((-to - 1), xValues.size() - 1); // set to as last included index
-				}
+				int from = fromIndex(xValues, xBucketRange);
+				int to = toIndex(xValues, xBucketRange);
 				return XYQuantities.create(payload, xValues.subList(from, to + 1), yValues.subList(from, to + 1),
 						xBucketRange);
 			}
 		};
 	}
+
+	public static IQuantitySeries<?> decimated(
+		Iterator<? extends IItem> items, IMemberAccessor<? extends IQuantity, IItem> xValueAccessor,
+		IMemberAccessor<? extends IQuantity, IItem> yValueAccessor) {
+		List<IQuantity> xValues = new ArrayList<>(100);
+		List<IQuantity> yValues = new ArrayList<>(100);
+		while (items.hasNext()) {
+			IItem item = items.next();
+			xValues.add(xValueAccessor.getMember(item));
+			yValues.add(yValueAccessor.getMember(item));
+		}
+		return decimated(xValues, yValues, null);
+	}
+
+	public static IQuantitySeries<?> decimated(List<IQuantity> xValues, List<IQuantity> yValues) {
+		return decimated(xValues, yValues, null);
+	}
+
+	/**
+	 * Create a series for line and plot charts that, like {@link #all(List, List, Object)}, has all
+	 * values in the visible range when there are few enough of them. When there are more than a few
+	 * values per pixel column, only the first, last, smallest and largest values of each column are
+	 * kept, which preserves the shape of the chart. The smallest and largest values are looked up
+	 * in a {@link SeriesPyramid} that is built when the series is first rendered, so rendering
+	 * takes time proportional to the number of pixel columns at any zoom level.
+	 *
+	 * @param xValues
+	 *            x values, in ascending order
+	 * @param yValues
+	 *            y values, may contain {@code null}
+	 * @param payload
+	 *            the payload of the series
+	 * @return a decimating series
+	 */
+	public static <T> IQuantitySeries<T> decimated(
+		final List<IQuantity> xValues, final List<IQuantity> yValues, final T payload) {
+		return new IQuantitySeries<T>() {
+			private SeriesPyramid pyramid;
+			private IUnit xUnit;
+
+			@Override
+			public XYQuantities<T> getQuantities(SubdividedQuantityRange xBucketRange) {
+				int from = fromIndex(xValues, xBucketRange);
+				int to = toIndex(xValues, xBucketRange);
+				int columns = xBucketRange.getPixelExtent();
+				if (to - from + 1 <= columns * VALUES_PER_COLUMN) {
+					return XYQuantities.create(payload, xValues.subList(from, to + 1), yValues.subList(from, to + 1),
+							xBucketRange);
+				}
+				SeriesPyramid pyramid = getPyramid();
+				IScalarAffineTransform pixelToX = xBucketRange.toPixelTransform(xUnit).invert();
+				List<IQuantity> xs = new ArrayList<>(columns * VALUES_PER_COLUMN + 2);
+				List<IQuantity> ys = new ArrayList<>(columns * VALUES_PER_COLUMN + 2);
+				xs.add(xValues.get(from));
+				ys.add(yValues.get(from));
+				int columnStart = from + 1;
+				for (int column = 1; column <= columns && columnStart < to; column++) {
+					int columnEnd = (column == columns) ? to
+							: Math.min(to, Math.max(columnStart, pyramid.ceilingIndex(pixelToX.targetFloor(column))));
+					if (columnEnd - columnStart <= VALUES_PER_COLUMN) {
+						for (int i = columnStart; i < columnEnd; i++) {
+							xs.add(xValues.get(i));
+							ys.add(yValues.get(i));
+						}
+					} else {
+						int[] indices = {columnStart, pyramid.minIndex(columnStart, columnEnd),
+								pyramid.maxIndex(columnStart, columnEnd), columnEnd - 1};
+						Arrays.sort(indices);
+						int last = -1;
+						for (int index : indices) {
+							if (index > last) {
+								xs.add(xValues.get(index));
+								ys.add(yValues.get(index));
+								last = index;
+							}
+						}
+					}
+					columnStart = columnEnd;
+				}
+				xs.add(xValues.get(to));
+				ys.add(yValues.get(to));
+				return XYQuantities.create(payload, xs, ys, xBucketRange);
+			}
+
+			private synchronized SeriesPyramid getPyramid() {
+				if (pyramid == null) {
+					int size = xValues.size();
+					xUnit = xValues.get(0).getUnit();
+					IUnit yUnit = null;
+					long[] xs = new long[size];
+					double[] ys = new double[size];
+					for (int i = 0; i < size; i++) {
+						xs[i] = xValues.get(i).clampedLongValueIn(xUnit);
+						IQuantity y = yValues.get(i);
+						if (y == null) {
+							ys[i] = Double.NaN;
+						} else {
+							if (yUnit == null) {
+								yUnit = y.getUnit();
+							}
+							ys[i] = y.doubleValueIn(yUnit);
+						}
+					}
+					pyramid = new SeriesPyramid(xs, ys, true);
+				}
+				return pyramid;
+			}
+		};
+	}
+
+	private static int fromIndex(List<IQuantity> xValues, SubdividedQuantityRange xBucketRange) {
+		int from = Collections.binarySearch(xValues, xBucketRange.getStart());
+		if (from < 0) {
+			// On inexact match
+			from = Math.max((-from - 1) - 1, 0); // use index before returned value
+		}
+		return from;
+	}
+
+	private static int toIndex(List<IQuantity> xValues, SubdividedQuantityRange xBucketRange) {
+		int to = Collections.binarySearch(xValues, xBucketRange.getEnd());
+		if (to < 0) {
+			// On inexact match
+			to = Math.min((-to - 1), xValues.size() - 1); // set to as last included index
+		}
+		return to;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -37,6 +37,8 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -45,6 +47,19 @@ import java.util.List;
 
 public class RendererToolkit {
 
+	/**
+	 * Rendering hint that lets row renderers skip the rows that are completely outside of the clip
+	 * of the context. The rendered rows returned for the skipped rows are empty, so this should
+	 * only be set when the result is not used for hit testing.
+	 */
+	public static final RenderingHints.Key KEY_SKIP_CLIPPED_ROWS = new RenderingHints.Key(0x4a4d43) {
+
+		@Override
+		public boolean isCompatibleValue(Object val) {
+			return val instanceof Boolean;
+		}
+	};
+
 	private static final IXDataRenderer EMPTY = new IXDataRenderer() {
 
 		@Override
@@ -130,16 +145,29 @@ public class RendererToolkit {
 		public IRenderedRow render(Graphics2D context, SubdividedQuantityRange xRange, int height) {
 			List<IRenderedRow> result = new ArrayList<>(children.size());
 			AffineTransform oldTransform = context.getTransform();
+			Rectangle clip = Boolean.TRUE.equals(context.getRenderingHint(KEY_SKIP_CLIPPED_ROWS))
+					? context.getClipBounds() : null;
 			int heightLeft = height;
 			double weightLeft = totalWeight;
+			int y = 0;
 			for (int i = 0; i < children.size(); i++) {
+				if (Thread.currentThread().isInterrupted()) {
+					// Rendering on a background thread that has been cancelled, the result will be discarded
+					context.setTransform(oldTransform);
+					return new RenderedRowBase(height);
+				}
 				double rowWeight = weights == null ? 1 : weights.get(i);
 				int rowHeight = (int) Math.round(heightLeft / weightLeft * rowWeight);
 				weightLeft -= rowWeight;
 				if (rowHeight > 0) {
 					heightLeft -= rowHeight;
-					result.add(children.get(i).render(context, xRange, rowHeight));
+					if (clip != null && (y + rowHeight <= clip.y || y >= clip.y + clip.height)) {
+						result.add(new RenderedRowBase(rowHeight));
+					} else {
+						result.add(children.get(i).render(context, xRange, rowHeight));
+					}
 					context.translate(0, rowHeight);
+					y += rowHeight;
 				}
 			}
 			context.setTransform(oldTransform);
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.ui.charts;
+
+/**
+ * A multi-resolution summary of a series of y values ordered on x, used to decimate large series to
+ * a few values per pixel column. The values themselves form the lowest level and each level above
+ * holds, for every pair of nodes in the level below, the index of the largest (and optionally the
+ * smallest) y value. The extreme values of any index range can then be found in logarithmic time,
+ * so that the cost of rendering depends on the number of pixel columns rather than on the number of
+ * values, at any zoom level.
+ */
+final class SeriesPyramid {
+	private final long[] xValues;
+	private final double[] yValues;
+	private final int leafCount;
+	private final int[] maxNodes;
+	private final int[] minNodes;
+
+	/**
+	 * @param xValues
+	 *            x values, in ascending order
+	 * @param yValues
+	 *            y values, {@link Double#NaN} for missing values
+	 * @param withMin
+	 *            {@code true} to also be able to look up minimum values
+	 */
+	SeriesPyramid(long[] xValues, double[] yValues, boolean withMin) {
+		this.xValues = xValues;
+		this.yValues = yValues;
+		int leaves = 1;
+		while (leaves < xValues.length) {
+			leaves <<= 1;
+		}
+		leafCount = leaves;
+		maxNodes = new int[leaves];
+		minNodes = withMin ? new int[leaves] : null;
+		for (int node = leaves - 1; node > 0; node--) {
+			maxNodes[node] = max(node(maxNodes, 2 * node), node(maxNodes, 2 * node + 1));
+			if (minNodes != null) {
+				minNodes[node] = min(node(minNodes, 2 * node), node(minNodes, 2 * node + 1));
+			}
+		}
+	}
+
+	int getSize() {
+		return xValues.length;
+	}
+
+	/**
+	 * @return the index of the first value with an x value greater than or equal to {@code x}, or
+	 *         the size of the series if there is none
+	 */
+	int ceilingIndex(long x) {
+		int low = 0;
+		int high = xValues.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (xValues[mid] < x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the index of the largest y value in the range {@code [from, to)}, or -1 if there are
+	 *         only missing values in the range
+	 */
+	int maxIndex(int from, int to) {
+		int best = -1;
+		for (int low = from + leafCount, high = to + leafCount; low < high; low >>= 1, high >>= 1) {
+			if ((low & 1) != 0) {
+				best = max(best, node(maxNodes, low++));
+			}
+			if ((high & 1) != 0) {
+				best = max(best, node(maxNodes, --high));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return the index of the smallest y value in the range {@code [from, to)}, or -1 if there are
+	 *         only missing values in the range
+	 */
+	int minIndex(int from, int to) {
+		int best = -1;
+		for (int low = from + leafCount, high = to + leafCount; low < high; low >>= 1, high >>= 1) {
+			if ((low & 1) != 0) {
+				best = min(best, node(minNodes, low++));
+			}
+			if ((high & 1) != 0) {
+				best = min(best, node(minNodes, --high));
+			}
+		}
+		return best;
+	}
+
+	private int node(int[] nodes, int node) {
+		if (node < leafCount) {
+			return nodes[node];
+		}
+		int index = node - leafCount;
+		return (index < yValues.length && !Double.isNaN(yValues[index])) ? index : -1;
+	}
+
+	private int max(int a, int b) {
+		if (a < 0) {
+			return b;
+		}
+		return (b < 0 || yValues[a] >= yValues[b]) ? a : b;
+	}
+
+	private int min(int a, int b) {
+		if (a < 0) {
+			return b;
+		}
+		return (b < 0 || yValues[a] <= yValues[b]) ? a : b;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -171,16 +171,204 @@ public class XYChart {
 	}
 
 	public void renderChart(Graphics2D context, int width, int height) {
-		if (width > xOffset && height > yOffset) {
-			axisWidth = width - xOffset;
-			// FIXME: xBucketRange and xTickRange should be more related, so that each tick is typically an integer number of buckets (or possibly 2.5 buckets).
-			xBucketRange = new SubdividedQuantityRange(currentStart, currentEnd, axisWidth, bucketWidth);
-			// FIXME: Use bucketWidth * ticksPerBucket instead of hardcoded value?
-			xTickRange = new SubdividedQuantityRange(currentStart, currentEnd, axisWidth, 100);
+		ChartRender chartRender = prepareRender(width, height);
+		if (chartRender != null) {
+			chartRender.render(context);
+			chartRender.publish();
+		}
+	}
+
+	/**
+	 * Capture the current range, selection and renderer so that the chart can be rendered by
+	 * {@link ChartRender#render(Graphics2D)}, possibly on another thread. Must be called on the UI
+	 * thread. The axis ranges used for panning, zooming and selecting are updated immediately,
+	 * while the rendered rows used for hit testing are only replaced by
+	 * {@link ChartRender#publish()}.
+	 *
+	 * @param width
+	 *            the width of the chart, including the x offset
+	 * @param height
+	 *            the height of the chart, including the y offset
+	 * @return the prepared rendering, or {@code null} if the chart is too small to be rendered
+	 */
+	public ChartRender prepareRender(int width, int height) {
+		if (width <= xOffset || height <= yOffset) {
+			return null;
+		}
+		axisWidth = width - xOffset;
+		// FIXME: xBucketRange and xTickRange should be more related, so that each tick is typically an integer number of buckets (or possibly 2.5 buckets).
+		xBucketRange = new SubdividedQuantityRange(currentStart, currentEnd, axisWidth, bucketWidth);
+		// FIXME: Use bucketWidth * ticksPerBucket instead of hardcoded value?
+		xTickRange = new SubdividedQuantityRange(currentStart, currentEnd, axisWidth, 100);
+		if (timelineCanvas != null) {
+			timelineCanvas.setXTickRange(xTickRange);
+			renderTimelineRangeIndication();
+		}
+		return new ChartRender(height - yOffset);
+	}
+
+	/**
+	 * A rendering of the chart using the state captured by {@link XYChart#prepareRender(int, int)}.
+	 */
+	public class ChartRender {
+		private final IXDataRenderer renderer = rendererRoot;
+		private final SubdividedQuantityRange bucketRange = xBucketRange;
+		private final SubdividedQuantityRange tickRange = xTickRange;
+		private final int width = axisWidth;
+		private final int axisHeight;
+		private final Set<Object> selection = new HashSet<>(selectedRows);
+		private final IQuantity selectionFrom = selectionStart;
+		private final IQuantity selectionTo = selectionEnd;
+		private final IQuantity rangeStart = currentStart;
+		private final IQuantity rangeEnd = currentEnd;
+		private final boolean drawAxis = timelineCanvas == null;
+		private IRenderedRow result;
+
+		private ChartRender(int axisHeight) {
+			this.axisHeight = axisHeight;
+		}
+
+		/**
+		 * Render the chart. Only uses the captured state and the renderers, so this may be called
+		 * on a background thread. Renderers may stop early if the calling thread is interrupted, in
+		 * which case the rendering is incomplete and should be discarded.
+		 *
+		 * @param context
+		 *            the context to render to
+		 */
+		public void render(Graphics2D context) {
+			AffineTransform oldTransform = context.getTransform();
+			context.translate(xOffset, 0);
+			result = doRenderChart(context);
+			context.setTransform(oldTransform);
+		}
+
+		/**
+		 * Render the part of the chart that is within the clip of the context, skipping the rows
+		 * that are completely outside of it. The rows used for hit testing are not affected, so
+		 * this is meant for rendering further parts of a chart after {@link #render(Graphics2D)}.
+		 * May be called on a background thread, like {@link #render(Graphics2D)}.
+		 *
+		 * @param context
+		 *            the context to render to, with a clip set to the area to render
+		 */
+		public void renderClipped(Graphics2D context) {
 			AffineTransform oldTransform = context.getTransform();
+			Object oldHint = context.getRenderingHint(RendererToolkit.KEY_SKIP_CLIPPED_ROWS);
 			context.translate(xOffset, 0);
-			doRenderChart(context, height - yOffset);
+			context.setRenderingHint(RendererToolkit.KEY_SKIP_CLIPPED_ROWS, Boolean.TRUE);
+			doRenderChart(context);
+			if (oldHint != null) {
+				context.setRenderingHint(RendererToolkit.KEY_SKIP_CLIPPED_ROWS, oldHint);
+			}
+			context.setTransform(oldTransform);
+		}
+
+		/**
+		 * Make the rendered rows the ones used for hit testing and selection. Must be called on the
+		 * UI thread after {@link #render(Graphics2D)} has completed.
+		 */
+		public void publish() {
+			rendererResult = result;
+		}
+
+		private IRenderedRow doRenderChart(Graphics2D context) {
+			boolean isDarkTheme = ThemeUtils.isDarkTheme();
+
+			if (isDarkTheme) {
+				context.setBackground(Color.BLACK);
+				context.clearRect(0, 0, width, axisHeight);
+				context.setPaint(new Color(70, 70, 70));
+			} else {
+				context.setPaint(Color.LIGHT_GRAY);
+			}
+
+			AWTChartToolkit.drawGrid(context, tickRange, axisHeight, false);
+
+			// Attempt to make graphs so low they cover the axis show by drawing the full axis first ...
+			context.setPaint(isDarkTheme ? Color.WHITE : Color.BLACK);
+
+			if (drawAxis) {
+				AWTChartToolkit.drawAxis(context, tickRange, axisHeight - 1, false, 1 - xOffset, false);
+			}
+
+			// ... then the graph ...
+			IRenderedRow rendered = renderer.render(context, bucketRange, axisHeight);
+			AffineTransform oldTransform = context.getTransform();
+
 			context.setTransform(oldTransform);
+			if (!selection.isEmpty()) {
+				renderSelectionChart(context, rendered, isDarkTheme);
+				context.setTransform(oldTransform);
+			}
+
+			// ... and finally a semitransparent axis line again.
+			context.setPaint(isDarkTheme ? new Color(255, 255, 255, 64) : new Color(0, 0, 0, 64));
+			context.drawLine(0, axisHeight - 1, width - 1, axisHeight - 1);
+			if (drawAxis) {
+				renderRangeIndication(context, axisHeight + 25);
+			}
+			return rendered;
+		}
+
+		private void renderRangeIndication(Graphics2D context, int rangeIndicatorY) {
+			// FIXME: Extract the needed functionality from SubdividedQuantityRange
+			SubdividedQuantityRange fullRangeAxis = new SubdividedQuantityRange(start, end, width, 25);
+			int x1 = (int) fullRangeAxis.getPixel(rangeStart);
+			int x2 = (int) Math.ceil(fullRangeAxis.getPixel(rangeEnd));
+
+			context.setPaint(RANGE_INDICATION_COLOR);
+			context.fillRect(x1, rangeIndicatorY, x2 - x1, RANGE_INDICATOR_HEIGHT);
+			context.setPaint(Color.DARK_GRAY);
+			context.drawRect(0, rangeIndicatorY, width - 1, RANGE_INDICATOR_HEIGHT);
+		}
+
+		private void renderSelectionChart(Graphics2D context, IRenderedRow row, boolean isDarkTheme) {
+			if (selection.contains(row.getPayload())) {
+				renderSelection(context, row.getHeight(), isDarkTheme);
+			} else {
+				List<IRenderedRow> subdivision = row.getNestedRows();
+				if (subdivision.isEmpty()) {
+					dimRect(context, 0, width, row.getHeight(), isDarkTheme);
+				} else {
+					for (IRenderedRow nestedRow : row.getNestedRows()) {
+						renderSelectionChart(context, nestedRow, isDarkTheme);
+					}
+					return;
+				}
+			}
+			context.translate(0, row.getHeight());
+		}
+
+		private void renderSelection(Graphics2D context, int height, boolean isDarkTheme) {
+			int selFrom = 0;
+			int selTo = width;
+
+			if (selectionFrom != null && selectionTo != null) {
+				selFrom = (int) bucketRange.getPixel(selectionFrom);
+				// Removed "+ 1" for now to make the selection symmetrical with respect to chart highlights.
+				selTo = (int) bucketRange.getPixel(selectionTo);
+			}
+			// FIXME: Would like to show selection by graying out the other parts, can we do that?
+//			if (selWidth > 0) {
+//				context.setColor(Color.WHITE);
+//				context.setXORMode(Color.BLACK);
+//				Stroke oldStroke = context.getStroke();
+//				context.setStroke(SELECTION_STROKE);
+//				context.drawRect(selFrom, 0, selWidth, height);
+//				context.setStroke(oldStroke);
+//				context.setPaintMode();
+//			}
+			if (selFrom > 0) {
+				dimRect(context, 0, selFrom, height, isDarkTheme);
+				context.setColor(isDarkTheme ? Color.LIGHT_GRAY : Color.BLACK);
+				context.drawLine(selFrom, 0, selFrom, height);
+			}
+			if (selTo < width) {
+				dimRect(context, selTo, width - selTo, height, isDarkTheme);
+				context.setColor(isDarkTheme ? Color.LIGHT_GRAY : Color.BLACK);
+				context.drawLine(selTo, 0, selTo, height);
+			}
 		}
 	}
 
@@ -201,21 +389,13 @@ public class XYChart {
 		}
 	}
 
-	private void renderRangeIndication(Graphics2D context, int rangeIndicatorY) {
+	private void renderTimelineRangeIndication() {
 		// FIXME: Extract the needed functionality from SubdividedQuantityRange
 		SubdividedQuantityRange fullRangeAxis = new SubdividedQuantityRange(start, end, axisWidth, 25);
 		int x1 = (int) fullRangeAxis.getPixel(currentStart);
 		int x2 = (int) Math.ceil(fullRangeAxis.getPixel(currentEnd));
-
-		if (timelineCanvas != null) {
-			timelineCanvas.renderRangeIndicator(x1, x2);
-			updateZoomPanIndicator();
-		} else {
-			context.setPaint(RANGE_INDICATION_COLOR);
-			context.fillRect(x1, rangeIndicatorY, x2 - x1, RANGE_INDICATOR_HEIGHT);
-			context.setPaint(Color.DARK_GRAY);
-			context.drawRect(0, rangeIndicatorY, axisWidth - 1, RANGE_INDICATOR_HEIGHT);
-		}
+		timelineCanvas.renderRangeIndicator(x1, x2);
+		updateZoomPanIndicator();
 	}
 
 	public void updateZoomPanIndicator() {
@@ -235,46 +415,6 @@ public class XYChart {
 		return new SubdividedQuantityRange(currentStart, currentEnd, axisWidth, bucketWidth);
 	}
 
-	private void doRenderChart(Graphics2D context, int axisHeight) {
-		rowColorCounter = 0;
-
-		boolean isDarkTheme = ThemeUtils.isDarkTheme();
-
-		if (isDarkTheme) {
-			context.setBackground(Color.BLACK);
-			context.clearRect(0, 0, axisWidth, axisHeight);
-			context.setPaint(new Color(70, 70, 70));
-		} else {
-			context.setPaint(Color.LIGHT_GRAY);
-		}
-
-		AWTChartToolkit.drawGrid(context, xTickRange, axisHeight, false);
-
-		// Attempt to make graphs so low they cover the axis show by drawing the full axis first ...
-		context.setPaint(isDarkTheme ? Color.WHITE : Color.BLACK);
-
-		if (timelineCanvas != null) {
-			timelineCanvas.setXTickRange(xTickRange);
-		} else {
-			AWTChartToolkit.drawAxis(context, xTickRange, axisHeight - 1, false, 1 - xOffset, false);
-		}
-
-		// ... then the graph ...
-		rendererResult = getRendererResult(context, axisHeight);
-		AffineTransform oldTransform = context.getTransform();
-
-		context.setTransform(oldTransform);
-		if (!selectedRows.isEmpty()) {
-			renderSelectionChart(context, rendererResult);
-			context.setTransform(oldTransform);
-		}
-
-		// ... and finally a semitransparent axis line again.
-		context.setPaint(isDarkTheme ? new Color(255, 255, 255, 64) : new Color(0, 0, 0, 64));
-		context.drawLine(0, axisHeight - 1, axisWidth - 1, axisHeight - 1);
-		renderRangeIndication(context, axisHeight + 25);
-	}
-
 	private void doRenderText(Graphics2D context) {
 		AffineTransform oldTransform = context.getTransform();
 		rowColorCounter = -1;
@@ -319,23 +459,6 @@ public class XYChart {
 		context.translate(0, row.getHeight());
 	}
 
-	private void renderSelectionChart(Graphics2D context, IRenderedRow row) {
-		if (selectedRows.contains(row.getPayload())) {
-			renderSelection(context, xBucketRange, row.getHeight());
-		} else {
-			List<IRenderedRow> subdivision = row.getNestedRows();
-			if (subdivision.isEmpty()) {
-				dimRect(context, 0, axisWidth, row.getHeight(), ThemeUtils.isDarkTheme());
-			} else {
-				for (IRenderedRow nestedRow : row.getNestedRows()) {
-					renderSelectionChart(context, nestedRow);
-				}
-				return;
-			}
-		}
-		context.translate(0, row.getHeight());
-	}
-
 	// Paint the background of every-other row in a slightly different shade
 	// to better differentiate the thread lanes from one another
 	private void paintRowBackground(Graphics2D context, int height) {
@@ -825,38 +948,6 @@ public class XYChart {
 		return false;
 	}
 
-	private void renderSelection(Graphics2D context, SubdividedQuantityRange xRange, int height) {
-		int selFrom = 0;
-		int selTo = axisWidth;
-		boolean isDarkTheme = ThemeUtils.isDarkTheme();
-
-		if (selectionStart != null && selectionEnd != null) {
-			selFrom = (int) xRange.getPixel(selectionStart);
-			// Removed "+ 1" for now to make the selection symmetrical with respect to chart highlights.
-			selTo = (int) xRange.getPixel(selectionEnd);
-		}
-		// FIXME: Would like to show selection by graying out the other parts, can we do that?
-//		if (selWidth > 0) {
-//			context.setColor(Color.WHITE);
-//			context.setXORMode(Color.BLACK);
-//			Stroke oldStroke = context.getStroke();
-//			context.setStroke(SELECTION_STROKE);
-//			context.drawRect(selFrom, 0, selWidth, height);
-//			context.setStroke(oldStroke);
-//			context.setPaintMode();
-//		}
-		if (selFrom > 0) {
-			dimRect(context, 0, selFrom, height, isDarkTheme);
-			context.setColor(isDarkTheme ? Color.LIGHT_GRAY : Color.BLACK);
-			context.drawLine(selFrom, 0, selFrom, height);
-		}
-		if (selTo < axisWidth) {
-			dimRect(context, selTo, axisWidth - selTo, height, isDarkTheme);
-			context.setColor(isDarkTheme ? Color.LIGHT_GRAY : Color.BLACK);
-			context.drawLine(selTo, 0, selTo, height);
-		}
-	}
-
 	private static void dimRect(Graphics2D context, int from, int width, int height, boolean isDarkTheme) {
 		context.setColor(isDarkTheme ? DARK_SELECTION_COLOR : LIGHT_SELECTION_COLOR);
 		context.fillRect(from, 0, width, height);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -62,15 +62,9 @@ public class AwtCanvas {
 	public Graphics2D getGraphics(int width, int height) {
 		if ((imageDataSWT == null) || (imageDataSWT.width != width) || (imageDataSWT.height != height)) {
 			imageAWT = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
-			PaletteData vpPalette = new PaletteData(0xff, 0xff00, 0xff0000);
-			int scanlinePad = width * 3;
 			byte[] byteData = ((DataBufferByte) imageAWT.getRaster().getDataBuffer()).getData();
-			imageDataSWT = new ImageData(width, height, 24, vpPalette, scanlinePad, byteData);
-			Graphics2D graphicsAWT = imageAWT.createGraphics();
-			setAntiAliasing(graphicsAWT);
-			graphicsAWT.setFont(new Font("OptionPane.font", Font.PLAIN, 12)); //$NON-NLS-1$
-			fixDPI(graphicsAWT);
-			return graphicsAWT;
+			imageDataSWT = createImageData(width, height, byteData);
+			return createGraphics(imageAWT);
 		} else {
 			Graphics2D graphicsAWT = imageAWT.createGraphics();
 			setAntiAliasing(graphicsAWT);
@@ -81,7 +75,28 @@ public class AwtCanvas {
 		}
 	}
 
-	private void setAntiAliasing(Graphics2D ctx) {
+	/**
+	 * Create a graphics context for an image, set up like the ones returned by
+	 * {@link #getGraphics(int, int)}. Does not touch any widget and may be called from any thread.
+	 */
+	static Graphics2D createGraphics(BufferedImage image) {
+		Graphics2D graphicsAWT = image.createGraphics();
+		setAntiAliasing(graphicsAWT);
+		graphicsAWT.setFont(new Font("OptionPane.font", Font.PLAIN, 12)); //$NON-NLS-1$
+		fixDPI(graphicsAWT);
+		return graphicsAWT;
+	}
+
+	/**
+	 * Create an SWT image data sharing its pixels with a {@link BufferedImage#TYPE_3BYTE_BGR} image
+	 * of the same size.
+	 */
+	static ImageData createImageData(int width, int height, byte[] bgrData) {
+		PaletteData vpPalette = new PaletteData(0xff, 0xff00, 0xff0000);
+		return new ImageData(width, height, 24, vpPalette, width * 3, bgrData);
+	}
+
+	private static void setAntiAliasing(Graphics2D ctx) {
 		Boolean antiAliasing = UIPlugin.getDefault().getPreferenceStore()
 				.getBoolean(PreferenceConstants.P_ANTI_ALIASING);
 		if (antiAliasing) {
@@ -91,7 +106,7 @@ public class AwtCanvas {
 		}
 	}
 
-	private void fixDPI(Graphics2D ctx) {
+	private static void fixDPI(Graphics2D ctx) {
 		AffineTransform defaultTransform = ctx.getDeviceConfiguration().getDefaultTransform();
 		defaultTransform.scale(X_SCALE, Y_SCALE);
 		ctx.setTransform(defaultTransform);
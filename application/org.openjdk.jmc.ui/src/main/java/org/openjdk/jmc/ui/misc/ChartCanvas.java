@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -35,6 +35,7 @@ package org.openjdk.jmc.ui.misc;
 import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -237,7 +238,9 @@ public class ChartCanvas extends Canvas {
 				rect.height = laneHeight * getNumItems();
 			}
 
-			if (awtNeedsRedraw || !awtCanvas.hasImage(rect.width, rect.height)) {
+			if (useTiledRendering()) {
+				paintTiles(e, rect);
+			} else if (awtNeedsRedraw || !awtCanvas.hasImage(rect.width, rect.height)) {
 				Graphics2D g2d = awtCanvas.getGraphics(rect.width, rect.height);
 				Point adjusted = translateDisplayToImageCoordinates(rect.width, rect.height);
 				g2d.setColor(ThemeUtils.isDarkTheme() ? Palette.PF_BLACK_900.getAWTColor()
@@ -251,7 +254,9 @@ public class ChartCanvas extends Canvas {
 				}
 				awtNeedsRedraw = false;
 			}
-			awtCanvas.paint(e, 0, 0);
+			if (!useTiledRendering()) {
+				awtCanvas.paint(e, 0, 0);
+			}
 			// Crude, flickering highlight of areas also delivered to tooltips.
 			// FIXME: Remove flicker by drawing in a buffered stage (AWT or SWT).
 			List<Rectangle2D> rs = highlightRects;
@@ -276,6 +281,32 @@ public class ChartCanvas extends Canvas {
 		}
 	}
 
+	/**
+	 * Render the chart in the background and paint the visible tiles of the last completed
+	 * rendering, so that tall charts with many lanes do not block the UI thread.
+	 */
+	private void paintTiles(PaintEvent e, Rectangle rect) {
+		if (tileRenderer == null) {
+			tileRenderer = new ChartTileRenderer(this, () -> {
+				awtChart.updateZoomPanIndicator();
+				redrawChartText();
+			});
+		}
+		Point adjusted = translateDisplayToImageCoordinates(rect.width, rect.height);
+		if (tileRenderer.update(awtChart, rect.width, rect.height, adjusted.x, adjusted.y, laneHeight)) {
+			minReadableLaneHeight = (int) (getFontHeight() * xScale);
+			minLaneHeight = initMinLaneHeight();
+			((ScrolledComposite) getParent()).setMinSize(rect.width, rect.height);
+		}
+		awtNeedsRedraw = false;
+		tileRenderer.paint(e.gc, new Rectangle(e.x, e.y, e.width, e.height));
+	}
+
+	private boolean useTiledRendering() {
+		// The threads page, where the lanes are listed in a separate text canvas
+		return isScrollableChart() && textCanvas != null && awtChart != null;
+	}
+
 	public void setNumItems(int numItems) {
 		this.numItems = numItems;
 	}
@@ -299,7 +330,15 @@ public class ChartCanvas extends Canvas {
 	}
 
 	protected int calculateMinLaneHeight(Rectangle rect) {
-		return (int) (awtCanvas.getGraphics(rect.width, rect.height).getFontMetrics().getHeight() * xScale);
+		return (int) (getFontHeight() * xScale);
+	}
+
+	private int getFontHeight() {
+		// Avoid allocating an image of the full chart size just to get the font metrics
+		Graphics2D g2d = AwtCanvas.createGraphics(new BufferedImage(1, 1, BufferedImage.TYPE_3BYTE_BGR));
+		int height = g2d.getFontMetrics().getHeight();
+		g2d.dispose();
+		return height;
 	}
 
 	public boolean isLaneHeightMinimumSize() {
@@ -493,6 +532,7 @@ public class ChartCanvas extends Canvas {
 	private final double yScale = Display.getDefault().getDPI().y / Environment.getNormalDPI();
 
 	private final AwtCanvas awtCanvas = new AwtCanvas();
+	private ChartTileRenderer tileRenderer;
 	private boolean awtNeedsRedraw;
 	private Runnable selectionListener;
 	private Runnable zoomToSelectionListener;
@@ -805,6 +845,9 @@ public class ChartCanvas extends Canvas {
 	 */
 	public void redrawChart() {
 		awtNeedsRedraw = true;
+		if (tileRenderer != null) {
+			tileRenderer.invalidate();
+		}
 		getDisplay().asyncExec(new Runnable() {
 			public void run() {
 				if (!isDisposed()) {
@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.ui.misc;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Canvas;
+import org.openjdk.jmc.ui.UIPlugin;
+import org.openjdk.jmc.ui.charts.XYChart;
+import org.openjdk.jmc.ui.charts.XYChart.ChartRender;
+import org.openjdk.jmc.ui.common.util.ThemeUtils;
+import org.openjdk.jmc.ui.misc.PatternFly.Palette;
+
+/**
+ * Renders an {@link XYChart} on a background thread as horizontal tiles, for charts that are too
+ * tall to be rendered on the UI thread, like the lanes of the threads page. Only the tiles that are
+ * painted are rendered.
+ * <p>
+ * Each rendering is tagged with a generation that is bumped by {@link #invalidate()} whenever the
+ * range, zoom, selection or renderers change. The first pass of a generation renders the whole
+ * chart model, which is needed for hit testing and the lane texts, but only draws the tiles that
+ * were asked for. Tiles that are scrolled into view later are rendered by passes that skip all rows
+ * outside of them, and only those tiles are repainted when done. A new generation cancels the
+ * passes of older ones, and results that are stale when they complete are dropped. Until a tile of
+ * the current generation is done, the tile of the last completed generation is painted, or a plain
+ * background if there is none.
+ */
+class ChartTileRenderer {
+	// Target height of a tile in pixels, rounded down to a whole number of lanes
+	private static final int TILE_HEIGHT = 256;
+	// Number of rendered tiles to keep per generation
+	private static final int MAX_CACHED_TILES = 32;
+
+	private final Canvas canvas;
+	private final Runnable publishListener;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Chart Renderer"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private int generation;
+	// The rendering of the current generation, until its first pass has been published
+	private Rendering pending;
+	// The last rendering with a published first pass
+	private Rendering current;
+	// The rendering published before the current one, painted where the current has no tile yet
+	private Rendering previous;
+
+	/**
+	 * The tiles of one generation of the chart. Used on the UI thread only.
+	 */
+	private static class Rendering {
+		final int generation;
+		final int width;
+		final int height;
+		final int chartWidth;
+		final int chartHeight;
+		final int tileHeight;
+		final boolean isDarkTheme;
+		final ChartRender chartRender;
+		final Map<Integer, Image> tiles = new LinkedHashMap<>(16, 0.75f, true);
+		final List<Future<?>> passes = new ArrayList<>();
+		// Tiles that are being rendered
+		final Set<Integer> requested = new HashSet<>();
+		boolean firstPassStarted;
+
+		Rendering(int generation, int width, int height, int chartWidth, int chartHeight, int tileHeight,
+				ChartRender chartRender) {
+			this.generation = generation;
+			this.width = width;
+			this.height = height;
+			this.chartWidth = chartWidth;
+			this.chartHeight = chartHeight;
+			this.tileHeight = tileHeight;
+			this.chartRender = chartRender;
+			isDarkTheme = ThemeUtils.isDarkTheme();
+		}
+
+		int getTileCount() {
+			return (height + tileHeight - 1) / tileHeight;
+		}
+
+		void addTile(Canvas canvas, int tile, byte[] pixels) {
+			int rows = Math.min(tileHeight, height - tile * tileHeight);
+			ImageData data = AwtCanvas.createImageData(width, rows, pixels);
+			Image old = tiles.put(tile, new Image(canvas.getDisplay(), data));
+			if (old != null) {
+				old.dispose();
+			}
+			if (tiles.size() > MAX_CACHED_TILES) {
+				Iterator<Entry<Integer, Image>> eldest = tiles.entrySet().iterator();
+				eldest.next().getValue().dispose();
+				eldest.remove();
+			}
+		}
+
+		void cancel() {
+			for (Future<?> pass : passes) {
+				pass.cancel(true);
+			}
+			passes.clear();
+			requested.clear();
+		}
+
+		void dispose() {
+			cancel();
+			for (Image image : tiles.values()) {
+				image.dispose();
+			}
+			tiles.clear();
+		}
+	}
+
+	/**
+	 * @param canvas
+	 *            the canvas to paint on, redrawn when tiles have been rendered
+	 * @param publishListener
+	 *            run on the UI thread after the first pass of a generation has been published to
+	 *            the chart
+	 */
+	ChartTileRenderer(Canvas canvas, Runnable publishListener) {
+		this.canvas = canvas;
+		this.publishListener = publishListener;
+		canvas.addDisposeListener(e -> dispose());
+	}
+
+	/**
+	 * Mark the current rendering as stale. Must be called on the UI thread.
+	 */
+	void invalidate() {
+		generation++;
+	}
+
+	/**
+	 * Prepare a new rendering of the chart unless one of the current generation and size exists.
+	 * The tiles are rendered when they are painted. Must be called on the UI thread.
+	 *
+	 * @param chart
+	 *            the chart to render
+	 * @param width
+	 *            the width of the image in pixels
+	 * @param height
+	 *            the height of the image in pixels
+	 * @param chartWidth
+	 *            the width of the chart in chart coordinates
+	 * @param chartHeight
+	 *            the height of the chart in chart coordinates
+	 * @param laneHeight
+	 *            the height of a lane in pixels, used to align tiles to lanes, or a value less than
+	 *            one if unknown
+	 * @return {@code true} if a new rendering was prepared
+	 */
+	boolean update(XYChart chart, int width, int height, int chartWidth, int chartHeight, int laneHeight) {
+		if (isCurrent(pending, width, height) || (pending == null && isCurrent(current, width, height))) {
+			return false;
+		}
+		if (pending != null) {
+			pending.dispose();
+			pending = null;
+		}
+		if (current != null) {
+			// Tiles still being rendered for the current generation are of no use anymore
+			current.cancel();
+		}
+		ChartRender chartRender = chart.prepareRender(chartWidth, chartHeight);
+		if (chartRender == null) {
+			return false;
+		}
+		int tileHeight = laneHeight > 0 ? Math.max(1, TILE_HEIGHT / laneHeight) * laneHeight : TILE_HEIGHT;
+		pending = new Rendering(generation, width, height, chartWidth, chartHeight, tileHeight, chartRender);
+		return true;
+	}
+
+	private boolean isCurrent(Rendering rendering, int width, int height) {
+		return rendering != null && rendering.generation == generation && rendering.width == width
+				&& rendering.height == height;
+	}
+
+	/**
+	 * Paint the tiles that intersect the clipping area, and a plain background where there is
+	 * nothing to paint. Tiles of the current generation that are missing are rendered in the
+	 * background. Must be called on the UI thread.
+	 *
+	 * @param gc
+	 *            the graphics context to paint on
+	 * @param clip
+	 *            the area to paint
+	 */
+	void paint(GC gc, Rectangle clip) {
+		requestTiles(pending != null ? pending : current, clip);
+		gc.setBackground(
+				ThemeUtils.isDarkTheme() ? Palette.PF_BLACK_900.getSWTColor() : Palette.PF_BLACK_100.getSWTColor());
+		Rendering layout = current != null ? current : previous;
+		if (layout == null) {
+			gc.fillRectangle(clip);
+			return;
+		}
+		int firstTile = Math.max(0, clip.y / layout.tileHeight);
+		int lastTile = (clip.y + clip.height - 1) / layout.tileHeight;
+		for (int tile = firstTile; tile <= lastTile; tile++) {
+			int y = tile * layout.tileHeight;
+			Image image = getTile(current, tile, layout);
+			if (image == null) {
+				image = getTile(previous, tile, layout);
+			}
+			if (image != null) {
+				gc.drawImage(image, 0, y);
+				int imageWidth = image.getBounds().width;
+				if (clip.x + clip.width > imageWidth) {
+					int x = Math.max(clip.x, imageWidth);
+					gc.fillRectangle(x, y, clip.x + clip.width - x, layout.tileHeight);
+				}
+			} else {
+				gc.fillRectangle(clip.x, y, clip.width, layout.tileHeight);
+			}
+		}
+	}
+
+	private static Image getTile(Rendering rendering, int tile, Rendering layout) {
+		if (rendering == null || rendering.tileHeight != layout.tileHeight) {
+			return null;
+		}
+		return rendering.tiles.get(tile);
+	}
+
+	/**
+	 * Start rendering the tiles of a rendering that intersect an area and have not been rendered,
+	 * along with one tile above and below it, so that scrolling a little does not show missing
+	 * tiles.
+	 */
+	private void requestTiles(Rendering rendering, Rectangle area) {
+		if (rendering == null || (rendering.firstPassStarted && rendering != current)) {
+			// The first pass has to be published before further tiles can be rendered
+			return;
+		}
+		int lastTile = rendering.getTileCount() - 1;
+		int first = Math.max(0, area.y / rendering.tileHeight - 1);
+		int last = Math.min(lastTile, (area.y + area.height - 1) / rendering.tileHeight + 1);
+		while (first <= last && (rendering.tiles.containsKey(first) || rendering.requested.contains(first))) {
+			first++;
+		}
+		while (last >= first && (rendering.tiles.containsKey(last) || rendering.requested.contains(last))) {
+			last--;
+		}
+		if (first > last) {
+			return;
+		}
+		boolean firstPass = !rendering.firstPassStarted;
+		rendering.firstPassStarted = true;
+		for (int tile = first; tile <= last; tile++) {
+			rendering.requested.add(tile);
+		}
+		int firstTile = first;
+		int lastTileToRender = last;
+		rendering.passes.add(executor.submit(() -> renderTiles(rendering, firstTile, lastTileToRender, firstPass)));
+	}
+
+	/**
+	 * Render a range of tiles. Runs on the render thread.
+	 */
+	private void renderTiles(Rendering rendering, int firstTile, int lastTile, boolean firstPass) {
+		try {
+			drawTiles(rendering, firstTile, lastTile, firstPass);
+		} catch (RuntimeException e) {
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			UIPlugin.getDefault().getLogger().log(Level.WARNING, "Could not render chart tiles", e); //$NON-NLS-1$
+			canvas.getDisplay().asyncExec(() -> renderFailed(rendering, firstTile, lastTile, firstPass));
+		}
+	}
+
+	private void drawTiles(Rendering rendering, int firstTile, int lastTile, boolean firstPass) {
+		int y = firstTile * rendering.tileHeight;
+		int rows = Math.min((lastTile + 1) * rendering.tileHeight, rendering.height) - y;
+		BufferedImage image = new BufferedImage(rendering.width, rows, BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D g2d = AwtCanvas.createGraphics(image);
+		// Only the rows of the requested tiles are drawn, and with clipped rendering only those are rendered
+		AffineTransform chartTransform = g2d.getTransform();
+		g2d.setTransform(new AffineTransform());
+		g2d.setClip(0, 0, rendering.width, rows);
+		AffineTransform transform = AffineTransform.getTranslateInstance(0, -y);
+		transform.concatenate(chartTransform);
+		g2d.setTransform(transform);
+		g2d.setColor(rendering.isDarkTheme ? Palette.PF_BLACK_900.getAWTColor() : Palette.PF_BLACK_100.getAWTColor());
+		g2d.fillRect(0, 0, rendering.chartWidth, rendering.chartHeight);
+		if (firstPass) {
+			rendering.chartRender.render(g2d);
+		} else {
+			rendering.chartRender.renderClipped(g2d);
+		}
+		g2d.dispose();
+		if (Thread.currentThread().isInterrupted()) {
+			return;
+		}
+		byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+		int rowBytes = rendering.width * 3;
+		Map<Integer, byte[]> tilePixels = new LinkedHashMap<>();
+		for (int tile = firstTile; tile <= lastTile; tile++) {
+			int tileY = tile * rendering.tileHeight - y;
+			int tileRows = Math.min(rendering.tileHeight, rows - tileY);
+			byte[] data = new byte[tileRows * rowBytes];
+			System.arraycopy(pixels, tileY * rowBytes, data, 0, data.length);
+			tilePixels.put(tile, data);
+		}
+		canvas.getDisplay().asyncExec(() -> publish(rendering, tilePixels, firstPass, y, rows));
+	}
+
+	/**
+	 * Forget a failed pass, so that its tiles are requested again when they are painted.
+	 */
+	private void renderFailed(Rendering rendering, int firstTile, int lastTile, boolean firstPass) {
+		if (canvas.isDisposed() || rendering.generation != generation
+				|| (rendering != pending && rendering != current)) {
+			return;
+		}
+		for (int tile = firstTile; tile <= lastTile; tile++) {
+			rendering.requested.remove(tile);
+		}
+		// Passes are run in order, so this is the one that has failed
+		if (!rendering.passes.isEmpty()) {
+			rendering.passes.remove(0);
+		}
+		if (firstPass) {
+			rendering.firstPassStarted = false;
+		}
+	}
+
+	private void publish(Rendering rendering, Map<Integer, byte[]> tilePixels, boolean firstPass, int y, int rows) {
+		if (canvas.isDisposed() || rendering.generation != generation
+				|| (rendering != pending && rendering != current)) {
+			return;
+		}
+		for (Entry<Integer, byte[]> tile : tilePixels.entrySet()) {
+			rendering.addTile(canvas, tile.getKey(), tile.getValue());
+			rendering.requested.remove(tile.getKey());
+		}
+		// Passes are run in order, so this is the one that has completed
+		if (!rendering.passes.isEmpty()) {
+			rendering.passes.remove(0);
+		}
+		if (firstPass) {
+			rendering.chartRender.publish();
+			if (previous != null) {
+				previous.dispose();
+			}
+			previous = current;
+			current = rendering;
+			pending = null;
+			// Everything may have changed, and tiles outside of the first pass need to be requested
+			canvas.redraw();
+			publishListener.run();
+		} else {
+			canvas.redraw(0, y, rendering.width, rows, false);
+		}
+	}
+
+	private void dispose() {
+		executor.shutdownNow();
+		for (Rendering rendering : new Rendering[] {pending, current, previous}) {
+			if (rendering != null) {
+				rendering.dispose();
+			}
+		}
+		pending = null;
+		current = null;
+		previous = null;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.services.jfr.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.openjdk.jmc.rjmx.common.services.jfr.internal.JfrRecordingInputStreamV2.ChunkTracker;
+import org.openjdk.jmc.rjmx.common.services.jfr.internal.JfrRecordingInputStreamV2.ResumeFilter;
+
+/**
+ * Tests that a recording download resumed on a new stream skips exactly the data that has already
+ * been downloaded, wherever in the recording the previous stream failed.
+ */
+@SuppressWarnings("nls")
+public class RecordingDownloadResumeTest {
+	private static final int MAGIC = 0x464c5200;
+	private static final int[] CHUNK_SIZES = {100, 60, 48, 130};
+
+	private final byte[][] chunks = createChunks(CHUNK_SIZES);
+	private final byte[] recording = concat(chunks, 0);
+
+	@Test
+	public void testResumeInFirstHeader() throws Exception {
+		ChunkTracker tracker = download(20);
+		ResumeFilter filter = tracker.createResumeFilter();
+		// No chunk has been seen, so the stream is restarted from the start
+		assertEquals(ChunkTracker.NO_CHUNK, filter.getChunkStart());
+		assertResumed(20, tracker, 0, 16);
+	}
+
+	@Test
+	public void testResumeMidHeader() throws Exception {
+		int failAt = CHUNK_SIZES[0] + 20;
+		ChunkTracker tracker = download(failAt);
+		// The header of the second chunk is incomplete, so the download resumes in the first chunk
+		assertEquals(chunkStart(0), tracker.createResumeFilter().getChunkStart());
+		assertResumed(failAt, tracker, 0, 16);
+	}
+
+	@Test
+	public void testResumeMidChunk() throws Exception {
+		int failAt = CHUNK_SIZES[0] + ChunkTracker.HEADER_SIZE + 5;
+		ChunkTracker tracker = download(failAt);
+		assertEquals(chunkStart(1), tracker.createResumeFilter().getChunkStart());
+		assertResumed(failAt, tracker, 1, 16);
+	}
+
+	@Test
+	public void testResumeAtChunkBoundary() throws Exception {
+		int failAt = CHUNK_SIZES[0] + CHUNK_SIZES[1];
+		ChunkTracker tracker = download(failAt);
+		assertEquals(chunkStart(1), tracker.createResumeFilter().getChunkStart());
+		assertResumed(failAt, tracker, 1, 16);
+	}
+
+	@Test
+	public void testResumedStreamStartingAtEarlierChunk() throws Exception {
+		// The server includes chunks that overlap the requested start time
+		int failAt = CHUNK_SIZES[0] + CHUNK_SIZES[1] + CHUNK_SIZES[2] + 70;
+		ChunkTracker tracker = download(failAt);
+		assertEquals(chunkStart(3), tracker.createResumeFilter().getChunkStart());
+		assertResumed(failAt, tracker, 1, 16);
+	}
+
+	@Test
+	public void testResumeAtEveryPosition() throws Exception {
+		for (int blockSize : new int[] {1, 7, 48, 1000}) {
+			for (int failAt = 0; failAt <= recording.length; failAt++) {
+				ChunkTracker tracker = download(failAt);
+				assertTrue(tracker.canResume());
+				assertResumed(failAt, tracker, resumedChunk(tracker), blockSize);
+			}
+		}
+	}
+
+	@Test
+	public void testResumeTwice() throws Exception {
+		int firstFailure = CHUNK_SIZES[0] + 10;
+		int secondFailure = CHUNK_SIZES[0] + CHUNK_SIZES[1] + 50;
+		ChunkTracker tracker = download(firstFailure);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(recording, 0, firstFailure);
+		ResumeFilter filter = tracker.createResumeFilter();
+		byte[] stream = concat(chunks, resumedChunk(tracker));
+		// Only part of the resumed stream is read before it fails too
+		int skipped = 0;
+		int offset = 0;
+		while (out.size() < secondFailure) {
+			byte[] block = Arrays.copyOfRange(stream, offset, offset + 1);
+			offset++;
+			if (!filter.isDone()) {
+				block = filter.filter(block);
+				skipped += 1 - block.length;
+			}
+			out.write(block);
+			tracker.update(block);
+		}
+		assertTrue(skipped > 0);
+		assertEquals(secondFailure, tracker.getPosition());
+		byte[] result = resume(out.toByteArray(), tracker, resumedChunk(tracker), 16);
+		assertArrayEquals(recording, result);
+	}
+
+	@Test
+	public void testMissingChunkFails() throws Exception {
+		int failAt = CHUNK_SIZES[0] + ChunkTracker.HEADER_SIZE + 5;
+		ResumeFilter filter = download(failAt).createResumeFilter();
+		try {
+			// A stream that starts after the chunk being read
+			filter.filter(concat(chunks, 2));
+			fail("Expected the missing chunk to be reported");
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testUnknownFormatCanNotBeResumed() throws Exception {
+		ChunkTracker tracker = new ChunkTracker();
+		byte[] data = recording.clone();
+		data[0] = 'X';
+		tracker.update(data);
+		assertFalse(tracker.canResume());
+	}
+
+	/**
+	 * Track the first bytes of the recording, as downloaded before a failure.
+	 */
+	private ChunkTracker download(int length) {
+		ChunkTracker tracker = new ChunkTracker();
+		// Feed the data in uneven blocks
+		int offset = 0;
+		for (int blockSize = 1; offset < length; blockSize += 3) {
+			int n = Math.min(blockSize, length - offset);
+			tracker.update(Arrays.copyOfRange(recording, offset, offset + n));
+			offset += n;
+		}
+		assertEquals(length, tracker.getPosition());
+		return tracker;
+	}
+
+	private void assertResumed(int failAt, ChunkTracker tracker, int firstChunk, int blockSize) throws IOException {
+		byte[] result = resume(Arrays.copyOf(recording, failAt), tracker, firstChunk, blockSize);
+		assertArrayEquals("Failed at " + failAt + " with blocks of " + blockSize, recording, result);
+	}
+
+	/**
+	 * Resume a download on a new stream that starts at a chunk.
+	 *
+	 * @return the data downloaded before the failure followed by the filtered new stream
+	 */
+	private byte[] resume(byte[] downloaded, ChunkTracker tracker, int firstChunk, int blockSize) throws IOException {
+		ResumeFilter filter = tracker.createResumeFilter();
+		byte[] stream = concat(chunks, firstChunk);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(downloaded);
+		for (int offset = 0; offset < stream.length; offset += blockSize) {
+			byte[] block = Arrays.copyOfRange(stream, offset, Math.min(stream.length, offset + blockSize));
+			if (!filter.isDone()) {
+				block = filter.filter(block);
+			}
+			out.write(block);
+		}
+		assertTrue(filter.isDone());
+		return out.toByteArray();
+	}
+
+	/**
+	 * @return the index of the first chunk that a server would stream when asked to resume
+	 */
+	private static int resumedChunk(ChunkTracker tracker) {
+		long start = tracker.createResumeFilter().getChunkStart();
+		if (start == ChunkTracker.NO_CHUNK) {
+			return 0;
+		}
+		for (int i = 0; i < CHUNK_SIZES.length; i++) {
+			if (chunkStart(i) == start) {
+				return i;
+			}
+		}
+		throw new AssertionError("Unknown chunk start " + start);
+	}
+
+	private static long chunkStart(int index) {
+		return (index + 1) * 1_000_000_000L;
+	}
+
+	private static byte[][] createChunks(int[] sizes) {
+		byte[][] chunks = new byte[sizes.length][];
+		for (int i = 0; i < sizes.length; i++) {
+			ByteBuffer chunk = ByteBuffer.allocate(sizes[i]);
+			chunk.putInt(MAGIC);
+			chunk.putShort((short) 2);
+			chunk.putShort((short) 0);
+			chunk.putLong(sizes[i]);
+			// Constant pool and metadata offsets
+			chunk.putLong(0);
+			chunk.putLong(0);
+			chunk.putLong(chunkStart(i));
+			// Duration
+			chunk.putLong(1_000_000_000L);
+			// Contents that differ between chunks and positions
+			while (chunk.hasRemaining()) {
+				chunk.put((byte) (i * 31 + chunk.position()));
+			}
+			chunks[i] = chunk.array();
+		}
+		return chunks;
+	}
+
+	private static byte[] concat(byte[][] chunks, int first) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = first; i < chunks.length; i++) {
+			out.write(chunks[i], 0, chunks[i].length);
+		}
+		return out.toByteArray();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -37,9 +37,11 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 import org.openjdk.jmc.rjmx.test.internal.InternalTestSuite;
+import org.openjdk.jmc.rjmx.test.persistence.internal.PersistenceInternalTestSuite;
 import org.openjdk.jmc.rjmx.test.services.ServicesTestSuite;
 import org.openjdk.jmc.rjmx.test.subscription.SubscriptionTestSuite;
 import org.openjdk.jmc.rjmx.test.subscription.internal.SubscriptionInternalTestSuite;
+import org.openjdk.jmc.rjmx.test.subscription.storage.internal.StorageInternalTestSuite;
 import org.openjdk.jmc.rjmx.test.synthetic.SyntheticTestSuite;
 import org.openjdk.jmc.rjmx.test.triggers.NotificationTestSuite;
 
@@ -49,8 +51,8 @@ import org.openjdk.jmc.rjmx.test.triggers.NotificationTestSuite;
  */
 @RunWith(Suite.class)
 @SuiteClasses({RJMXTestSuite.class, InternalTestSuite.class, ServicesTestSuite.class, SubscriptionTestSuite.class,
-		SubscriptionInternalTestSuite.class, SyntheticTestSuite.class, NotificationTestSuite.class,
-		JVMSupportToolkitTest.class})
+		SubscriptionInternalTestSuite.class, StorageInternalTestSuite.class, SyntheticTestSuite.class,
+		NotificationTestSuite.class, PersistenceInternalTestSuite.class, JVMSupportToolkitTest.class})
 public class AllRJMXTests {
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -40,6 +40,6 @@ import org.junit.runners.Suite.SuiteClasses;
  * This class holds all RJMX internal tests. Just add your test classes in the #suite method...
  */
 @RunWith(Suite.class)
-@SuiteClasses({RJMXConnectionTest.class, RJMXProxyOperationsTest.class})
+@SuiteClasses({RJMXConnectionTest.class, RJMXProxyOperationsTest.class, MBeanInfoPrefetcherTest.class})
 public class InternalTestSuite {
 }
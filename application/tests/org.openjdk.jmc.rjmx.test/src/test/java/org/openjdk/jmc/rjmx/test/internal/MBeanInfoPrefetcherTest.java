@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.rmi.UnmarshalException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.IntrospectionException;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jmc.rjmx.common.RJMXCorePlugin;
+import org.openjdk.jmc.rjmx.common.internal.MBeanInfoPrefetcher;
+import org.openjdk.jmc.rjmx.common.subscription.IMBeanHelperService;
+
+/**
+ * Tests that MBean information is retrieved for all MBeans that can be introspected.
+ */
+@SuppressWarnings("nls")
+public class MBeanInfoPrefetcherTest {
+	private static final int MBEAN_COUNT = 100;
+
+	private final Map<ObjectName, Exception> failures = new ConcurrentHashMap<>();
+	private final List<String> messages = new ArrayList<>();
+	private final Handler logHandler = new Handler() {
+		@Override
+		public void publish(LogRecord record) {
+			synchronized (messages) {
+				messages.add(record.getMessage());
+			}
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	};
+
+	@Before
+	public void setUp() {
+		getLogger().addHandler(logHandler);
+	}
+
+	@After
+	public void tearDown() {
+		getLogger().removeHandler(logHandler);
+	}
+
+	@Test
+	public void testAllInfosAreRetrieved() throws Exception {
+		List<ObjectName> names = createNames();
+		Map<ObjectName, MBeanInfo> infos = MBeanInfoPrefetcher.fetch(createService(), names);
+		assertEquals(MBEAN_COUNT, infos.size());
+		for (ObjectName name : names) {
+			assertEquals(name.getCanonicalName(), infos.get(name).getClassName());
+		}
+	}
+
+	@Test
+	public void testFailingMBeansAreSkipped() throws Exception {
+		List<ObjectName> names = createNames();
+		failures.put(names.get(3), new IntrospectionException("Broken"));
+		failures.put(names.get(17), new ReflectionException(new Exception("Broken")));
+		failures.put(names.get(42), new UnmarshalException("Broken"));
+		failures.put(names.get(50), new InstanceNotFoundException("Gone"));
+		failures.put(names.get(99), new NullPointerException("Broken"));
+		Map<ObjectName, MBeanInfo> infos = MBeanInfoPrefetcher.fetch(createService(), names);
+		assertEquals(MBEAN_COUNT - failures.size(), infos.size());
+		for (ObjectName name : names) {
+			assertEquals(!failures.containsKey(name), infos.containsKey(name));
+		}
+		// Unregistered MBeans are expected, and not counted as skipped
+		synchronized (messages) {
+			assertTrue(messages.toString(), messages.stream().anyMatch(m -> m.startsWith("Skipped 4 MBeans")));
+		}
+	}
+
+	@Test
+	public void testConnectionFailureAborts() throws Exception {
+		List<ObjectName> names = createNames();
+		IOException connectionFailure = new IOException("Connection lost");
+		failures.put(names.get(10), connectionFailure);
+		try {
+			MBeanInfoPrefetcher.fetch(createService(), names);
+			fail("Expected the connection failure to be thrown");
+		} catch (IOException e) {
+			assertSame(connectionFailure, e);
+		}
+	}
+
+	@Test
+	public void testNoNames() throws Exception {
+		assertTrue(MBeanInfoPrefetcher.fetch(createService(), new ArrayList<>()).isEmpty());
+	}
+
+	private static Logger getLogger() {
+		return RJMXCorePlugin.getDefault().getLogger();
+	}
+
+	private static List<ObjectName> createNames() throws Exception {
+		List<ObjectName> names = new ArrayList<>();
+		for (int i = 0; i < MBEAN_COUNT; i++) {
+			names.add(new ObjectName("org.openjdk.jmc.test:type=Test,index=" + i));
+		}
+		return names;
+	}
+
+	private IMBeanHelperService createService() {
+		return (IMBeanHelperService) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {IMBeanHelperService.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("getMBeanInfo")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					ObjectName name = (ObjectName) args[0];
+					Exception failure = failures.get(name);
+					if (failure != null) {
+						throw failure;
+					}
+					return new MBeanInfo(name.getCanonicalName(), null, null, null, null, null);
+				});
+	}
+}
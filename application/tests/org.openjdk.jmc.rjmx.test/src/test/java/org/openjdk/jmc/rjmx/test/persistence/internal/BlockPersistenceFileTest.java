@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.persistence.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+import org.openjdk.jmc.rjmx.common.subscription.MRI.Type;
+import org.openjdk.jmc.rjmx.persistence.internal.BlockPersistenceFile;
+import org.openjdk.jmc.rjmx.persistence.internal.PersistenceFile;
+
+/**
+ * Tests that values written in the compressed block format are read back unchanged.
+ */
+@SuppressWarnings("nls")
+public class BlockPersistenceFileTest {
+	private static final long NANOS_PER_MILLISECOND = 1000 * 1000L;
+	private static final long START = 1_700_000_000_000L * NANOS_PER_MILLISECOND;
+	private static final MRI MRI = new MRI(Type.ATTRIBUTE, "java.lang:type=Test", "Value");
+	// Deltas of deltas on both sides of each encoding size, and of the 32 bit range
+	private static final long[] DELTAS_OF_DELTAS = {0, 0, -63, 64, -64, 65, 0, -255, 256, -256, 257, -2047, 2048, -2048,
+			2049, Integer.MAX_VALUE, Integer.MIN_VALUE, (long) Integer.MAX_VALUE + 1, (long) Integer.MIN_VALUE - 1,
+			1L << 40, -(1L << 40), 0, 1, -1};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private int fileCount;
+
+	@Test
+	public void testDeltaOfDeltaBoundariesInNanoseconds() throws Exception {
+		// An odd start makes the timestamps not whole milliseconds
+		long[] timestamps = timestampsFromDeltasOfDeltas(START + 1, 1);
+		assertRoundTrip(timestamps, constantValues(timestamps.length));
+	}
+
+	@Test
+	public void testDeltaOfDeltaBoundariesInMilliseconds() throws Exception {
+		long[] timestamps = timestampsFromDeltasOfDeltas(START, NANOS_PER_MILLISECOND);
+		assertRoundTrip(timestamps, constantValues(timestamps.length));
+	}
+
+	@Test
+	public void testMillisecondsAreSmallerThanNanoseconds() throws Exception {
+		long[] timestamps = new long[BlockPersistenceFile.BLOCK_SIZE];
+		for (int i = 0; i < timestamps.length; i++) {
+			timestamps[i] = START + i * 1000 * NANOS_PER_MILLISECOND + (i % 3) * NANOS_PER_MILLISECOND;
+		}
+		long[] nanoTimestamps = timestamps.clone();
+		nanoTimestamps[timestamps.length - 1] += 1;
+		double[] values = constantValues(timestamps.length);
+		File millisFile = writeFile(timestamps, values);
+		File nanosFile = writeFile(nanoTimestamps, values);
+		assertTrue(millisFile.length() < nanosFile.length());
+		assertEvents(timestamps, values, PersistenceFile.open(millisFile).getEvents(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEvents(nanoTimestamps, values, PersistenceFile.open(nanosFile).getEvents(Long.MIN_VALUE, Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testSpecialValues() throws Exception {
+		double[] values = {0.0, -0.0, 0.0, Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L),
+				Double.longBitsToDouble(0xfff8000000000000L), Double.NaN, Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+				Double.MIN_NORMAL, -0.0, -0.0, 1.0};
+		assertRoundTrip(regularTimestamps(values.length), values);
+	}
+
+	@Test
+	public void testXorWindowReuse() throws Exception {
+		// Values that only differ in bits within the window of the previous value, in bits outside of
+		// it, in the lowest bit only, and not at all
+		double[] values = {1.0, 1.5, 1.25, 1.75, 1.75, 3.0, 1.0000000000000002, 1.0, 1.0000000000000004, 1.0, 1.0,
+				1024.5, 1024.25, -1024.25, 1024.25, Double.longBitsToDouble(1), Double.longBitsToDouble(3),
+				Double.longBitsToDouble(2), Double.longBitsToDouble(1L << 40)};
+		assertRoundTrip(regularTimestamps(values.length), values);
+	}
+
+	@Test
+	public void testRandomValues() throws Exception {
+		Random random = new Random(4711);
+		int count = 3 * BlockPersistenceFile.BLOCK_SIZE + 17;
+		long[] timestamps = new long[count];
+		double[] values = new double[count];
+		long timestamp = START;
+		for (int i = 0; i < count; i++) {
+			timestamp += random.nextInt(3) == 0 ? random.nextInt(100000) : 1000 * NANOS_PER_MILLISECOND;
+			timestamps[i] = timestamp;
+			switch (random.nextInt(4)) {
+			case 0:
+				values[i] = Double.longBitsToDouble(random.nextLong());
+				break;
+			case 1:
+				values[i] = random.nextInt(10);
+				break;
+			case 2:
+				values[i] = i > 0 ? values[i - 1] : 0;
+				break;
+			default:
+				values[i] = random.nextGaussian() * 1000;
+			}
+		}
+		assertRoundTrip(timestamps, values);
+	}
+
+	@Test
+	public void testSingleValue() throws Exception {
+		assertRoundTrip(new long[] {START + 17}, new double[] {Math.PI});
+	}
+
+	@Test
+	public void testFileHeader() throws Exception {
+		long[] timestamps = regularTimestamps(10);
+		PersistenceFile file = PersistenceFile.open(writeFile(timestamps, constantValues(10)));
+		assertEquals(MRI, file.getMRI());
+		assertEquals(0, file.getResolution());
+		assertEquals(timestamps[0], file.getStart());
+		assertEquals(timestamps[9], file.getEnd());
+		assertEquals(timestamps[0], file.getCoveredStart());
+		assertEquals(timestamps[9], file.getCoveredEnd());
+		assertEquals(10, file.getEventCount());
+		assertFalse(file.isCorrupt());
+		assertTrue(file.isAppendable());
+	}
+
+	@Test
+	public void testDownsampledFileHeader() throws Exception {
+		long[] timestamps = regularTimestamps(10);
+		File f = newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+			BlockPersistenceFile.writeFileHeader(out, MRI, 60_000 * NANOS_PER_MILLISECOND, START - 5, START + 1000);
+			out.write(BlockPersistenceFile.encodeBlock(timestamps, constantValues(10), 10));
+		}
+		PersistenceFile file = PersistenceFile.open(f);
+		assertEquals(60_000 * NANOS_PER_MILLISECOND, file.getResolution());
+		assertEquals(START - 5, file.getCoveredStart());
+		assertEquals(START + 1000, file.getCoveredEnd());
+		assertEquals(timestamps[0], file.getStart());
+		assertFalse(file.isAppendable());
+	}
+
+	@Test
+	public void testOnlyOverlappingBlocksAreRead() throws Exception {
+		int count = 3 * BlockPersistenceFile.BLOCK_SIZE;
+		long[] timestamps = regularTimestamps(count);
+		double[] values = constantValues(count);
+		PersistenceFile file = PersistenceFile.open(writeFile(timestamps, values));
+		int middle = BlockPersistenceFile.BLOCK_SIZE + 10;
+		ITimestampedData[] events = file.getEvents(timestamps[middle], timestamps[middle + 1]);
+		assertEquals(BlockPersistenceFile.BLOCK_SIZE, events.length);
+		assertEquals(timestamps[BlockPersistenceFile.BLOCK_SIZE], events[0].getX().longValue());
+		assertEquals(0, file.getEvents(timestamps[count - 1] + 1, Long.MAX_VALUE).length);
+		assertEquals(count, file.getEvents(Long.MIN_VALUE, Long.MAX_VALUE).length);
+	}
+
+	@Test
+	public void testTruncatedBlockData() throws Exception {
+		assertTruncatedTail(5);
+	}
+
+	@Test
+	public void testTruncatedBlockHeader() throws Exception {
+		File f = writeFile(regularTimestamps(2 * BlockPersistenceFile.BLOCK_SIZE),
+				constantValues(2 * BlockPersistenceFile.BLOCK_SIZE));
+		int secondBlockLength = BlockPersistenceFile.encodeBlock(
+				Arrays.copyOfRange(regularTimestamps(2 * BlockPersistenceFile.BLOCK_SIZE),
+						BlockPersistenceFile.BLOCK_SIZE, 2 * BlockPersistenceFile.BLOCK_SIZE),
+				constantValues(BlockPersistenceFile.BLOCK_SIZE), BlockPersistenceFile.BLOCK_SIZE).length;
+		// Leave part of the header of the second block
+		assertTruncatedTail(f, secondBlockLength - 10);
+	}
+
+	@Test
+	public void testUnsupportedVersion() throws Exception {
+		File f = newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+			out.writeUTF(MRI.getQualifiedName());
+			out.writeByte(99);
+			out.writeLong(0);
+			out.writeLong(0);
+			out.writeLong(0);
+		}
+		assertNotOpened(f);
+	}
+
+	@Test
+	public void testTruncatedFileHeader() throws Exception {
+		File f = writeFile(regularTimestamps(1), constantValues(1));
+		try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+			raf.setLength(2 + MRI.getQualifiedName().length() + 1 + 8);
+		}
+		assertNotOpened(f);
+	}
+
+	private void assertTruncatedTail(int truncatedBytes) throws Exception {
+		File f = writeFile(regularTimestamps(2 * BlockPersistenceFile.BLOCK_SIZE),
+				constantValues(2 * BlockPersistenceFile.BLOCK_SIZE));
+		assertTruncatedTail(f, truncatedBytes);
+	}
+
+	private void assertTruncatedTail(File f, int truncatedBytes) throws Exception {
+		try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+			raf.setLength(raf.length() - truncatedBytes);
+		}
+		PersistenceFile file = PersistenceFile.open(f);
+		assertTrue(file.isCorrupt());
+		assertFalse(file.isAppendable());
+		// Only the last block is lost
+		assertEquals(BlockPersistenceFile.BLOCK_SIZE, file.getEventCount());
+		long[] timestamps = Arrays.copyOf(regularTimestamps(2 * BlockPersistenceFile.BLOCK_SIZE),
+				BlockPersistenceFile.BLOCK_SIZE);
+		assertEvents(timestamps, constantValues(BlockPersistenceFile.BLOCK_SIZE),
+				file.getEvents(Long.MIN_VALUE, Long.MAX_VALUE));
+	}
+
+	private static void assertNotOpened(File f) {
+		try {
+			PersistenceFile.open(f);
+			fail("Expected the file to be rejected");
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+
+	private void assertRoundTrip(long[] timestamps, double[] values) throws Exception {
+		PersistenceFile file = PersistenceFile.open(writeFile(timestamps, values));
+		assertFalse(file.isCorrupt());
+		assertEquals(timestamps.length, file.getEventCount());
+		assertEvents(timestamps, values, file.getEvents(Long.MIN_VALUE, Long.MAX_VALUE));
+	}
+
+	private static void assertEvents(long[] timestamps, double[] values, ITimestampedData[] events) {
+		assertEquals(timestamps.length, events.length);
+		for (int i = 0; i < events.length; i++) {
+			assertEquals("Timestamp " + i, timestamps[i], events[i].getX().longValue());
+			assertEquals("Value " + i, Double.doubleToRawLongBits(values[i]),
+					Double.doubleToRawLongBits(events[i].getY().doubleValue()));
+		}
+	}
+
+	/**
+	 * Write values in blocks, like the attribute writer does.
+	 */
+	private File writeFile(long[] timestamps, double[] values) throws IOException {
+		File f = newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+			BlockPersistenceFile.writeFileHeader(out, MRI);
+			for (int i = 0; i < timestamps.length; i += BlockPersistenceFile.BLOCK_SIZE) {
+				int count = Math.min(BlockPersistenceFile.BLOCK_SIZE, timestamps.length - i);
+				out.write(BlockPersistenceFile.encodeBlock(Arrays.copyOfRange(timestamps, i, i + count),
+						Arrays.copyOfRange(values, i, i + count), count));
+			}
+		}
+		return f;
+	}
+
+	private File newFile() throws IOException {
+		return folder.newFile("values_" + fileCount++ + ".persisted_jmx_blocks");
+	}
+
+	private static long[] timestampsFromDeltasOfDeltas(long start, long unit) {
+		long[] timestamps = new long[DELTAS_OF_DELTAS.length + 1];
+		timestamps[0] = start;
+		long delta = 0;
+		for (int i = 0; i < DELTAS_OF_DELTAS.length; i++) {
+			delta += DELTAS_OF_DELTAS[i];
+			timestamps[i + 1] = timestamps[i] + delta * unit;
+		}
+		return timestamps;
+	}
+
+	private static long[] regularTimestamps(int count) {
+		long[] timestamps = new long[count];
+		for (int i = 0; i < count; i++) {
+			timestamps[i] = START + i * 1000 * NANOS_PER_MILLISECOND;
+		}
+		return timestamps;
+	}
+
+	private static double[] constantValues(int count) {
+		double[] values = new double[count];
+		Arrays.fill(values, 42.0);
+		return values;
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.persistence.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+import org.openjdk.jmc.rjmx.common.subscription.MRI.Type;
+import org.openjdk.jmc.rjmx.persistence.internal.BlockPersistenceFile;
+import org.openjdk.jmc.rjmx.persistence.internal.PersistenceCompactor;
+import org.openjdk.jmc.rjmx.persistence.internal.PersistenceFile;
+
+/**
+ * Tests that the compactor downsamples and deletes the right files of an attribute.
+ */
+@SuppressWarnings("nls")
+public class PersistenceCompactorTest {
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+	private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+	private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+	private static final long DAY = TimeUnit.DAYS.toNanos(1);
+	private static final long NOW = 20000 * DAY + 12 * HOUR;
+	private static final MRI MRI = new MRI(Type.ATTRIBUTE, "java.lang:type=Test", "Value");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File attributeDir;
+	private int fileCount;
+
+	@Before
+	public void setUp() throws IOException {
+		attributeDir = folder.newFolder("attribute");
+	}
+
+	@Test
+	public void testRecentValuesAreKept() throws Exception {
+		writeSeriesStarts(NOW - 2 * HOUR);
+		File first = writeFile(regularTimestamps(NOW - 2 * HOUR, SECOND, 100));
+		File latest = writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		assertFiles(first, latest);
+	}
+
+	@Test
+	public void testValuesOlderThanADayAreDownsampledToMinutes() throws Exception {
+		long start = dayStart(3);
+		writeSeriesStarts(start);
+		writeFile(regularTimestamps(start, SECOND, 7200));
+		File latest = writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		List<PersistenceFile> files = openFiles();
+		assertEquals(2, files.size());
+		PersistenceFile downsampled = files.get(0);
+		assertEquals(MINUTE, downsampled.getResolution());
+		assertEquals(start, downsampled.getCoveredStart());
+		assertEquals(start + 7199 * SECOND, downsampled.getCoveredEnd());
+		ITimestampedData[] events = getEvents(downsampled);
+		assertEquals(120, events.length);
+		for (int i = 0; i < events.length; i++) {
+			// The values are the indexes of the original values, so each average is the middle one
+			assertEquals(start + i * MINUTE + 29 * SECOND + SECOND / 2, events[i].getX().longValue());
+			assertEquals(i * 60 + 29.5, events[i].getY().doubleValue(), 0);
+		}
+		assertEquals(latest, files.get(1).getFile());
+	}
+
+	@Test
+	public void testValuesOlderThanAWeekAreDownsampledToTenMinutes() throws Exception {
+		long start = dayStart(10);
+		writeSeriesStarts(start);
+		writeFile(regularTimestamps(start, SECOND, 7200));
+		File recentFile = writeFile(regularTimestamps(dayStart(3), SECOND, 7200));
+		writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		List<PersistenceFile> files = openFiles();
+		assertEquals(3, files.size());
+		assertEquals(10 * MINUTE, files.get(0).getResolution());
+		ITimestampedData[] events = getEvents(files.get(0));
+		assertEquals(12, events.length);
+		assertEquals(299.5, events[0].getY().doubleValue(), 0);
+		assertEquals(11 * 600 + 299.5, events[11].getY().doubleValue(), 0);
+		// Values between a day and a week old are kept at one minute resolution
+		assertEquals(MINUTE, files.get(1).getResolution());
+		assertEquals(120, files.get(1).getEventCount());
+		assertTrue(!recentFile.exists());
+	}
+
+	@Test
+	public void testDownsampledValuesAreWrittenOneFilePerDay() throws Exception {
+		long start = dayStart(3) - HOUR;
+		writeSeriesStarts(start);
+		writeFile(regularTimestamps(start, SECOND, 7200));
+		writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		List<PersistenceFile> files = openFiles();
+		assertEquals(3, files.size());
+		assertEquals(start, files.get(0).getCoveredStart());
+		assertEquals(dayStart(3) - 1, files.get(0).getCoveredEnd());
+		assertEquals(60, files.get(0).getEventCount());
+		assertEquals(dayStart(3), files.get(1).getCoveredStart());
+		assertEquals(start + 7199 * SECOND, files.get(1).getCoveredEnd());
+		assertEquals(60, files.get(1).getEventCount());
+	}
+
+	@Test
+	public void testDownsampledFilesOfTheSameDayAreMerged() throws Exception {
+		long start = dayStart(3);
+		writeSeriesStarts(start);
+		writeFile(regularTimestamps(start, SECOND, 3600));
+		writeFile(regularTimestamps(start + HOUR, SECOND, 3600));
+		writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		List<PersistenceFile> files = openFiles();
+		assertEquals(2, files.size());
+		assertEquals(120, files.get(0).getEventCount());
+	}
+
+	@Test
+	public void testSeriesAreNotAveragedTogether() throws Exception {
+		long start = dayStart(3);
+		writeSeriesStarts(start - HOUR, start + 30 * SECOND);
+		writeFile(regularTimestamps(start, 10 * SECOND, 6), new double[] {1, 1, 1, 5, 5, 5});
+		writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		ITimestampedData[] events = getEvents(openFiles().get(0));
+		assertEquals(2, events.length);
+		assertEquals(start + 10 * SECOND, events[0].getX().longValue());
+		assertEquals(1, events[0].getY().doubleValue(), 0);
+		assertEquals(start + 40 * SECOND, events[1].getX().longValue());
+		assertEquals(5, events[1].getY().doubleValue(), 0);
+	}
+
+	@Test
+	public void testActiveFileIsNotTouched() throws Exception {
+		long start = dayStart(10);
+		writeSeriesStarts(start);
+		File active = writeFile(regularTimestamps(start, SECOND, 100));
+		File latest = writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		new PersistenceCompactor(1, DAY).compact(attributeDir, Collections.singleton(active), NOW);
+		assertFiles(active, latest);
+	}
+
+	@Test
+	public void testLatestFileIsNotTouched() throws Exception {
+		long start = dayStart(10);
+		writeSeriesStarts(start);
+		File latest = writeFile(regularTimestamps(start, SECOND, 100));
+		compact(1, DAY);
+		assertFiles(latest);
+	}
+
+	@Test
+	public void testOldestFilesAreDeletedWhenOverTheSizeLimit() throws Exception {
+		writeSeriesStarts(NOW - 3 * HOUR);
+		writeFile(regularTimestamps(NOW - 3 * HOUR, SECOND, 100));
+		File second = writeFile(regularTimestamps(NOW - 2 * HOUR, SECOND, 100));
+		File latest = writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(second.length() + latest.length(), 0);
+		assertFiles(second, latest);
+		compact(1, 0);
+		assertFiles(latest);
+	}
+
+	@Test
+	public void testFilesOlderThanTheAgeLimitAreDeleted() throws Exception {
+		writeSeriesStarts(dayStart(40));
+		writeFile(regularTimestamps(dayStart(40), SECOND, 100));
+		File recent = writeFile(regularTimestamps(NOW - 2 * HOUR, SECOND, 100));
+		File latest = writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 30 * DAY);
+		assertFiles(recent, latest);
+	}
+
+	@Test
+	public void testSupersededFilesAreDeleted() throws Exception {
+		long start = dayStart(3);
+		writeSeriesStarts(start);
+		File recorded = writeFile(regularTimestamps(start, SECOND, 100));
+		File downsampled = writeDownsampledFile(start, start + 99 * SECOND,
+				regularTimestamps(start + 30 * SECOND, MINUTE, 2));
+		File latest = writeFile(regularTimestamps(NOW - HOUR, SECOND, 100));
+		compact(0, 0);
+		assertTrue(!recorded.exists());
+		assertFiles(downsampled, latest);
+	}
+
+	@Test
+	public void testRemoveSuperseded() throws Exception {
+		long start = dayStart(3);
+		PersistenceFile spanningDays = open(writeFile(regularTimestamps(start - HOUR, SECOND, 7200)));
+		PersistenceFile firstDay = open(
+				writeDownsampledFile(start - HOUR, start - 1, regularTimestamps(start - HOUR, MINUTE, 60)));
+		PersistenceFile secondDay = open(
+				writeDownsampledFile(start, start + HOUR, regularTimestamps(start, MINUTE, 60)));
+		PersistenceFile partlyCovered = open(writeFile(regularTimestamps(start + HOUR - MINUTE, SECOND, 7200)));
+		PersistenceFile notCovered = open(writeFile(regularTimestamps(start + 2 * HOUR, SECOND, 100)));
+		List<PersistenceFile> files = new ArrayList<>(
+				Arrays.asList(spanningDays, firstDay, secondDay, partlyCovered, notCovered));
+		List<PersistenceFile> superseded = PersistenceFile.removeSuperseded(files);
+		assertEquals(1, superseded.size());
+		assertSame(spanningDays, superseded.get(0));
+		assertEquals(Arrays.asList(firstDay, secondDay, partlyCovered, notCovered), files);
+	}
+
+	private void compact(long maxSize, long maxAge) {
+		new PersistenceCompactor(maxSize, maxAge).compact(attributeDir, Collections.emptyList(), NOW);
+	}
+
+	private void assertFiles(File ... expected) {
+		List<File> actual = new ArrayList<>();
+		for (PersistenceFile f : openFiles()) {
+			actual.add(f.getFile());
+		}
+		assertEquals(Arrays.asList(expected), actual);
+	}
+
+	private List<PersistenceFile> openFiles() {
+		List<PersistenceFile> files = new ArrayList<>();
+		for (File f : attributeDir.listFiles(PersistenceFile.FILTER)) {
+			files.add(open(f));
+		}
+		files.sort(PersistenceFile.PERSISTENCE_FILE_START_COMPARATOR);
+		return files;
+	}
+
+	private static PersistenceFile open(File f) {
+		try {
+			return PersistenceFile.open(f);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static ITimestampedData[] getEvents(PersistenceFile f) throws IOException {
+		return f.getEvents(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private File writeFile(long[] timestamps) throws IOException {
+		double[] values = new double[timestamps.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i;
+		}
+		return writeFile(timestamps, values);
+	}
+
+	private File writeFile(long[] timestamps, double[] values) throws IOException {
+		File f = newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+			BlockPersistenceFile.writeFileHeader(out, MRI);
+			writeBlocks(out, timestamps, values);
+		}
+		return f;
+	}
+
+	private File writeDownsampledFile(long coveredStart, long coveredEnd, long[] timestamps) throws IOException {
+		File f = newFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(f))) {
+			BlockPersistenceFile.writeFileHeader(out, MRI, MINUTE, coveredStart, coveredEnd);
+			writeBlocks(out, timestamps, new double[timestamps.length]);
+		}
+		return f;
+	}
+
+	private static void writeBlocks(DataOutputStream out, long[] timestamps, double[] values) throws IOException {
+		for (int i = 0; i < timestamps.length; i += BlockPersistenceFile.BLOCK_SIZE) {
+			int count = Math.min(BlockPersistenceFile.BLOCK_SIZE, timestamps.length - i);
+			out.write(BlockPersistenceFile.encodeBlock(Arrays.copyOfRange(timestamps, i, i + count),
+					Arrays.copyOfRange(values, i, i + count), count));
+		}
+	}
+
+	private File newFile() {
+		return new File(attributeDir, "values_" + fileCount++ + ".persisted_jmx_blocks");
+	}
+
+	private void writeSeriesStarts(long ... starts) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(new File(attributeDir, "series.info")))) {
+			for (long start : starts) {
+				out.writeLong(start);
+			}
+		}
+	}
+
+	private static long dayStart(int daysAgo) {
+		return (NOW / DAY - daysAgo) * DAY;
+	}
+
+	private static long[] regularTimestamps(long start, long interval, int count) {
+		long[] timestamps = new long[count];
+		for (int i = 0; i < count; i++) {
+			timestamps[i] = start + i * interval;
+		}
+		return timestamps;
+	}
+}
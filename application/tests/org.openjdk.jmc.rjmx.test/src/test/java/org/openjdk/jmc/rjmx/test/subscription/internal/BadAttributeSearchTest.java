@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.subscription.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.junit.Test;
+import org.openjdk.jmc.rjmx.common.subscription.IMBeanHelperService;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+import org.openjdk.jmc.rjmx.common.subscription.MRI.Type;
+import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
+import org.openjdk.jmc.rjmx.common.subscription.internal.AttributeValueToolkit;
+import org.openjdk.jmc.rjmx.common.subscription.internal.BadAttributeSearch;
+import org.openjdk.jmc.rjmx.common.subscription.internal.MBeanBackoffTracker;
+
+/**
+ * Tests the search for bad attributes in a failed batch, and the backoff of MBeans that are not
+ * found.
+ */
+@SuppressWarnings("nls")
+public class BadAttributeSearchTest {
+	private static final String RUNTIME = "java.lang:type=Runtime";
+	private static final String BAD_ATTRIBUTE = "Bad";
+
+	private final AtomicInteger batchCount = new AtomicInteger();
+	private final MBeanServerConnection server = createServer();
+	private final IMBeanHelperService helperService = createHelperService();
+
+	@Test
+	public void testBadAttributeIsIsolated() throws Exception {
+		List<MRI> batch = new ArrayList<>();
+		for (String attribute : Arrays.asList("Uptime", "StartTime", "VmName", "VmVendor", "VmVersion", "SpecName",
+				"SpecVendor", BAD_ATTRIBUTE)) {
+			batch.add(new MRI(Type.ATTRIBUTE, RUNTIME, attribute));
+		}
+		BadAttributeSearch search = new BadAttributeSearch(new DummyConnectionHandle(), server, helperService);
+		search.search(batch);
+
+		MRI bad = new MRI(Type.ATTRIBUTE, RUNTIME, BAD_ATTRIBUTE);
+		assertEquals(Arrays.asList(bad), search.getBadAttributes());
+		assertTrue(search.getError(bad) instanceof AttributeNotFoundException);
+		Set<MRI> retrieved = new HashSet<>();
+		for (MRIValueEvent event : search.getEvents()) {
+			retrieved.add(event.getMRI());
+		}
+		assertEquals(batch.size() - 1, retrieved.size());
+		assertFalse(retrieved.contains(bad));
+		// Halves of 4, 2 and 1 attributes on the way to the bad one, not one call per attribute
+		assertTrue("Made " + batchCount.get() + " batch calls", batchCount.get() < batch.size());
+	}
+
+	@Test
+	public void testMissingMBean() throws Exception {
+		List<MRI> batch = new ArrayList<>();
+		batch.add(new MRI(Type.ATTRIBUTE, "jmc.test:type=Missing", "A"));
+		batch.add(new MRI(Type.ATTRIBUTE, "jmc.test:type=Missing", "B"));
+		batch.add(new MRI(Type.ATTRIBUTE, RUNTIME, "Uptime"));
+		batch.add(new MRI(Type.ATTRIBUTE, RUNTIME, "VmName"));
+		BadAttributeSearch search = new BadAttributeSearch(new DummyConnectionHandle(), server, helperService);
+		search.search(batch);
+
+		assertEquals(2, search.getBadAttributes().size());
+		for (MRI mri : search.getBadAttributes()) {
+			assertEquals("jmc.test:type=Missing", mri.getObjectName().toString());
+			assertTrue(search.getError(mri) instanceof InstanceNotFoundException);
+		}
+		assertEquals(2, search.getEvents().size());
+	}
+
+	@Test
+	public void testEventsAreInTimestampOrder() throws Exception {
+		List<MRI> batch = new ArrayList<>();
+		for (String attribute : Arrays.asList("Uptime", "StartTime", "VmName", BAD_ATTRIBUTE, "VmVendor", "VmVersion",
+				BAD_ATTRIBUTE + "2", "SpecName")) {
+			batch.add(new MRI(Type.ATTRIBUTE, RUNTIME, attribute));
+		}
+		BadAttributeSearch search = new BadAttributeSearch(new DummyConnectionHandle(), server, helperService);
+		search.search(batch);
+
+		List<MRIValueEvent> events = search.getEvents();
+		assertEquals(6, events.size());
+		for (int i = 1; i < events.size(); i++) {
+			assertTrue(events.get(i - 1).getTimestamp() <= events.get(i).getTimestamp());
+		}
+	}
+
+	@Test
+	public void testNoErrorForGoodAttribute() throws Exception {
+		MRI good = new MRI(Type.ATTRIBUTE, RUNTIME, "Uptime");
+		BadAttributeSearch search = new BadAttributeSearch(new DummyConnectionHandle(), server, helperService);
+		search.search(Arrays.asList(good));
+		assertTrue(search.getBadAttributes().isEmpty());
+		assertNull(search.getError(good));
+		assertEquals(1, search.getEvents().size());
+	}
+
+	@Test
+	public void testBackoffDoubles() throws Exception {
+		ObjectName mbean = new ObjectName("jmc.test:type=Missing");
+		MBeanBackoffTracker tracker = new MBeanBackoffTracker();
+		assertFalse(tracker.isBackedOff(mbean, 0));
+		assertEquals(0, tracker.getBackoffTime(mbean));
+
+		tracker.backoff(mbean, 0);
+		assertEquals(1000, tracker.getBackoffTime(mbean));
+		assertTrue(tracker.isBackedOff(mbean, 999));
+		assertFalse(tracker.isBackedOff(mbean, 1000));
+
+		// Failing again while backed off does not double the backoff
+		tracker.backoff(mbean, 500);
+		assertEquals(1000, tracker.getBackoffTime(mbean));
+
+		tracker.backoff(mbean, 1500);
+		assertEquals(2000, tracker.getBackoffTime(mbean));
+		assertTrue(tracker.isBackedOff(mbean, 3499));
+		assertFalse(tracker.isBackedOff(mbean, 3500));
+	}
+
+	@Test
+	public void testBackoffIsCapped() throws Exception {
+		ObjectName mbean = new ObjectName("jmc.test:type=Missing");
+		MBeanBackoffTracker tracker = new MBeanBackoffTracker();
+		long now = 0;
+		for (int i = 0; i < 20; i++) {
+			tracker.backoff(mbean, now);
+			now += tracker.getBackoffTime(mbean);
+		}
+		assertEquals(60000, tracker.getBackoffTime(mbean));
+	}
+
+	@Test
+	public void testBackoffIsForgotten() throws Exception {
+		ObjectName kept = new ObjectName("jmc.test:type=Kept");
+		ObjectName pruned = new ObjectName("jmc.test:type=Pruned");
+		ObjectName removed = new ObjectName("jmc.test:type=Removed");
+		MBeanBackoffTracker tracker = new MBeanBackoffTracker();
+		tracker.backoff(kept, 0);
+		tracker.backoff(pruned, 0);
+		tracker.backoff(removed, 0);
+		assertEquals(3, tracker.size());
+
+		tracker.remove(removed);
+		assertFalse(tracker.isBackedOff(removed, 0));
+		tracker.retainAll(Arrays.asList(kept));
+		assertEquals(1, tracker.size());
+		assertTrue(tracker.isBackedOff(kept, 0));
+		assertFalse(tracker.isBackedOff(pruned, 0));
+	}
+
+	/**
+	 * @return a connection to the platform MBean server where batches containing a bad attribute
+	 *         fail, like they may do when an attribute getter throws an exception
+	 */
+	private MBeanServerConnection createServer() {
+		MBeanServer platformServer = ManagementFactory.getPlatformMBeanServer();
+		return (MBeanServerConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {MBeanServerConnection.class}, (proxy, method, args) -> {
+					if (method.getName().equals("getAttributes")) {
+						batchCount.incrementAndGet();
+						for (String attribute : (String[]) args[1]) {
+							if (attribute.startsWith(BAD_ATTRIBUTE)) {
+								throw new ReflectionException(new Exception("Expected by test"));
+							}
+						}
+					} else if (method.getName().equals("getAttribute")
+							&& ((String) args[1]).startsWith(BAD_ATTRIBUTE)) {
+						throw new AttributeNotFoundException((String) args[1]);
+					}
+					try {
+						return method.invoke(platformServer, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	private IMBeanHelperService createHelperService() {
+		return (IMBeanHelperService) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {IMBeanHelperService.class}, (proxy, method, args) -> {
+					if (method.getName().equals("getAttributeValue")) {
+						return AttributeValueToolkit.getAttribute(server, (MRI) args[0]);
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+}
@@ -41,6 +41,7 @@ import org.junit.runners.Suite.SuiteClasses;
  * #suite method...
  */
 @RunWith(Suite.class)
-@SuiteClasses({ConsoleAttributeInfoManagerTest.class, UpdatePolicyTest.class})
+@SuiteClasses({ConsoleAttributeInfoManagerTest.class, UpdatePolicyTest.class, SubscriptionSchedulerTest.class,
+		BadAttributeSearchTest.class})
 public class SubscriptionInternalTestSuite {
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.subscription.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openjdk.jmc.rjmx.common.subscription.IUpdatePolicy;
+import org.openjdk.jmc.rjmx.common.subscription.internal.DefaultAttributeSubscriptionTask;
+import org.openjdk.jmc.rjmx.common.subscription.internal.SimpleUpdatePolicy;
+import org.openjdk.jmc.rjmx.common.subscription.internal.SubscriptionScheduler;
+import org.openjdk.jmc.rjmx.common.subscription.internal.SubscriptionScheduler.ScheduledTask;
+
+/**
+ * Tests the scheduling of the sampling tasks, and the lag and skip accounting of the sampling.
+ */
+public class SubscriptionSchedulerTest {
+	private static final long TIMEOUT = 10000;
+
+	@Test
+	public void testTaskIsRunRepeatedly() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		CountDownLatch latch = new CountDownLatch(5);
+		long start = System.nanoTime();
+		ScheduledTask task = scheduler.schedule(lag -> {
+			latch.countDown();
+			return 100;
+		}, "repeated"); //$NON-NLS-1$
+		try {
+			assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			// The first run is immediate, the following four are at least 100 ms apart
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 400);
+		} finally {
+			task.cancel();
+		}
+	}
+
+	@Test
+	public void testNegativeDelayStopsTask() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		AtomicInteger runs = new AtomicInteger();
+		scheduler.schedule(lag -> {
+			runs.incrementAndGet();
+			return -1;
+		}, "once"); //$NON-NLS-1$
+		Thread.sleep(500);
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(1);
+		ScheduledTask task = scheduler.schedule(lag -> {
+			runs.incrementAndGet();
+			latch.countDown();
+			return 200;
+		}, "cancelled"); //$NON-NLS-1$
+		assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		task.cancel();
+		int runsAtCancel = runs.get();
+		Thread.sleep(600);
+		assertEquals(runsAtCancel, runs.get());
+	}
+
+	@Test
+	public void testRunSoon() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		CountDownLatch first = new CountDownLatch(1);
+		CountDownLatch second = new CountDownLatch(2);
+		ScheduledTask task = scheduler.schedule(lag -> {
+			first.countDown();
+			second.countDown();
+			return 60000;
+		}, "soon"); //$NON-NLS-1$
+		try {
+			assertTrue(first.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			// Wait for the task to be back in the wheel
+			Thread.sleep(200);
+			task.runSoon();
+			assertTrue(second.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		} finally {
+			task.cancel();
+		}
+	}
+
+	@Test
+	public void testDelayLongerThanWheelTurn() throws Exception {
+		// One turn of the wheel is 64 ticks of 50 ms, a longer delay must wait for a later turn
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		List<Long> runTimes = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(2);
+		ScheduledTask task = scheduler.schedule(lag -> {
+			synchronized (runTimes) {
+				runTimes.add(System.nanoTime());
+			}
+			latch.countDown();
+			return 4000;
+		}, "long delay"); //$NON-NLS-1$
+		try {
+			assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			synchronized (runTimes) {
+				long delay = TimeUnit.NANOSECONDS.toMillis(runTimes.get(1) - runTimes.get(0));
+				assertTrue("Task was run after " + delay + " ms", delay >= 4000 && delay < 4000 + 3200); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			task.cancel();
+		}
+	}
+
+	@Test
+	public void testFailingTaskIsRescheduled() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		CountDownLatch latch = new CountDownLatch(2);
+		ScheduledTask task = scheduler.schedule(lag -> {
+			latch.countDown();
+			throw new IllegalStateException("Expected by test"); //$NON-NLS-1$
+		}, "failing"); //$NON-NLS-1$
+		try {
+			assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		} finally {
+			task.cancel();
+		}
+	}
+
+	@Test
+	public void testTaskIsNotRunConcurrently() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(4);
+		AtomicBoolean running = new AtomicBoolean();
+		AtomicBoolean overlapped = new AtomicBoolean();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledTask task = scheduler.schedule(lag -> {
+			if (!running.compareAndSet(false, true)) {
+				overlapped.set(true);
+			}
+			try {
+				// Run for longer than the delay
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.set(false);
+			latch.countDown();
+			return 0;
+		}, "slow"); //$NON-NLS-1$
+		try {
+			assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			assertFalse(overlapped.get());
+		} finally {
+			task.cancel();
+		}
+	}
+
+	@Test
+	public void testLagWhenWorkersAreBusy() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(1);
+		CountDownLatch blocking = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ScheduledTask blocker = scheduler.schedule(lag -> {
+			blocking.countDown();
+			try {
+				release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return -1;
+		}, "blocker"); //$NON-NLS-1$
+		assertTrue(blocking.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		long[] lags = new long[1];
+		CountDownLatch lagged = new CountDownLatch(1);
+		ScheduledTask task = scheduler.schedule(lag -> {
+			lags[0] = lag;
+			lagged.countDown();
+			return -1;
+		}, "lagged"); //$NON-NLS-1$
+		Thread.sleep(500);
+		release.countDown();
+		try {
+			assertTrue(lagged.await(TIMEOUT, TimeUnit.MILLISECONDS));
+			assertTrue("Lag was " + lags[0] + " ms", lags[0] >= 400); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			blocker.cancel();
+			task.cancel();
+		}
+	}
+
+	@Test
+	public void testNoLagWhenOnTime() throws Exception {
+		SubscriptionScheduler scheduler = new SubscriptionScheduler(2);
+		long[] lags = new long[1];
+		CountDownLatch latch = new CountDownLatch(1);
+		scheduler.schedule(lag -> {
+			lags[0] = lag;
+			latch.countDown();
+			return -1;
+		}, "on time"); //$NON-NLS-1$
+		assertTrue(latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		// The lag can not be larger than a few ticks
+		assertTrue("Lag was " + lags[0] + " ms", lags[0] >= 0 && lags[0] < 1000); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testSkippedSampleCount() {
+		IUpdatePolicy policy = SimpleUpdatePolicy.newPolicy(1000);
+		assertEquals(0, DefaultAttributeSubscriptionTask.getSkippedSampleCount(policy, 5000, 5000));
+		assertEquals(0, DefaultAttributeSubscriptionTask.getSkippedSampleCount(policy, 5000, 5999));
+		assertEquals(1, DefaultAttributeSubscriptionTask.getSkippedSampleCount(policy, 5000, 6000));
+		assertEquals(3, DefaultAttributeSubscriptionTask.getSkippedSampleCount(policy, 5000, 8500));
+	}
+
+	@Test
+	public void testNoSkippedSamplesWithoutInterval() {
+		assertEquals(0,
+				DefaultAttributeSubscriptionTask.getSkippedSampleCount(SimpleUpdatePolicy.newPolicy(0), 5000, 9000));
+		assertEquals(0, DefaultAttributeSubscriptionTask.getSkippedSampleCount(null, 5000, 9000));
+	}
+}
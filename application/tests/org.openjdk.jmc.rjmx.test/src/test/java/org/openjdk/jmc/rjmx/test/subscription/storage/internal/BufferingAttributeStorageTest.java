@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.subscription.storage.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Observer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
+import org.openjdk.jmc.rjmx.common.subscription.ISubscriptionService;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+import org.openjdk.jmc.rjmx.common.subscription.MRI.Type;
+import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
+import org.openjdk.jmc.rjmx.common.subscription.storage.internal.BufferingAttributeStorage;
+import org.openjdk.jmc.rjmx.common.subscription.storage.internal.RollupTimestampedData;
+
+/**
+ * Tests which of the raw values and the rollups that range queries on the attribute storage are
+ * served from.
+ */
+@SuppressWarnings("nls")
+public class BufferingAttributeStorageTest {
+	private static final long MS = 1000 * 1000L;
+	private static final long SECOND = 1000 * MS;
+	// Two hours of samples, one per second, of which the last hour is kept as raw values
+	private static final int SAMPLE_COUNT = 7200;
+	private static final long START = 1_700_000_000_000L * MS;
+	private static final long END = START + (SAMPLE_COUNT - 1) * SECOND;
+
+	private final MRI mri = new MRI(Type.ATTRIBUTE, "java.lang:type=Test", "Value");
+	private IMRIValueListener listener;
+	private BufferingAttributeStorage storage;
+
+	@Before
+	public void setUp() {
+		ISubscriptionService subscriptionService = (ISubscriptionService) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] {ISubscriptionService.class}, (proxy, method, args) -> {
+					if (method.getName().equals("addMRIValueListener")) {
+						listener = (IMRIValueListener) args[1];
+					}
+					return null;
+				});
+		storage = new BufferingAttributeStorage(mri, subscriptionService);
+		Observer observer = (o, arg) -> {
+		};
+		storage.addObserver(observer);
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			listener.valueChanged(new MRIValueEvent(mri, (START + i * SECOND) / MS, i));
+		}
+	}
+
+	@Test
+	public void testDataStartAndEnd() {
+		assertEquals(START, storage.getDataStart());
+		assertEquals(END, storage.getDataEnd());
+		assertEquals(3600, storage.getRetainedLength());
+	}
+
+	@Test
+	public void testRecentRangeIsRaw() {
+		List<ITimestampedData> data = toList(createIterator(END - 600 * SECOND, END));
+		// One value before the range is included
+		assertEquals(602, data.size());
+		for (ITimestampedData point : data) {
+			assertFalse(point instanceof RollupTimestampedData);
+		}
+	}
+
+	@Test
+	public void testOldRangeFallsBackToRollup() {
+		List<ITimestampedData> data = toList(createIterator(START, END));
+		int rollupCount = 0;
+		for (ITimestampedData point : data) {
+			if (point instanceof RollupTimestampedData) {
+				rollupCount++;
+				assertEquals(1, ((RollupTimestampedData) point).getCount());
+			}
+		}
+		// The first hour from the 1 s rollup, the last hour from the raw values
+		assertEquals(3600, rollupCount);
+		assertEquals(SAMPLE_COUNT, data.size());
+		assertTrue(data.get(0) instanceof RollupTimestampedData);
+		assertFalse(data.get(data.size() - 1) instanceof RollupTimestampedData);
+	}
+
+	@Test
+	public void testResolutionSelectsCoarserRollup() {
+		// 100 points over two hours is 72 s per point, the coarsest rollup within that is 60 s
+		List<ITimestampedData> data = toList(createIterator(START, END, 100));
+		assertSpacing(data, 60 * SECOND);
+		assertTrue(data.size() >= 100);
+	}
+
+	@Test
+	public void testResolutionSelectsFinerRollup() {
+		// 3600 points over two hours is 2 s per point, the coarsest rollup within that is 1 s
+		List<ITimestampedData> data = toList(createIterator(START, END, 3600));
+		assertSpacing(data, SECOND);
+	}
+
+	@Test
+	public void testHighResolutionIsRaw() {
+		List<ITimestampedData> data = toList(createIterator(END - 60 * SECOND, END, 10000));
+		for (ITimestampedData point : data) {
+			assertFalse(point instanceof RollupTimestampedData);
+		}
+		assertEquals(62, data.size());
+	}
+
+	private Iterator<ITimestampedData> createIterator(long min, long max) {
+		return storage.getDataSeries().get(0).createIterator(min, max);
+	}
+
+	private Iterator<ITimestampedData> createIterator(long min, long max, int resolution) {
+		return storage.getDataSeries().get(0).createIterator(min, max, resolution);
+	}
+
+	private static void assertSpacing(List<ITimestampedData> data, long spacing) {
+		for (int i = 0; i < data.size(); i++) {
+			assertTrue(data.get(i) instanceof RollupTimestampedData);
+			if (i > 0) {
+				assertEquals(spacing, data.get(i).getX() - data.get(i - 1).getX());
+			}
+		}
+	}
+
+	private static List<ITimestampedData> toList(Iterator<ITimestampedData> iterator) {
+		List<ITimestampedData> list = new ArrayList<>();
+		long previous = Long.MIN_VALUE;
+		while (iterator.hasNext()) {
+			ITimestampedData data = iterator.next();
+			assertTrue(data.getX() > previous);
+			previous = data.getX();
+			list.add(data);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.subscription.storage.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.storage.internal.RollupTier;
+import org.openjdk.jmc.rjmx.common.subscription.storage.internal.RollupTimestampedData;
+
+public class RollupTierTest {
+
+	@Test
+	public void testBucketSummary() {
+		RollupTier tier = new RollupTier(100, 10);
+		tier.add(110, 4);
+		tier.add(150, 1);
+		tier.add(199, 7);
+		List<RollupTimestampedData> buckets = buckets(tier.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(1, buckets.size());
+		RollupTimestampedData bucket = buckets.get(0);
+		assertEquals(150, bucket.getX().longValue());
+		assertEquals(4, bucket.getY().doubleValue(), 0);
+		assertEquals(1, bucket.getMin(), 0);
+		assertEquals(7, bucket.getMax(), 0);
+		assertEquals(3, bucket.getCount());
+		assertEquals(100, tier.getFirstTimestamp());
+	}
+
+	@Test
+	public void testBucketBoundaries() {
+		RollupTier tier = new RollupTier(100, 10);
+		tier.add(-1, 1);
+		tier.add(0, 2);
+		tier.add(99, 3);
+		tier.add(100, 4);
+		List<RollupTimestampedData> buckets = buckets(tier.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(3, buckets.size());
+		assertEquals(-50, buckets.get(0).getX().longValue());
+		assertEquals(1, buckets.get(0).getCount());
+		assertEquals(50, buckets.get(1).getX().longValue());
+		assertEquals(2, buckets.get(1).getCount());
+		assertEquals(150, buckets.get(2).getX().longValue());
+		assertEquals(1, buckets.get(2).getCount());
+	}
+
+	@Test
+	public void testEmptyBucketsAreSkipped() {
+		RollupTier tier = new RollupTier(100, 10);
+		tier.add(50, 1);
+		tier.add(550, 2);
+		List<RollupTimestampedData> buckets = buckets(tier.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(2, buckets.size());
+		assertEquals(50, buckets.get(0).getX().longValue());
+		assertEquals(550, buckets.get(1).getX().longValue());
+	}
+
+	@Test
+	public void testOutOfOrderValueIsAddedToNewestBucket() {
+		RollupTier tier = new RollupTier(100, 10);
+		tier.add(50, 1);
+		tier.add(250, 2);
+		tier.add(60, 6);
+		List<RollupTimestampedData> buckets = buckets(tier.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(2, buckets.size());
+		assertEquals(1, buckets.get(0).getCount());
+		assertEquals(2, buckets.get(1).getCount());
+		assertEquals(4, buckets.get(1).getY().doubleValue(), 0);
+		assertEquals(6, buckets.get(1).getMax(), 0);
+	}
+
+	@Test
+	public void testOldestBucketsAreDropped() {
+		RollupTier tier = new RollupTier(100, 10);
+		for (int i = 0; i < 250; i++) {
+			tier.add(i * 100, i);
+		}
+		assertEquals(24000, tier.getFirstTimestamp());
+		List<RollupTimestampedData> buckets = buckets(tier.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(10, buckets.size());
+		assertEquals(24050, buckets.get(0).getX().longValue());
+		assertEquals(24950, buckets.get(9).getX().longValue());
+	}
+
+	@Test
+	public void testRangeIncludesClosestOutsideBuckets() {
+		RollupTier tier = new RollupTier(100, 100);
+		for (int i = 0; i < 50; i++) {
+			tier.add(i * 100, i);
+		}
+		// Bucket midpoints at 50, 150, ..., 4950
+		assertEquals(list(950, 1050, 1150, 1250), midpoints(tier.iterator(1000, 1200)));
+		assertEquals(list(1050, 1150, 1250), midpoints(tier.iterator(1050, 1150)));
+		assertEquals(list(50), midpoints(tier.iterator(-500, -100)));
+		assertEquals(list(4950), midpoints(tier.iterator(6000, 7000)));
+	}
+
+	@Test
+	public void testEmpty() {
+		RollupTier tier = new RollupTier(100, 10);
+		assertEquals(Long.MAX_VALUE, tier.getFirstTimestamp());
+		assertFalse(tier.iterator(Long.MIN_VALUE, Long.MAX_VALUE).hasNext());
+	}
+
+	private static List<RollupTimestampedData> buckets(Iterator<ITimestampedData> iterator) {
+		List<RollupTimestampedData> buckets = new ArrayList<>();
+		while (iterator.hasNext()) {
+			ITimestampedData data = iterator.next();
+			assertTrue(data instanceof RollupTimestampedData);
+			buckets.add((RollupTimestampedData) data);
+		}
+		return buckets;
+	}
+
+	private static List<Long> midpoints(Iterator<ITimestampedData> iterator) {
+		List<Long> midpoints = new ArrayList<>();
+		for (RollupTimestampedData bucket : buckets(iterator)) {
+			midpoints.add(bucket.getX());
+		}
+		return midpoints;
+	}
+
+	private static List<Long> list(long ... timestamps) {
+		List<Long> list = new ArrayList<>();
+		for (long timestamp : timestamps) {
+			list.add(timestamp);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.test.subscription.storage.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+import org.openjdk.jmc.rjmx.common.subscription.storage.internal.TimestampedDataRingBuffer;
+
+public class TimestampedDataRingBufferTest {
+
+	@Test
+	public void testEmpty() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(10);
+		assertEquals(0, buffer.getSize());
+		assertEquals(Long.MAX_VALUE, buffer.getFirstTimestamp());
+		assertEquals(Long.MIN_VALUE, buffer.getLastTimestamp());
+		assertFalse(buffer.iterator(Long.MIN_VALUE, Long.MAX_VALUE).hasNext());
+	}
+
+	@Test
+	public void testWraparound() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(1000);
+		// Fill the buffer several times over, past the growth steps of the arrays
+		for (int i = 0; i < 3500; i++) {
+			buffer.add(i * 10, i);
+		}
+		assertEquals(1000, buffer.getSize());
+		assertEquals(25000, buffer.getFirstTimestamp());
+		assertEquals(34990, buffer.getLastTimestamp());
+		List<Long> timestamps = timestamps(buffer.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(1000, timestamps.size());
+		for (int i = 0; i < timestamps.size(); i++) {
+			assertEquals(25000 + i * 10, timestamps.get(i).longValue());
+		}
+	}
+
+	@Test
+	public void testRangeIncludesClosestOutsideValues() {
+		TimestampedDataRingBuffer buffer = createBuffer(100, 100);
+		// Values at 0, 10, ..., 990
+		assertEquals(list(190, 200, 210, 220, 230), timestamps(buffer.iterator(195, 225)));
+	}
+
+	@Test
+	public void testRangeBoundsOnValues() {
+		TimestampedDataRingBuffer buffer = createBuffer(100, 100);
+		assertEquals(list(190, 200, 210, 220, 230), timestamps(buffer.iterator(200, 220)));
+	}
+
+	@Test
+	public void testRangeBeforeAndAfterAllValues() {
+		TimestampedDataRingBuffer buffer = createBuffer(100, 100);
+		assertEquals(list(0), timestamps(buffer.iterator(-100, -50)));
+		assertEquals(list(990), timestamps(buffer.iterator(2000, 3000)));
+		assertEquals(list(0, 10), timestamps(buffer.iterator(-100, 0)));
+		assertEquals(list(980, 990), timestamps(buffer.iterator(990, 2000)));
+	}
+
+	@Test
+	public void testRangeAfterWraparound() {
+		TimestampedDataRingBuffer buffer = createBuffer(100, 250);
+		// Values at 1500, 1510, ..., 2490, stored across the end of the arrays
+		assertEquals(list(1500, 1510), timestamps(buffer.iterator(0, 1500)));
+		assertEquals(list(1990, 2000, 2010), timestamps(buffer.iterator(2000, 2000)));
+		assertEquals(list(2480, 2490), timestamps(buffer.iterator(2490, 5000)));
+	}
+
+	@Test
+	public void testOutOfOrderValueIsClamped() {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(100);
+		buffer.add(100, 1);
+		buffer.add(200, 2);
+		buffer.add(150, 3);
+		buffer.add(300, 4);
+		assertEquals(4, buffer.getSize());
+		List<ITimestampedData> values = values(buffer.iterator(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(list(100, 200, 200, 300), timestamps(values.iterator()));
+		assertEquals(3, values.get(2).getY().doubleValue(), 0);
+		// The range search still finds the values
+		assertEquals(list(100, 200, 200, 300), timestamps(buffer.iterator(200, 200)));
+		assertEquals(list(200, 300), timestamps(buffer.iterator(250, 300)));
+	}
+
+	@Test
+	public void testIteratorSkipsDroppedValues() {
+		TimestampedDataRingBuffer buffer = createBuffer(10, 10);
+		Iterator<ITimestampedData> iterator = buffer.iterator(Long.MIN_VALUE, Long.MAX_VALUE);
+		assertEquals(0, iterator.next().getX().longValue());
+		for (int i = 10; i < 15; i++) {
+			buffer.add(i * 10, i);
+		}
+		// The values at 10 to 40 have been dropped, new values are not in the iterated range
+		assertEquals(list(50, 60, 70, 80, 90), timestamps(iterator));
+	}
+
+	@Test
+	public void testShrinkMaxSize() {
+		TimestampedDataRingBuffer buffer = createBuffer(100, 150);
+		buffer.setMaxSize(10);
+		assertEquals(10, buffer.getSize());
+		assertEquals(1400, buffer.getFirstTimestamp());
+		assertEquals(1490, buffer.getLastTimestamp());
+		buffer.add(1500, 150);
+		assertEquals(1410, buffer.getFirstTimestamp());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxSize() {
+		new TimestampedDataRingBuffer(0);
+	}
+
+	private static TimestampedDataRingBuffer createBuffer(int maxSize, int count) {
+		TimestampedDataRingBuffer buffer = new TimestampedDataRingBuffer(maxSize);
+		for (int i = 0; i < count; i++) {
+			buffer.add(i * 10, i);
+		}
+		return buffer;
+	}
+
+	private static List<ITimestampedData> values(Iterator<ITimestampedData> iterator) {
+		List<ITimestampedData> values = new ArrayList<>();
+		while (iterator.hasNext()) {
+			values.add(iterator.next());
+		}
+		return values;
+	}
+
+	private static List<Long> timestamps(Iterator<ITimestampedData> iterator) {
+		List<Long> timestamps = new ArrayList<>();
+		long previous = Long.MIN_VALUE;
+		while (iterator.hasNext()) {
+			long timestamp = iterator.next().getX().longValue();
+			assertTrue(timestamp >= previous);
+			timestamps.add(timestamp);
+			previous = timestamp;
+		}
+		return timestamps;
+	}
+
+	private static List<Long> list(long ... timestamps) {
+		List<Long> list = new ArrayList<>();
+		for (long timestamp : timestamps) {
+			list.add(timestamp);
+		}
+		return list;
+	}
+}
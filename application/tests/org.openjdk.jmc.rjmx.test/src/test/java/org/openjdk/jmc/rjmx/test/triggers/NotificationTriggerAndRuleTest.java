@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -38,7 +38,18 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.JMException;
 import javax.security.auth.login.FailedLoginException;
@@ -46,12 +57,19 @@ import javax.security.auth.login.FailedLoginException;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.IUnit;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.rjmx.common.ConnectionToolkit;
+import org.openjdk.jmc.rjmx.common.IConnectionHandle;
 import org.openjdk.jmc.rjmx.common.subscription.IMRIMetadata;
+import org.openjdk.jmc.rjmx.common.subscription.IMRIMetadataProvider;
+import org.openjdk.jmc.rjmx.common.subscription.IMRIMetadataService;
+import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
+import org.openjdk.jmc.rjmx.common.subscription.ISubscriptionService;
 import org.openjdk.jmc.rjmx.common.subscription.MRI;
 import org.openjdk.jmc.rjmx.common.subscription.MRI.Type;
+import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
 import org.openjdk.jmc.rjmx.test.RjmxTestCase;
 import org.openjdk.jmc.rjmx.test.testutil.TestToolkit;
 import org.openjdk.jmc.rjmx.test.triggers.NotificationActionCallback.NotificationActionCallbackReceiver;
@@ -59,8 +77,11 @@ import org.openjdk.jmc.rjmx.triggers.TriggerEvent;
 import org.openjdk.jmc.rjmx.triggers.TriggerRule;
 import org.openjdk.jmc.rjmx.triggers.internal.NotificationRegistry;
 import org.openjdk.jmc.rjmx.triggers.internal.NotificationTrigger;
+import org.openjdk.jmc.rjmx.triggers.internal.TriggerActionDispatcher;
+import org.openjdk.jmc.rjmx.triggers.internal.TriggerEvaluationEngine;
 import org.openjdk.jmc.rjmx.triggers.internal.ValueEvaluatorBoolean;
 import org.openjdk.jmc.rjmx.triggers.internal.ValueEvaluatorNumberMax;
+import org.openjdk.jmc.rjmx.triggers.internal.ValueEvaluatorNumberMin;
 
 /**
  * Tests for the notification framework.
@@ -149,6 +170,221 @@ public class NotificationTriggerAndRuleTest extends RjmxTestCase
 		assertTrue(aRule.compareTo(anotherRule) < 0);
 	}
 
+	/**
+	 * Tests that all rules of an attribute are evaluated through a single listener, with the number
+	 * limits converted to the unit of the attribute.
+	 */
+	@Test
+	public void testEngineEvaluatesAllRulesOfAnAttribute() throws Exception {
+		MRI mri = new MRI(Type.ATTRIBUTE, "java.lang:type=Runtime", "Uptime");
+		EngineTestHandle handle = new EngineTestHandle(mri, UnitLookup.MILLISECOND);
+		BlockingQueue<TriggerEvent> events = new LinkedBlockingQueue<>();
+		TriggerRule tenSeconds = createMaxRule(mri, UnitLookup.SECOND.quantity(10), events);
+		TriggerRule twentySeconds = createMaxRule(mri, UnitLookup.SECOND.quantity(20), events);
+		TriggerEvaluationEngine engine = new TriggerEvaluationEngine();
+		engine.addRule(tenSeconds);
+		engine.addRule(twentySeconds);
+		engine.activate(handle.handle);
+		assertEquals(1, handle.listeners.size());
+
+		handle.fire(1000, 15000L);
+		TriggerEvent event = events.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+		assertNotNull(event);
+		assertEquals(tenSeconds, event.getRule());
+		assertTrue(event.wasTriggered());
+
+		handle.fire(2000, 25000L);
+		event = events.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+		assertNotNull(event);
+		assertEquals(twentySeconds, event.getRule());
+		assertTrue(event.wasTriggered());
+
+		handle.fire(3000, 5000L);
+		List<TriggerRule> recovered = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			event = events.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+			assertNotNull(event);
+			assertTrue(!event.wasTriggered());
+			recovered.add(event.getRule());
+		}
+		assertTrue(recovered.contains(tenSeconds) && recovered.contains(twentySeconds));
+		assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Tests that a changed limit is converted again, and that min limits are evaluated too.
+	 */
+	@Test
+	public void testEngineUsesChangedLimit() throws Exception {
+		MRI mri = new MRI(Type.ATTRIBUTE, "java.lang:type=Runtime", "Uptime");
+		EngineTestHandle handle = new EngineTestHandle(mri, UnitLookup.MILLISECOND);
+		BlockingQueue<TriggerEvent> events = new LinkedBlockingQueue<>();
+		ValueEvaluatorNumberMin eval = new ValueEvaluatorNumberMin();
+		eval.setMin(UnitLookup.SECOND.quantity(10));
+		TriggerRule rule = new TriggerRule("TestRule", new NotificationTrigger(mri, eval),
+				new NotificationActionCallback(events::add));
+		TriggerEvaluationEngine engine = new TriggerEvaluationEngine();
+		engine.addRule(rule);
+		engine.activate(handle.handle);
+
+		handle.fire(1000, 15000L);
+		assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+		eval.setMin(UnitLookup.SECOND.quantity(20));
+		handle.fire(2000, 15000L);
+		TriggerEvent event = events.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+		assertNotNull(event);
+		assertTrue(event.wasTriggered());
+	}
+
+	/**
+	 * Tests that the listener of an attribute is removed with its last rule, and when the engine is
+	 * deactivated.
+	 */
+	@Test
+	public void testEngineRemovesListeners() throws Exception {
+		MRI uptime = new MRI(Type.ATTRIBUTE, "java.lang:type=Runtime", "Uptime");
+		MRI startTime = new MRI(Type.ATTRIBUTE, "java.lang:type=Runtime", "StartTime");
+		EngineTestHandle handle = new EngineTestHandle(uptime, UnitLookup.MILLISECOND);
+		BlockingQueue<TriggerEvent> events = new LinkedBlockingQueue<>();
+		TriggerRule first = createMaxRule(uptime, UnitLookup.SECOND.quantity(10), events);
+		TriggerRule second = createMaxRule(uptime, UnitLookup.SECOND.quantity(20), events);
+		TriggerRule other = createMaxRule(startTime, UnitLookup.SECOND.quantity(10), events);
+		TriggerEvaluationEngine engine = new TriggerEvaluationEngine();
+		engine.activate(handle.handle);
+		engine.addRule(first);
+		engine.addRule(second);
+		engine.addRule(other);
+		assertEquals(2, handle.listeners.size());
+		engine.removeRule(first);
+		assertEquals(2, handle.listeners.size());
+		engine.removeRule(second);
+		assertEquals(Collections.singleton(startTime), handle.listeners.keySet());
+		engine.deactivate(handle.handle);
+		assertTrue(handle.listeners.isEmpty());
+	}
+
+	/**
+	 * Tests that actions of one queue run in the order they were queued.
+	 */
+	@Test
+	public void testDispatcherRunsActionsInOrder() throws Exception {
+		TriggerActionDispatcher.ActionQueue queue = new TriggerActionDispatcher.ActionQueue();
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(1);
+		int count = TriggerActionDispatcher.MAX_QUEUED_ACTIONS;
+		for (int i = 0; i < count; i++) {
+			int index = i;
+			queue.dispatch(() -> {
+				order.add(index);
+				if (index == count - 1) {
+					done.countDown();
+				}
+			});
+		}
+		assertTrue(done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		for (int i = 0; i < count; i++) {
+			assertEquals(Integer.valueOf(i), order.get(i));
+		}
+	}
+
+	/**
+	 * Tests that actions are dropped when a queue is full, and that a slow action does not hold up
+	 * other queues.
+	 */
+	@Test
+	public void testDispatcherDropsActionsOnOverflow() throws Exception {
+		TriggerActionDispatcher.ActionQueue queue = new TriggerActionDispatcher.ActionQueue();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger runCount = new AtomicInteger();
+		queue.dispatch(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			runCount.incrementAndGet();
+		});
+		assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		for (int i = 0; i < TriggerActionDispatcher.MAX_QUEUED_ACTIONS + 5; i++) {
+			queue.dispatch(runCount::incrementAndGet);
+		}
+
+		CountDownLatch otherDone = new CountDownLatch(1);
+		new TriggerActionDispatcher.ActionQueue().dispatch(otherDone::countDown);
+		assertTrue(otherDone.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+		CountDownLatch done = new CountDownLatch(1);
+		release.countDown();
+		// Wait for the queue to drain, after which new actions are accepted again
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (runCount.get() < TriggerActionDispatcher.MAX_QUEUED_ACTIONS + 1
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(TriggerActionDispatcher.MAX_QUEUED_ACTIONS + 1, runCount.get());
+		queue.dispatch(done::countDown);
+		assertTrue(done.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		assertEquals(TriggerActionDispatcher.MAX_QUEUED_ACTIONS + 1, runCount.get());
+	}
+
+	private static TriggerRule createMaxRule(MRI mri, IQuantity max, BlockingQueue<TriggerEvent> events) {
+		ValueEvaluatorNumberMax eval = new ValueEvaluatorNumberMax();
+		eval.setMax(max);
+		return new TriggerRule("TestRule", new NotificationTrigger(mri, eval),
+				new NotificationActionCallback(events::add));
+	}
+
+	/**
+	 * A connection with a subscription service that records the listeners added to it, and metadata
+	 * with a unit for one attribute.
+	 */
+	private static class EngineTestHandle {
+		final Map<MRI, IMRIValueListener> listeners = new HashMap<>();
+		final IConnectionHandle handle;
+
+		EngineTestHandle(MRI mri, IUnit unit) {
+			String unitString = unit.getContentType().getIdentifier() + ":" + unit.getIdentifier();
+			ISubscriptionService subscriptionService = (ISubscriptionService) Proxy.newProxyInstance(
+					getClass().getClassLoader(), new Class<?>[] {ISubscriptionService.class}, (proxy, method, args) -> {
+						if (method.getName().equals("addMRIValueListener")) {
+							listeners.put((MRI) args[0], (IMRIValueListener) args[1]);
+						} else if (method.getName().equals("removeMRIValueListener")) {
+							listeners.values().remove(args[0]);
+						}
+						return null;
+					});
+			IMRIMetadataService metadataService = (IMRIMetadataService) Proxy.newProxyInstance(
+					getClass().getClassLoader(), new Class<?>[] {IMRIMetadataService.class}, (proxy, method, args) -> {
+						if (method.getName().equals("getMetadata") && args.length == 2 && mri.equals(args[0])
+								&& IMRIMetadataProvider.KEY_UNIT_STRING.equals(args[1])) {
+							return unitString;
+						}
+						return null;
+					});
+			handle = (IConnectionHandle) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] {IConnectionHandle.class}, (proxy, method, args) -> {
+						switch (method.getName()) {
+						case "getServiceOrDummy":
+							return args[0] == ISubscriptionService.class ? subscriptionService : null;
+						case "getServiceOrNull":
+							return args[0] == IMRIMetadataService.class ? metadataService : null;
+						case "isConnected":
+							return true;
+						default:
+							return null;
+						}
+					});
+		}
+
+		void fire(long timestamp, Object value) {
+			for (Map.Entry<MRI, IMRIValueListener> e : listeners.entrySet()) {
+				e.getValue().valueChanged(new MRIValueEvent(e.getKey(), timestamp, value));
+			}
+		}
+	}
+
 	private TriggerRule createTestNotificationRule(MRI descriptor) {
 		NotificationTrigger trigger = new NotificationTrigger(descriptor, new ValueEvaluatorBoolean());
 		return new TriggerRule("TestRule", trigger, new NotificationActionCallback(this));
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.ui.test.charts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.test.MCTestCase;
+import org.openjdk.jmc.ui.charts.IQuantitySeries;
+import org.openjdk.jmc.ui.charts.QuantitySeries;
+import org.openjdk.jmc.ui.charts.SubdividedQuantityRange;
+import org.openjdk.jmc.ui.charts.XYQuantities;
+
+public class QuantitySeriesTest extends MCTestCase {
+	private static final int WIDTH = 500;
+
+	private final List<IQuantity> xValues = new ArrayList<>();
+	private final List<IQuantity> yValues = new ArrayList<>();
+
+	private void createSeries(int size) {
+		Random random = new Random(4711);
+		for (int i = 0; i < size; i++) {
+			xValues.add(UnitLookup.EPOCH_MS.quantity(1000 + i * 10L));
+			yValues.add(UnitLookup.PERCENT.quantity(random.nextInt(1000) / 10.0));
+		}
+	}
+
+	private static SubdividedQuantityRange range(long startMs, long endMs) {
+		return new SubdividedQuantityRange(UnitLookup.EPOCH_MS.quantity(startMs), UnitLookup.EPOCH_MS.quantity(endMs),
+				WIDTH, 1);
+	}
+
+	@Test
+	public void testFewValuesAreKept() {
+		createSeries(1000);
+		SubdividedQuantityRange range = range(1000, 11000);
+		XYQuantities<?> all = QuantitySeries.all(xValues, yValues).getQuantities(range);
+		XYQuantities<?> decimated = QuantitySeries.decimated(xValues, yValues).getQuantities(range);
+		assertEquals(all.getSize(), decimated.getSize());
+		for (int i = 0; i < all.getSize(); i++) {
+			assertEquals(all.getDisplayableX(i), decimated.getDisplayableX(i));
+			assertEquals(all.getDisplayableY(i), decimated.getDisplayableY(i));
+		}
+	}
+
+	@Test
+	public void testManyValuesAreDecimated() {
+		createSeries(200000);
+		IQuantitySeries<?> series = QuantitySeries.decimated(xValues, yValues);
+		for (SubdividedQuantityRange range : new SubdividedQuantityRange[] {range(1000, 2001000), range(500000, 800000),
+				range(1234567, 1334567)}) {
+			XYQuantities<?> all = QuantitySeries.all(xValues, yValues).getQuantities(range);
+			XYQuantities<?> decimated = series.getQuantities(range);
+			assertTrue(decimated.getSize() <= WIDTH * 4 + 2);
+			assertEquals(all.getMinY(), decimated.getMinY());
+			assertEquals(all.getMaxY(), decimated.getMaxY());
+			assertEquals(all.getDisplayableX(0), decimated.getDisplayableX(0));
+			assertEquals(all.getDisplayableX(all.getSize() - 1), decimated.getDisplayableX(decimated.getSize() - 1));
+			IQuantity lastX = null;
+			for (int i = 0; i < decimated.getSize(); i++) {
+				IQuantity x = decimated.getDisplayableX(i);
+				assertTrue(lastX == null || x.compareTo(lastX) > 0);
+				lastX = x;
+			}
+		}
+	}
+
+	@Test
+	public void testColumnExtremesArePreserved() {
+		createSeries(100000);
+		SubdividedQuantityRange range = range(1000, 1001000);
+		XYQuantities<?> decimated = QuantitySeries.decimated(xValues, yValues).getQuantities(range);
+		XYQuantities<?> all = QuantitySeries.all(xValues, yValues).getQuantities(range);
+		all.setYRange(range(0, 100));
+		double[] minPixel = new double[WIDTH];
+		double[] maxPixel = new double[WIDTH];
+		for (int i = 0; i < WIDTH; i++) {
+			minPixel[i] = Double.POSITIVE_INFINITY;
+			maxPixel[i] = Double.NEGATIVE_INFINITY;
+		}
+		for (int i = 0; i < all.getSize(); i++) {
+			int column = (int) all.getPixelX(i);
+			if (column >= 0 && column < WIDTH) {
+				double y = all.getDisplayableY(i).doubleValue();
+				minPixel[column] = Math.min(minPixel[column], y);
+				maxPixel[column] = Math.max(maxPixel[column], y);
+			}
+		}
+		for (int i = 0; i < decimated.getSize(); i++) {
+			int column = (int) decimated.getPixelX(i);
+			if (column >= 0 && column < WIDTH) {
+				double y = decimated.getDisplayableY(i).doubleValue();
+				assertTrue(y >= minPixel[column] && y <= maxPixel[column]);
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.collection;
+
+import java.util.Iterator;
+
+/**
+ * An open addressing hash map that compares keys by identity. Useful as a cache in front of an
+ * equality based map when the keys are canonical instances, like constant pool values from a
+ * recording, that have expensive {@code hashCode} and {@code equals} implementations.
+ * <p>
+ * Does not support null keys or values. Not thread safe.
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class IdentityKeyMap<K, V> implements Iterable<V> {
+
+	private Object[] keys;
+	private Object[] values;
+	private int size;
+	private int mask;
+	private int threshold;
+
+	/**
+	 * Create a new map.
+	 *
+	 * @param initialCapacity
+	 *            the number of values that can be stored before the internal storage must grow
+	 */
+	public IdentityKeyMap(int initialCapacity) {
+		createTable(Integer.highestOneBit(Math.max(initialCapacity, 4) * 2 - 1) * 2);
+	}
+
+	/**
+	 * Get the value for a key.
+	 *
+	 * @param key
+	 *            key
+	 * @return the value for the key, or {@code null} if there is no value for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		int idx = index(key);
+		Object k;
+		while ((k = keys[idx]) != null) {
+			if (k == key) {
+				return (V) values[idx];
+			}
+			idx = (idx + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Set the value for a key, replacing any previous value.
+	 *
+	 * @param key
+	 *            key, not {@code null}
+	 * @param value
+	 *            value, not {@code null}
+	 */
+	public void put(K key, V value) {
+		int idx = index(key);
+		Object k;
+		while ((k = keys[idx]) != null) {
+			if (k == key) {
+				values[idx] = value;
+				return;
+			}
+			idx = (idx + 1) & mask;
+		}
+		keys[idx] = key;
+		values[idx] = value;
+		if (++size > threshold) {
+			rehash();
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Override
+	public Iterator<V> iterator() {
+		return (Iterator) IteratorToolkit.skipNulls(IteratorToolkit.of(values));
+	}
+
+	private void createTable(int capacity) {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = capacity / 2;
+	}
+
+	private void rehash() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		createTable(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				int idx = index(oldKeys[i]);
+				while (keys[idx] != null) {
+					idx = (idx + 1) & mask;
+				}
+				keys[idx] = oldKeys[i];
+				values[idx] = oldValues[i];
+			}
+		}
+	}
+
+	private int index(Object key) {
+		int hash = System.identityHashCode(key);
+		// Identity hashes are not guaranteed to vary in the low bits
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+}
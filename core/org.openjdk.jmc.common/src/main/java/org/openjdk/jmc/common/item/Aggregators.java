@@ -38,12 +38,14 @@ import java.util.Iterator;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import org.openjdk.jmc.common.collection.IdentityKeyMap;
 import org.openjdk.jmc.common.messages.internal.Messages;
 import org.openjdk.jmc.common.unit.ContentType;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.IUnit;
 import org.openjdk.jmc.common.unit.KindOfQuantity;
 import org.openjdk.jmc.common.unit.LinearKindOfQuantity;
+import org.openjdk.jmc.common.unit.LinearUnit;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.PredicateToolkit;
 import org.openjdk.jmc.common.util.StringToolkit;
@@ -372,6 +374,78 @@ public class Aggregators {
 		}
 	}
 
+	public static class HistogramConsumer extends QuantityConsumer<HistogramConsumer> {
+
+		public final QuantityHistogram histogram;
+
+		public HistogramConsumer(IMemberAccessor<? extends IQuantity, IItem> accessor, LinearUnit unit) {
+			super(accessor);
+			histogram = new QuantityHistogram(unit);
+		}
+
+		@Override
+		public void consume(IItem item) {
+			histogram.record(accessor.getMember(item));
+		}
+
+		@Override
+		public HistogramConsumer merge(HistogramConsumer other) {
+			histogram.add(other.histogram);
+			return this;
+		}
+
+	}
+
+	private static class Histogram extends MergingAggregator<QuantityHistogram, HistogramConsumer> {
+		private final LinearUnit unit;
+		private final IAccessorFactory<IQuantity> attribute;
+
+		Histogram(String name, String description, LinearKindOfQuantity ct, IAccessorFactory<IQuantity> attribute) {
+			super(name, description, UnitLookup.UNKNOWN);
+			unit = ct.getDefaultUnit();
+			this.attribute = attribute;
+		}
+
+		@Override
+		public boolean acceptType(IType<IItem> type) {
+			return attribute.getAccessor(type) != null;
+		}
+
+		@Override
+		public HistogramConsumer newItemConsumer(IType<IItem> type) {
+			return new HistogramConsumer(attribute.getAccessor(type), unit);
+		}
+
+		@Override
+		public QuantityHistogram getValue(HistogramConsumer consumer) {
+			return consumer.histogram.getTotalCount() == 0 ? null : consumer.histogram;
+		}
+	}
+
+	public static abstract class Percentile extends FieldAggregatorBase<IQuantity, HistogramConsumer> {
+		private final LinearUnit unit;
+		private final double percentile;
+
+		public Percentile(String name, String description, LinearKindOfQuantity ct, double percentile) {
+			super(name, description, ct);
+			if (percentile < 0 || percentile > 100) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100"); //$NON-NLS-1$
+			}
+			unit = ct.getDefaultUnit();
+			this.percentile = percentile;
+		}
+
+		@Override
+		public HistogramConsumer newItemConsumer(IType<IItem> type) {
+			return new HistogramConsumer(getAccessor(type), unit);
+		}
+
+		@Override
+		public IQuantity getValue(HistogramConsumer consumer) {
+			return consumer.histogram.getValueAtPercentile(percentile);
+		}
+	}
+
 	public static class MinMaxConsumer<V extends Comparable<V>> implements IItemConsumer<MinMaxConsumer<V>> {
 
 		private final IMemberAccessor<? extends V, IItem> accessor;
@@ -858,6 +932,133 @@ public class Aggregators {
 		};
 	}
 
+	/**
+	 * Calculates a percentile for a linear quantity attribute, using a histogram with
+	 * logarithmically sized buckets. The result is within one percent of the exact value, without
+	 * having to keep or sort the individual values.
+	 *
+	 * @param attribute
+	 *            the attribute to calculate the percentile for
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return an aggregator that calculates the percentile for the attribute
+	 * @see QuantityHistogram#getValueAtPercentile(double)
+	 */
+	public static IAggregator<IQuantity, ?> percentile(final IAttribute<IQuantity> attribute, double percentile) {
+		return percentile(getPercentileName(attribute.getName(), percentile), attribute.getDescription(), attribute,
+				percentile);
+	}
+
+	/**
+	 * Calculates a percentile for a linear quantity attribute of events of a specific type.
+	 *
+	 * @param typeId
+	 *            the identifier of the event type to calculate the percentile for
+	 * @param attribute
+	 *            the attribute to calculate the percentile for
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return an aggregator that calculates the percentile for the attribute
+	 * @see #percentile(IAttribute, double)
+	 */
+	public static IAggregator<IQuantity, ?> percentile(
+		final String typeId, final IAttribute<IQuantity> attribute, double percentile) {
+		return percentile(getPercentileName(attribute.getName(), percentile), null, getContentType(attribute),
+				typeAccessorFactory(typeId, attribute), percentile);
+	}
+
+	/**
+	 * Calculates a percentile for a linear quantity attribute.
+	 *
+	 * @param name
+	 *            aggregator name
+	 * @param description
+	 *            aggregator description
+	 * @param attribute
+	 *            the attribute to calculate the percentile for
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return an aggregator that calculates the percentile for the attribute
+	 * @see #percentile(IAttribute, double)
+	 */
+	public static IAggregator<IQuantity, ?> percentile(
+		String name, String description, final IAttribute<IQuantity> attribute, double percentile) {
+		return percentile(name, description, getContentType(attribute), attribute, percentile);
+	}
+
+	public static IAggregator<IQuantity, ?> percentile(
+		String name, String description, LinearKindOfQuantity ct, final IAccessorFactory<IQuantity> af,
+		double percentile) {
+		return new Percentile(name, description, ct, percentile) {
+
+			@Override
+			protected IMemberAccessor<? extends IQuantity, IItem> doGetAccessor(IType<IItem> type) {
+				return af.getAccessor(type);
+			}
+
+		};
+	}
+
+	/**
+	 * Collects the values of a linear quantity attribute into a {@link QuantityHistogram}. Use this
+	 * to calculate several percentiles, or the distribution of the values, in a single pass.
+	 *
+	 * @param attribute
+	 *            the attribute to collect the values of
+	 * @return an aggregator that returns a histogram of the attribute values, or {@code null} if
+	 *         there are no values
+	 */
+	public static IAggregator<QuantityHistogram, ?> histogram(final IAttribute<IQuantity> attribute) {
+		return histogram(getHistogramName(attribute.getName()), attribute.getDescription(), getContentType(attribute),
+				attribute);
+	}
+
+	/**
+	 * Collects the values of a linear quantity attribute of events of a specific type into a
+	 * {@link QuantityHistogram}.
+	 *
+	 * @param typeId
+	 *            the identifier of the event type to collect values for
+	 * @param attribute
+	 *            the attribute to collect the values of
+	 * @return an aggregator that returns a histogram of the attribute values, or {@code null} if
+	 *         there are no values
+	 * @see #histogram(IAttribute)
+	 */
+	public static IAggregator<QuantityHistogram, ?> histogram(
+		final String typeId, final IAttribute<IQuantity> attribute) {
+		return histogram(getHistogramName(attribute.getName()), null, getContentType(attribute),
+				typeAccessorFactory(typeId, attribute));
+	}
+
+	public static IAggregator<QuantityHistogram, ?> histogram(
+		String name, String description, LinearKindOfQuantity ct, final IAccessorFactory<IQuantity> af) {
+		return new Histogram(name, description, ct, af);
+	}
+
+	private static LinearKindOfQuantity getContentType(IAttribute<IQuantity> attribute) {
+		ContentType<?> contentType = attribute.getContentType();
+		if (contentType instanceof LinearKindOfQuantity) {
+			return (LinearKindOfQuantity) contentType;
+		}
+		throw new IllegalArgumentException("Can only use LinearKindOfQuantity"); //$NON-NLS-1$
+	}
+
+	private static IAccessorFactory<IQuantity> typeAccessorFactory(
+		final String typeId, final IAttribute<IQuantity> attribute) {
+		return new IAccessorFactory<IQuantity>() {
+
+			@Override
+			public <T> IMemberAccessor<? extends IQuantity, T> getAccessor(IType<T> type) {
+				if (type.getIdentifier().equals(typeId)) {
+					return attribute.getAccessor(type);
+				}
+				return null;
+			}
+
+		};
+	}
+
 	public static <V extends Comparable<V>> IAggregator<V, ?> min(final IAttribute<V> attribute) {
 		String name = getMinName(attribute.getName(), attribute.getContentType());
 		return new MinMax<V>(name, attribute.getDescription(), attribute.getContentType(), false) {
@@ -1002,8 +1203,12 @@ public class Aggregators {
 	}
 
 	public static class SetConsumer<T> implements IItemConsumer<SetConsumer<T>> {
+		private static final int MIN_CACHE_LIMIT = 1024;
 		Set<T> distinct = new HashSet<>();
 		private final IMemberAccessor<? extends T, IItem> accessor;
+		// Members already added, by identity, to avoid hashing canonical members again
+		private IdentityKeyMap<T, Boolean> added;
+		private boolean checkedCanonical;
 
 		public SetConsumer(IMemberAccessor<? extends T, IItem> accessor) {
 			this.accessor = accessor;
@@ -1013,7 +1218,23 @@ public class Aggregators {
 		public void consume(IItem item) {
 			T member = accessor.getMember(item);
 			if (member != null) {
-				distinct.add(member);
+				if (!checkedCanonical) {
+					checkedCanonical = true;
+					if (GroupingAggregator.isCanonical(member)) {
+						added = new IdentityKeyMap<>(256);
+					}
+				}
+				if (added == null) {
+					distinct.add(member);
+				} else if (added.get(member) == null) {
+					distinct.add(member);
+					if (added.size() > Math.max(MIN_CACHE_LIMIT, distinct.size() * 4)) {
+						// Many equal members that are not the same instance, stop caching
+						added = null;
+					} else {
+						added.put(member, Boolean.TRUE);
+					}
+				}
 			}
 		}
 
@@ -1198,6 +1419,16 @@ public class Aggregators {
 		return Messages.getString(Messages.ItemAggregate_AVERAGE) + " " + name; //$NON-NLS-1$
 	}
 
+	static String getPercentileName(String name, double percentile) {
+		String value = percentile == Math.rint(percentile) ? Long.toString((long) percentile)
+				: Double.toString(percentile);
+		return MessageFormat.format(Messages.getString(Messages.ItemAggregate_PERCENTILE), value) + " " + name; //$NON-NLS-1$
+	}
+
+	static String getHistogramName(String name) {
+		return Messages.getString(Messages.ItemAggregate_HISTOGRAM) + " " + name; //$NON-NLS-1$
+	}
+
 	static String getMaxName(String name, ContentType<?> ct) {
 		if (ct == UnitLookup.TIMESPAN) {
 			return Messages.getString(Messages.ItemAggregate_LONGEST) + " " + name; //$NON-NLS-1$
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -39,10 +39,23 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.function.Predicate;
 
+import org.openjdk.jmc.common.IMCClassLoader;
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCMethod;
+import org.openjdk.jmc.common.IMCModule;
+import org.openjdk.jmc.common.IMCPackage;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.IMCThreadGroup;
+import org.openjdk.jmc.common.IMCType;
 import org.openjdk.jmc.common.collection.EntryHashMap;
 import org.openjdk.jmc.common.collection.EntryHashMap.Entry;
+import org.openjdk.jmc.common.collection.IdentityKeyMap;
+import org.openjdk.jmc.common.collection.LongKeyMap;
 import org.openjdk.jmc.common.item.Aggregators.MergingAggregator;
 import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IUnit;
+import org.openjdk.jmc.common.unit.QuantitiesToolkit;
 import org.openjdk.jmc.common.unit.UnitLookup;
 
 public class GroupingAggregator {
@@ -65,6 +78,17 @@ public class GroupingAggregator {
 		V getValue(List<IQuantity> values, IQuantity total);
 	}
 
+	/**
+	 * Check if a value is likely a canonical instance, such as a constant pool value that is shared
+	 * by all events in a chunk referring to it, so that identity lookups will mostly hit.
+	 */
+	static boolean isCanonical(Object key) {
+		return key instanceof IMCThread || key instanceof IMCStackTrace || key instanceof IMCType
+				|| key instanceof IMCMethod || key instanceof IMCFrame || key instanceof IMCPackage
+				|| key instanceof IMCModule || key instanceof IMCClassLoader || key instanceof IMCThreadGroup
+				|| key instanceof IType;
+	}
+
 	private static class ObjectEntry<K, V> extends Entry<K> implements GroupEntry<K, V> {
 		private V value;
 
@@ -79,10 +103,159 @@ public class GroupingAggregator {
 		}
 	}
 
+	/**
+	 * Maps keys to groups. A specialized table is selected from the first key: integral keys are
+	 * mapped without boxing or hashing objects, and canonical constant pool values are looked up by
+	 * identity before falling back to {@code equals}.
+	 */
+	private static abstract class GroupTable<K, G extends IItemConsumer<G>> implements Iterable<ObjectEntry<K, G>> {
+		final IItemConsumerFactory<G> groupAggregator;
+		final IType<IItem> type;
+
+		GroupTable(IItemConsumerFactory<G> groupAggregator, IType<IItem> type) {
+			this.groupAggregator = groupAggregator;
+			this.type = type;
+		}
+
+		/**
+		 * @return the group for the key, created if absent, or {@code null} if the key can not be
+		 *         held by this table
+		 */
+		abstract ObjectEntry<K, G> get(K key);
+
+		ObjectEntry<K, G> newEntry(K key) {
+			return new ObjectEntry<>(key, groupAggregator.newItemConsumer(type));
+		}
+
+		GroupTable<K, G> toObjectTable() {
+			ObjectGroupTable<K, G> table = new ObjectGroupTable<>(groupAggregator, type);
+			for (ObjectEntry<K, G> entry : this) {
+				table.add(entry);
+			}
+			return table;
+		}
+
+		static <K, G extends IItemConsumer<G>> GroupTable<K, G> create(
+			K firstKey, IItemConsumerFactory<G> groupAggregator, IType<IItem> type) {
+			if (LongGroupTable.isLongKey(firstKey)) {
+				return new LongGroupTable<>(firstKey, groupAggregator, type);
+			} else if (isCanonical(firstKey)) {
+				return new IdentityGroupTable<>(groupAggregator, type);
+			}
+			return new ObjectGroupTable<>(groupAggregator, type);
+		}
+
+	}
+
+	private static class ObjectGroupTable<K, G extends IItemConsumer<G>> extends GroupTable<K, G> {
+		private final EntryHashMap<K, ObjectEntry<K, G>> map;
+		private ObjectEntry<K, G> added;
+
+		ObjectGroupTable(IItemConsumerFactory<G> groupAggregator, IType<IItem> type) {
+			super(groupAggregator, type);
+			map = new EntryHashMap<K, ObjectEntry<K, G>>(1000, 0.5f) {
+
+				@Override
+				protected ObjectEntry<K, G> computeValue(K key) {
+					return added != null ? added : newEntry(key);
+				}
+			};
+		}
+
+		@Override
+		ObjectEntry<K, G> get(K key) {
+			return map.get(key, true);
+		}
+
+		void add(ObjectEntry<K, G> entry) {
+			added = entry;
+			map.get(entry.getKey(), true);
+			added = null;
+		}
+
+		int size() {
+			return map.size();
+		}
+
+		@Override
+		GroupTable<K, G> toObjectTable() {
+			return this;
+		}
+
+		@Override
+		public Iterator<ObjectEntry<K, G>> iterator() {
+			return map.iterator();
+		}
+	}
+
+	private static class IdentityGroupTable<K, G extends IItemConsumer<G>> extends ObjectGroupTable<K, G> {
+		private static final int MIN_CACHE_LIMIT = 1024;
+		private IdentityKeyMap<K, ObjectEntry<K, G>> cache = new IdentityKeyMap<>(256);
+
+		IdentityGroupTable(IItemConsumerFactory<G> groupAggregator, IType<IItem> type) {
+			super(groupAggregator, type);
+		}
+
+		@Override
+		ObjectEntry<K, G> get(K key) {
+			if (cache == null) {
+				return super.get(key);
+			}
+			ObjectEntry<K, G> entry = cache.get(key);
+			if (entry == null) {
+				entry = super.get(key);
+				if (cache.size() > Math.max(MIN_CACHE_LIMIT, size() * 4)) {
+					// Many equal keys that are not the same instance, stop caching
+					cache = null;
+				} else {
+					cache.put(key, entry);
+				}
+			}
+			return entry;
+		}
+	}
+
+	private static class LongGroupTable<K, G extends IItemConsumer<G>> extends GroupTable<K, G> {
+		private final LongKeyMap<ObjectEntry<K, G>> map = new LongKeyMap<>(1000);
+		private final Class<?> keyClass;
+		private final IUnit unit;
+
+		LongGroupTable(K firstKey, IItemConsumerFactory<G> groupAggregator, IType<IItem> type) {
+			super(groupAggregator, type);
+			keyClass = firstKey.getClass();
+			unit = firstKey instanceof IQuantity ? ((IQuantity) firstKey).getUnit() : null;
+		}
+
+		static boolean isLongKey(Object key) {
+			return key instanceof Long || key instanceof Integer
+					|| (key instanceof IQuantity && QuantitiesToolkit.isLongStored((IQuantity) key));
+		}
+
+		@Override
+		ObjectEntry<K, G> get(K key) {
+			// Keys of the same class, and unit, are equal exactly when their long values are equal
+			if (key.getClass() != keyClass || (unit != null && !unit.equals(((IQuantity) key).getUnit()))) {
+				return null;
+			}
+			long longKey = unit != null ? ((IQuantity) key).longValue() : ((Number) key).longValue();
+			ObjectEntry<K, G> entry = map.get(longKey);
+			if (entry == null) {
+				entry = newEntry(key);
+				map.put(longKey, entry);
+			}
+			return entry;
+		}
+
+		@Override
+		public Iterator<ObjectEntry<K, G>> iterator() {
+			return map.iterator();
+		}
+	}
+
 	private static class GroupingConsumer<K, G extends IItemConsumer<G>>
 			implements IItemConsumer<GroupingConsumer<K, G>> {
 
-		private EntryHashMap<K, ObjectEntry<K, G>> map;
+		private GroupTable<K, G> table;
 		private final IMemberAccessor<? extends K, IItem> keyAccessor;
 		private final IItemConsumerFactory<G> groupAggregator;
 
@@ -94,40 +267,39 @@ public class GroupingAggregator {
 
 		@Override
 		public void consume(IItem item) {
-			initialize(ItemToolkit.getItemType(item));
 			K key = keyAccessor.getMember(item);
 			if (key != null) {
-				map.get(key, true).value.consume(item);
+				if (table == null) {
+					table = GroupTable.create(key, groupAggregator, ItemToolkit.getItemType(item));
+				}
+				getGroup(key).value.consume(item);
 			}
 		}
 
-		private void initialize(final IType<IItem> type) {
-			if (map == null) {
-				map = new EntryHashMap<K, ObjectEntry<K, G>>(1000, 0.5f) {
-
-					@Override
-					protected ObjectEntry<K, G> computeValue(K key) {
-						return new ObjectEntry<>(key, groupAggregator.newItemConsumer(type));
-					}
-				};
+		private ObjectEntry<K, G> getGroup(K key) {
+			ObjectEntry<K, G> entry = table.get(key);
+			if (entry == null) {
+				table = table.toObjectTable();
+				entry = table.get(key);
 			}
+			return entry;
 		}
 
 		@Override
 		public GroupingConsumer<K, G> merge(GroupingConsumer<K, G> other) {
-			if (map != null && other != null && other.map != null) {
-				for (ObjectEntry<K, G> otherEntry : other.map) {
-					ObjectEntry<K, G> thisEntry = map.get(otherEntry.getKey(), true);
+			if (table != null && other != null && other.table != null) {
+				for (ObjectEntry<K, G> otherEntry : other.table) {
+					ObjectEntry<K, G> thisEntry = getGroup(otherEntry.getKey());
 					thisEntry.value = thisEntry.value.merge(otherEntry.value);
 				}
-			} else if (other != null && other.map != null) {
-				map = other.map;
+			} else if (other != null && other.table != null) {
+				table = other.table;
 			}
 			return this;
 		}
 
 		Iterator<ObjectEntry<K, G>> getGroups() {
-			return map == null ? Collections.<ObjectEntry<K, G>> emptyList().iterator() : map.iterator();
+			return table == null ? Collections.<ObjectEntry<K, G>> emptyList().iterator() : table.iterator();
 		}
 	}
 
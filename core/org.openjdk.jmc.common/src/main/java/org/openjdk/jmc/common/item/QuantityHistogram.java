@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.item;
+
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.LinearUnit;
+
+/**
+ * A mergeable histogram of linear quantities with logarithmically sized buckets, in the spirit of
+ * HdrHistogram. Each power of two is split into {@value #SUB_BUCKET_COUNT} equally sized buckets,
+ * so recorded values are kept with a relative precision better than one percent regardless of their
+ * magnitude. Only primitive counters are kept per bucket, which makes recording and merging cheap
+ * even for millions of values.
+ * <p>
+ * The histogram is intended for non-negative quantities such as durations and sizes. Values that
+ * are zero or negative are counted, but are all represented by the smallest recorded value. Values
+ * that are not finite are ignored.
+ * <p>
+ * Instances are not thread safe. Use one histogram per thread and {@link #add(QuantityHistogram)
+ * add} them together afterwards.
+ */
+public final class QuantityHistogram {
+
+	/**
+	 * Callback for {@link QuantityHistogram#forEachBucket(IBucketVisitor)}.
+	 */
+	public interface IBucketVisitor {
+		/**
+		 * Called for each non-empty bucket, in increasing value order.
+		 *
+		 * @param lowerBound
+		 *            the inclusive lower bound of the bucket, in the unit of the histogram
+		 * @param upperBound
+		 *            the exclusive upper bound of the bucket, in the unit of the histogram
+		 * @param count
+		 *            the number of values recorded in the bucket
+		 */
+		void visit(double lowerBound, double upperBound, long count);
+	}
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	// The bucket index is the exponent and the most significant mantissa bits of the double value
+	private static final int INDEX_SHIFT = 52 - SUB_BUCKET_BITS;
+	private static final long[] NO_COUNTS = new long[0];
+
+	private final LinearUnit unit;
+	// counts[i] holds the number of values in bucket (i + offset)
+	private long[] counts = NO_COUNTS;
+	private int offset;
+	private long nonPositiveCount;
+	private long totalCount;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Create an empty histogram.
+	 *
+	 * @param unit
+	 *            the unit that values are kept in
+	 */
+	public QuantityHistogram(LinearUnit unit) {
+		this.unit = unit;
+	}
+
+	/**
+	 * @return the unit that values are kept in
+	 */
+	public LinearUnit getUnit() {
+		return unit;
+	}
+
+	/**
+	 * Record a quantity.
+	 *
+	 * @param quantity
+	 *            a quantity of the same kind as the unit of this histogram, {@code null} is ignored
+	 */
+	public void record(IQuantity quantity) {
+		if (quantity != null) {
+			recordValue(quantity.doubleValueIn(unit), 1);
+		}
+	}
+
+	/**
+	 * Record a value a number of times.
+	 *
+	 * @param value
+	 *            the value, in the unit of this histogram
+	 * @param count
+	 *            the number of times to record the value
+	 */
+	public void recordValue(double value, long count) {
+		if (Double.isNaN(value) || Double.isInfinite(value) || count <= 0) {
+			return;
+		}
+		if (value > 0) {
+			int index = bucketIndex(value);
+			ensureBucket(index);
+			counts[index - offset] += count;
+		} else {
+			nonPositiveCount += count;
+		}
+		totalCount += count;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Add all values recorded in another histogram to this one. The other histogram is not
+	 * modified.
+	 *
+	 * @param other
+	 *            the histogram to add, its unit must be of the same kind as the unit of this
+	 *            histogram
+	 * @return this histogram
+	 */
+	public QuantityHistogram add(QuantityHistogram other) {
+		if (other.totalCount == 0) {
+			return this;
+		}
+		if (other.unit.equals(unit)) {
+			if (other.counts.length > 0) {
+				ensureBucket(other.offset);
+				ensureBucket(other.offset + other.counts.length - 1);
+				for (int i = 0; i < other.counts.length; i++) {
+					counts[other.offset + i - offset] += other.counts[i];
+				}
+			}
+			nonPositiveCount += other.nonPositiveCount;
+			totalCount += other.totalCount;
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+		} else {
+			// Rebucket by the bucket midpoints since the bucket bounds differ between units
+			double factor = other.unit.valueTransformTo(unit).targetValue(1.0);
+			for (int i = 0; i < other.counts.length; i++) {
+				if (other.counts[i] > 0) {
+					double value = Math.max(other.min, Math.min(other.max, representativeValue(other.offset + i)));
+					recordValue(value * factor, other.counts[i]);
+				}
+			}
+			recordValue(other.min * factor, other.nonPositiveCount);
+			min = Math.min(min, other.min * factor);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the total number of recorded values
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * @return the smallest recorded value, or {@code null} if the histogram is empty
+	 */
+	public IQuantity getMin() {
+		return totalCount == 0 ? null : unit.quantity(min);
+	}
+
+	/**
+	 * @return the largest recorded value, or {@code null} if the histogram is empty
+	 */
+	public IQuantity getMax() {
+		return totalCount == 0 ? null : unit.quantity(max);
+	}
+
+	/**
+	 * Get the value that the given percentage of all recorded values are less than or equal to,
+	 * using the nearest rank method. The value is exact for the 0th and 100th percentiles and
+	 * otherwise within the precision of the bucket it is found in.
+	 *
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return the value at the percentile, or {@code null} if the histogram is empty
+	 */
+	public IQuantity getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return null;
+		}
+		return unit.quantity(valueAtPercentile(percentile));
+	}
+
+	/**
+	 * Visit all non-empty buckets in increasing value order. Values that are zero or negative are
+	 * reported as one bucket spanning from the smallest recorded value to zero.
+	 *
+	 * @param visitor
+	 *            the visitor to call for each bucket
+	 */
+	public void forEachBucket(IBucketVisitor visitor) {
+		if (nonPositiveCount > 0) {
+			visitor.visit(min, Double.MIN_VALUE, nonPositiveCount);
+		}
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] > 0) {
+				visitor.visit(lowerBound(offset + i), lowerBound(offset + i + 1), counts[i]);
+			}
+		}
+	}
+
+	private double valueAtPercentile(double percentile) {
+		if (percentile <= 0) {
+			return min;
+		}
+		if (percentile >= 100) {
+			return max;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long seen = nonPositiveCount;
+		if (seen >= rank) {
+			return min;
+		}
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.max(min, Math.min(max, representativeValue(offset + i)));
+			}
+		}
+		return max;
+	}
+
+	private static int bucketIndex(double value) {
+		return (int) (Double.doubleToRawLongBits(value) >>> INDEX_SHIFT);
+	}
+
+	private static double lowerBound(int index) {
+		return Double.longBitsToDouble(((long) index) << INDEX_SHIFT);
+	}
+
+	private static double representativeValue(int index) {
+		return (lowerBound(index) + lowerBound(index + 1)) / 2;
+	}
+
+	private void ensureBucket(int index) {
+		if (counts.length == 0) {
+			offset = index;
+			counts = new long[SUB_BUCKET_COUNT];
+		} else if (index < offset) {
+			// Grow by at least the current size to keep repeated growth cheap
+			int newOffset = Math.max(0, Math.min(index, offset - counts.length));
+			long[] newCounts = new long[offset + counts.length - newOffset];
+			System.arraycopy(counts, 0, newCounts, offset - newOffset, counts.length);
+			counts = newCounts;
+			offset = newOffset;
+		} else if (index >= offset + counts.length) {
+			long[] newCounts = new long[Math.max(index + 1 - offset, counts.length * 2)];
+			System.arraycopy(counts, 0, newCounts, 0, counts.length);
+			counts = newCounts;
+		}
+	}
+}
@@ -46,10 +46,12 @@ public class Messages {
 	public static final String ItemAggregate_COUNT = "ItemAggregate_COUNT"; //$NON-NLS-1$
 	public static final String ItemAggregate_DISTINCT = "ItemAggregate_DISTINCT"; //$NON-NLS-1$
 	public static final String ItemAggregate_FIRST = "ItemAggregate_FIRST"; //$NON-NLS-1$
+	public static final String ItemAggregate_HISTOGRAM = "ItemAggregate_HISTOGRAM"; //$NON-NLS-1$
 	public static final String ItemAggregate_LAST = "ItemAggregate_LAST"; //$NON-NLS-1$
 	public static final String ItemAggregate_LONGEST = "ItemAggregate_LONGEST"; //$NON-NLS-1$
 	public static final String ItemAggregate_MAXIMUM = "ItemAggregate_MAXIMUM"; //$NON-NLS-1$
 	public static final String ItemAggregate_MINIMUM = "ItemAggregate_MINIMUM"; //$NON-NLS-1$
+	public static final String ItemAggregate_PERCENTILE = "ItemAggregate_PERCENTILE"; //$NON-NLS-1$
 	public static final String ItemAggregate_SHORTEST = "ItemAggregate_SHORTEST"; //$NON-NLS-1$
 	public static final String ItemAggregate_STDDEV = "ItemAggregate_STDDEV"; //$NON-NLS-1$
 	public static final String ItemAggregate_STDDEVP = "ItemAggregate_STDDEVP"; //$NON-NLS-1$
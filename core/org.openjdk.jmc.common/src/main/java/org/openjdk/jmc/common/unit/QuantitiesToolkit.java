@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -57,6 +57,19 @@ public class QuantitiesToolkit {
 		return (a == null) ? (b == null) : ((b == null) ? false : (a.compareTo(b) == 0));
 	}
 
+	/**
+	 * Check if a quantity stores its numerical value as a long. Two such quantities with equal
+	 * units are equal exactly when their {@link IQuantity#longValue() long values} are equal, which
+	 * allows them to be used as primitive keys.
+	 *
+	 * @param quantity
+	 *            the quantity to check
+	 * @return {@code true} if the numerical value of the quantity is stored as a long
+	 */
+	public static boolean isLongStored(IQuantity quantity) {
+		return quantity instanceof ScalarQuantity.LongStored;
+	}
+
 	public static IQuantity nullSafe(IQuantity quantity) {
 		if (quantity != null) {
 			return quantity;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -54,4 +54,27 @@ public interface DataSeries<T> {
 	 * @return an iterator of data points
 	 */
 	Iterator<T> createIterator(long min, long max);
+
+	/**
+	 * Return an iterator with data points matching a specified X interval, for presentation at a
+	 * given resolution. Implementations may return data points that aggregate several underlying
+	 * data points, as long as the interval gets at least the requested number of data points where
+	 * there is data. The X interval is only a hint and the iterator may contain data points outside
+	 * of the interval.
+	 * <p>
+	 * The default implementation ignores the resolution and returns
+	 * {@link #createIterator(long, long)}.
+	 *
+	 * @param min
+	 *            the minimum X value of returned data points
+	 * @param max
+	 *            the maximum X value of returned data points
+	 * @param resolution
+	 *            the number of data points that are needed in the interval, for example the width
+	 *            in pixels of a chart
+	 * @return an iterator of data points
+	 */
+	default Iterator<T> createIterator(long min, long max, int resolution) {
+		return createIterator(min, max);
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -44,6 +44,7 @@ import org.openjdk.jmc.common.item.Aggregators;
 import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.item.QuantityHistogram;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.IPreferenceValueProvider;
@@ -95,10 +96,14 @@ public class FileReadRule implements IRule {
 			"Average File Read", "The average duration of all file reads.", UnitLookup.TIMESPAN, IQuantity.class);
 	public static final TypedResult<IQuantity> TOTAL_FILE_READ = new TypedResult<>("totalFileRead", "Total File Read", //$NON-NLS-1$
 			"The total duration of all file reads.", UnitLookup.TIMESPAN, IQuantity.class);
+	public static final TypedResult<IQuantity> P99_FILE_READ = new TypedResult<>("p99FileRead", "P99 File Read", //$NON-NLS-1$
+			"The duration that 99% of all file reads completed within.", UnitLookup.TIMESPAN, IQuantity.class);
+	public static final TypedResult<IQuantity> P999_FILE_READ = new TypedResult<>("p999FileRead", "P99.9 File Read", //$NON-NLS-1$
+			"The duration that 99.9% of all file reads completed within.", UnitLookup.TIMESPAN, IQuantity.class);
 
 	private static final Collection<TypedResult<?>> RESULT_ATTRIBUTES = Arrays.<TypedResult<?>> asList(
 			TypedResult.SCORE, LONGEST_READ_AMOUNT, LONGEST_READ_PATH, LONGEST_READ_TIME, LONGEST_TOTAL_READ,
-			AVERAGE_FILE_READ, TOTAL_FILE_READ);
+			AVERAGE_FILE_READ, TOTAL_FILE_READ, P99_FILE_READ, P999_FILE_READ);
 
 	private IResult getResult(IItemCollection items, IPreferenceValueProvider vp, IResultValueProvider resultProvider) {
 		IQuantity warningLimit = vp.getPreferenceValue(READ_WARNING_LIMIT);
@@ -125,6 +130,8 @@ public class FileReadRule implements IRule {
 					.getAggregate(Aggregators.avg(JdkTypeIDs.FILE_READ, JfrAttributes.DURATION));
 			IQuantity totalDuration = fileReadEvents
 					.getAggregate(Aggregators.sum(JdkTypeIDs.FILE_READ, JfrAttributes.DURATION));
+			QuantityHistogram durations = fileReadEvents
+					.getAggregate(Aggregators.histogram(JdkTypeIDs.FILE_READ, JfrAttributes.DURATION));
 			IItemCollection eventsFromLongestIOPath = fileReadEvents
 					.apply(ItemFilters.equals(JdkAttributes.IO_PATH, longestIOPath));
 			IQuantity totalLongestIOPath = eventsFromLongestIOPath
@@ -135,6 +142,8 @@ public class FileReadRule implements IRule {
 					.addResult(TypedResult.SCORE, UnitLookup.NUMBER_UNITY.quantity(score))
 					.addResult(LONGEST_READ_AMOUNT, amountRead).addResult(LONGEST_READ_TIME, longestDuration)
 					.addResult(AVERAGE_FILE_READ, avgDuration).addResult(TOTAL_FILE_READ, totalDuration)
+					.addResult(P99_FILE_READ, durations.getValueAtPercentile(99))
+					.addResult(P999_FILE_READ, durations.getValueAtPercentile(99.9))
 					.addResult(LONGEST_TOTAL_READ, totalLongestIOPath).addResult(LONGEST_READ_PATH, fileName).build();
 		}
 		return ResultBuilder.createFor(this, vp).setSeverity(severity)
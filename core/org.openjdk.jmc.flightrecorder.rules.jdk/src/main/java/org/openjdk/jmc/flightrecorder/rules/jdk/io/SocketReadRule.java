@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -45,6 +45,7 @@ import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.IType;
 import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.item.QuantityHistogram;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.IPreferenceValueProvider;
@@ -99,9 +100,16 @@ public class SocketReadRule implements IRule {
 	public static final TypedResult<IQuantity> TOTAL_SOCKET_READ = new TypedResult<>("totalSocketRead", //$NON-NLS-1$
 			"Total Socket Read", "The total duration of all socket reads.", UnitLookup.TIMESPAN, IQuantity.class);
 
+	public static final TypedResult<IQuantity> P99_SOCKET_READ = new TypedResult<>("p99SocketRead", //$NON-NLS-1$
+			"P99 Socket Read", "The duration that 99% of all socket reads completed within.", UnitLookup.TIMESPAN,
+			IQuantity.class);
+	public static final TypedResult<IQuantity> P999_SOCKET_READ = new TypedResult<>("p999SocketRead", //$NON-NLS-1$
+			"P99.9 Socket Read", "The duration that 99.9% of all socket reads completed within.", UnitLookup.TIMESPAN,
+			IQuantity.class);
+
 	private static final Collection<TypedResult<?>> RESULT_ATTRIBUTES = Arrays.<TypedResult<?>> asList(
 			TypedResult.SCORE, LONGEST_READ_ADDRESS, LONGEST_READ_AMOUNT, LONGEST_READ_TIME, LONGEST_TOTAL_READ,
-			AVERAGE_SOCKET_READ, TOTAL_SOCKET_READ);
+			AVERAGE_SOCKET_READ, TOTAL_SOCKET_READ, P99_SOCKET_READ, P999_SOCKET_READ);
 
 	private static final List<TypedPreference<?>> CONFIG_ATTRIBUTES = Arrays
 			.<TypedPreference<?>> asList(READ_INFO_LIMIT, READ_WARNING_LIMIT);
@@ -151,6 +159,8 @@ public class SocketReadRule implements IRule {
 					.getAggregate(Aggregators.avg(JdkTypeIDs.SOCKET_READ, JfrAttributes.DURATION));
 			IQuantity totalDuration = readItems
 					.getAggregate(Aggregators.sum(JdkTypeIDs.SOCKET_READ, JfrAttributes.DURATION));
+			QuantityHistogram durations = readItems
+					.getAggregate(Aggregators.histogram(JdkTypeIDs.SOCKET_READ, JfrAttributes.DURATION));
 			IItemCollection eventsFromLongestAddress = readItems
 					.apply(ItemFilters.equals(JdkAttributes.IO_ADDRESS, address));
 			IQuantity totalLongestIOAddress = eventsFromLongestAddress
@@ -161,7 +171,9 @@ public class SocketReadRule implements IRule {
 							+ Messages.getString(Messages.SocketReadRuleFactory_TEXT_RMI_NOTE))
 					.addResult(LONGEST_READ_ADDRESS, address).addResult(LONGEST_READ_AMOUNT, amountRead)
 					.addResult(LONGEST_TOTAL_READ, totalLongestIOAddress).addResult(AVERAGE_SOCKET_READ, avgDuration)
-					.addResult(TOTAL_SOCKET_READ, totalDuration).addResult(LONGEST_READ_TIME, maxDuration).build();
+					.addResult(TOTAL_SOCKET_READ, totalDuration).addResult(LONGEST_READ_TIME, maxDuration)
+					.addResult(P99_SOCKET_READ, durations.getValueAtPercentile(99))
+					.addResult(P999_SOCKET_READ, durations.getValueAtPercentile(99.9)).build();
 		}
 		return ResultBuilder.createFor(this, vp).setSeverity(severity)
 				.setSummary(Messages.getString(Messages.SocketReadRuleFactory_TEXT_OK))
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -50,6 +50,7 @@ import org.openjdk.jmc.common.item.GroupingAggregator;
 import org.openjdk.jmc.common.item.IAggregator;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.item.QuantityHistogram;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.common.util.IPreferenceValueProvider;
@@ -104,10 +105,16 @@ public class JavaBlockingRule implements IRule {
 			"Most Blocked Class", "The class that was blocked the most.", UnitLookup.CLASS, IMCType.class);
 	public static final TypedResult<IMCThread> MOST_BLOCKED_THREAD = new TypedResult<>("mostBlockedThread", //$NON-NLS-1$
 			"Most Blocked Thread", "The thread that was blocked the most.", UnitLookup.THREAD, IMCThread.class);
+	public static final TypedResult<IQuantity> P99_BLOCKED_TIME = new TypedResult<>("p99BlockedTime", //$NON-NLS-1$
+			"P99 Blocked Time", "The time that 99% of all monitor enters were blocked within.", UnitLookup.TIMESPAN,
+			IQuantity.class);
+	public static final TypedResult<IQuantity> P999_BLOCKED_TIME = new TypedResult<>("p999BlockedTime", //$NON-NLS-1$
+			"P99.9 Blocked Time", "The time that 99.9% of all monitor enters were blocked within.", UnitLookup.TIMESPAN,
+			IQuantity.class);
 
 	private static final Collection<TypedResult<?>> RESULT_ATTRIBUTES = Arrays.<TypedResult<?>> asList(
 			TypedResult.SCORE, TOTAL_BLOCKED_TIME, MOST_BLOCKED_CLASS, MOST_BLOCKED_THREAD, MOST_BLOCKED_TIME,
-			MOST_BLOCKED_COUNT);
+			MOST_BLOCKED_COUNT, P99_BLOCKED_TIME, P999_BLOCKED_TIME);
 
 	private IResult getResult(
 		IItemCollection items, IPreferenceValueProvider valueProvider, IResultValueProvider resultProvider) {
@@ -143,9 +150,13 @@ public class JavaBlockingRule implements IRule {
 		}
 
 		// Significant blocking detected - do more calculations
+		QuantityHistogram blockedTimes = items
+				.getAggregate(Aggregators.histogram(JdkTypeIDs.MONITOR_ENTER, JfrAttributes.DURATION));
 		ResultBuilder result = ResultBuilder.createFor(this, valueProvider).setSeverity(Severity.get(weightedValue))
 				.addResult(TypedResult.SCORE, UnitLookup.NUMBER_UNITY.quantity(weightedValue))
 				.addResult(TOTAL_BLOCKED_TIME, totalWait)
+				.addResult(P99_BLOCKED_TIME, blockedTimes.getValueAtPercentile(99))
+				.addResult(P999_BLOCKED_TIME, blockedTimes.getValueAtPercentile(99.9))
 				.setSummary(Messages.getString(Messages.JavaBlockingRule_TEXT_INFO));
 		if (byThread.compareTo(byInstance) > 0) {
 			List<IntEntry<IMCThread>> groupedByThread = RulesToolkit.calculateGroupingScore(
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.binary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants and primitive encodings shared by {@link ColumnarSerializer} and
+ * {@link ColumnarReader}.
+ * <p>
+ * A document starts with {@link #MAGIC} and {@link #VERSION}, followed by blocks. Each block is a
+ * tag byte, the payload length as a varint and the payload. Dictionary blocks add strings, frames,
+ * stack traces and threads, which get consecutive ids starting at 1 per dictionary, 0 meaning
+ * {@code null}. Dictionary entries are always written before the first block that refers to them,
+ * so a reader can process the blocks in order. A schema block describes the columns of an event
+ * type and a batch block holds the values of a number of events of one schema, column by column.
+ * The document ends with an {@link #TAG_END} byte.
+ */
+final class ColumnarFormat {
+	static final byte[] MAGIC = {'J', 'M', 'C', 'C'};
+	static final short VERSION = 1;
+
+	static final int TAG_END = 0;
+	static final int TAG_STRINGS = 1;
+	static final int TAG_FRAMES = 2;
+	static final int TAG_STACKTRACES = 3;
+	static final int TAG_THREADS = 4;
+	static final int TAG_SCHEMA = 5;
+	static final int TAG_BATCH = 6;
+
+	// Column kinds, stored in the schema
+	static final int KIND_QUANTITY = 0;
+	static final int KIND_TIMESTAMP = 1;
+	static final int KIND_FLAG = 2;
+	static final int KIND_TEXT = 3;
+	static final int KIND_STACKTRACE = 4;
+	static final int KIND_THREAD = 5;
+
+	// Encodings of quantity columns, stored per batch since they depend on the values
+	static final int ENCODING_LONG = 0;
+	static final int ENCODING_DOUBLE = 1;
+	static final int ENCODING_DELTA = 2;
+
+	static final int FRAME_HAS_LINE_NUMBER = 1;
+	static final int FRAME_HAS_BCI = 2;
+
+	private ColumnarFormat() {
+		throw new UnsupportedOperationException("Not to be instantiated"); //$NON-NLS-1$
+	}
+
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+		writeVarLong(out, (value << 1) ^ (value >> 63));
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint"); //$NON-NLS-1$
+	}
+
+	static long readSignedVarLong(DataInput in) throws IOException {
+		long value = readVarLong(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		long value = readVarLong(in);
+		if (value < 0 || value > Integer.MAX_VALUE) {
+			throw new IOException("Value out of range: " + value); //$NON-NLS-1$
+		}
+		return (int) value;
+	}
+}
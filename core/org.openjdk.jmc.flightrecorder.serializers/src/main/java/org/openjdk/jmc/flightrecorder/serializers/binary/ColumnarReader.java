@@ -0,0 +1,667 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.binary;
+
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.ENCODING_DELTA;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.ENCODING_DOUBLE;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.FRAME_HAS_BCI;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.FRAME_HAS_LINE_NUMBER;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.MAGIC;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_BATCH;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_END;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_FRAMES;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_SCHEMA;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_STACKTRACES;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_STRINGS;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_THREADS;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.VERSION;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.readSignedVarLong;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.readVarInt;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IUnit;
+import org.openjdk.jmc.common.unit.UnitLookup;
+
+/**
+ * Reads documents written by {@link ColumnarSerializer}, one batch at a time.
+ * <p>
+ * Batches are returned in the order they were written. All dictionary entries needed by a batch
+ * have been read when it is returned, so the values of a batch can be resolved directly.
+ */
+public final class ColumnarReader implements Closeable {
+
+	/**
+	 * The kind of values stored in a column.
+	 */
+	public enum ColumnKind {
+	/**
+	 * Numerical quantities with a unit.
+	 */
+	QUANTITY,
+	/**
+	 * Timestamps, stored as quantities.
+	 */
+	TIMESTAMP,
+	/**
+	 * Boolean values.
+	 */
+	FLAG,
+	/**
+	 * Values stored as text.
+	 */
+	TEXT,
+	/**
+	 * Stack traces.
+	 */
+	STACKTRACE,
+	/**
+	 * Threads.
+	 */
+	THREAD
+	}
+
+	/**
+	 * A column of an event type.
+	 */
+	public static final class Column {
+		private final String identifier;
+		private final String name;
+		private final String contentType;
+		private final ColumnKind kind;
+
+		Column(String identifier, String name, String contentType, ColumnKind kind) {
+			this.identifier = identifier;
+			this.name = name;
+			this.contentType = contentType;
+			this.kind = kind;
+		}
+
+		/**
+		 * @return the identifier of the attribute stored in the column
+		 */
+		public String getIdentifier() {
+			return identifier;
+		}
+
+		/**
+		 * @return the name of the attribute stored in the column
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the identifier of the content type of the attribute
+		 */
+		public String getContentType() {
+			return contentType;
+		}
+
+		/**
+		 * @return how the values of the column are stored
+		 */
+		public ColumnKind getKind() {
+			return kind;
+		}
+	}
+
+	/**
+	 * The columns of an event type.
+	 */
+	public static final class Schema {
+		private final String typeIdentifier;
+		private final String typeName;
+		private final List<Column> columns;
+
+		Schema(String typeIdentifier, String typeName, List<Column> columns) {
+			this.typeIdentifier = typeIdentifier;
+			this.typeName = typeName;
+			this.columns = Collections.unmodifiableList(columns);
+		}
+
+		/**
+		 * @return the identifier of the event type
+		 */
+		public String getTypeIdentifier() {
+			return typeIdentifier;
+		}
+
+		/**
+		 * @return the name of the event type
+		 */
+		public String getTypeName() {
+			return typeName;
+		}
+
+		/**
+		 * @return the columns of the event type
+		 */
+		public List<Column> getColumns() {
+			return columns;
+		}
+
+		/**
+		 * @param identifier
+		 *            an attribute identifier
+		 * @return the index of the column for the attribute, or -1 if there is no such column
+		 */
+		public int indexOf(String identifier) {
+			for (int i = 0; i < columns.size(); i++) {
+				if (columns.get(i).getIdentifier().equals(identifier)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * A stack frame.
+	 */
+	public static final class Frame {
+		private final String typeName;
+		private final String methodName;
+		private final String descriptor;
+		private final String frameType;
+		private final Integer lineNumber;
+		private final Integer bci;
+
+		Frame(String typeName, String methodName, String descriptor, String frameType, Integer lineNumber,
+				Integer bci) {
+			this.typeName = typeName;
+			this.methodName = methodName;
+			this.descriptor = descriptor;
+			this.frameType = frameType;
+			this.lineNumber = lineNumber;
+			this.bci = bci;
+		}
+
+		/**
+		 * @return the fully qualified name of the type declaring the method, or {@code null}
+		 */
+		public String getTypeName() {
+			return typeName;
+		}
+
+		/**
+		 * @return the method name, or {@code null}
+		 */
+		public String getMethodName() {
+			return methodName;
+		}
+
+		/**
+		 * @return the formal descriptor of the method, or {@code null}
+		 */
+		public String getDescriptor() {
+			return descriptor;
+		}
+
+		/**
+		 * @return the name of the frame type, or {@code null}
+		 */
+		public String getFrameType() {
+			return frameType;
+		}
+
+		/**
+		 * @return the line number, or {@code null} if not available
+		 */
+		public Integer getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * @return the byte code index, or {@code null} if not available
+		 */
+		public Integer getBCI() {
+			return bci;
+		}
+	}
+
+	/**
+	 * A stack trace.
+	 */
+	public static final class StackTrace {
+		private final List<Frame> frames;
+		private final boolean truncated;
+
+		StackTrace(List<Frame> frames, boolean truncated) {
+			this.frames = Collections.unmodifiableList(frames);
+			this.truncated = truncated;
+		}
+
+		/**
+		 * @return the frames, with the top frame first
+		 */
+		public List<Frame> getFrames() {
+			return frames;
+		}
+
+		/**
+		 * @return {@code true} if the stack trace was truncated when recorded
+		 */
+		public boolean isTruncated() {
+			return truncated;
+		}
+	}
+
+	/**
+	 * A thread.
+	 */
+	public static final class ThreadInfo {
+		private final String name;
+		private final Long javaThreadId;
+
+		ThreadInfo(String name, Long javaThreadId) {
+			this.name = name;
+			this.javaThreadId = javaThreadId;
+		}
+
+		/**
+		 * @return the thread name, or {@code null}
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the Java thread id, or {@code null} if not available
+		 */
+		public Long getJavaThreadId() {
+			return javaThreadId;
+		}
+	}
+
+	/**
+	 * A number of events of the same type, stored column by column.
+	 */
+	public final class Batch {
+		private final Schema schema;
+		private final int size;
+		private final boolean[][] nulls;
+		private final long[][] longs;
+		private final double[][] doubles;
+		private final String[] units;
+
+		Batch(Schema schema, int size) {
+			int columns = schema.getColumns().size();
+			this.schema = schema;
+			this.size = size;
+			nulls = new boolean[columns][];
+			longs = new long[columns][];
+			doubles = new double[columns][];
+			units = new String[columns];
+		}
+
+		/**
+		 * @return the schema of the events in the batch
+		 */
+		public Schema getSchema() {
+			return schema;
+		}
+
+		/**
+		 * @return the number of events in the batch
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return {@code true} if the value of an event is missing
+		 */
+		public boolean isNull(int column, int row) {
+			return nulls[column] != null && nulls[column][row];
+		}
+
+		/**
+		 * @return the value of a quantity or timestamp column as a long, in the unit of the column
+		 */
+		public long getLong(int column, int row) {
+			return longs[column] != null ? longs[column][row] : (long) doubles[column][row];
+		}
+
+		/**
+		 * @return the value of a quantity or timestamp column as a double, in the unit of the
+		 *         column
+		 */
+		public double getDouble(int column, int row) {
+			return longs[column] != null ? longs[column][row] : doubles[column][row];
+		}
+
+		/**
+		 * @return the identifier of the unit of a quantity or timestamp column, or {@code null} if
+		 *         all values are missing
+		 */
+		public String getUnitIdentifier(int column) {
+			return units[column];
+		}
+
+		/**
+		 * @return the value of a quantity or timestamp column, or {@code null} if missing or if the
+		 *         unit is unknown
+		 */
+		public IQuantity getQuantity(int column, int row) {
+			IUnit unit = UnitLookup.getUnitOrNull(units[column]);
+			if (unit == null || isNull(column, row)) {
+				return null;
+			}
+			return longs[column] != null ? unit.quantity(longs[column][row]) : unit.quantity(doubles[column][row]);
+		}
+
+		/**
+		 * @return the value of a flag column, {@code false} if missing
+		 */
+		public boolean getBoolean(int column, int row) {
+			return longs[column][row] != 0;
+		}
+
+		/**
+		 * @return the value of a text column, or {@code null} if missing
+		 */
+		public String getString(int column, int row) {
+			return strings.get((int) longs[column][row]);
+		}
+
+		/**
+		 * @return the value of a stack trace column, or {@code null} if missing
+		 */
+		public StackTrace getStackTrace(int column, int row) {
+			return stackTraces.get((int) longs[column][row]);
+		}
+
+		/**
+		 * @return the value of a thread column, or {@code null} if missing
+		 */
+		public ThreadInfo getThread(int column, int row) {
+			return threads.get((int) longs[column][row]);
+		}
+	}
+
+	private final DataInputStream in;
+	// Dictionary ids start at 1, 0 is used for null
+	private final List<String> strings = new ArrayList<>(Collections.singletonList(null));
+	private final List<Frame> frames = new ArrayList<>(Collections.singletonList(null));
+	private final List<StackTrace> stackTraces = new ArrayList<>(Collections.singletonList(null));
+	private final List<ThreadInfo> threads = new ArrayList<>(Collections.singletonList(null));
+	private final Map<Integer, Schema> schemas = new HashMap<>();
+	private boolean ended;
+
+	/**
+	 * Creates a reader and reads the document header.
+	 *
+	 * @param in
+	 *            the stream to read from
+	 * @throws IOException
+	 *             if reading fails or if the stream does not contain a supported document
+	 */
+	public ColumnarReader(InputStream in) throws IOException {
+		this.in = new DataInputStream(in);
+		byte[] magic = new byte[MAGIC.length];
+		this.in.readFully(magic);
+		if (!Arrays.equals(magic, MAGIC)) {
+			throw new IOException("Not a columnar event document"); //$NON-NLS-1$
+		}
+		int version = this.in.readUnsignedShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported columnar event document version " + version); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Reads the next batch of events.
+	 *
+	 * @return the next batch, or {@code null} at the end of the document
+	 * @throws IOException
+	 *             if reading fails or if the document is malformed
+	 */
+	public Batch next() throws IOException {
+		while (!ended) {
+			int tag = in.readUnsignedByte();
+			if (tag == TAG_END) {
+				ended = true;
+				break;
+			}
+			byte[] payload = new byte[readVarInt(in)];
+			in.readFully(payload);
+			DataInputStream block = new DataInputStream(new ByteArrayInputStream(payload));
+			switch (tag) {
+			case TAG_STRINGS:
+				readStrings(block);
+				break;
+			case TAG_FRAMES:
+				readFrames(block);
+				break;
+			case TAG_STACKTRACES:
+				readStackTraces(block);
+				break;
+			case TAG_THREADS:
+				readThreads(block);
+				break;
+			case TAG_SCHEMA:
+				readSchema(block);
+				break;
+			case TAG_BATCH:
+				return readBatch(block);
+			default:
+				// Skip unknown blocks to allow for additions to the format
+				break;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private void readStrings(DataInputStream block) throws IOException {
+		for (int count = readVarInt(block); count > 0; count--) {
+			byte[] bytes = new byte[readVarInt(block)];
+			block.readFully(bytes);
+			strings.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+	}
+
+	private void readFrames(DataInputStream block) throws IOException {
+		for (int count = readVarInt(block); count > 0; count--) {
+			String typeName = lookup(strings, readVarInt(block));
+			String methodName = lookup(strings, readVarInt(block));
+			String descriptor = lookup(strings, readVarInt(block));
+			String frameType = lookup(strings, readVarInt(block));
+			int flags = block.readUnsignedByte();
+			Integer lineNumber = (flags & FRAME_HAS_LINE_NUMBER) != 0 ? (int) readSignedVarLong(block) : null;
+			Integer bci = (flags & FRAME_HAS_BCI) != 0 ? (int) readSignedVarLong(block) : null;
+			frames.add(new Frame(typeName, methodName, descriptor, frameType, lineNumber, bci));
+		}
+	}
+
+	private void readStackTraces(DataInputStream block) throws IOException {
+		for (int count = readVarInt(block); count > 0; count--) {
+			boolean truncated = block.readBoolean();
+			int size = readVarInt(block);
+			List<Frame> stackFrames = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				stackFrames.add(lookup(frames, readVarInt(block)));
+			}
+			stackTraces.add(new StackTrace(stackFrames, truncated));
+		}
+	}
+
+	private void readThreads(DataInputStream block) throws IOException {
+		for (int count = readVarInt(block); count > 0; count--) {
+			String name = lookup(strings, readVarInt(block));
+			Long javaThreadId = block.readBoolean() ? readSignedVarLong(block) : null;
+			threads.add(new ThreadInfo(name, javaThreadId));
+		}
+	}
+
+	private void readSchema(DataInputStream block) throws IOException {
+		int id = readVarInt(block);
+		String typeIdentifier = lookup(strings, readVarInt(block));
+		String typeName = lookup(strings, readVarInt(block));
+		int size = readVarInt(block);
+		List<Column> columns = new ArrayList<>(size);
+		ColumnKind[] kinds = ColumnKind.values();
+		for (int i = 0; i < size; i++) {
+			String identifier = lookup(strings, readVarInt(block));
+			String name = lookup(strings, readVarInt(block));
+			String contentType = lookup(strings, readVarInt(block));
+			int kind = block.readUnsignedByte();
+			if (kind >= kinds.length) {
+				throw new IOException("Unknown column kind " + kind); //$NON-NLS-1$
+			}
+			columns.add(new Column(identifier, name, contentType, kinds[kind]));
+		}
+		schemas.put(id, new Schema(typeIdentifier, typeName, columns));
+	}
+
+	private Batch readBatch(DataInputStream block) throws IOException {
+		int schemaId = readVarInt(block);
+		Schema schema = schemas.get(schemaId);
+		if (schema == null) {
+			throw new IOException("Batch refers to unknown schema " + schemaId); //$NON-NLS-1$
+		}
+		int size = readVarInt(block);
+		Batch batch = new Batch(schema, size);
+		for (int column = 0; column < schema.getColumns().size(); column++) {
+			switch (schema.getColumns().get(column).getKind()) {
+			case QUANTITY:
+			case TIMESTAMP:
+				readQuantities(block, batch, column);
+				break;
+			case FLAG:
+				batch.nulls[column] = readNulls(block, size);
+				boolean[] flags = readBitmap(block, size);
+				long[] values = new long[size];
+				for (int row = 0; row < size; row++) {
+					values[row] = flags[row] ? 1 : 0;
+				}
+				batch.longs[column] = values;
+				break;
+			default:
+				List<?> dictionary = dictionaryOf(schema.getColumns().get(column).getKind());
+				long[] ids = new long[size];
+				boolean[] nulls = new boolean[size];
+				for (int row = 0; row < size; row++) {
+					ids[row] = readVarInt(block);
+					lookup(dictionary, (int) ids[row]);
+					nulls[row] = ids[row] == 0;
+				}
+				batch.longs[column] = ids;
+				batch.nulls[column] = nulls;
+				break;
+			}
+		}
+		return batch;
+	}
+
+	private List<?> dictionaryOf(ColumnKind kind) {
+		switch (kind) {
+		case STACKTRACE:
+			return stackTraces;
+		case THREAD:
+			return threads;
+		default:
+			return strings;
+		}
+	}
+
+	private void readQuantities(DataInputStream block, Batch batch, int column) throws IOException {
+		int size = batch.size;
+		int encoding = block.readUnsignedByte();
+		batch.units[column] = lookup(strings, readVarInt(block));
+		boolean[] nulls = readNulls(block, size);
+		batch.nulls[column] = nulls;
+		if (encoding == ENCODING_DOUBLE) {
+			double[] values = new double[size];
+			for (int row = 0; row < size; row++) {
+				if (nulls == null || !nulls[row]) {
+					values[row] = block.readDouble();
+				}
+			}
+			batch.doubles[column] = values;
+		} else {
+			long[] values = new long[size];
+			long previous = 0;
+			for (int row = 0; row < size; row++) {
+				if (nulls == null || !nulls[row]) {
+					values[row] = readSignedVarLong(block);
+					if (encoding == ENCODING_DELTA) {
+						values[row] += previous;
+						previous = values[row];
+					}
+				}
+			}
+			batch.longs[column] = values;
+		}
+	}
+
+	private static boolean[] readNulls(DataInputStream block, int size) throws IOException {
+		return block.readBoolean() ? readBitmap(block, size) : null;
+	}
+
+	private static boolean[] readBitmap(DataInputStream block, int size) throws IOException {
+		boolean[] bits = new boolean[size];
+		int current = 0;
+		for (int i = 0; i < size; i++) {
+			if ((i & 7) == 0) {
+				current = block.readUnsignedByte();
+			}
+			bits[i] = (current & (1 << (i & 7))) != 0;
+		}
+		return bits;
+	}
+
+	private static <T> T lookup(List<T> dictionary, int id) throws IOException {
+		if (id < 0 || id >= dictionary.size()) {
+			throw new IOException("Unknown dictionary id " + id); //$NON-NLS-1$
+		}
+		return dictionary.get(id);
+	}
+}
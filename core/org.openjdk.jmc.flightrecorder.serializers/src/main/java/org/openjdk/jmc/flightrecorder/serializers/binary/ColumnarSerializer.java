@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.binary;
+
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.ENCODING_DELTA;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.ENCODING_DOUBLE;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.ENCODING_LONG;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.FRAME_HAS_BCI;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.FRAME_HAS_LINE_NUMBER;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.KIND_FLAG;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.KIND_QUANTITY;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.KIND_STACKTRACE;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.KIND_TEXT;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.KIND_THREAD;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.KIND_TIMESTAMP;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.MAGIC;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_BATCH;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_END;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_FRAMES;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_SCHEMA;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_STACKTRACES;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_STRINGS;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.TAG_THREADS;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.VERSION;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.writeSignedVarLong;
+import static org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarFormat.writeVarLong;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.openjdk.jmc.common.IDescribable;
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCMethod;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.IMCType;
+import org.openjdk.jmc.common.item.IAccessorKey;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.unit.ContentType;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.IUnit;
+import org.openjdk.jmc.common.unit.KindOfQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.common.util.LabeledIdentifier;
+
+/**
+ * Serializes an {@link IItemCollection} to a compact, columnar binary format that can be read back
+ * with {@link ColumnarReader}.
+ * <p>
+ * Every event type gets a schema that is written once. Events are written in batches of one type,
+ * one column at a time. Strings, stack frames, stack traces and threads are dictionary encoded so
+ * that each distinct value is only written once per document, timestamps are delta encoded and
+ * numbers use variable length encoding. The output is written batch by batch, so only one batch is
+ * held in memory at a time.
+ */
+public final class ColumnarSerializer {
+	// Limits the memory used for buffering one batch
+	private static final int MAX_BATCH_SIZE = 64 * 1024;
+
+	private final OutputStream out;
+	private final DataOutputStream data;
+
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final Map<IMCFrame, Integer> frames = new HashMap<>();
+	private final Map<IMCStackTrace, Integer> stackTraces = new HashMap<>();
+	private final Map<IMCThread, Integer> threads = new HashMap<>();
+	private final Map<IType<?>, Schema> schemas = new IdentityHashMap<>();
+
+	// Dictionary entries added since the last block was written
+	private final ByteArrayOutputStream pendingStrings = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream pendingFrames = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream pendingStackTraces = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream pendingThreads = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+	private int pendingStringCount;
+	private int pendingFrameCount;
+	private int pendingStackTraceCount;
+	private int pendingThreadCount;
+
+	private static final class Schema {
+		final int id;
+		final List<IMemberAccessor<?, IItem>> accessors = new ArrayList<>();
+		final List<Integer> kinds = new ArrayList<>();
+		// Written with the first batch of the type, iterables without items do not need a schema
+		ByteArrayOutputStream definition = new ByteArrayOutputStream();
+
+		Schema(int id) {
+			this.id = id;
+		}
+	}
+
+	private ColumnarSerializer(OutputStream out) {
+		this.out = out;
+		this.data = new DataOutputStream(out);
+	}
+
+	/**
+	 * Writes the events in a collection to a stream.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param out
+	 *            the stream to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void serialize(IItemCollection items, OutputStream out) throws IOException {
+		serialize(items, out, () -> false);
+	}
+
+	/**
+	 * Writes the events in a collection to a stream.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param out
+	 *            the stream to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each batch, serialization stops when it returns {@code true}
+	 * @return {@code true} if all events were written, {@code false} if serialization was stopped
+	 *         and the output is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean serialize(IItemCollection items, OutputStream out, BooleanSupplier stopFlag)
+			throws IOException {
+		return new ColumnarSerializer(out).writeDocument(items, stopFlag);
+	}
+
+	private boolean writeDocument(IItemCollection items, BooleanSupplier stopFlag) throws IOException {
+		data.write(MAGIC);
+		data.writeShort(VERSION);
+		List<IItem> rows = new ArrayList<>();
+		for (IItemIterable iterable : items) {
+			Schema schema = getSchema(iterable.getType());
+			for (IItem item : iterable) {
+				rows.add(item);
+				if (rows.size() == MAX_BATCH_SIZE) {
+					if (stopFlag.getAsBoolean()) {
+						return false;
+					}
+					writeBatch(schema, rows);
+					rows.clear();
+				}
+			}
+			if (!rows.isEmpty()) {
+				if (stopFlag.getAsBoolean()) {
+					return false;
+				}
+				writeBatch(schema, rows);
+				rows.clear();
+			}
+		}
+		data.writeByte(TAG_END);
+		data.flush();
+		return true;
+	}
+
+	private Schema getSchema(IType<IItem> type) throws IOException {
+		Schema schema = schemas.get(type);
+		if (schema == null) {
+			schema = new Schema(schemas.size() + 1);
+			DataOutputStream out = new DataOutputStream(schema.definition);
+			writeVarLong(out, schema.id);
+			writeVarLong(out, stringId(type.getIdentifier()));
+			writeVarLong(out, stringId(type.getName()));
+			Map<IAccessorKey<?>, ? extends IDescribable> keys = type.getAccessorKeys();
+			writeVarLong(out, keys.size());
+			for (Map.Entry<IAccessorKey<?>, ? extends IDescribable> entry : keys.entrySet()) {
+				IAccessorKey<?> key = entry.getKey();
+				int kind = kindOf(key.getContentType());
+				writeVarLong(out, stringId(key.getIdentifier()));
+				writeVarLong(out, stringId(entry.getValue() != null ? entry.getValue().getName() : null));
+				writeVarLong(out, stringId(key.getContentType().getIdentifier()));
+				out.writeByte(kind);
+				schema.accessors.add(type.getAccessor(key));
+				schema.kinds.add(kind);
+			}
+			schemas.put(type, schema);
+		}
+		return schema;
+	}
+
+	private static int kindOf(ContentType<?> contentType) {
+		if (contentType == UnitLookup.TIMESTAMP) {
+			return KIND_TIMESTAMP;
+		} else if (contentType instanceof KindOfQuantity) {
+			return KIND_QUANTITY;
+		} else if (contentType == UnitLookup.FLAG) {
+			return KIND_FLAG;
+		} else if (contentType == UnitLookup.STACKTRACE) {
+			return KIND_STACKTRACE;
+		} else if (contentType == UnitLookup.THREAD) {
+			return KIND_THREAD;
+		}
+		return KIND_TEXT;
+	}
+
+	private void writeBatch(Schema schema, List<IItem> rows) throws IOException {
+		batch.reset();
+		DataOutputStream out = new DataOutputStream(batch);
+		writeVarLong(out, schema.id);
+		writeVarLong(out, rows.size());
+		Object[] values = new Object[rows.size()];
+		for (int column = 0; column < schema.accessors.size(); column++) {
+			IMemberAccessor<?, IItem> accessor = schema.accessors.get(column);
+			for (int row = 0; row < values.length; row++) {
+				values[row] = accessor != null ? accessor.getMember(rows.get(row)) : null;
+			}
+			switch (schema.kinds.get(column)) {
+			case KIND_QUANTITY:
+				writeQuantities(out, values, false);
+				break;
+			case KIND_TIMESTAMP:
+				writeQuantities(out, values, true);
+				break;
+			case KIND_FLAG:
+				writeFlags(out, values);
+				break;
+			case KIND_STACKTRACE:
+				for (Object value : values) {
+					writeVarLong(out, value instanceof IMCStackTrace ? stackTraceId((IMCStackTrace) value) : 0);
+				}
+				break;
+			case KIND_THREAD:
+				for (Object value : values) {
+					writeVarLong(out, value instanceof IMCThread ? threadId((IMCThread) value) : 0);
+				}
+				break;
+			default:
+				for (Object value : values) {
+					writeVarLong(out, stringId(stringify(value)));
+				}
+				break;
+			}
+		}
+		// Everything the batch refers to must be written before it
+		writePending(TAG_STRINGS, pendingStrings, pendingStringCount);
+		pendingStringCount = 0;
+		writePending(TAG_FRAMES, pendingFrames, pendingFrameCount);
+		pendingFrameCount = 0;
+		writePending(TAG_STACKTRACES, pendingStackTraces, pendingStackTraceCount);
+		pendingStackTraceCount = 0;
+		writePending(TAG_THREADS, pendingThreads, pendingThreadCount);
+		pendingThreadCount = 0;
+		if (schema.definition != null) {
+			writeBlock(TAG_SCHEMA, schema.definition);
+			schema.definition = null;
+		}
+		writeBlock(TAG_BATCH, batch);
+	}
+
+	private void writePending(int tag, ByteArrayOutputStream entries, int count) throws IOException {
+		if (count > 0) {
+			ByteArrayOutputStream block = new ByteArrayOutputStream(entries.size() + 5);
+			writeVarLong(new DataOutputStream(block), count);
+			entries.writeTo(block);
+			entries.reset();
+			writeBlock(tag, block);
+		}
+	}
+
+	private void writeBlock(int tag, ByteArrayOutputStream payload) throws IOException {
+		data.writeByte(tag);
+		writeVarLong(data, payload.size());
+		payload.writeTo(out);
+	}
+
+	private static void writeNulls(DataOutputStream out, Object[] values) throws IOException {
+		boolean hasNulls = false;
+		for (Object value : values) {
+			hasNulls |= value == null;
+		}
+		out.writeBoolean(hasNulls);
+		if (hasNulls) {
+			writeBitmap(out, values, value -> value == null);
+		}
+	}
+
+	private interface Bit {
+		boolean isSet(Object value);
+	}
+
+	private static void writeBitmap(DataOutputStream out, Object[] values, Bit bit) throws IOException {
+		int current = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (bit.isSet(values[i])) {
+				current |= 1 << (i & 7);
+			}
+			if ((i & 7) == 7) {
+				out.writeByte(current);
+				current = 0;
+			}
+		}
+		if ((values.length & 7) != 0) {
+			out.writeByte(current);
+		}
+	}
+
+	private void writeQuantities(DataOutputStream out, Object[] values, boolean delta) throws IOException {
+		// Use the unit of the first value, and longs if all values are integers in that unit
+		IUnit unit = null;
+		boolean integral = true;
+		for (int i = 0; i < values.length; i++) {
+			if (!(values[i] instanceof IQuantity)) {
+				values[i] = null;
+				continue;
+			}
+			IQuantity quantity = (IQuantity) values[i];
+			if (unit == null) {
+				unit = quantity.getUnit();
+				if (unit.getIdentifier() == null) {
+					// Custom units can not be persisted, use the default unit of the kind instead
+					unit = unit.getContentType().getDefaultUnit();
+					integral = false;
+				}
+			}
+			Number number = quantity.getUnit() == unit ? quantity.numberValue() : null;
+			integral &= number instanceof Long || number instanceof Integer;
+		}
+		int encoding = !integral ? ENCODING_DOUBLE : delta ? ENCODING_DELTA : ENCODING_LONG;
+		out.writeByte(encoding);
+		writeVarLong(out, stringId(unit == null ? null : UnitLookup.getUnitIdentifier(unit)));
+		writeNulls(out, values);
+		long previous = 0;
+		for (Object value : values) {
+			if (value == null) {
+				continue;
+			}
+			IQuantity quantity = (IQuantity) value;
+			switch (encoding) {
+			case ENCODING_DOUBLE:
+				out.writeDouble(quantity.doubleValueIn(unit));
+				break;
+			case ENCODING_DELTA:
+				long current = quantity.longValue();
+				writeSignedVarLong(out, current - previous);
+				previous = current;
+				break;
+			default:
+				writeSignedVarLong(out, quantity.longValue());
+				break;
+			}
+		}
+	}
+
+	private static void writeFlags(DataOutputStream out, Object[] values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (!(values[i] instanceof Boolean)) {
+				values[i] = null;
+			}
+		}
+		writeNulls(out, values);
+		writeBitmap(out, values, value -> Boolean.TRUE.equals(value));
+	}
+
+	private static String stringify(Object value) {
+		if (value == null) {
+			return null;
+		} else if (value instanceof String) {
+			return (String) value;
+		} else if (value instanceof IMCType) {
+			return ((IMCType) value).getFullName();
+		} else if (value instanceof IMCMethod) {
+			IMCMethod method = (IMCMethod) value;
+			return method.getType().getFullName() + "." + method.getMethodName() + method.getFormalDescriptor(); //$NON-NLS-1$
+		} else if (value instanceof LabeledIdentifier) {
+			return ((LabeledIdentifier) value).getInterfaceId();
+		} else if (value instanceof IDescribable && ((IDescribable) value).getName() != null) {
+			return ((IDescribable) value).getName();
+		}
+		return value.toString();
+	}
+
+	private int stringId(String value) throws IOException {
+		if (value == null) {
+			return 0;
+		}
+		Integer id = strings.get(value);
+		if (id == null) {
+			id = strings.size() + 1;
+			strings.put(value, id);
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			DataOutputStream out = new DataOutputStream(pendingStrings);
+			writeVarLong(out, bytes.length);
+			out.write(bytes);
+			pendingStringCount++;
+		}
+		return id;
+	}
+
+	private int frameId(IMCFrame frame) throws IOException {
+		Integer id = frames.get(frame);
+		if (id == null) {
+			IMCMethod method = frame.getMethod();
+			IMCType type = method != null ? method.getType() : null;
+			int typeName = stringId(type != null ? type.getFullName() : null);
+			int methodName = stringId(method != null ? method.getMethodName() : null);
+			int descriptor = stringId(method != null ? method.getFormalDescriptor() : null);
+			int frameType = stringId(frame.getType() != null ? frame.getType().getName() : null);
+			Integer lineNumber = frame.getFrameLineNumber();
+			Integer bci = frame.getBCI();
+			id = frames.size() + 1;
+			frames.put(frame, id);
+			DataOutputStream out = new DataOutputStream(pendingFrames);
+			writeVarLong(out, typeName);
+			writeVarLong(out, methodName);
+			writeVarLong(out, descriptor);
+			writeVarLong(out, frameType);
+			out.writeByte((lineNumber != null ? FRAME_HAS_LINE_NUMBER : 0) | (bci != null ? FRAME_HAS_BCI : 0));
+			if (lineNumber != null) {
+				writeSignedVarLong(out, lineNumber);
+			}
+			if (bci != null) {
+				writeSignedVarLong(out, bci);
+			}
+			pendingFrameCount++;
+		}
+		return id;
+	}
+
+	private int stackTraceId(IMCStackTrace stackTrace) throws IOException {
+		Integer id = stackTraces.get(stackTrace);
+		if (id == null) {
+			List<? extends IMCFrame> stackFrames = stackTrace.getFrames();
+			int[] frameIds = new int[stackFrames.size()];
+			for (int i = 0; i < frameIds.length; i++) {
+				frameIds[i] = frameId(stackFrames.get(i));
+			}
+			id = stackTraces.size() + 1;
+			stackTraces.put(stackTrace, id);
+			DataOutputStream out = new DataOutputStream(pendingStackTraces);
+			out.writeBoolean(stackTrace.getTruncationState() == IMCStackTrace.TruncationState.TRUNCATED);
+			writeVarLong(out, frameIds.length);
+			for (int frameId : frameIds) {
+				writeVarLong(out, frameId);
+			}
+			pendingStackTraceCount++;
+		}
+		return id;
+	}
+
+	private int threadId(IMCThread thread) throws IOException {
+		Integer id = threads.get(thread);
+		if (id == null) {
+			int name = stringId(thread.getThreadName());
+			Long javaThreadId = thread.getThreadId();
+			id = threads.size() + 1;
+			threads.put(thread, id);
+			DataOutputStream out = new DataOutputStream(pendingThreads);
+			writeVarLong(out, name);
+			out.writeBoolean(javaThreadId != null);
+			if (javaThreadId != null) {
+				writeSignedVarLong(out, javaThreadId);
+			}
+			pendingThreadCount++;
+		}
+		return id;
+	}
+}
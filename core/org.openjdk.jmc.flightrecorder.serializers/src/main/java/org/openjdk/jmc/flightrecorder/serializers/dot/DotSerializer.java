@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -35,8 +35,18 @@ package org.openjdk.jmc.flightrecorder.serializers.dot;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
@@ -67,6 +77,8 @@ public final class DotSerializer {
 	private static final String DEFAULT_NODE_SIZE_ATTRIBUTE = "count";
 	private static final String DEFAULT_MIN_NODE_FONT_SIZE = "8";
 	private static final String DEFAULT_MAX_NODE_FONT_SIZE = "32";
+	// Number of buffered chars that triggers a write to the underlying writer
+	private static final int FLUSH_THRESHOLD = 64 * 1024;
 
 	public enum ConfigurationKey {
 		/**
@@ -138,15 +150,29 @@ public final class DotSerializer {
 		/**
 		 * The min edge weight to use for the least traveled path.
 		 */
-		MinEdgeWeight
+		MinEdgeWeight,
+		/**
+		 * Collapse chains of nodes, where each node always calls the next one and is the only
+		 * caller of it, into a single node. [true|false]
+		 */
+		CollapseChains,
+		/**
+		 * Merge the leaf callees of a node that each account for less than this fraction of the
+		 * calls from the node into a single "other" node, e.g. 0.01.
+		 */
+		OtherNodeFraction,
+		/**
+		 * Name the nodes after their frames instead of after their ids in the model, so that a
+		 * frame keeps its name when the graph is rendered for another selection. Edges are then
+		 * also given ids. [true|false]
+		 */
+		StableNodeNames
 	}
 
 	private final static class NodeConfigurator {
 		private static final String COUNT = DEFAULT_NODE_SIZE_ATTRIBUTE;
 		private final String shape;
 		private final boolean useCount;
-		private final double minCount;
-		private final double maxCount;
 		private final double minRange;
 		private final double maxRange;
 		private final int minFontSize;
@@ -154,18 +180,17 @@ public final class DotSerializer {
 		private final String color;
 		private final String fillColor;
 
-		public NodeConfigurator(StacktraceGraphModel model, Map<ConfigurationKey, String> configuration) {
+		public NodeConfigurator(RenderedGraph graph, Map<ConfigurationKey, String> configuration) {
 			useCount = getConf(configuration, ConfigurationKey.NodeSizeAttribute, COUNT).equals(COUNT);
-			minCount = model.findNodeMinCount();
-			maxCount = model.findNodeMaxCount();
-
-			if (useCount) {
-				maxRange = maxCount;
-				minRange = minCount;
-			} else {
-				maxRange = model.findNodeMaxWeight();
-				minRange = model.findNodeMinWeight();
+			double min = Double.MAX_VALUE;
+			double max = 0.0d;
+			for (RenderedNode node : graph.nodes) {
+				double value = useCount ? node.count : node.weight;
+				min = Math.min(value, min);
+				max = Math.max(value, max);
 			}
+			minRange = min;
+			maxRange = max;
 			maxFontSize = Integer
 					.parseInt(getConf(configuration, ConfigurationKey.MaxNodeFontSize, DEFAULT_MAX_NODE_FONT_SIZE));
 			minFontSize = Integer
@@ -175,8 +200,8 @@ public final class DotSerializer {
 			fillColor = getConf(configuration, ConfigurationKey.NodeFillColor, "#eddbd5");
 		}
 
-		public int getFontSize(Node node) {
-			double value = useCount ? node.getCount() : node.getWeight();
+		public int getFontSize(RenderedNode node) {
+			double value = useCount ? node.count : node.weight;
 			double fraction = (value - minRange) / (maxRange - minRange);
 			return (int) Math.round((maxFontSize - minFontSize) * fraction + minFontSize);
 		}
@@ -186,24 +211,31 @@ public final class DotSerializer {
 		private final boolean useCount;
 		private final double minWeight;
 		private final double maxWeight;
-		private final int minCount;
 		private final int maxCount;
 		private final double minRange;
 		private final double maxRange;
 		private final String style;
 
-		public EdgeConfigurator(StacktraceGraphModel model, Map<ConfigurationKey, String> configuration) {
+		public EdgeConfigurator(RenderedGraph graph, Map<ConfigurationKey, String> configuration) {
 			useCount = getConf(configuration, ConfigurationKey.NodeSizeAttribute, DEFAULT_NODE_SIZE_ATTRIBUTE)
 					.equals(DEFAULT_NODE_SIZE_ATTRIBUTE);
-			minCount = model.findEdgeMinCount();
-			maxCount = model.findEdgeMaxCount();
-
+			int minCount = Integer.MAX_VALUE;
+			int maxCount = 0;
+			double minValue = Double.MAX_VALUE;
+			double maxValue = 0.0d;
+			for (RenderedEdge edge : graph.edges) {
+				minCount = Math.min(edge.count, minCount);
+				maxCount = Math.max(edge.count, maxCount);
+				minValue = Math.min(edge.value, minValue);
+				maxValue = Math.max(edge.value, maxValue);
+			}
+			this.maxCount = maxCount;
 			if (useCount) {
 				minRange = minCount;
 				maxRange = maxCount;
 			} else {
-				minRange = model.findEdgeMinValue();
-				maxRange = model.findEdgeMaxValue();
+				minRange = minValue;
+				maxRange = maxValue;
 			}
 
 			minWeight = Integer
@@ -213,17 +245,16 @@ public final class DotSerializer {
 			style = getConf(configuration, ConfigurationKey.EdgeStyle, DEFAULT_EDGE_STYLE);
 		}
 
-		public String generateTooltip(Edge e) {
-			return e.getFrom().getFrame().getHumanReadableSeparatorSensitiveString() + " -> "
-					+ e.getTo().getFrame().getHumanReadableSeparatorSensitiveString() + " (" + getPercentage(e) + " %)";
+		public String generateTooltip(RenderedEdge e) {
+			return e.from.lastFrame + " -> " + e.to.firstFrame + " (" + getPercentage(e) + " %)";
 		}
 
-		private String getPercentage(Edge e) {
+		private String getPercentage(RenderedEdge e) {
 			double val = 0;
 			if (useCount) {
-				val = ((double) e.getCount()) / maxCount;
+				val = ((double) e.count) / maxCount;
 			} else {
-				val = e.getValue() / maxRange;
+				val = e.value / maxRange;
 			}
 			return String.format("%.3f", val);
 		}
@@ -231,26 +262,25 @@ public final class DotSerializer {
 		/**
 		 * This is the weight for the edge, not the edge value.
 		 */
-		public int getWeight(Edge edge) {
-			double value = useCount ? edge.getCount() : edge.getValue();
+		public int getWeight(RenderedEdge edge) {
+			double value = useCount ? edge.count : edge.value;
 			double fraction = (value - minRange) / (maxRange - minRange);
 			return (int) Math.round((maxWeight - minWeight) * fraction + minWeight);
 		}
 
-		public boolean isMax(Edge edge) {
+		public boolean isMax(RenderedEdge edge) {
 			if (useCount) {
-				return edge.getCount() == maxCount;
+				return edge.count == maxCount;
 			} else {
-				return edge.getValue() == maxRange;
+				return edge.value == maxRange;
 			}
 		}
 
-		public String getColor(Edge edge) {
+		public String getColor(RenderedEdge edge) {
 			// if weight == 0, then have as gray as possible,
 			// if weight == MAX_WEIGHT, keep it red.
-			// TODO Auto-generated method stub
 			int color = 0xb2 << 16;
-			double value = useCount ? edge.getCount() : edge.getValue();
+			double value = useCount ? edge.count : edge.value;
 			double fraction = (value - minRange) / (maxRange - minRange);
 			int colorval = (int) ((1 - fraction) * 0xb2);
 			color = color | (colorval << 8) | colorval;
@@ -258,25 +288,280 @@ public final class DotSerializer {
 		}
 	}
 
+	/**
+	 * A node as rendered. Usually a single node of the model, but it can also be a collapsed chain
+	 * of nodes or the merged callees of a node.
+	 */
+	private final static class RenderedNode {
+		private String name;
+		private String id;
+		private String firstFrame;
+		private String lastFrame;
+		private int frameCount = 1;
+		private boolean isOther;
+		private int count;
+		private double weight;
+		private final List<RenderedEdge> in = new ArrayList<>();
+		private final List<RenderedEdge> out = new ArrayList<>();
+
+		String getLabel() {
+			if (isOther) {
+				return String.format("Other (%d frames)", frameCount);
+			} else if (frameCount == 1) {
+				return firstFrame;
+			} else if (frameCount == 2) {
+				return firstFrame + "\\n" + lastFrame;
+			}
+			return firstFrame + "\\n(" + (frameCount - 2) + " more frames)\\n" + lastFrame;
+		}
+
+		String getDescription() {
+			if (isOther) {
+				return String.format("Other (%d frames)", frameCount);
+			} else if (frameCount == 1) {
+				return firstFrame;
+			}
+			return firstFrame + " ... " + lastFrame;
+		}
+	}
+
+	private final static class RenderedEdge {
+		private final RenderedNode from;
+		private final RenderedNode to;
+		private int count;
+		private double value;
+
+		RenderedEdge(RenderedNode from, RenderedNode to) {
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	/**
+	 * The graph to render, built from the model and reduced as requested by the configuration.
+	 */
+	private final static class RenderedGraph {
+		private final List<RenderedNode> nodes = new ArrayList<>();
+		private final List<RenderedEdge> edges = new ArrayList<>();
+
+		RenderedGraph(StacktraceGraphModel model, Map<ConfigurationKey, String> configuration) {
+			boolean collapseChains = Boolean.valueOf(getConf(configuration, ConfigurationKey.CollapseChains, "false"));
+			boolean stableNames = Boolean.valueOf(getConf(configuration, ConfigurationKey.StableNodeNames, "false"));
+			Collection<Edge> modelEdges = model.getEdges();
+			Map<Node, Node> chainNext = collapseChains ? findChainLinks(model, modelEdges) : Collections.emptyMap();
+			Set<Node> chainSuccessors = new HashSet<>(chainNext.values());
+
+			Map<Node, RenderedNode> renderedByNode = new HashMap<>();
+			Map<String, Integer> usedKeys = new HashMap<>();
+			for (Node node : model.getNodes()) {
+				if (chainSuccessors.contains(node)) {
+					// Rendered together with the head of its chain
+					continue;
+				}
+				RenderedNode rendered = createNode(node, stableNames, usedKeys);
+				renderedByNode.put(node, rendered);
+				Node current = node;
+				while (chainNext.containsKey(current)) {
+					current = chainNext.get(current);
+					renderedByNode.put(current, rendered);
+					rendered.lastFrame = current.getFrame().getHumanReadableSeparatorSensitiveString();
+					rendered.frameCount++;
+				}
+				// Only the last node of a chain can be a top frame
+				rendered.count = current.getCount();
+				rendered.weight = current.getWeight();
+			}
+			// Chains closing on themselves have no head, their nodes are rendered one by one
+			for (Node node : model.getNodes()) {
+				if (!renderedByNode.containsKey(node)) {
+					renderedByNode.put(node, createNode(node, stableNames, usedKeys));
+				}
+			}
+
+			for (Edge edge : modelEdges) {
+				RenderedNode from = renderedByNode.get(edge.getFrom());
+				RenderedNode to = renderedByNode.get(edge.getTo());
+				if (from == to && chainNext.get(edge.getFrom()) == edge.getTo()) {
+					continue;
+				}
+				RenderedEdge rendered = new RenderedEdge(from, to);
+				rendered.count = edge.getCount();
+				rendered.value = edge.getValue();
+				rendered.from.out.add(rendered);
+				rendered.to.in.add(rendered);
+				edges.add(rendered);
+			}
+
+			String otherFraction = getConf(configuration, ConfigurationKey.OtherNodeFraction, null);
+			if (otherFraction != null) {
+				boolean useCount = getConf(configuration, ConfigurationKey.NodeSizeAttribute,
+						DEFAULT_NODE_SIZE_ATTRIBUTE).equals(DEFAULT_NODE_SIZE_ATTRIBUTE);
+				mergeMinorCallees(Double.parseDouble(otherFraction), useCount);
+			}
+		}
+
+		private RenderedNode createNode(Node node, boolean stableNames, Map<String, Integer> usedKeys) {
+			RenderedNode rendered = new RenderedNode();
+			String frame = node.getFrame().getHumanReadableSeparatorSensitiveString();
+			rendered.firstFrame = frame;
+			rendered.lastFrame = frame;
+			String key = stableNames ? uniqueKey(Integer.toHexString(frame.hashCode()), usedKeys)
+					: String.valueOf(node.getNodeId());
+			rendered.name = "N" + key;
+			rendered.id = "node" + key;
+			rendered.count = node.getCount();
+			rendered.weight = node.getWeight();
+			nodes.add(rendered);
+			return rendered;
+		}
+
+		/**
+		 * Finds the links that can be collapsed: from a node that is never a top frame and always
+		 * calls the same node, to a node that is only called from that node.
+		 */
+		private static Map<Node, Node> findChainLinks(StacktraceGraphModel model, Collection<Edge> modelEdges) {
+			Map<Node, Integer> inDegree = new HashMap<>();
+			Map<Node, Integer> outDegree = new HashMap<>();
+			Map<Node, Node> successor = new HashMap<>();
+			for (Edge edge : modelEdges) {
+				inDegree.merge(edge.getTo(), 1, Integer::sum);
+				outDegree.merge(edge.getFrom(), 1, Integer::sum);
+				successor.put(edge.getFrom(), edge.getTo());
+			}
+			Map<Node, Node> links = new HashMap<>();
+			for (Node node : model.getNodes()) {
+				Node next = successor.get(node);
+				if (node.getCount() == 0 && outDegree.getOrDefault(node, 0) == 1 && next != node
+						&& inDegree.getOrDefault(next, 0) == 1) {
+					links.put(node, next);
+				}
+			}
+			return links;
+		}
+
+		/**
+		 * Replaces the leaf callees of a node that each account for less than the given fraction of
+		 * the calls from that node with a single "other" node.
+		 */
+		private void mergeMinorCallees(double fraction, boolean useCount) {
+			Set<RenderedNode> mergedNodes = new HashSet<>();
+			Set<RenderedEdge> mergedEdges = new HashSet<>();
+			List<RenderedNode> others = new ArrayList<>();
+			for (RenderedNode caller : nodes) {
+				double total = 0;
+				for (RenderedEdge edge : caller.out) {
+					total += useCount ? edge.count : edge.value;
+				}
+				List<RenderedEdge> minor = new ArrayList<>();
+				for (RenderedEdge edge : caller.out) {
+					double value = useCount ? edge.count : edge.value;
+					if (edge.to != caller && edge.to.out.isEmpty() && edge.to.in.size() == 1
+							&& value < total * fraction) {
+						minor.add(edge);
+					}
+				}
+				if (minor.size() < 2) {
+					continue;
+				}
+				RenderedNode other = new RenderedNode();
+				other.isOther = true;
+				other.frameCount = 0;
+				other.name = caller.name + "_other";
+				other.id = caller.id + "_other";
+				RenderedEdge otherEdge = new RenderedEdge(caller, other);
+				for (RenderedEdge edge : minor) {
+					other.frameCount += edge.to.frameCount;
+					other.count += edge.to.count;
+					other.weight += edge.to.weight;
+					otherEdge.count += edge.count;
+					otherEdge.value += edge.value;
+					mergedNodes.add(edge.to);
+					mergedEdges.add(edge);
+				}
+				caller.out.removeAll(minor);
+				other.firstFrame = other.getDescription();
+				other.lastFrame = other.firstFrame;
+				caller.out.add(otherEdge);
+				other.in.add(otherEdge);
+				others.add(other);
+				edges.add(otherEdge);
+			}
+			nodes.removeIf(mergedNodes::contains);
+			edges.removeIf(mergedEdges::contains);
+			nodes.addAll(others);
+		}
+
+		private static String uniqueKey(String key, Map<String, Integer> usedKeys) {
+			Integer uses = usedKeys.merge(key, 1, Integer::sum);
+			return uses == 1 ? key : key + "_" + uses;
+		}
+	}
+
 	/**
 	 * Renders a {@link StacktraceGraphModel} in DOT format.
 	 */
 	public static String toDot(
 		StacktraceGraphModel model, int maxNodesRendered, Map<ConfigurationKey, String> configuration) {
+		StringWriter writer = new StringWriter();
+		try {
+			toDot(model, maxNodesRendered, configuration, writer);
+		} catch (IOException e) {
+			// Never thrown by a StringWriter
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Renders a {@link StacktraceGraphModel} in DOT format. The output is handed to the writer in
+	 * parts while the nodes and edges are rendered, so the complete document is never held in
+	 * memory.
+	 *
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toDot(
+		StacktraceGraphModel model, int maxNodesRendered, Map<ConfigurationKey, String> configuration, Writer writer)
+			throws IOException {
+		toDot(model, maxNodesRendered, configuration, writer, () -> false);
+	}
+
+	/**
+	 * Renders a {@link StacktraceGraphModel} in DOT format. The output is handed to the writer in
+	 * parts while the nodes and edges are rendered, so the complete document is never held in
+	 * memory.
+	 *
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each node and edge, rendering stops when it returns {@code true}
+	 * @return {@code true} if the whole graph was written, {@code false} if rendering was stopped
+	 *         and the output is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean toDot(
+		StacktraceGraphModel model, int maxNodesRendered, Map<ConfigurationKey, String> configuration, Writer writer,
+		BooleanSupplier stopFlag) throws IOException {
 		StringBuilder builder = new StringBuilder(2048);
 		String graphName = getConf(configuration, ConfigurationKey.Name, DEFAULT_NAME);
 		builder.append(String.format("digraph \"%s\" {%n", graphName));
-		int nodeCount = model.getNodes().size();
+		RenderedGraph graph = new RenderedGraph(model, configuration);
+		int nodeCount = graph.nodes.size();
 		if (nodeCount > maxNodesRendered) {
 			String message = String.format("Too many nodes in current selection%n(max: %d, actual: %d)",
 					maxNodesRendered, nodeCount);
 			emitMessage(builder, message, configuration);
 			builder.append("}");
-			return builder.toString();
+			writeAll(builder, writer);
+			return true;
 		} else if (nodeCount == 0) {
 			emitEmptyMessage(builder, "No graph data in current selection", configuration);
 			builder.append("}");
-			return builder.toString();
+			writeAll(builder, writer);
+			return true;
 		}
 		createDefaultNodeSettingsEntry(builder, configuration);
 		if (Boolean.valueOf(getConf(configuration, ConfigurationKey.TitleArea, "false"))) {
@@ -284,15 +569,41 @@ public final class DotSerializer {
 		}
 
 		// Convert Nodes
-		NodeConfigurator nodeConfigurator = new NodeConfigurator(model, configuration);
-		model.getNodes().forEach((node) -> emitNode(builder, model, nodeConfigurator, node));
+		NodeConfigurator nodeConfigurator = new NodeConfigurator(graph, configuration);
+		for (RenderedNode node : graph.nodes) {
+			if (stopFlag.getAsBoolean()) {
+				return false;
+			}
+			emitNode(builder, model, nodeConfigurator, node);
+			writeIfFull(builder, writer);
+		}
 
 		// Convert Edges
-		EdgeConfigurator edgeConfigurator = new EdgeConfigurator(model, configuration);
-		model.getEdges().forEach((edge) -> emitEdge(builder, model, edgeConfigurator, edge));
+		EdgeConfigurator edgeConfigurator = new EdgeConfigurator(graph, configuration);
+		boolean edgeIds = Boolean.valueOf(getConf(configuration, ConfigurationKey.StableNodeNames, "false"));
+		for (RenderedEdge edge : graph.edges) {
+			if (stopFlag.getAsBoolean()) {
+				return false;
+			}
+			emitEdge(builder, edgeConfigurator, edge, edgeIds);
+			writeIfFull(builder, writer);
+		}
 
 		builder.append("}");
-		return builder.toString();
+		writeAll(builder, writer);
+		return true;
+	}
+
+	private static void writeIfFull(StringBuilder builder, Writer writer) throws IOException {
+		if (builder.length() >= FLUSH_THRESHOLD) {
+			writer.append(builder);
+			builder.setLength(0);
+		}
+	}
+
+	private static void writeAll(StringBuilder builder, Writer writer) throws IOException {
+		writer.append(builder);
+		writer.flush();
 	}
 
 	private static void createDefaultNodeSettingsEntry(
@@ -307,18 +618,24 @@ public final class DotSerializer {
 	}
 
 	private static void emitEdge(
-		StringBuilder builder, StacktraceGraphModel model, EdgeConfigurator edgeConfigurator, Edge edge) {
-		builder.append("N");
-		builder.append(edge.getFrom().getNodeId());
-		builder.append(" -> N");
-		builder.append(edge.getTo().getNodeId());
+		StringBuilder builder, EdgeConfigurator edgeConfigurator, RenderedEdge edge, boolean withId) {
+		builder.append(edge.from.name);
+		builder.append(" -> ");
+		builder.append(edge.to.name);
 		builder.append(" [label=\"");
 		if (edgeConfigurator.useCount) {
-			builder.append(edge.getCount());
+			builder.append(edge.count);
 		} else {
-			builder.append(edge.getValue());
+			builder.append(edge.value);
 		}
 		builder.append("\"");
+		if (withId) {
+			builder.append(" id=\"edge_");
+			builder.append(edge.from.name);
+			builder.append("_");
+			builder.append(edge.to.name);
+			builder.append("\"");
+		}
 		int weight = edgeConfigurator.getWeight(edge);
 		if (weight >= 2) {
 			builder.append(" weight=");
@@ -338,24 +655,23 @@ public final class DotSerializer {
 	}
 
 	private static void emitNode(
-		StringBuilder builder, StacktraceGraphModel model, NodeConfigurator configurator, Node node) {
-		String percentOfSamples = String.format("%.3f %%", node.getCount() * 100.0 / model.getTotalTraceCount());
-		builder.append("N");
-		builder.append(node.getNodeId());
+		StringBuilder builder, StacktraceGraphModel model, NodeConfigurator configurator, RenderedNode node) {
+		String percentOfSamples = String.format("%.3f %%", node.count * 100.0 / model.getTotalTraceCount());
+		builder.append(node.name);
 		builder.append(" [label=\"");
-		builder.append(node.getFrame().getHumanReadableSeparatorSensitiveString());
+		builder.append(node.getLabel());
 		builder.append("\\nSamples: ");
-		builder.append(node.getCount());
+		builder.append(node.count);
 		builder.append(" (");
 		builder.append(percentOfSamples);
-		builder.append(")\" id=\"node");
-		builder.append(node.getNodeId());
+		builder.append(")\" id=\"");
+		builder.append(node.id);
 		builder.append("\" fontsize=");
 		builder.append(configurator.getFontSize(node));
 		builder.append(" shape=");
 		builder.append(configurator.shape);
 		builder.append(" tooltip=\"");
-		builder.append(node.getFrame().getHumanReadableSeparatorSensitiveString());
+		builder.append(node.getDescription());
 		builder.append(" (");
 		builder.append(percentOfSamples);
 		builder.append(" %)\" color=\"");
@@ -467,6 +783,9 @@ public final class DotSerializer {
 		StacktraceGraphModel model = new StacktraceGraphModel(frameSeparator, filteredItems, null);
 		Map<ConfigurationKey, String> configuration = getDefaultConfiguration();
 		configuration.put(ConfigurationKey.Name, jfrFile.getName());
-		System.out.println(toDot(model, 1000, configuration));
+		Writer out = new OutputStreamWriter(System.out);
+		toDot(model, 1000, configuration, out);
+		out.write(System.lineSeparator());
+		out.flush();
 	}
 }
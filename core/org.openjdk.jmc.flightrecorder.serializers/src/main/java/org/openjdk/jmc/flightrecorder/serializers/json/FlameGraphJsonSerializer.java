@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2020, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -49,10 +49,14 @@ import static org.openjdk.jmc.flightrecorder.stacktrace.Messages.STACKTRACE_UNCL
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import org.openjdk.jmc.common.IMCFrame;
@@ -80,6 +84,8 @@ public class FlameGraphJsonSerializer {
 	private static final String UNCLASSIFIABLE_FRAME_DESC = Messages.getString(STACKTRACE_UNCLASSIFIABLE_FRAME_DESC);
 	private final static int MAX_TYPES_IN_ROOT_TITLE = 2;
 	private final static int MAX_TYPES_IN_ROOT_DESCRIPTION = 10;
+	// Number of buffered chars that triggers a write to the underlying writer
+	private final static int FLUSH_THRESHOLD = 64 * 1024;
 
 	/**
 	 * Serializes a {@link StacktraceTreeModel} to JSON.
@@ -89,11 +95,63 @@ public class FlameGraphJsonSerializer {
 	 * @return a String containing the serialized model.
 	 */
 	public static String toJson(StacktraceTreeModel model) {
-		return toJson(model, model.getRoot());
+		StringWriter writer = new StringWriter();
+		try {
+			toJson(model, writer);
+		} catch (IOException e) {
+			// Never thrown by a StringWriter
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Serializes a {@link StacktraceTreeModel} to JSON. The output is handed to the writer in parts
+	 * while the tree is traversed, so the complete document is never held in memory.
+	 *
+	 * @param model
+	 *            the {@link StacktraceTreeModel} to serialize to JSON.
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toJson(StacktraceTreeModel model, Writer writer) throws IOException {
+		toJson(model, writer, () -> false);
 	}
 
-	private static String toJson(StacktraceTreeModel model, Node node) {
+	/**
+	 * Serializes a {@link StacktraceTreeModel} to JSON. The output is handed to the writer in parts
+	 * while the tree is traversed, so the complete document is never held in memory.
+	 *
+	 * @param model
+	 *            the {@link StacktraceTreeModel} to serialize to JSON.
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each node, serialization stops when it returns {@code true}
+	 * @return {@code true} if the whole tree was written, {@code false} if serialization was
+	 *         stopped and the output is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean toJson(StacktraceTreeModel model, Writer writer, BooleanSupplier stopFlag)
+			throws IOException {
 		StringBuilder sb = new StringBuilder();
+		if (!toJson(model, model.getRoot(), sb, writer, stopFlag)) {
+			return false;
+		}
+		writer.append(sb);
+		writer.flush();
+		return true;
+	}
+
+	private static boolean toJson(
+		StacktraceTreeModel model, Node node, StringBuilder sb, Writer writer, BooleanSupplier stopFlag)
+			throws IOException {
+		if (stopFlag.getAsBoolean()) {
+			return false;
+		}
 		sb.append("{");
 		if (node.isRoot()) {
 			sb.append(createRootNodeJson(model));
@@ -107,11 +165,17 @@ public class FlameGraphJsonSerializer {
 			if (!first) {
 				sb.append(",");
 			}
-			sb.append(toJson(model, child));
+			if (!toJson(model, child, sb, writer, stopFlag)) {
+				return false;
+			}
 			first = false;
 		}
 		sb.append("]").append("}");
-		return sb.toString();
+		if (sb.length() >= FLUSH_THRESHOLD) {
+			writer.append(sb);
+			sb.setLength(0);
+		}
+		return true;
 	}
 
 	private static String createNodeJsonProps(AggregatableFrame frame, double value) {
@@ -272,6 +336,9 @@ public class FlameGraphJsonSerializer {
 		IItemCollection filteredItems = items.apply(JdkFilters.EXECUTION_SAMPLE);
 		FrameSeparator frameSeparator = new FrameSeparator(FrameCategorization.METHOD, false);
 		StacktraceTreeModel model = new StacktraceTreeModel(filteredItems, frameSeparator);
-		System.out.println(toJson(model));
+		Writer out = new OutputStreamWriter(System.out);
+		toJson(model, out);
+		out.write(System.lineSeparator());
+		out.flush();
 	}
 }
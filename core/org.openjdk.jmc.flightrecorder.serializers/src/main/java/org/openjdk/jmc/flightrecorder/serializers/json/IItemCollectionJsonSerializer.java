@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -62,20 +62,30 @@ public class IItemCollectionJsonSerializer extends JsonWriter {
 
 	public static String toJsonString(IItemCollection items) {
 		StringWriter sw = new StringWriter();
-		IItemCollectionJsonSerializer marshaller = new IItemCollectionJsonSerializer(sw);
 		try {
-			marshaller.writeRecording(items);
+			toJson(items, sw);
 		} catch (IOException e) {
 			LOGGER.log(Level.SEVERE, "Failed to serialize recording to JSON", e);
 		}
 		return sw.getBuffer().toString();
 	}
 
+	/**
+	 * Serializes the events in a collection to a JSON string.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param stopFlag
+	 *            checked before each event, serialization stops when it returns {@code true}
+	 * @return the JSON text, or an empty string if serialization was stopped. Incomplete JSON is
+	 *         never returned.
+	 */
 	public static String toJsonString(IItemCollection items, BooleanSupplier stopFlag) {
 		StringWriter sw = new StringWriter();
-		IItemCollectionJsonSerializer marshaller = new IItemCollectionJsonSerializer(sw);
 		try {
-			marshaller.writeRecording(items, stopFlag);
+			if (!toJson(items, sw, stopFlag)) {
+				return "";
+			}
 		} catch (IOException e) {
 			LOGGER.log(Level.SEVERE, "Failed to serialize recording to JSON", e);
 		}
@@ -84,57 +94,90 @@ public class IItemCollectionJsonSerializer extends JsonWriter {
 
 	public static String toJsonString(Iterable<IItem> items) {
 		StringWriter sw = new StringWriter();
-		IItemCollectionJsonSerializer marshaller = new IItemCollectionJsonSerializer(sw);
 		try {
-			marshaller.writeEvents(items);
+			toJson(items, sw);
 		} catch (IOException e) {
 			LOGGER.log(Level.SEVERE, "Failed to serialize items to JSON", e);
 		}
 		return sw.getBuffer().toString();
 	}
 
-	private IItemCollectionJsonSerializer(Writer w) {
-		super(w);
+	/**
+	 * Writes the events in a collection as JSON. The output is handed to the writer in parts while
+	 * the events are serialized, so the complete document is never held in memory.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toJson(IItemCollection items, Writer writer) throws IOException {
+		toJson(items, writer, () -> false);
 	}
 
-	private void writeRecording(IItemCollection recording) throws IOException {
-		writeObjectBegin();
-		nextField(true, "events");
-		writeArrayBegin();
-		int count = 0;
-		for (IItemIterable events : recording) {
-			for (IItem event : events) {
-				nextElement(count == 0);
-				writeEvent(event);
-				count++;
-			}
-		}
-		writeArrayEnd();
-		writeObjectEnd();
-		flush();
+	/**
+	 * Writes the events in a collection as JSON. The output is handed to the writer in parts while
+	 * the events are serialized, so the complete document is never held in memory.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each event, serialization stops when it returns {@code true}
+	 * @return {@code true} if all events were written, {@code false} if serialization was stopped
+	 *         and the output is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean toJson(IItemCollection items, Writer writer, BooleanSupplier stopFlag) throws IOException {
+		return new IItemCollectionJsonSerializer(writer).writeRecording(items, stopFlag);
+	}
+
+	/**
+	 * Writes events as JSON. The output is handed to the writer in parts while the events are
+	 * serialized, so the complete document is never held in memory.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toJson(Iterable<IItem> items, Writer writer) throws IOException {
+		new IItemCollectionJsonSerializer(writer).writeEvents(items);
+	}
+
+	private IItemCollectionJsonSerializer(Writer w) {
+		super(w);
 	}
 
-	private void writeRecording(IItemCollection recording, BooleanSupplier stopFlag) throws IOException {
+	private boolean writeRecording(IItemCollection recording, BooleanSupplier stopFlag) throws IOException {
 		writeObjectBegin();
 		nextField(true, "events");
 		writeArrayBegin();
 		int count = 0;
 		for (IItemIterable events : recording) {
 			if (stopFlag.getAsBoolean()) {
-				return;
+				return false;
 			}
 			for (IItem event : events) {
 				if (stopFlag.getAsBoolean()) {
-					return;
+					return false;
 				}
 				nextElement(count == 0);
 				writeEvent(event);
+				flushIfFull();
 				count++;
 			}
 		}
 		writeArrayEnd();
 		writeObjectEnd();
 		flush();
+		return true;
 	}
 
 	void writeEvents(Iterable<IItem> events) throws IOException {
@@ -145,6 +188,7 @@ public class IItemCollectionJsonSerializer extends JsonWriter {
 		for (IItem event : events) {
 			nextElement(count == 0);
 			writeEvent(event);
+			flushIfFull();
 			count++;
 		}
 		writeArrayEnd();
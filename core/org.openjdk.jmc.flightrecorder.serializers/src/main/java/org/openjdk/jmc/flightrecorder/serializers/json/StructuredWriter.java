@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -59,6 +59,8 @@ import org.openjdk.jmc.common.util.FormatToolkit;
  */
 abstract class StructuredWriter {
 	private final static String LINE_SEPARATOR = String.format("%n");
+	// Number of buffered chars that triggers a write to the underlying writer in flushIfFull
+	private final static int FLUSH_THRESHOLD = 64 * 1024;
 
 	private final Writer out;
 	private final StringBuilder builder = new StringBuilder(4000);
@@ -141,6 +143,17 @@ abstract class StructuredWriter {
 		builder.setLength(0);
 	}
 
+	/**
+	 * Hands the buffered text over to the writer if the buffer has grown large. Call this between
+	 * larger units of output, such as events, to keep the buffer bounded.
+	 */
+	protected final void flushIfFull() throws IOException {
+		if (builder.length() >= FLUSH_THRESHOLD) {
+			out.write(builder.toString());
+			builder.setLength(0);
+		}
+	}
+
 	public final void writeIndent() {
 		builder.append(indentionArray, 0, indent);
 		column += indent;
@@ -0,0 +1,562 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.pprof;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCMethod;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.item.IAttribute;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+import org.openjdk.jmc.flightrecorder.stacktrace.tree.Node;
+import org.openjdk.jmc.flightrecorder.stacktrace.tree.StacktraceTreeModel;
+
+/**
+ * Serializes stack trace samples to the gzipped protobuf format used by the pprof tool, see
+ * https://github.com/google/pprof/blob/main/proto/profile.proto.
+ * <p>
+ * The profile is written while the samples are processed. Strings, functions and locations are
+ * deduplicated and each one is written once, the first time a sample refers to it.
+ */
+public class PprofSerializer {
+	// Field numbers of the Profile message
+	private static final int PROFILE_SAMPLE_TYPE = 1;
+	private static final int PROFILE_SAMPLE = 2;
+	private static final int PROFILE_LOCATION = 4;
+	private static final int PROFILE_FUNCTION = 5;
+	private static final int PROFILE_STRING_TABLE = 6;
+	private static final int PROFILE_TIME_NANOS = 9;
+	private static final int PROFILE_DURATION_NANOS = 10;
+	private static final int PROFILE_DEFAULT_SAMPLE_TYPE = 14;
+	// Field numbers of the ValueType message
+	private static final int VALUE_TYPE_TYPE = 1;
+	private static final int VALUE_TYPE_UNIT = 2;
+	// Field numbers of the Sample message
+	private static final int SAMPLE_LOCATION_ID = 1;
+	private static final int SAMPLE_VALUE = 2;
+	private static final int SAMPLE_LABEL = 3;
+	// Field numbers of the Label message
+	private static final int LABEL_KEY = 1;
+	private static final int LABEL_STR = 2;
+	// Field numbers of the Location message
+	private static final int LOCATION_ID = 1;
+	private static final int LOCATION_LINE = 4;
+	// Field numbers of the Line message
+	private static final int LINE_FUNCTION_ID = 1;
+	private static final int LINE_LINE = 2;
+	// Field numbers of the Function message
+	private static final int FUNCTION_ID = 1;
+	private static final int FUNCTION_NAME = 2;
+	private static final int FUNCTION_SYSTEM_NAME = 3;
+
+	private static final int WIRE_VARINT = 0;
+	private static final int WIRE_LENGTH_DELIMITED = 2;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// Indices of the values of the samples written by toPprof(IItemCollection, ...)
+	private static final int SAMPLES = 0;
+	private static final int ALLOC_OBJECTS = 1;
+	private static final int ALLOC_SPACE = 2;
+	private static final int CONTENTIONS = 3;
+	private static final int DELAY = 4;
+	private static final String[][] ITEM_SAMPLE_TYPES = {{"samples", "count"}, {"alloc_objects", "count"}, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			{"alloc_space", "bytes"}, {"contentions", "count"}, {"delay", "nanoseconds"}}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+
+	private static final String THREAD_LABEL = "thread"; //$NON-NLS-1$
+	private static final String UNKNOWN_FUNCTION = "[unknown]"; //$NON-NLS-1$
+
+	/**
+	 * Serializes the execution sample, allocation and lock events of a collection to a gzipped
+	 * pprof profile. The profile has the sample types {@code samples}, {@code alloc_objects},
+	 * {@code alloc_space}, {@code contentions} and {@code delay}. Each event becomes one sample,
+	 * labeled with the name of the event thread. Events of other types and events without a stack
+	 * trace are ignored.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param out
+	 *            the stream to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toPprof(IItemCollection items, OutputStream out) throws IOException {
+		toPprof(items, out, () -> false);
+	}
+
+	/**
+	 * Serializes the execution sample, allocation and lock events of a collection to a gzipped
+	 * pprof profile, see {@link #toPprof(IItemCollection, OutputStream)}.
+	 *
+	 * @param items
+	 *            the events to serialize
+	 * @param out
+	 *            the stream to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each event, serialization stops when it returns {@code true}
+	 * @return {@code true} if all events were written, {@code false} if serialization was stopped
+	 *         and the profile is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean toPprof(IItemCollection items, OutputStream out, BooleanSupplier stopFlag)
+			throws IOException {
+		ProfileWriter writer = new ProfileWriter(out);
+		writer.writeSampleTypes(ITEM_SAMPLE_TYPES);
+		boolean completed = writer.writeItems(items, stopFlag);
+		writer.finish();
+		return completed;
+	}
+
+	/**
+	 * Serializes a {@link StacktraceTreeModel} to a gzipped pprof profile. Every node with a weight
+	 * of its own becomes one sample with the stack trace leading to the node. The sample type is
+	 * {@code samples} if the model counts occurrences, or named after the attribute of the model
+	 * otherwise. Weights are rounded to integers.
+	 *
+	 * @param model
+	 *            the model to serialize
+	 * @param out
+	 *            the stream to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toPprof(StacktraceTreeModel model, OutputStream out) throws IOException {
+		toPprof(model, out, () -> false);
+	}
+
+	/**
+	 * Serializes a {@link StacktraceTreeModel} to a gzipped pprof profile, see
+	 * {@link #toPprof(StacktraceTreeModel, OutputStream)}.
+	 *
+	 * @param model
+	 *            the model to serialize
+	 * @param out
+	 *            the stream to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each node, serialization stops when it returns {@code true}
+	 * @return {@code true} if the whole tree was written, {@code false} if serialization was
+	 *         stopped and the profile is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean toPprof(StacktraceTreeModel model, OutputStream out, BooleanSupplier stopFlag)
+			throws IOException {
+		ProfileWriter writer = new ProfileWriter(out);
+		IAttribute<IQuantity> attribute = model.getAttribute();
+		if (attribute == null) {
+			writer.writeSampleTypes(new String[][] {ITEM_SAMPLE_TYPES[SAMPLES]});
+		} else {
+			// The model stores memory in kibibytes
+			String unit = attribute.getContentType() == UnitLookup.MEMORY ? "kilobytes" //$NON-NLS-1$
+					: attribute.getContentType().getIdentifier();
+			writer.writeSampleTypes(new String[][] {{attribute.getIdentifier(), unit}});
+		}
+		boolean completed = writer.writeTree(model.getRoot(), model.isInvertedStacks(), stopFlag);
+		writer.finish();
+		return completed;
+	}
+
+	/**
+	 * Generates a pprof profile for the execution sample, allocation and lock events available in a
+	 * recording.
+	 *
+	 * @param args
+	 *            takes two arguments - the file name of the JFR file to read and the file name of
+	 *            the profile to write.
+	 * @throws IOException
+	 * @throws CouldNotLoadRecordingException
+	 */
+	public static void main(String[] args) throws IOException, CouldNotLoadRecordingException {
+		if (args.length != 2) {
+			System.out.println("Usage: PprofSerializer <jfr file> <pprof file>\n");
+			System.out.println(
+					"Serializes the execution sample, allocation and lock events of a JFR file into a gzipped pprof profile.");
+			System.exit(2);
+		}
+		IItemCollection items = JfrLoaderToolkit.loadEvents(new File(args[0]));
+		try (OutputStream out = new FileOutputStream(args[1])) {
+			toPprof(items, out);
+		}
+	}
+
+	/**
+	 * A growable buffer for encoding one protobuf message.
+	 */
+	private static class Message {
+		private byte[] bytes = new byte[256];
+		private int size;
+
+		void reset() {
+			size = 0;
+		}
+
+		void writeByte(int value) {
+			if (size == bytes.length) {
+				bytes = Arrays.copyOf(bytes, size * 2);
+			}
+			bytes[size++] = (byte) value;
+		}
+
+		void writeVarint(long value) {
+			while ((value & ~0x7FL) != 0) {
+				writeByte((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			writeByte((int) value);
+		}
+
+		void writeVarintField(int field, long value) {
+			// Zero is the default value and does not need to be written
+			if (value != 0) {
+				writeVarint(field << 3 | WIRE_VARINT);
+				writeVarint(value);
+			}
+		}
+
+		void writeMessageField(int field, Message message) {
+			writeVarint(field << 3 | WIRE_LENGTH_DELIMITED);
+			writeVarint(message.size);
+			for (int i = 0; i < message.size; i++) {
+				writeByte(message.bytes[i]);
+			}
+		}
+
+		void writePackedField(int field, long[] values, int count) {
+			int length = 0;
+			for (int i = 0; i < count; i++) {
+				length += varintSize(values[i]);
+			}
+			writeVarint(field << 3 | WIRE_LENGTH_DELIMITED);
+			writeVarint(length);
+			for (int i = 0; i < count; i++) {
+				writeVarint(values[i]);
+			}
+		}
+
+		void writeTo(OutputStream out) throws IOException {
+			out.write(bytes, 0, size);
+		}
+
+		private static int varintSize(long value) {
+			int size = 1;
+			while ((value & ~0x7FL) != 0) {
+				value >>>= 7;
+				size++;
+			}
+			return size;
+		}
+	}
+
+	private static class ProfileWriter {
+		private final OutputStream target;
+		private final GZIPOutputStream gzip;
+		private final OutputStream out;
+		private final Message header = new Message();
+		private final Message message = new Message();
+		private final Message nested = new Message();
+		private final Map<String, Long> strings = new HashMap<>();
+		private final Map<IMCMethod, Long> functions = new HashMap<>();
+		private final Map<IMCFrame, Long> locations = new HashMap<>();
+		private long[] locationIds = new long[64];
+		private long startNanos = Long.MAX_VALUE;
+		private long endNanos = Long.MIN_VALUE;
+
+		ProfileWriter(OutputStream target) throws IOException {
+			this.target = target;
+			gzip = new GZIPOutputStream(target, BUFFER_SIZE);
+			out = new BufferedOutputStream(gzip, BUFFER_SIZE);
+			// The first string in the string table must be the empty string
+			stringId(""); //$NON-NLS-1$
+		}
+
+		void writeSampleTypes(String[][] sampleTypes) throws IOException {
+			for (String[] sampleType : sampleTypes) {
+				message.reset();
+				message.writeVarintField(VALUE_TYPE_TYPE, stringId(sampleType[0]));
+				message.writeVarintField(VALUE_TYPE_UNIT, stringId(sampleType[1]));
+				writeField(PROFILE_SAMPLE_TYPE, message);
+			}
+			header.reset();
+			header.writeVarintField(PROFILE_DEFAULT_SAMPLE_TYPE, stringId(sampleTypes[0][0]));
+			header.writeTo(out);
+		}
+
+		boolean writeItems(IItemCollection items, BooleanSupplier stopFlag) throws IOException {
+			long[] values = new long[ITEM_SAMPLE_TYPES.length];
+			for (IItemIterable iterable : items.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE,
+					JdkTypeIDs.ALLOC_INSIDE_TLAB, JdkTypeIDs.ALLOC_OUTSIDE_TLAB, JdkTypeIDs.OBJ_ALLOC_SAMPLE,
+					JdkTypeIDs.MONITOR_ENTER, JdkTypeIDs.THREAD_PARK))) {
+				IType<IItem> type = iterable.getType();
+				IMemberAccessor<IMCStackTrace, IItem> stackTraceAccessor = JfrAttributes.EVENT_STACKTRACE
+						.getAccessor(type);
+				if (stackTraceAccessor == null) {
+					continue;
+				}
+				IMemberAccessor<IMCThread, IItem> threadAccessor = JfrAttributes.EVENT_THREAD.getAccessor(type);
+				IMemberAccessor<IQuantity, IItem> startAccessor = JfrAttributes.START_TIME.getAccessor(type);
+				IMemberAccessor<IQuantity, IItem> endAccessor = JfrAttributes.END_TIME.getAccessor(type);
+				IMemberAccessor<IQuantity, IItem> valueAccessor = getValueAccessor(type);
+				int valueIndex = getValueIndex(type.getIdentifier());
+				for (IItem item : iterable) {
+					if (stopFlag.getAsBoolean()) {
+						return false;
+					}
+					IMCStackTrace stackTrace = stackTraceAccessor.getMember(item);
+					if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+						continue;
+					}
+					Arrays.fill(values, 0);
+					values[valueIndex] = 1;
+					IQuantity value = valueAccessor != null ? valueAccessor.getMember(item) : null;
+					if (value != null) {
+						values[valueIndex + 1] = value.clampedLongValueIn(
+								valueIndex == CONTENTIONS ? UnitLookup.NANOSECOND : UnitLookup.BYTE);
+					}
+					updateTimeRange(startAccessor != null ? startAccessor.getMember(item) : null,
+							endAccessor != null ? endAccessor.getMember(item) : null);
+					IMCThread thread = threadAccessor != null ? threadAccessor.getMember(item) : null;
+					List<? extends IMCFrame> frames = stackTrace.getFrames();
+					ensureLocationCapacity(frames.size());
+					for (int i = 0; i < frames.size(); i++) {
+						locationIds[i] = locationId(frames.get(i));
+					}
+					writeSample(frames.size(), values, thread != null ? thread.getThreadName() : null);
+				}
+			}
+			return true;
+		}
+
+		private static int getValueIndex(String typeId) {
+			if (JdkTypeIDs.EXECUTION_SAMPLE.equals(typeId)) {
+				return SAMPLES;
+			} else if (JdkTypeIDs.MONITOR_ENTER.equals(typeId) || JdkTypeIDs.THREAD_PARK.equals(typeId)) {
+				return CONTENTIONS;
+			}
+			return ALLOC_OBJECTS;
+		}
+
+		private static IMemberAccessor<IQuantity, IItem> getValueAccessor(IType<IItem> type) {
+			switch (type.getIdentifier()) {
+			case JdkTypeIDs.ALLOC_INSIDE_TLAB:
+			case JdkTypeIDs.ALLOC_OUTSIDE_TLAB:
+				return JdkAttributes.TOTAL_ALLOCATION_SIZE.getAccessor(type);
+			case JdkTypeIDs.OBJ_ALLOC_SAMPLE:
+				return JdkAttributes.SAMPLE_WEIGHT.getAccessor(type);
+			case JdkTypeIDs.MONITOR_ENTER:
+			case JdkTypeIDs.THREAD_PARK:
+				return JfrAttributes.DURATION.getAccessor(type);
+			default:
+				return null;
+			}
+		}
+
+		private void updateTimeRange(IQuantity start, IQuantity end) {
+			if (start != null) {
+				startNanos = Math.min(startNanos, start.clampedLongValueIn(UnitLookup.EPOCH_NS));
+			}
+			if (end != null) {
+				endNanos = Math.max(endNanos, end.clampedLongValueIn(UnitLookup.EPOCH_NS));
+			}
+		}
+
+		boolean writeTree(Node root, boolean invertedStacks, BooleanSupplier stopFlag) throws IOException {
+			return writeNode(root, 0, invertedStacks, new long[1], stopFlag);
+		}
+
+		private boolean writeNode(Node node, int depth, boolean invertedStacks, long[] value, BooleanSupplier stopFlag)
+				throws IOException {
+			if (stopFlag.getAsBoolean()) {
+				return false;
+			}
+			if (!node.isRoot()) {
+				ensureLocationCapacity(depth + 1);
+				locationIds[depth++] = locationId(node.getFrame());
+				value[0] = Math.round(node.getWeight());
+				if (value[0] != 0) {
+					if (!invertedStacks) {
+						// The path from the root starts with the bottom frame, pprof wants the top frame first
+						reverse(locationIds, depth);
+						writeSample(depth, value, null);
+						reverse(locationIds, depth);
+					} else {
+						writeSample(depth, value, null);
+					}
+				}
+			}
+			for (Node child : node.getChildren()) {
+				if (!writeNode(child, depth, invertedStacks, value, stopFlag)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static void reverse(long[] values, int count) {
+			for (int i = 0, j = count - 1; i < j; i++, j--) {
+				long tmp = values[i];
+				values[i] = values[j];
+				values[j] = tmp;
+			}
+		}
+
+		private void ensureLocationCapacity(int capacity) {
+			if (locationIds.length < capacity) {
+				locationIds = Arrays.copyOf(locationIds, Math.max(capacity, locationIds.length * 2));
+			}
+		}
+
+		private void writeSample(int depth, long[] values, String threadName) throws IOException {
+			long threadNameId = threadName != null ? stringId(threadName) : 0;
+			message.reset();
+			message.writePackedField(SAMPLE_LOCATION_ID, locationIds, depth);
+			message.writePackedField(SAMPLE_VALUE, values, values.length);
+			if (threadNameId != 0) {
+				nested.reset();
+				nested.writeVarintField(LABEL_KEY, stringId(THREAD_LABEL));
+				nested.writeVarintField(LABEL_STR, threadNameId);
+				message.writeMessageField(SAMPLE_LABEL, nested);
+			}
+			writeField(PROFILE_SAMPLE, message);
+		}
+
+		private long locationId(IMCFrame frame) throws IOException {
+			Long id = locations.get(frame);
+			if (id == null) {
+				long functionId = functionId(frame.getMethod());
+				id = (long) locations.size() + 1;
+				locations.put(frame, id);
+				nested.reset();
+				nested.writeVarintField(LINE_FUNCTION_ID, functionId);
+				Integer lineNumber = frame.getFrameLineNumber();
+				if (lineNumber != null && lineNumber > 0) {
+					nested.writeVarintField(LINE_LINE, lineNumber);
+				}
+				message.reset();
+				message.writeVarintField(LOCATION_ID, id);
+				message.writeMessageField(LOCATION_LINE, nested);
+				writeField(PROFILE_LOCATION, message);
+			}
+			return id;
+		}
+
+		private long functionId(IMCMethod method) throws IOException {
+			Long id = functions.get(method);
+			if (id == null) {
+				long name;
+				long systemName;
+				if (method == null || method.getType() == null) {
+					name = stringId(UNKNOWN_FUNCTION);
+					systemName = name;
+				} else {
+					String qualifiedName = method.getType().getFullName() + '.' + method.getMethodName();
+					name = stringId(qualifiedName);
+					systemName = method.getFormalDescriptor() != null
+							? stringId(qualifiedName + method.getFormalDescriptor()) : name;
+				}
+				id = (long) functions.size() + 1;
+				functions.put(method, id);
+				message.reset();
+				message.writeVarintField(FUNCTION_ID, id);
+				message.writeVarintField(FUNCTION_NAME, name);
+				message.writeVarintField(FUNCTION_SYSTEM_NAME, systemName);
+				writeField(PROFILE_FUNCTION, message);
+			}
+			return id;
+		}
+
+		private long stringId(String value) throws IOException {
+			Long id = strings.get(value);
+			if (id == null) {
+				id = (long) strings.size();
+				strings.put(value, id);
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeVarint(PROFILE_STRING_TABLE << 3 | WIRE_LENGTH_DELIMITED);
+				writeVarint(bytes.length);
+				out.write(bytes);
+			}
+			return id;
+		}
+
+		private void writeField(int field, Message value) throws IOException {
+			writeVarint(field << 3 | WIRE_LENGTH_DELIMITED);
+			writeVarint(value.size);
+			out.write(value.bytes, 0, value.size);
+		}
+
+		private void writeVarint(long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				out.write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			out.write((int) value);
+		}
+
+		void finish() throws IOException {
+			if (startNanos <= endNanos) {
+				header.reset();
+				header.writeVarintField(PROFILE_TIME_NANOS, startNanos);
+				header.writeVarintField(PROFILE_DURATION_NANOS, endNanos - startNanos);
+				header.writeTo(out);
+			}
+			out.flush();
+			gzip.finish();
+			target.flush();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -33,18 +33,23 @@
  */
 package org.openjdk.jmc.flightrecorder.serializers.stacktraces;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.function.BooleanSupplier;
+
 import org.openjdk.jmc.flightrecorder.stacktrace.tree.AggregatableFrame;
 import org.openjdk.jmc.flightrecorder.stacktrace.tree.Node;
 import org.openjdk.jmc.flightrecorder.stacktrace.tree.StacktraceTreeModel;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Converts a {@link StacktraceTreeModel} to a collapsed format that can be used as input for the
  * flamegraph perl script from https://github.com/brendangregg/FlameGraph repository.
  */
 public class CollapsedSerializer {
+	// Size of the buffer between the serializer and the target writer
+	private static final int BUFFER_SIZE = 64 * 1024;
 
 	/**
 	 * Serializes a {@link StacktraceTreeModel} to collasped format.
@@ -54,22 +59,87 @@ public class CollapsedSerializer {
 	 * @return a String containing the serialized model.
 	 */
 	public static String toCollapsed(StacktraceTreeModel model) {
-		StringBuilder sb = new StringBuilder();
-		List<String> lines = new ArrayList<>();
-		toCollapsed(sb, lines, model, model.getRoot());
-		return String.join("\n", lines);
+		StringWriter writer = new StringWriter();
+		try {
+			toCollapsed(model, writer);
+		} catch (IOException e) {
+			// Never thrown by a StringWriter
+			throw new IllegalStateException(e);
+		}
+		return writer.toString();
 	}
 
-	private static void toCollapsed(StringBuilder sb, List<String> lines, StacktraceTreeModel model, Node node) {
-		if (!node.isRoot()) {
-			appendFrame(sb, node.getFrame(), node.getCumulativeWeight());
-		}
-		if (node.getChildren().isEmpty()) {
-			lines.add(sb.toString() + " " + (int) node.getCumulativeWeight());
-			return;
+	/**
+	 * Serializes a {@link StacktraceTreeModel} to collapsed format, writing one line at a time.
+	 *
+	 * @param model
+	 *            the {@link StacktraceTreeModel} to serialize to collapsed format.
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static void toCollapsed(StacktraceTreeModel model, Writer writer) throws IOException {
+		toCollapsed(model, writer, () -> false);
+	}
+
+	/**
+	 * Serializes a {@link StacktraceTreeModel} to collapsed format, writing one line at a time.
+	 *
+	 * @param model
+	 *            the {@link StacktraceTreeModel} to serialize to collapsed format.
+	 * @param writer
+	 *            the writer to write to, flushed but not closed when done
+	 * @param stopFlag
+	 *            checked before each node, serialization stops when it returns {@code true}
+	 * @return {@code true} if the whole tree was written, {@code false} if serialization was
+	 *         stopped and the output is incomplete
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public static boolean toCollapsed(StacktraceTreeModel model, Writer writer, BooleanSupplier stopFlag)
+			throws IOException {
+		LineWriter lineWriter = new LineWriter(new BufferedWriter(writer, BUFFER_SIZE), stopFlag);
+		boolean completed = lineWriter.write(model.getRoot());
+		lineWriter.out.flush();
+		return completed;
+	}
+
+	private static class LineWriter {
+		private final Writer out;
+		private final BooleanSupplier stopFlag;
+		// The frames of the path to the current node, shared by all lines
+		private final StringBuilder path = new StringBuilder();
+		private boolean firstLine = true;
+
+		LineWriter(Writer out, BooleanSupplier stopFlag) {
+			this.out = out;
+			this.stopFlag = stopFlag;
 		}
-		for (Node child : node.getChildren()) {
-			toCollapsed(new StringBuilder(sb), lines, model, child);
+
+		boolean write(Node node) throws IOException {
+			if (stopFlag.getAsBoolean()) {
+				return false;
+			}
+			int parentLength = path.length();
+			if (!node.isRoot()) {
+				appendFrame(path, node.getFrame(), node.getCumulativeWeight());
+			}
+			if (node.getChildren().isEmpty()) {
+				if (!firstLine) {
+					out.write('\n');
+				}
+				firstLine = false;
+				out.append(path).append(' ').append(String.valueOf((int) node.getCumulativeWeight()));
+			} else {
+				for (Node child : node.getChildren()) {
+					if (!write(child)) {
+						return false;
+					}
+				}
+			}
+			path.setLength(parentLength);
+			return true;
 		}
 	}
 
@@ -0,0 +1,648 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.openjdk.jmc.common.IMCClassLoader;
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCMethod;
+import org.openjdk.jmc.common.IMCModule;
+import org.openjdk.jmc.common.IMCPackage;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.IMCThreadGroup;
+import org.openjdk.jmc.common.IMCType;
+import org.openjdk.jmc.common.unit.ContentType;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.common.util.LabeledIdentifier;
+import org.openjdk.jmc.flightrecorder.internal.util.JfrInternalConstants;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+import org.openjdk.jmc.flightrecorder.parser.IEventSink;
+import org.openjdk.jmc.flightrecorder.parser.IEventSinkFactory;
+import org.openjdk.jmc.flightrecorder.parser.IParserExtension;
+import org.openjdk.jmc.flightrecorder.parser.ValueField;
+import org.openjdk.jmc.flightrecorder.writer.api.Type;
+import org.openjdk.jmc.flightrecorder.writer.api.TypeStructureBuilder;
+import org.openjdk.jmc.flightrecorder.writer.api.TypedFieldBuilder;
+import org.openjdk.jmc.flightrecorder.writer.api.TypedValue;
+import org.openjdk.jmc.flightrecorder.writer.api.TypedValueBuilder;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
+
+/**
+ * Parser extension that re-encodes every parsed event into a {@link RecordingImpl} instead of
+ * collecting it in memory. Used for merging several recordings into one.
+ * <p>
+ * The loader canonicalizes constant pool values across all chunks it reads, so equal stack traces,
+ * methods, classes and threads from different input chunks are the very same instances when they
+ * reach this extension. They are converted once and then written to the single set of constant
+ * pools of the target recording.
+ * <p>
+ * Events may be delivered from several parser threads at once. All access to the target recording
+ * is serialized on it since the writer type system and constant pools are not thread safe.
+ */
+public final class RecordingMergeExtension implements IParserExtension {
+	private static final String EVENT_SUPER_TYPE = "jdk.jfr.Event";
+	private static final String ANNOTATION_DATA_AMOUNT = "jdk.jfr.DataAmount";
+	private static final String ANNOTATION_MEMORY_ADDRESS = "jdk.jfr.MemoryAddress";
+	private static final String ANNOTATION_PERCENTAGE = "jdk.jfr.Percentage";
+	private static final String ANNOTATION_FREQUENCY = "jdk.jfr.Frequency";
+	private static final String JDK9_RECORDING_SETTING = "com.oracle.jdk.ActiveSetting";
+	private static final String RECORDING_SETTING_EVENT_ID = "id";
+
+	private static final Map<IMCFrame.Type, String> FRAME_TYPE_DESCRIPTIONS = new HashMap<>();
+
+	static {
+		// Must match the descriptions recognized by the parser
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.INTERPRETED, "Interpreted");
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.JIT_COMPILED, "JIT compiled");
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.INLINED, "Inlined");
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.NATIVE, "Native");
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.CPP, "C++");
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.KERNEL, "Kernel");
+		FRAME_TYPE_DESCRIPTIONS.put(IMCFrame.Type.UNKNOWN, "Unknown");
+	}
+
+	/**
+	 * How a parsed value is represented in the target recording.
+	 */
+	private enum FieldKind {
+		TIMESTAMP,
+		TIMESPAN,
+		MEMORY,
+		ADDRESS,
+		PERCENTAGE,
+		FREQUENCY,
+		NUMBER,
+		LONG,
+		FLAG,
+		TEXT,
+		STACKTRACE,
+		THREAD,
+		THREAD_GROUP,
+		CLASS,
+		METHOD,
+		CLASS_LOADER,
+		PACKAGE,
+		MODULE,
+		EVENT_TYPE,
+		OTHER;
+
+		static FieldKind of(ContentType<?> contentType) {
+			if (contentType == UnitLookup.TIMESTAMP) {
+				return TIMESTAMP;
+			} else if (contentType == UnitLookup.TIMESPAN) {
+				return TIMESPAN;
+			} else if (contentType == UnitLookup.MEMORY) {
+				return MEMORY;
+			} else if (contentType == UnitLookup.ADDRESS) {
+				return ADDRESS;
+			} else if (contentType == UnitLookup.PERCENTAGE) {
+				return PERCENTAGE;
+			} else if (contentType == UnitLookup.FREQUENCY) {
+				return FREQUENCY;
+			} else if (contentType == UnitLookup.NUMBER) {
+				return NUMBER;
+			} else if (contentType == UnitLookup.RAW_LONG || contentType == UnitLookup.RAW_NUMBER
+					|| contentType == UnitLookup.COUNT || contentType == UnitLookup.INDEX
+					|| contentType == UnitLookup.IDENTIFIER) {
+				return LONG;
+			} else if (contentType == UnitLookup.FLAG) {
+				return FLAG;
+			} else if (contentType == UnitLookup.PLAIN_TEXT) {
+				return TEXT;
+			} else if (contentType == UnitLookup.STACKTRACE) {
+				return STACKTRACE;
+			} else if (contentType == UnitLookup.THREAD) {
+				return THREAD;
+			} else if (contentType == UnitLookup.THREAD_GROUP) {
+				return THREAD_GROUP;
+			} else if (contentType == UnitLookup.CLASS) {
+				return CLASS;
+			} else if (contentType == UnitLookup.METHOD) {
+				return METHOD;
+			} else if (contentType == UnitLookup.CLASS_LOADER) {
+				return CLASS_LOADER;
+			} else if (contentType == UnitLookup.PACKAGE) {
+				return PACKAGE;
+			} else if (contentType == UnitLookup.MODULE) {
+				return MODULE;
+			} else if (contentType == UnitLookup.LABELED_IDENTIFIER) {
+				return EVENT_TYPE;
+			}
+			return OTHER;
+		}
+	}
+
+	private final RecordingImpl recording;
+	private final Types types;
+	private final Map<String, Map<String, FieldKind>> eventTypeFields = new HashMap<>();
+	// Identity is enough here since the loader hands out canonical constant instances
+	private final Map<Object, TypedValue> convertedConstants = new IdentityHashMap<>();
+	private final Map<IMCFrame.Type, TypedValue> frameTypes = new HashMap<>();
+	private final List<Runnable> deferredEvents = new ArrayList<>();
+	private long eventCount;
+	private long nextSyntheticThreadId = -1;
+
+	/**
+	 * @param recording
+	 *            the recording to write the events to, initialized with the JDK types and with its
+	 *            start ticks equal to its start timestamp
+	 */
+	public RecordingMergeExtension(RecordingImpl recording) {
+		this.recording = recording;
+		this.types = recording.getTypes();
+	}
+
+	/**
+	 * @return the number of events written to the target recording so far
+	 */
+	public long getEventCount() {
+		synchronized (recording) {
+			return eventCount;
+		}
+	}
+
+	/**
+	 * @return the number of distinct event types written to the target recording so far
+	 */
+	public int getEventTypeCount() {
+		synchronized (recording) {
+			return eventTypeFields.size();
+		}
+	}
+
+	/**
+	 * Writes the events that refer to other event types, such as the active settings. Must be
+	 * called once all input has been parsed, before the target recording is closed.
+	 */
+	public void finish() {
+		synchronized (recording) {
+			for (Runnable event : deferredEvents) {
+				event.run();
+			}
+			deferredEvents.clear();
+		}
+	}
+
+	@Override
+	public String getValueInterpretation(String eventTypeId, String fieldId) {
+		// Event type ids are chunk local, get the referenced type so it can be mapped to the new id
+		if (RECORDING_SETTING_EVENT_ID.equals(fieldId)
+				&& (JdkTypeIDs.RECORDING_SETTING.equals(eventTypeId) || JDK9_RECORDING_SETTING.equals(eventTypeId))) {
+			return JfrInternalConstants.TYPE_IDENTIFIER_VALUE_INTERPRETATION;
+		}
+		return null;
+	}
+
+	@Override
+	public IEventSinkFactory getEventSinkFactory(IEventSinkFactory subFactory) {
+		return new IEventSinkFactory() {
+
+			@Override
+			public IEventSink create(
+				String identifier, String label, String[] category, String description,
+				List<ValueField> dataStructure) {
+				synchronized (recording) {
+					return createSink(identifier, label, category, description, dataStructure);
+				}
+			}
+
+			@Override
+			public void flush() {
+				// Nothing is collected, everything has already been handed to the recording
+			}
+		};
+	}
+
+	private IEventSink createSink(
+		String identifier, String label, String[] category, String description, List<ValueField> dataStructure) {
+		Map<String, FieldKind> registered = eventTypeFields.get(identifier);
+		Type eventType;
+		if (registered == null) {
+			Map<String, FieldKind> kinds = new HashMap<>();
+			eventType = recording.registerType(identifier, EVENT_SUPER_TYPE, builder -> {
+				annotate(builder, label, description);
+				if (category != null && category.length > 0) {
+					builder.addAnnotation(Types.JDK.ANNOTATION_CATEGORY, v -> v.putField("value", category));
+				}
+				for (ValueField field : dataStructure) {
+					FieldKind kind = FieldKind.of(field.getContentType());
+					kinds.put(field.getIdentifier(), kind);
+					addField(builder, field, kind);
+				}
+			});
+			eventTypeFields.put(identifier, kinds);
+			registered = kinds;
+		} else {
+			// Same event type in another chunk, possibly from another JVM version. Map the fields by
+			// name and drop the ones that are not compatible with the already written definition.
+			eventType = recording.getType(identifier);
+		}
+		String[] fieldNames = new String[dataStructure.size()];
+		FieldKind[] fieldKinds = new FieldKind[dataStructure.size()];
+		boolean refersToEventTypes = false;
+		for (int i = 0; i < fieldNames.length; i++) {
+			ValueField field = dataStructure.get(i);
+			FieldKind kind = FieldKind.of(field.getContentType());
+			if (kind == registered.get(field.getIdentifier())) {
+				fieldNames[i] = field.getIdentifier();
+				fieldKinds[i] = kind;
+				refersToEventTypes |= kind == FieldKind.EVENT_TYPE;
+			}
+		}
+		boolean deferred = refersToEventTypes;
+		return new IEventSink() {
+
+			@Override
+			public void addEvent(Object[] values) {
+				synchronized (recording) {
+					if (deferred) {
+						// The referenced event types may not have been seen yet. The parser reuses the
+						// values array for the next event, so keep a copy.
+						Object[] copy = values.clone();
+						deferredEvents.add(() -> writeEvent(eventType, fieldNames, fieldKinds, copy));
+					} else {
+						writeEvent(eventType, fieldNames, fieldKinds, values);
+					}
+				}
+			}
+		};
+	}
+
+	private void writeEvent(Type eventType, String[] fieldNames, FieldKind[] fieldKinds, Object[] values) {
+		TypedValue event = eventType.asValue(builder -> {
+			for (int i = 0; i < fieldNames.length; i++) {
+				if (fieldNames[i] != null && values[i] != null) {
+					putValue(builder, fieldNames[i], fieldKinds[i], values[i]);
+				}
+			}
+		});
+		recording.writeEvent(event);
+		eventCount++;
+	}
+
+	private void addField(TypeStructureBuilder builder, ValueField field, FieldKind kind) {
+		String name = field.getIdentifier();
+		switch (kind) {
+		case TIMESTAMP:
+			// The merged recording starts its tick counter at the epoch nanos of its start time, with one
+			// tick per nanosecond, so ticks and epoch nanos are the same
+			builder.addField(name, Types.Builtin.LONG,
+					f -> annotate(f, field).addAnnotation(Types.JDK.ANNOTATION_TIMESTAMP, "TICKS"));
+			break;
+		case TIMESPAN:
+			builder.addField(name, Types.Builtin.LONG,
+					f -> annotate(f, field).addAnnotation(Types.JDK.ANNOTATION_TIMESPAN, "NANOSECONDS"));
+			break;
+		case MEMORY:
+			builder.addField(name, Types.Builtin.LONG,
+					f -> annotate(f, field).addAnnotation(annotationType(ANNOTATION_DATA_AMOUNT, true), "BYTES"));
+			break;
+		case ADDRESS:
+			builder.addField(name, Types.Builtin.LONG,
+					f -> annotate(f, field).addAnnotation(annotationType(ANNOTATION_MEMORY_ADDRESS, false)));
+			break;
+		case PERCENTAGE:
+			builder.addField(name, Types.Builtin.DOUBLE,
+					f -> annotate(f, field).addAnnotation(annotationType(ANNOTATION_PERCENTAGE, false)));
+			break;
+		case FREQUENCY:
+			builder.addField(name, Types.Builtin.LONG,
+					f -> annotate(f, field).addAnnotation(annotationType(ANNOTATION_FREQUENCY, false)));
+			break;
+		case NUMBER:
+			builder.addField(name, Types.Builtin.DOUBLE, f -> annotate(f, field));
+			break;
+		case LONG:
+			builder.addField(name, Types.Builtin.LONG, f -> annotate(f, field));
+			break;
+		case FLAG:
+			builder.addField(name, Types.Builtin.BOOLEAN, f -> annotate(f, field));
+			break;
+		case STACKTRACE:
+			builder.addField(name, Types.JDK.STACK_TRACE, f -> annotate(f, field));
+			break;
+		case THREAD:
+			builder.addField(name, Types.JDK.THREAD, f -> annotate(f, field));
+			break;
+		case THREAD_GROUP:
+			builder.addField(name, Types.JDK.THREAD_GROUP, f -> annotate(f, field));
+			break;
+		case CLASS:
+			builder.addField(name, Types.JDK.CLASS, f -> annotate(f, field));
+			break;
+		case METHOD:
+			builder.addField(name, Types.JDK.METHOD, f -> annotate(f, field));
+			break;
+		case CLASS_LOADER:
+			builder.addField(name, Types.JDK.CLASS_LOADER, f -> annotate(f, field));
+			break;
+		case PACKAGE:
+			builder.addField(name, Types.JDK.PACKAGE, f -> annotate(f, field));
+			break;
+		case MODULE:
+			builder.addField(name, Types.JDK.MODULE, f -> annotate(f, field));
+			break;
+		case EVENT_TYPE:
+			builder.addField(name, Types.Builtin.LONG, f -> annotate(f, field));
+			break;
+		default:
+			// Values without a dedicated representation are kept in their textual form
+			builder.addField(name, Types.Builtin.STRING, f -> annotate(f, field));
+			break;
+		}
+	}
+
+	private static TypedFieldBuilder annotate(TypedFieldBuilder builder, ValueField field) {
+		if (field.getName() != null) {
+			builder.addAnnotation(Types.JDK.ANNOTATION_LABEL, field.getName());
+		}
+		if (field.getDescription() != null) {
+			builder.addAnnotation(Types.JDK.ANNOTATION_DESCRIPTION, field.getDescription());
+		}
+		return builder;
+	}
+
+	private static void annotate(TypeStructureBuilder builder, String label, String description) {
+		if (label != null) {
+			builder.addAnnotation(Types.JDK.ANNOTATION_LABEL, label);
+		}
+		if (description != null) {
+			builder.addAnnotation(Types.JDK.ANNOTATION_DESCRIPTION, description);
+		}
+	}
+
+	private Type annotationType(String name, boolean hasValue) {
+		if (hasValue) {
+			return recording.registerAnnotationType(name, builder -> builder.addField("value", Types.Builtin.STRING));
+		}
+		return recording.registerAnnotationType(name);
+	}
+
+	private void putValue(TypedValueBuilder builder, String name, FieldKind kind, Object value) {
+		switch (kind) {
+		case TIMESTAMP:
+			builder.putField(name, ((IQuantity) value).clampedLongValueIn(UnitLookup.EPOCH_NS));
+			break;
+		case TIMESPAN:
+			builder.putField(name, ((IQuantity) value).clampedLongValueIn(UnitLookup.NANOSECOND));
+			break;
+		case MEMORY:
+			builder.putField(name, ((IQuantity) value).clampedLongValueIn(UnitLookup.BYTE));
+			break;
+		case ADDRESS:
+			builder.putField(name, ((IQuantity) value).clampedLongValueIn(UnitLookup.ADDRESS_UNITY));
+			break;
+		case PERCENTAGE:
+			builder.putField(name, ((IQuantity) value).doubleValueIn(UnitLookup.PERCENT_UNITY));
+			break;
+		case FREQUENCY:
+			builder.putField(name, ((IQuantity) value).clampedLongValueIn(UnitLookup.HERTZ));
+			break;
+		case NUMBER:
+			builder.putField(name, ((IQuantity) value).doubleValue());
+			break;
+		case LONG:
+			builder.putField(name,
+					value instanceof IQuantity ? ((IQuantity) value).longValue() : ((Number) value).longValue());
+			break;
+		case FLAG:
+			builder.putField(name, ((Boolean) value).booleanValue());
+			break;
+		case TEXT:
+			builder.putField(name, (String) value);
+			break;
+		case STACKTRACE:
+			builder.putField(name, stackTraceValue((IMCStackTrace) value));
+			break;
+		case THREAD:
+			builder.putField(name, threadValue((IMCThread) value));
+			break;
+		case THREAD_GROUP:
+			builder.putField(name, threadGroupValue((IMCThreadGroup) value));
+			break;
+		case CLASS:
+			builder.putField(name, classValue((IMCType) value));
+			break;
+		case METHOD:
+			builder.putField(name, methodValue((IMCMethod) value));
+			break;
+		case CLASS_LOADER:
+			builder.putField(name, classLoaderValue((IMCClassLoader) value));
+			break;
+		case PACKAGE:
+			builder.putField(name, packageValue((IMCPackage) value));
+			break;
+		case MODULE:
+			builder.putField(name, moduleValue((IMCModule) value));
+			break;
+		case EVENT_TYPE:
+			builder.putField(name, eventTypeId((LabeledIdentifier) value));
+			break;
+		default:
+			builder.putField(name, String.valueOf(value));
+			break;
+		}
+	}
+
+	private long eventTypeId(LabeledIdentifier eventType) {
+		String identifier = eventType.getInterfaceId();
+		if (!eventTypeFields.containsKey(identifier)) {
+			// No events of this type were recorded, register it so that the reference can be resolved
+			recording.registerType(identifier, EVENT_SUPER_TYPE,
+					builder -> annotate(builder, eventType.getName(), eventType.getDescription()));
+			eventTypeFields.put(identifier, new HashMap<>());
+		}
+		return recording.getType(identifier).getId();
+	}
+
+	private TypedValue constant(Object key, Types.JDK type, Consumer<TypedValueBuilder> fields) {
+		TypedValue value = convertedConstants.get(key);
+		if (value == null) {
+			value = types.getType(type).asValue(fields);
+			convertedConstants.put(key, value);
+		}
+		return value;
+	}
+
+	private TypedValue stackTraceValue(IMCStackTrace stackTrace) {
+		return constant(stackTrace, Types.JDK.STACK_TRACE, builder -> {
+			List<TypedValue> frames = new ArrayList<>(stackTrace.getFrames().size());
+			for (IMCFrame frame : stackTrace.getFrames()) {
+				frames.add(frameValue(frame));
+			}
+			builder.putField("truncated", stackTrace.getTruncationState() == IMCStackTrace.TruncationState.TRUNCATED)
+					.putField("frames", frames.toArray(new TypedValue[frames.size()]));
+		});
+	}
+
+	private TypedValue frameValue(IMCFrame frame) {
+		return constant(frame, Types.JDK.STACK_FRAME, builder -> {
+			if (frame.getMethod() != null) {
+				builder.putField("method", methodValue(frame.getMethod()));
+			}
+			if (frame.getFrameLineNumber() != null) {
+				builder.putField("lineNumber", frame.getFrameLineNumber().intValue());
+			}
+			if (frame.getBCI() != null) {
+				builder.putField("bytecodeIndex", frame.getBCI().intValue());
+			}
+			if (frame.getType() != null) {
+				builder.putField("type", frameTypeValue(frame.getType()));
+			}
+		});
+	}
+
+	private TypedValue frameTypeValue(IMCFrame.Type frameType) {
+		TypedValue value = frameTypes.get(frameType);
+		if (value == null) {
+			String description = FRAME_TYPE_DESCRIPTIONS.getOrDefault(frameType, "Unknown");
+			value = types.getType(Types.JDK.FRAME_TYPE).asValue(b -> b.putField("description", description));
+			frameTypes.put(frameType, value);
+		}
+		return value;
+	}
+
+	private TypedValue methodValue(IMCMethod method) {
+		return constant(method, Types.JDK.METHOD, builder -> {
+			if (method.getType() != null) {
+				builder.putField("type", classValue(method.getType()));
+			}
+			if (method.getMethodName() != null) {
+				builder.putField("name", method.getMethodName());
+			}
+			if (method.getFormalDescriptor() != null) {
+				builder.putField("descriptor", method.getFormalDescriptor());
+			}
+			if (method.getModifier() != null) {
+				builder.putField("modifiers", method.getModifier().intValue());
+			}
+			if (method.isHidden() != null) {
+				builder.putField("hidden", method.isHidden().booleanValue());
+			}
+		});
+	}
+
+	private TypedValue classValue(IMCType type) {
+		return constant(type, Types.JDK.CLASS, builder -> {
+			if (type.getFullName() != null) {
+				// Class and package names are stored in internal form in JFR
+				builder.putField("name", type.getFullName().replace('.', '/'));
+			}
+			if (type.getPackage() != null) {
+				builder.putField("package", packageValue(type.getPackage()));
+			}
+			if (type.isHidden() != null) {
+				builder.putField("hidden", type.isHidden().booleanValue());
+			}
+		});
+	}
+
+	private TypedValue packageValue(IMCPackage pkg) {
+		return constant(pkg, Types.JDK.PACKAGE, builder -> {
+			if (pkg.getName() != null) {
+				builder.putField("name", pkg.getName().replace('.', '/'));
+			}
+			if (pkg.getModule() != null) {
+				builder.putField("module", moduleValue(pkg.getModule()));
+			}
+			if (pkg.isExported() != null) {
+				builder.putField("exported", pkg.isExported().booleanValue());
+			}
+		});
+	}
+
+	private TypedValue moduleValue(IMCModule module) {
+		return constant(module, Types.JDK.MODULE, builder -> {
+			if (module.getName() != null) {
+				builder.putField("name", module.getName());
+			}
+			if (module.getVersion() != null) {
+				builder.putField("version", module.getVersion());
+			}
+			if (module.getLocation() != null) {
+				builder.putField("location", module.getLocation());
+			}
+			if (module.getClassLoader() != null) {
+				builder.putField("classLoader", classLoaderValue(module.getClassLoader()));
+			}
+		});
+	}
+
+	private TypedValue classLoaderValue(IMCClassLoader classLoader) {
+		return constant(classLoader, Types.JDK.CLASS_LOADER, builder -> {
+			if (classLoader.getType() != null) {
+				builder.putField("type", classValue(classLoader.getType()));
+			}
+			if (classLoader.getName() != null) {
+				builder.putField("name", classLoader.getName());
+			}
+		});
+	}
+
+	private TypedValue threadValue(IMCThread thread) {
+		return constant(thread, Types.JDK.THREAD, builder -> {
+			if (thread.getThreadName() != null) {
+				builder.putField("javaName", thread.getThreadName());
+			}
+			if (thread.getThreadId() != null) {
+				builder.putField("javaThreadId", thread.getThreadId().longValue());
+			}
+			// The parser identifies threads by their OS thread id, which is not available here. Reuse
+			// the Java thread id and give native threads unique negative ids so they stay distinct.
+			builder.putField("osThreadId",
+					thread.getThreadId() != null ? thread.getThreadId().longValue() : nextSyntheticThreadId--);
+			if (thread.getThreadGroup() != null) {
+				builder.putField("group", threadGroupValue(thread.getThreadGroup()));
+			}
+		});
+	}
+
+	private TypedValue threadGroupValue(IMCThreadGroup group) {
+		return constant(group, Types.JDK.THREAD_GROUP, builder -> {
+			if (group.getName() != null) {
+				builder.putField("name", group.getName());
+			}
+			if (group.getParent() != null) {
+				builder.putField("parent", threadGroupValue(group.getParent()));
+			}
+		});
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -128,7 +128,8 @@ public final class TypesImpl extends Types {
 		});
 		getOrAdd(JDK.THREAD, typeBuilder -> {
 			typeBuilder.addField("osName", getType(Builtin.STRING)).addField("osThreadId", getType(Builtin.LONG))
-					.addField("javaName", getType(Builtin.STRING)).addField("group", threadGroupType);
+					.addField("javaName", getType(Builtin.STRING)).addField("javaThreadId", getType(Builtin.LONG))
+					.addField("group", threadGroupType);
 		});
 		TypeImpl symbol = getOrAdd(JDK.SYMBOL, builder -> {
 			builder.addField("string", Builtin.STRING);
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer.api;
+
+/**
+ * Statistics about a merge performed by {@link RecordingMerger}.
+ */
+public final class MergeStatistics {
+	private final int inputFileCount;
+	private final int chunkCount;
+	private final int duplicateChunkCount;
+	private final long inputBytes;
+	private final long duplicateBytes;
+	private final long outputBytes;
+	private final long eventCount;
+	private final int eventTypeCount;
+
+	MergeStatistics(int inputFileCount, int chunkCount, int duplicateChunkCount, long inputBytes, long duplicateBytes,
+			long outputBytes, long eventCount, int eventTypeCount) {
+		this.inputFileCount = inputFileCount;
+		this.chunkCount = chunkCount;
+		this.duplicateChunkCount = duplicateChunkCount;
+		this.inputBytes = inputBytes;
+		this.duplicateBytes = duplicateBytes;
+		this.outputBytes = outputBytes;
+		this.eventCount = eventCount;
+		this.eventTypeCount = eventTypeCount;
+	}
+
+	/**
+	 * @return the number of recordings that were merged
+	 */
+	public int getInputFileCount() {
+		return inputFileCount;
+	}
+
+	/**
+	 * @return the total number of chunks found in the input recordings, including duplicates
+	 */
+	public int getChunkCount() {
+		return chunkCount;
+	}
+
+	/**
+	 * @return the number of input chunks that were skipped since an identical chunk had already
+	 *         been merged
+	 */
+	public int getDuplicateChunkCount() {
+		return duplicateChunkCount;
+	}
+
+	/**
+	 * @return the total uncompressed size of the input chunks in bytes
+	 */
+	public long getInputBytes() {
+		return inputBytes;
+	}
+
+	/**
+	 * @return the size in bytes of the skipped duplicate chunks
+	 */
+	public long getDuplicateBytes() {
+		return duplicateBytes;
+	}
+
+	/**
+	 * @return the size of the merged recording in bytes
+	 */
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	/**
+	 * @return the number of bytes saved by the merge compared to the uncompressed input, may be
+	 *         negative if the merged recording is larger than the input
+	 */
+	public long getBytesSaved() {
+		return inputBytes - outputBytes;
+	}
+
+	/**
+	 * @return the number of events written to the merged recording
+	 */
+	public long getEventCount() {
+		return eventCount;
+	}
+
+	/**
+	 * @return the number of event types in the merged recording
+	 */
+	public int getEventTypeCount() {
+		return eventTypeCount;
+	}
+
+	@Override
+	public String toString() {
+		return "MergeStatistics [inputFileCount=" + inputFileCount + ", chunkCount=" + chunkCount
+				+ ", duplicateChunkCount=" + duplicateChunkCount + ", inputBytes=" + inputBytes + ", duplicateBytes="
+				+ duplicateBytes + ", outputBytes=" + outputBytes + ", eventCount=" + eventCount + ", eventTypeCount="
+				+ eventTypeCount + "]";
+	}
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.openjdk.jmc.common.io.IOToolkit;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.util.ChunkReader;
+import org.openjdk.jmc.flightrecorder.writer.RecordingImpl;
+import org.openjdk.jmc.flightrecorder.writer.RecordingMergeExtension;
+
+/**
+ * Merges several recordings into a single recording with one set of constant pools.
+ * <p>
+ * Chunks that occur in more than one of the input files, which is common when rotated files from a
+ * continuous recording overlap, are only merged once. Chunks are identified by their start
+ * timestamp, the same way as when loading several files with {@link JfrLoaderToolkit}.
+ * <p>
+ * The input is processed one chunk at a time and events are re-encoded as they are parsed, so the
+ * input recordings are never held in memory as item collections. Stack traces, methods, classes,
+ * threads and the other constants are interned across all input files and written once. Only
+ * recordings in the JDK 9+ file format can be merged.
+ */
+public final class RecordingMerger {
+	private static final byte[] MAGIC = new byte[] {'F', 'L', 'R', '\0'};
+	// Magic, major and minor version, size, constant pool and metadata offsets, start and duration
+	private static final int HEADER_READ_SIZE = 4 + 2 + 2 + 8 + 8 + 8 + 8 + 8;
+
+	private RecordingMerger() {
+		throw new UnsupportedOperationException("Not to be instantiated");
+	}
+
+	private static final class ChunkHeader {
+		final long startNanos;
+		final long durationNanos;
+		final long size;
+
+		ChunkHeader(long startNanos, long durationNanos, long size) {
+			this.startNanos = startNanos;
+			this.durationNanos = durationNanos;
+			this.size = size;
+		}
+	}
+
+	private static final class CountingOutputStream extends FilterOutputStream {
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+
+	/**
+	 * Merges recordings into a new file.
+	 *
+	 * @param recordings
+	 *            the recordings to merge, may be compressed
+	 * @param target
+	 *            the file to write the merged recording to
+	 * @return statistics about the merge
+	 * @throws IOException
+	 *             if the recordings could not be read or the merged recording could not be written
+	 * @throws CouldNotLoadRecordingException
+	 *             if one of the recordings could not be parsed
+	 */
+	public static MergeStatistics merge(List<File> recordings, File target)
+			throws IOException, CouldNotLoadRecordingException {
+		try (OutputStream out = new FileOutputStream(target)) {
+			return merge(recordings, out);
+		}
+	}
+
+	/**
+	 * Merges recordings and writes the result to a stream. The stream is closed when the merged
+	 * recording has been written.
+	 *
+	 * @param recordings
+	 *            the recordings to merge, may be compressed
+	 * @param output
+	 *            the stream to write the merged recording to
+	 * @return statistics about the merge
+	 * @throws IOException
+	 *             if the recordings could not be read or the merged recording could not be written
+	 * @throws CouldNotLoadRecordingException
+	 *             if one of the recordings could not be parsed
+	 */
+	public static MergeStatistics merge(List<File> recordings, OutputStream output)
+			throws IOException, CouldNotLoadRecordingException {
+		// First pass only reads the chunk headers to find duplicates and the total time span
+		List<boolean[]> includedChunks = new ArrayList<>(recordings.size());
+		Set<Long> chunkStarts = new HashSet<>();
+		int chunkCount = 0;
+		int duplicateChunkCount = 0;
+		long inputBytes = 0;
+		long duplicateBytes = 0;
+		long start = Long.MAX_VALUE;
+		long end = Long.MIN_VALUE;
+		for (File recording : recordings) {
+			List<ChunkHeader> headers = readChunkHeaders(recording);
+			boolean[] included = new boolean[headers.size()];
+			for (int i = 0; i < included.length; i++) {
+				ChunkHeader header = headers.get(i);
+				chunkCount++;
+				inputBytes += header.size;
+				if (chunkStarts.add(header.startNanos)) {
+					included[i] = true;
+					start = Math.min(start, header.startNanos);
+					end = Math.max(end, header.startNanos + header.durationNanos);
+				} else {
+					duplicateChunkCount++;
+					duplicateBytes += header.size;
+				}
+			}
+			includedChunks.add(included);
+		}
+		if (chunkStarts.isEmpty()) {
+			throw new CouldNotLoadRecordingException("No chunks to merge");
+		}
+
+		long recordingStart = start;
+		long recordingDuration = end - start;
+		CountingOutputStream countingOutput = new CountingOutputStream(output);
+		RecordingImpl recording = (RecordingImpl) Recordings.newRecording(countingOutput,
+				settings -> settings.withTimestamp(recordingStart).withStartTicks(recordingStart)
+						.withDuration(recordingDuration).withJdkTypeInitialization());
+		RecordingMergeExtension extension = new RecordingMergeExtension(recording);
+		try (InputStream chunks = new SequenceInputStream(new IncludedChunks(recordings, includedChunks))) {
+			// Hidden frames are kept, the merged recording should contain the same data as the input
+			JfrLoaderToolkit.loadEvents(chunks, Collections.singletonList(extension), true);
+			extension.finish();
+		} finally {
+			recording.close();
+		}
+		return new MergeStatistics(recordings.size(), chunkCount, duplicateChunkCount, inputBytes, duplicateBytes,
+				countingOutput.count, extension.getEventCount(), extension.getEventTypeCount());
+	}
+
+	private static List<ChunkHeader> readChunkHeaders(File recording) throws IOException {
+		List<ChunkHeader> headers = new ArrayList<>();
+		try (DataInputStream in = new DataInputStream(IOToolkit.openUncompressedStream(recording))) {
+			byte[] magic = new byte[MAGIC.length];
+			while (true) {
+				int first = in.read();
+				if (first < 0) {
+					break;
+				}
+				magic[0] = (byte) first;
+				in.readFully(magic, 1, magic.length - 1);
+				for (int i = 0; i < MAGIC.length; i++) {
+					if (magic[i] != MAGIC[i]) {
+						throw new IOException(recording + " is not a JFR file or is corrupt");
+					}
+				}
+				short majorVersion = in.readShort();
+				in.readShort(); // minor version
+				if (majorVersion < 1) {
+					throw new IOException(recording + " uses the JDK 8 file format, which can not be merged");
+				}
+				long size = in.readLong();
+				in.readLong(); // constant pool offset
+				in.readLong(); // metadata offset
+				long startNanos = in.readLong();
+				long durationNanos = in.readLong();
+				skipFully(in, size - HEADER_READ_SIZE);
+				headers.add(new ChunkHeader(startNanos, durationNanos, size));
+			}
+		}
+		return headers;
+	}
+
+	private static void skipFully(InputStream in, long count) throws IOException {
+		long remaining = count;
+		while (remaining > 0) {
+			long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				if (in.read() < 0) {
+					throw new EOFException("Truncated chunk");
+				}
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+	/**
+	 * Supplies the non-duplicate chunks of all input files, reading one chunk at a time.
+	 */
+	private static final class IncludedChunks implements Enumeration<InputStream> {
+		private final Iterator<File> files;
+		private final Iterator<boolean[]> included;
+		private Iterator<byte[]> chunks = Collections.emptyIterator();
+		private boolean[] currentIncluded;
+		private int chunkIndex;
+		private byte[] next;
+
+		IncludedChunks(List<File> files, List<boolean[]> included) {
+			this.files = files.iterator();
+			this.included = included.iterator();
+		}
+
+		@Override
+		public boolean hasMoreElements() {
+			while (next == null) {
+				if (chunks.hasNext()) {
+					byte[] chunk = chunks.next();
+					if (currentIncluded[chunkIndex++]) {
+						next = chunk;
+					}
+				} else if (files.hasNext()) {
+					try {
+						chunks = ChunkReader.readChunks(files.next());
+					} catch (IOException e) {
+						throw new IllegalArgumentException(e);
+					}
+					currentIncluded = included.next();
+					chunkIndex = 0;
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public InputStream nextElement() {
+			if (!hasMoreElements()) {
+				throw new NoSuchElementException();
+			}
+			InputStream chunk = new ByteArrayInputStream(next);
+			next = null;
+			return chunk;
+		}
+	}
+
+	/**
+	 * Program for merging recordings. Run without arguments to list usage.
+	 *
+	 * @param args
+	 *            the file to write followed by the files to merge
+	 * @throws IOException
+	 *             if the recordings could not be read or the merged recording could not be written
+	 * @throws CouldNotLoadRecordingException
+	 *             if one of the recordings could not be parsed
+	 */
+	public static void main(String[] args) throws IOException, CouldNotLoadRecordingException {
+		if (args.length < 2) {
+			System.out.println("Usage:");
+			System.out.println("java RecordingMerger target.jfr recording1.jfr [recording2.jfr ...]");
+			System.out.println();
+			System.out.println("Chunks present in several of the input files are only included once.");
+			System.exit(2);
+		}
+		List<File> recordings = new ArrayList<>();
+		for (int i = 1; i < args.length; i++) {
+			File file = new File(args[i]);
+			if (!file.exists()) {
+				System.out.println("The specified file does not exist: " + args[i]);
+				System.exit(3);
+			}
+			recordings.add(file);
+		}
+		MergeStatistics stats = merge(recordings, new File(args[0]));
+		System.out.println(String.format("Merged %d chunk(s) from %d file(s), skipped %d duplicate chunk(s)",
+				stats.getChunkCount() - stats.getDuplicateChunkCount(), stats.getInputFileCount(),
+				stats.getDuplicateChunkCount()));
+		System.out.println(String.format("Wrote %d event(s) of %d type(s) to %s", stats.getEventCount(),
+				stats.getEventTypeCount(), args[0]));
+		System.out.println(String.format("Input: %d bytes, output: %d bytes, saved: %d bytes", stats.getInputBytes(),
+				stats.getOutputBytes(), stats.getBytesSaved()));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,14 +32,9 @@
  */
 package org.openjdk.jmc.flightrecorder.stacktrace;
 
-import static org.openjdk.jmc.flightrecorder.stacktrace.StacktraceModel.aggregateItems;
-
 import org.openjdk.jmc.common.IMCFrame;
 import org.openjdk.jmc.common.collection.SimpleArray;
-import org.openjdk.jmc.common.item.IAttribute;
 import org.openjdk.jmc.common.item.IItem;
-import org.openjdk.jmc.common.item.IMemberAccessor;
-import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.flightrecorder.stacktrace.StacktraceModel.Branch;
 
 /**
@@ -53,30 +48,33 @@ import org.openjdk.jmc.flightrecorder.stacktrace.StacktraceModel.Branch;
 // FIXME: Replace use of SimpleArray with a standard collection or array
 public class StacktraceFrame {
 
-	private final SimpleArray<IItem> items;
+	private final StacktraceModel model;
+	// The range of the sorted items in the model that share this frame
+	private final int fromIndex;
+	private final int toIndex;
 	private final IMCFrame frame;
 	private final Branch branch;
 	private final int indexInBranch;
-	private final IAttribute<IQuantity> attribute;
+	private SimpleArray<IItem> items;
 	// TODO: Consider adding a frameSeparator field so that it becomes possible to tell how specific the frame is
 
-	StacktraceFrame(IItem[] items, IMCFrame frame, Branch branch, int indexInBranch, IAttribute<IQuantity> attribute) {
-		this(new SimpleArray<>(items, items.length), frame, branch, indexInBranch, attribute);
-	}
-
-	StacktraceFrame(SimpleArray<IItem> items, IMCFrame frame, Branch branch, int indexInBranch,
-			IAttribute<IQuantity> attribute) {
-		this.items = items;
+	StacktraceFrame(StacktraceModel model, int fromIndex, int toIndex, IMCFrame frame, Branch branch,
+			int indexInBranch) {
+		this.model = model;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
 		this.frame = frame;
 		this.branch = branch;
 		this.indexInBranch = indexInBranch;
-		this.attribute = attribute;
 	}
 
 	/**
 	 * @return items that share this frame
 	 */
 	public SimpleArray<IItem> getItems() {
+		if (items == null) {
+			items = model.getItems(fromIndex, toIndex);
+		}
 		return items;
 	}
 
@@ -105,21 +103,22 @@ public class StacktraceFrame {
 	 * @return the number of items that share this frame
 	 */
 	public int getItemCount() {
-		return items.size();
+		return toIndex - fromIndex;
 	}
 
 	/**
 	 * @return the value of the aggregation on the attribute
 	 */
 	public long getAttributeAggregate() {
-		IMemberAccessor<IQuantity, IItem> accessor = StacktraceModel.getAccessor(items, attribute);
-		if (accessor != null) {
-			IQuantity quantity = aggregateItems(items, accessor);
-			if (quantity != null) {
-				return quantity.longValue();
-			}
-		}
-		return getItemCount();
+		return model.getAggregate(fromIndex, toIndex);
+	}
+
+	int getFromIndex() {
+		return fromIndex;
+	}
+
+	int getToIndex() {
+		return toIndex;
 	}
 
 	@Override
@@ -128,7 +127,7 @@ public class StacktraceFrame {
 		int result = 1;
 		result = prime * result + ((frame == null) ? 0 : frame.hashCode());
 		result = prime * result + indexInBranch;
-		result = prime * result + ((items == null) ? 0 : items.size());
+		result = prime * result + getItemCount();
 		return result;
 	}
 
@@ -153,9 +152,7 @@ public class StacktraceFrame {
 		}
 		if (indexInBranch != other.indexInBranch)
 			return false;
-		if (items == null || other.items == null) {
-			return false;
-		} else if (items.size() != other.items.size())
+		if (getItemCount() != other.getItemCount())
 			return false;
 		return true;
 	}
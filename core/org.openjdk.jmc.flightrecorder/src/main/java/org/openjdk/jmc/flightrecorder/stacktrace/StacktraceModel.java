@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -33,7 +33,7 @@
 package org.openjdk.jmc.flightrecorder.stacktrace;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -42,14 +42,14 @@ import java.util.Objects;
 
 import org.openjdk.jmc.common.IMCFrame;
 import org.openjdk.jmc.common.IMCStackTrace;
-import org.openjdk.jmc.common.collection.ArrayToolkit;
+import org.openjdk.jmc.common.collection.IdentityKeyMap;
 import org.openjdk.jmc.common.collection.SimpleArray;
 import org.openjdk.jmc.common.item.IAttribute;
 import org.openjdk.jmc.common.item.IItem;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
 import org.openjdk.jmc.common.item.IMemberAccessor;
 import org.openjdk.jmc.common.item.IType;
-import org.openjdk.jmc.common.item.ItemToolkit;
 import org.openjdk.jmc.common.unit.IQuantity;
 import org.openjdk.jmc.common.util.MCFrame;
 import org.openjdk.jmc.flightrecorder.JfrAttributes;
@@ -64,8 +64,14 @@ import org.openjdk.jmc.flightrecorder.JfrAttributes;
  * <p>
  * The typical way of using this class is to first decide on the {@link FrameSeparator} and then
  * create the model. This is done in constant time. After this you get the root fork and use the
- * {@link Fork} and {@link Branch} classes to traverse the tree of stacktraces. Getting the root
- * fork or the end fork of any branch is roughly O(n) to the number of items in the branch.
+ * {@link Fork} and {@link Branch} classes to traverse the tree of stacktraces.
+ * <p>
+ * Getting the root fork encodes the stacktrace of each item as an array of frame ids, where frames
+ * that are not separated by the frame separator share the same id, and sorts the items by these
+ * arrays. This is roughly O(n log n) to the number of items. Every fork, branch and frame in the
+ * model then covers a contiguous range of the sorted items, so getting the end fork of a branch is
+ * roughly O(n) to the number of items in the branch and does not have to look at the stacktraces
+ * again.
  * <p>
  * Opening a Java flight Recording and setting up the stacktrace model can be done like this:
  *
@@ -92,14 +98,24 @@ import org.openjdk.jmc.flightrecorder.JfrAttributes;
  * queried for more information.
  */
 public class StacktraceModel {
-	@SuppressWarnings("deprecation")
-	private final IMemberAccessor<IMCStackTrace, IItem> accessor = ItemToolkit.accessor(JfrAttributes.EVENT_STACKTRACE);
+	private static final int[] NO_FRAMES = new int[0];
+	// Id of UNKNOWN_FRAME, which has no method and thus no category
+	private static final int UNKNOWN_FRAME_ID = 0;
+
 	private final boolean threadRootAtTop;
 	private final FrameSeparator frameSeparator;
 	private final IItemCollection items;
 	private final IAttribute<IQuantity> attribute;
 	private Fork rootFork;
 
+	// The items with stacktraces, sorted by their frame ids
+	private IItem[] sortedItems;
+	// The frame ids of the item at the same index in sortedItems, from the first fork and down
+	private int[][] sortedFrameIds;
+	// The stacktrace and the position in the item collection of the item at the same index in sortedItems
+	private IMCStackTrace[] sortedTraces;
+	private int[] sortedOrder;
+
 	/**
 	 * @param threadRootAtTop
 	 *            If true, present the thread roots on the first fork. If false, present top frames
@@ -151,44 +167,147 @@ public class StacktraceModel {
 	 * The first call may take some time due to calculations, so it may be useful to call this in a
 	 * background thread if used in a UI.
 	 */
-	@SuppressWarnings("deprecation")
 	public Fork getRootFork() {
 		if (rootFork == null) {
-			rootFork = new Fork(ItemToolkit.asIterable(items));
+			encodeItems();
+			rootFork = new Fork(0, sortedItems.length, 0, null);
 		}
 		return rootFork;
 	}
 
-	static IMemberAccessor<IQuantity, IItem> getAccessor(SimpleArray<IItem> items, IAttribute<IQuantity> attribute) {
-		if (items.size() > 0 && attribute != null) {
-			@SuppressWarnings("unchecked")
-			IType<IItem> type = (IType<IItem>) items.get(0).getType();
-			return type.getAccessor(attribute.getKey());
+	/**
+	 * Get a range of the sorted items.
+	 */
+	SimpleArray<IItem> getItems(int from, int to) {
+		if (from == 0 && to == sortedItems.length) {
+			return new SimpleArray<>(sortedItems, to);
 		}
-		return null;
+		return new SimpleArray<>(Arrays.copyOfRange(sortedItems, from, to), to - from);
 	}
 
-	static IQuantity aggregateItems(SimpleArray<IItem> items, IMemberAccessor<IQuantity, IItem> accessor) {
+	/**
+	 * Get the sum of the model attribute for a range of the sorted items, or the number of items if
+	 * the model has no attribute. Items of types that lack the attribute are counted, as if the
+	 * model had no attribute.
+	 */
+	long getAggregate(int from, int to) {
+		if (attribute == null || from == to) {
+			return to - from;
+		}
 		IQuantity quantity = null;
-		for (IItem item : items) {
+		long itemsWithoutAttribute = 0;
+		IType<?> lastType = null;
+		IMemberAccessor<IQuantity, IItem> accessor = null;
+		for (int i = from; i < to; i++) {
+			IItem item = sortedItems[i];
+			if (item.getType() != lastType) {
+				lastType = item.getType();
+				accessor = getAccessor(lastType, attribute);
+			}
+			if (accessor == null) {
+				itemsWithoutAttribute++;
+				continue;
+			}
 			IQuantity value = accessor.getMember(item);
-			quantity = quantity == null ? value : quantity.add(value);
+			if (value != null) {
+				quantity = quantity == null ? value : quantity.add(value);
+			}
 		}
-		return quantity;
+		return quantity != null ? quantity.longValue() + itemsWithoutAttribute : itemsWithoutAttribute;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <M> IMemberAccessor<M, IItem> getAccessor(IType<?> type, IAttribute<M> attribute) {
+		return ((IType<IItem>) type).getAccessor(attribute.getKey());
 	}
 
-	private IMCFrame getFrame(IItem item, int frameIndex) {
-		IMCStackTrace st = accessor.getMember(item);
-		if (st != null) {
-			if (threadRootAtTop && frameIndex == 0 && st.getTruncationState().isTruncated()) {
-				return UNKNOWN_FRAME;
+	/**
+	 * Encode the stacktrace of each item as frame ids and sort the items by them.
+	 */
+	private void encodeItems() {
+		FrameInterner interner = new FrameInterner();
+		// Items from a recording share stacktrace instances, so each one only needs to be encoded once
+		IdentityKeyMap<IMCStackTrace, int[]> encodedTraces = new IdentityKeyMap<>(1000);
+		List<EncodedItem> encodedItems = new ArrayList<>();
+		int order = 0;
+		for (IItemIterable iterable : items) {
+			IMemberAccessor<IMCStackTrace, IItem> accessor = getAccessor(iterable.getType(),
+					JfrAttributes.EVENT_STACKTRACE);
+			if (accessor == null) {
+				continue;
 			}
-			List<? extends IMCFrame> frames = st.getFrames();
-			if (frames != null && frameIndex < frames.size()) {
-				return frames.get(threadRootAtTop ? frames.size() - 1 - frameIndex : frameIndex);
+			for (IItem item : iterable) {
+				IMCStackTrace st = accessor.getMember(item);
+				if (st != null) {
+					int[] frameIds = encodedTraces.get(st);
+					if (frameIds == null) {
+						frameIds = encode(st, interner);
+						encodedTraces.put(st, frameIds);
+					}
+					encodedItems.add(new EncodedItem(item, st, frameIds, order));
+				}
+				order++;
+			}
+		}
+		encodedItems.sort(FRAME_IDS_CMP);
+		sortedItems = new IItem[encodedItems.size()];
+		sortedFrameIds = new int[encodedItems.size()][];
+		sortedTraces = new IMCStackTrace[encodedItems.size()];
+		sortedOrder = new int[encodedItems.size()];
+		for (int i = 0; i < sortedItems.length; i++) {
+			EncodedItem encodedItem = encodedItems.get(i);
+			sortedItems[i] = encodedItem.item;
+			sortedFrameIds[i] = encodedItem.frameIds;
+			sortedTraces[i] = encodedItem.trace;
+			sortedOrder[i] = encodedItem.order;
+		}
+	}
+
+	private int[] encode(IMCStackTrace st, FrameInterner interner) {
+		List<? extends IMCFrame> frames = st.getFrames();
+		int frameCount = frames != null ? frames.size() : 0;
+		boolean unknownRoot = threadRootAtTop && st.getTruncationState().isTruncated();
+		if (unknownRoot) {
+			// The first frame after the fork is replaced by a marker for the frames that are missing
+			frameCount = Math.max(1, frameCount);
+		} else if (frameCount == 0) {
+			return NO_FRAMES;
+		}
+		int[] frameIds = new int[frameCount];
+		for (int i = 0; i < frameCount; i++) {
+			IMCFrame frame = getFrame(st, i);
+			frameIds[i] = frame == UNKNOWN_FRAME ? UNKNOWN_FRAME_ID : interner.getId(frame);
+		}
+		return frameIds;
+	}
+
+	private IMCFrame getFrame(IMCStackTrace st, int frameIndex) {
+		if (threadRootAtTop && frameIndex == 0 && st.getTruncationState().isTruncated()) {
+			return UNKNOWN_FRAME;
+		}
+		List<? extends IMCFrame> frames = st.getFrames();
+		return frames.get(threadRootAtTop ? frames.size() - 1 - frameIndex : frameIndex);
+	}
+
+	/**
+	 * @return The frame at the frame index of the item in the range that comes first in the item
+	 *         collection. This is the frame used to represent all frames in the range.
+	 */
+	private IMCFrame getRepresentativeFrame(int from, int to, int frameIndex) {
+		return getFrame(sortedTraces[getFirst(from, to)], frameIndex);
+	}
+
+	/**
+	 * @return The index of the item in the range that comes first in the item collection.
+	 */
+	private int getFirst(int from, int to) {
+		int first = from;
+		for (int i = from + 1; i < to; i++) {
+			if (sortedOrder[i] < sortedOrder[first]) {
+				first = i;
 			}
 		}
-		return null;
+		return first;
 	}
 
 	/**
@@ -199,78 +318,85 @@ public class StacktraceModel {
 	 */
 	public static final IMCFrame UNKNOWN_FRAME = new MCFrame(null, null, null, IMCFrame.Type.UNKNOWN);
 
-	private static class FrameEntry {
-		final SimpleArray<IItem> items = new SimpleArray<>(new IItem[3]);
-		final IMCFrame frame;
+	private static class EncodedItem {
+		final IItem item;
+		final IMCStackTrace trace;
+		final int[] frameIds;
+		final int order;
 
-		FrameEntry(IMCFrame frame) {
-			this.frame = frame;
+		EncodedItem(IItem item, IMCStackTrace trace, int[] frameIds, int order) {
+			this.item = item;
+			this.trace = trace;
+			this.frameIds = frameIds;
+			this.order = order;
 		}
 	}
 
 	/**
-	 * Return a stream of frame entries that group the input items by distinct categories according
-	 * to the frame separator.
+	 * Sorts items lexicographically by their frame ids, so that items with shorter stacktraces come
+	 * before items with longer stacktraces that start with the same frames.
 	 */
-	private List<FrameEntry> getDistinctFrames(int frameIndex, Iterable<? extends IItem> items) {
-		Map<Object, SimpleArray<FrameEntry>> categories = new HashMap<>(2000);
-		Object lastCategory = null; // Caching for speed
-		SimpleArray<FrameEntry> lastCategoryEntries = null;
-		for (IItem item : items) {
-			IMCFrame frame = getFrame(item, frameIndex);
-			if (frame != null) {
-				// The category is only used to preliminarily group frame entries to speed up the linear findEntryForFrame method
-				// FIXME: Clean up code so that it becomes more readable
-				Object category = frameSeparator.getCategory(frame);
-				if (!category.equals(lastCategory)) {
-					lastCategoryEntries = categories.get(category);
-					lastCategory = category;
-					if (lastCategoryEntries == null) {
-						lastCategoryEntries = new SimpleArray<>(new FrameEntry[1]);
-						categories.put(category, lastCategoryEntries);
-					}
-				}
-				findEntryForFrame(lastCategoryEntries, frame, frameSeparator).items.add(item);
+	private final static Comparator<EncodedItem> FRAME_IDS_CMP = new Comparator<EncodedItem>() {
+
+		@Override
+		public int compare(EncodedItem o1, EncodedItem o2) {
+			int[] a = o1.frameIds;
+			int[] b = o2.frameIds;
+			if (a == b) {
+				return 0;
 			}
-		}
-		Collection<SimpleArray<FrameEntry>> feArrays = categories.values();
-		// Avoid ArrayList resizing by precalculating size
-		int nFrameEntries = 0;
-		for (SimpleArray<FrameEntry> fes : feArrays) {
-			nFrameEntries += fes.size();
-		}
-		List<FrameEntry> distinctFrames = new ArrayList<>(nFrameEntries);
-		for (SimpleArray<FrameEntry> fes : feArrays) {
-			for (FrameEntry fe : fes) {
-				distinctFrames.add(fe);
+			int length = Math.min(a.length, b.length);
+			for (int i = 0; i < length; i++) {
+				if (a[i] != b[i]) {
+					return Integer.compare(a[i], b[i]);
+				}
 			}
+			return Integer.compare(a.length, b.length);
 		}
-		return distinctFrames;
-	}
+	};
 
 	/**
-	 * Find or create a matching FrameEntry for a frame.
+	 * Gives frames that are not separated by the frame separator the same id.
 	 */
-	private static FrameEntry findEntryForFrame(
-		SimpleArray<FrameEntry> entries, IMCFrame frame, FrameSeparator frameSeparator) {
-		for (FrameEntry e : entries) {
-			if (frameSeparator.compareDetails(e.frame, frame)) {
-				return e;
+	private class FrameInterner {
+		// The first frame that got each id
+		final List<IMCFrame> frames = new ArrayList<>();
+		// Frames are first grouped by category to keep the linear search for matching details short
+		final Map<Object, SimpleArray<Integer>> categories = new HashMap<>(2000);
+
+		FrameInterner() {
+			frames.add(UNKNOWN_FRAME);
+		}
+
+		int getId(IMCFrame frame) {
+			Object category = frameSeparator.getCategory(frame);
+			SimpleArray<Integer> ids = categories.get(category);
+			if (ids == null) {
+				ids = new SimpleArray<>(new Integer[1]);
+				categories.put(category, ids);
+			}
+			for (Integer id : ids) {
+				if (frameSeparator.compareDetails(frames.get(id), frame)) {
+					return id;
+				}
 			}
+			int id = frames.size();
+			frames.add(frame);
+			ids.add(id);
+			return id;
 		}
-		FrameEntry newEntry = new FrameEntry(frame);
-		entries.add(newEntry);
-		return newEntry;
 	}
 
 	/**
-	 * @return The number of frames in the selected branch and all its parent branches.
+	 * @return The index of the first item in the range that has a frame at the given frame index.
+	 *         Since items are sorted, all items that end before the frame index are at the start of
+	 *         the range.
 	 */
-	private static int countFramesOnOrAbove(Branch branch) {
-		if (branch != null) {
-			return countFramesOnOrAbove(branch.getParentFork().getParentBranch()) + 1 + branch.getTailFrames().length;
+	private int skipEnded(int from, int to, int frameIndex) {
+		while (from < to && sortedFrameIds[from].length <= frameIndex) {
+			from++;
 		}
-		return 0;
+		return from;
 	}
 
 	/**
@@ -291,15 +417,15 @@ public class StacktraceModel {
 		private final int siblingIndex;
 		// The sum of the number of items in all sibling branches preceding this one. A value between 0 and getParentFork().getItemsInFork().
 		private final long itemOffsetInFork;
-		private Boolean hasTail;
 		private StacktraceFrame[] tailFrames;
 		private Fork branchEnding;
 
-		private Branch(Fork parent, SimpleArray<IItem> items, IMCFrame frame, int siblingIndex, long itemOffsetInFork) {
+		private Branch(Fork parent, int from, int to, int siblingIndex, long itemOffsetInFork) {
 			this.parentFork = parent;
 			this.siblingIndex = siblingIndex;
 			this.itemOffsetInFork = itemOffsetInFork;
-			firstFrame = new StacktraceFrame(items, frame, this, 0, attribute);
+			firstFrame = new StacktraceFrame(StacktraceModel.this, from, to,
+					getRepresentativeFrame(from, to, parent.frameIndex), this, 0);
 		}
 
 		public long getItemOffsetInFork() {
@@ -311,10 +437,8 @@ public class StacktraceModel {
 		}
 
 		public boolean hasTail() {
-			if (hasTail == null) {
-				hasTail = calculateHasTail();
-			}
-			return hasTail;
+			// Items with the longest stacktraces are last in the range
+			return sortedFrameIds[firstFrame.getToIndex() - 1].length > parentFork.frameIndex + 1;
 		}
 
 		/**
@@ -368,66 +492,86 @@ public class StacktraceModel {
 		 */
 		public Fork getEndFork() {
 			if (branchEnding == null) {
-				branchEnding = new Fork(this);
+				StacktraceFrame lastFrame = getLastFrame();
+				branchEnding = new Fork(lastFrame.getFromIndex(), lastFrame.getToIndex(),
+						parentFork.frameIndex + getTailFrames().length + 1, this);
 			}
 			return branchEnding;
 		}
 
-		private boolean calculateHasTail() {
-			int firstTailFrameIndex = countFramesOnOrAbove(parentFork.getParentBranch()) + 1;
-			for (IItem item : firstFrame.getItems()) {
-				IMCFrame frame = getFrame(item, firstTailFrameIndex);
-				if (frame != null) {
-					return true;
-				}
-			}
-			return false;
-		}
-
 		private StacktraceFrame[] buildTail() {
 			SimpleArray<StacktraceFrame> tail = new SimpleArray<>(new StacktraceFrame[5]);
-			int nextIndex = countFramesOnOrAbove(parentFork.getParentBranch()) + 1; // first tail frame index
-			StacktraceFrame node = firstFrame;
+			int from = firstFrame.getFromIndex();
+			int to = firstFrame.getToIndex();
+			int frameIndex = parentFork.frameIndex + 1; // first tail frame index
 			while (true) {
-				List<Integer> removeIndexes = new ArrayList<>();
-				IMCFrame commonFrame = null;
-				int itemIndex = 0;
-				for (IItem item : node.getItems()) {
-					IMCFrame frame = getFrame(item, nextIndex);
-					if (frame == null) {
-						// trace ended before branch
-						removeIndexes.add(itemIndex);
-					} else {
-						if (commonFrame == null) {
-							commonFrame = frame;
-						} else if (frameSeparator.isSeparate(commonFrame, frame)) {
-							// branch found
-							return tail.elements();
-						}
-					}
-					itemIndex++;
+				from = skipEnded(from, to, frameIndex);
+				if (from == to) {
+					// All stacktraces ended
+					return tail.elements();
 				}
-				if (commonFrame == null) {
-					// All branches match
+				int frameId = sortedFrameIds[from][frameIndex];
+				if (sortedFrameIds[to - 1][frameIndex] != frameId) {
+					// branch found, the remaining items all share the preceding frames so they are sorted by this frame
 					return tail.elements();
-				} else if (removeIndexes.isEmpty()) {
-					node = new StacktraceFrame(node.getItems(), commonFrame, this, tail.size() + 1, attribute);
-				} else {
-					IItem[] subset = ArrayToolkit.filter(node.getItems().elements(), removeIndexes);
-					node = new StacktraceFrame(subset, commonFrame, this, tail.size() + 1, attribute);
 				}
-				tail.add(node);
-				nextIndex++;
+				tail.add(new StacktraceFrame(StacktraceModel.this, from, to,
+						getRepresentativeFrame(from, to, frameIndex), this, tail.size() + 1));
+				frameIndex++;
 			}
 		}
 
 	}
 
-	private final static Comparator<FrameEntry> COUNT_CMP = new Comparator<FrameEntry>() {
+	private static class BranchRange {
+		final int from;
+		final int to;
+		// The index of the item in the range that comes first in the item collection
+		final int first;
+
+		BranchRange(int from, int to, int first) {
+			this.from = from;
+			this.to = to;
+			this.first = first;
+		}
+	}
+
+	/**
+	 * Order branches by decreasing number of items. Branches with the same number of items are
+	 * grouped by the category of their first frame, and within a category ordered by where their
+	 * first items are in the item collection. This gives a stable presentation order that does not
+	 * depend on how the frames were encoded.
+	 */
+	private List<BranchRange> orderBranches(List<BranchRange> ranges, int frameIndex) {
+		if (ranges.size() < 2) {
+			return ranges;
+		}
+		ranges.sort((r1, r2) -> Integer.compare(sortedOrder[r1.first], sortedOrder[r2.first]));
+		// The iteration order of the categories depends on the capacity and on the use of put, so keep them
+		Map<Object, List<BranchRange>> categories = new HashMap<>(2000);
+		for (BranchRange range : ranges) {
+			IMCFrame frame = getFrame(sortedTraces[range.first], frameIndex);
+			Object category = frame == UNKNOWN_FRAME ? null : frameSeparator.getCategory(frame);
+			List<BranchRange> categoryRanges = categories.get(category);
+			if (categoryRanges == null) {
+				categoryRanges = new ArrayList<>(1);
+				categories.put(category, categoryRanges);
+			}
+			categoryRanges.add(range);
+		}
+		List<BranchRange> ordered = new ArrayList<>(ranges.size());
+		for (List<BranchRange> rangesInCategory : categories.values()) {
+			ordered.addAll(rangesInCategory);
+		}
+		ordered.sort(COUNT_CMP);
+		return ordered;
+	}
+
+	private final static Comparator<BranchRange> COUNT_CMP = new Comparator<BranchRange>() {
 
 		@Override
-		public int compare(FrameEntry o1, FrameEntry o2) {
-			return o2.items.size() - o1.items.size();
+		public int compare(BranchRange o1, BranchRange o2) {
+			return (o2.to - o2.from) - (o1.to - o1.from);
 		}
 	};
 
@@ -442,60 +586,45 @@ public class StacktraceModel {
 		private final Branch[] branches;
 		// The sum of the number of items in all forks preceding this one. A value between 0 and StacktraceModel.items.length.
 		private final long itemOffset;
-		private final int itemsInFork;
+		// The index of the frames that the branches of this fork start with
+		private final int frameIndex;
+		private final int from;
+		private final int to;
 		private final long aggregateItemsInFork;
 		private Integer selectedBranchIndex;
-		private final SimpleArray<IItem> allItems;
-
-		private Fork(Branch parentBranch) {
-			this(parentBranch.getLastFrame().getItems(),
-					parentBranch.getParentFork().itemOffset + parentBranch.itemOffsetInFork, parentBranch);
-		}
-
-		private Fork(Iterable<? extends IItem> items) {
-			this(items, 0, null);
-		}
+		private SimpleArray<IItem> allItems;
 
 		/**
-		 * Create a fork by grouping items by distinct head frames using the frame separator. If a
-		 * parent branch is specified, then look for head frames after the parent branch.
+		 * Create a fork by splitting a range of items with the same frames up to the frame index
+		 * into branches with distinct frames at the frame index.
 		 */
-		private Fork(Iterable<? extends IItem> items, long itemOffset, Branch parentBranch) {
-			this.itemOffset = itemOffset;
+		private Fork(int from, int to, int frameIndex, Branch parentBranch) {
+			this.itemOffset = parentBranch != null
+					? parentBranch.getParentFork().itemOffset + parentBranch.itemOffsetInFork : 0;
 			this.parentBranch = parentBranch;
-			List<FrameEntry> branchHeadFrames = getDistinctFrames(countFramesOnOrAbove(parentBranch), items);
-			branchHeadFrames.sort(COUNT_CMP);
-			int itemsInFork = 0;
-			long aggregateValue = 0;
-
-			SimpleArray<IItem> allItems = new SimpleArray<IItem>(new IItem[0]);
-			SimpleArray<Branch> branches = new SimpleArray<>(new Branch[branchHeadFrames.size()]);
-			for (FrameEntry fe : branchHeadFrames) {
-				Branch b = new Branch(Fork.this, fe.items, fe.frame, branches.size(), aggregateValue);
-				itemsInFork += fe.items.size();
-
-				IMemberAccessor<IQuantity, IItem> memberAccessor = getAccessor(fe.items, attribute);
-				if (memberAccessor != null) {
-					IQuantity quantity = aggregateItems(fe.items, memberAccessor);
-					if (quantity != null) {
-						aggregateValue += quantity.longValue();
-					}
-				} else {
-					aggregateValue += fe.items.size();
-				}
-
-				if (allItems != null) {
-					allItems.addAll(fe.items.elements());
-				} else {
-					allItems = new SimpleArray<IItem>(fe.items.elements());
+			this.frameIndex = frameIndex;
+			this.from = skipEnded(from, to, frameIndex);
+			this.to = to;
+
+			List<BranchRange> ranges = new ArrayList<>();
+			int branchStart = this.from;
+			for (int i = this.from + 1; i <= to; i++) {
+				if (i == to || sortedFrameIds[i][frameIndex] != sortedFrameIds[branchStart][frameIndex]) {
+					ranges.add(new BranchRange(branchStart, i, getFirst(branchStart, i)));
+					branchStart = i;
 				}
-				branches.add(b);
 			}
-			selectedBranchIndex = branches.size() > 0 ? 0 : null; // To disable default branch selection: always set null
-			this.branches = branches.elements();
-			this.itemsInFork = itemsInFork;
+			ranges = orderBranches(ranges, frameIndex);
+			Branch[] branches = new Branch[ranges.size()];
+			long aggregateValue = 0;
+			for (int i = 0; i < branches.length; i++) {
+				BranchRange range = ranges.get(i);
+				branches[i] = new Branch(this, range.from, range.to, i, aggregateValue);
+				aggregateValue += getAggregate(range.from, range.to);
+			}
+			selectedBranchIndex = branches.length > 0 ? 0 : null; // To disable default branch selection: always set null
+			this.branches = branches;
 			this.aggregateItemsInFork = aggregateValue;
-			this.allItems = allItems;
 		}
 
 		public long getItemOffset() {
@@ -503,7 +632,7 @@ public class StacktraceModel {
 		}
 
 		public int getItemsInFork() {
-			return itemsInFork;
+			return to - from;
 		}
 
 		public long getAggregateItemsInFork() {
@@ -511,6 +640,9 @@ public class StacktraceModel {
 		}
 
 		public SimpleArray<IItem> getAllItemsInFork() {
+			if (allItems == null) {
+				allItems = getItems(from, to);
+			}
 			return allItems;
 		}
 
@@ -34,7 +34,9 @@
 package org.openjdk.jmc.flightrecorder.stacktrace.tree;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 import org.openjdk.jmc.common.IMCFrame;
 import org.openjdk.jmc.common.IMCMethod;
@@ -71,6 +73,11 @@ public class StacktraceTreeModel {
 	 */
 	private static final IMCFrame ROOT_FRAME = new MCFrame(null, null, null, IMCFrame.Type.UNKNOWN);
 
+	/**
+	 * The number of items to aggregate between checks if a progress snapshot is due.
+	 */
+	private static final int PROGRESS_CHECK_ITEMS = 4096;
+
 	private final IItemCollection items;
 	private final FrameSeparator frameSeparator;
 	private final IAttribute<IQuantity> attribute;
@@ -159,6 +166,38 @@ public class StacktraceTreeModel {
 	 */
 	public StacktraceTreeModel(IItemCollection items, FrameSeparator frameSeparator, boolean invertedStacks,
 			IAttribute<IQuantity> attribute, BooleanSupplier stopFlag) {
+		this(items, frameSeparator, invertedStacks, attribute, stopFlag, 0, null);
+	}
+
+	/**
+	 * Builds a StacktraceTreeModel from a given collection of events, reporting snapshots of the
+	 * partially built tree while doing so. This allows a view to show an approximation of the tree
+	 * while a large collection of events is still being aggregated.
+	 *
+	 * @param items
+	 *            the data we want to represent.
+	 * @param frameSeparator
+	 *            defines what represents a node in the tree. Defaults to METHOD.
+	 * @param invertedStacks
+	 *            defines how the stacks are aggregated. Defaults to false (i.e. bottom-up,
+	 *            Thread.run() at the root of the tree).
+	 * @param attribute
+	 *            defines what we use as node weights. If null, the weight is the number of
+	 *            occurrences for the frame.
+	 * @param stopFlag
+	 *            enables concurrent interruption. The stop flag is polled and if it every returns
+	 *            true the constructor will return early.
+	 * @param progressIntervalMillis
+	 *            the minimum time between two snapshots
+	 * @param progressListener
+	 *            called from the building thread with a copy of the tree built so far, may be
+	 *            {@code null}. The copy is not modified after it has been reported, and the weights
+	 *            only reflect the events aggregated so far. No snapshot is reported for the
+	 *            complete tree, use {@link #getRoot()} for that.
+	 */
+	public StacktraceTreeModel(IItemCollection items, FrameSeparator frameSeparator, boolean invertedStacks,
+			IAttribute<IQuantity> attribute, BooleanSupplier stopFlag, long progressIntervalMillis,
+			Consumer<Node> progressListener) {
 		this.items = items;
 		this.frameSeparator = frameSeparator;
 		this.attribute = attribute;
@@ -166,6 +205,9 @@ public class StacktraceTreeModel {
 
 		AggregatableFrame rootFrame = new AggregatableFrame(frameSeparator, ROOT_FRAME);
 		this.root = Node.newRootNode(rootFrame);
+		long progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressIntervalMillis);
+		long nextProgress = System.nanoTime() + progressIntervalNanos;
+		int itemsUntilProgressCheck = PROGRESS_CHECK_ITEMS;
 		for (IItemIterable iterable : items) {
 			if (stopFlag.getAsBoolean()) {
 				return;
@@ -180,10 +222,29 @@ public class StacktraceTreeModel {
 					return;
 				}
 				addItem(item, stacktraceAccessor, quantityAccessor);
+				if (progressListener != null && --itemsUntilProgressCheck == 0) {
+					itemsUntilProgressCheck = PROGRESS_CHECK_ITEMS;
+					long now = System.nanoTime();
+					if (now - nextProgress >= 0) {
+						progressListener.accept(copyOf(root, null));
+						// Measure from after the copy, so that slow listeners do not get called back-to-back
+						nextProgress = System.nanoTime() + progressIntervalNanos;
+					}
+				}
 			}
 		}
 	}
 
+	private static Node copyOf(Node node, Node parent) {
+		Node copy = new Node(parent, node.getFrame());
+		copy.weight = node.weight;
+		copy.cumulativeWeight = node.cumulativeWeight;
+		for (Node child : node.children) {
+			copy.children.add(copyOf(child, copy));
+		}
+		return copy;
+	}
+
 	/**
 	 * @return the root node of the tree.
 	 */
@@ -202,6 +263,14 @@ public class StacktraceTreeModel {
 		return attribute;
 	}
 
+	/**
+	 * @return {@code true} if the top frames are at the root of the tree, {@code false} if the
+	 *         bottom frames are.
+	 */
+	public boolean isInvertedStacks() {
+		return invertedStacks;
+	}
+
 	private void addItem(
 		IItem item, IMemberAccessor<IMCStackTrace, IItem> stacktraceAccessor,
 		IMemberAccessor<IQuantity, IItem> quantityAccessor) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -34,7 +34,6 @@ package org.openjdk.jmc.jdp.client;
 
 import java.io.IOException;
 import java.net.InetAddress;
-import java.net.MulticastSocket;
 import java.util.Set;
 import java.util.logging.Logger;
 
@@ -55,7 +54,7 @@ public final class JDPClient {
 	private final InetAddress address;
 	private final int port;
 	private PacketListener listener;
-	private final PacketProcessor processor = new PacketProcessor();
+	private final PacketProcessor processor;
 	private final Pruner pruner;
 
 	public JDPClient() {
@@ -70,7 +69,8 @@ public final class JDPClient {
 	public JDPClient(InetAddress address, int port, int heartBeatTimeout) {
 		this.address = address;
 		this.port = port;
-		pruner = new Pruner(processor, heartBeatTimeout);
+		processor = new PacketProcessor(heartBeatTimeout);
+		pruner = new Pruner(processor);
 	}
 
 	public void addDiscoveryListener(DiscoveryListener listener) {
@@ -82,9 +82,7 @@ public final class JDPClient {
 	}
 
 	public synchronized void start() throws IOException {
-		MulticastSocket socket = new MulticastSocket(port);
-		listener = new PacketListener(socket, processor);
-		socket.joinGroup(address);
+		listener = new PacketListener(address, port, processor);
 		ThreadGroup jdpThreads = new ThreadGroup("JDP Client"); //$NON-NLS-1$
 		startThread(jdpThreads, listener, "(JDP Packet Listener)"); //$NON-NLS-1$
 		startThread(jdpThreads, pruner, "(JDP Client Pruner)"); //$NON-NLS-1$
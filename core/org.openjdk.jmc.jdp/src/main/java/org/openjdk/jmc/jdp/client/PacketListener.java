@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -33,8 +33,23 @@
 package org.openjdk.jmc.jdp.client;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.MulticastSocket;
+import java.net.DatagramSocket;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.ProtocolFamily;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.openjdk.jmc.jdp.common.JDPPacket;
@@ -42,48 +57,118 @@ import org.openjdk.jmc.jdp.common.JDPPacket;
 /**
  * This package private class listens for JDP packets, and sends them to the packet processor for
  * processing.
+ * <p>
+ * All packets that have arrived since the last time the channel was checked are decoded and handed
+ * to the packet processor as one batch. On networks with thousands of broadcasting JVMs this keeps
+ * the receive buffer drained and the processor lock from being taken once per packet.
  */
 final class PacketListener implements Runnable {
 	private static final int BUFFER_LENGTH = 4096;
-	private final MulticastSocket socket;
+	/**
+	 * The maximum number of packets to read before handing them to the processor.
+	 */
+	private static final int MAX_BATCH_SIZE = 256;
+	/**
+	 * The requested size of the socket receive buffer, large enough to hold the packets arriving
+	 * while a batch is being processed.
+	 */
+	private static final int RECEIVE_BUFFER_SIZE = 1024 * 1024;
+	private final DatagramChannel channel;
+	private final Selector selector;
 	private final PacketProcessor packetProcessor;
 	private volatile boolean shutdown;
 
-	PacketListener(MulticastSocket socket, PacketProcessor packetProcessor) {
-		this.socket = socket;
+	PacketListener(InetAddress address, int port, PacketProcessor packetProcessor) throws IOException {
 		this.packetProcessor = packetProcessor;
+		ProtocolFamily family = address instanceof Inet6Address ? StandardProtocolFamily.INET6
+				: StandardProtocolFamily.INET;
+		channel = DatagramChannel.open(family);
+		try {
+			channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_SIZE);
+			byte[] wildcard = new byte[address instanceof Inet6Address ? 16 : 4];
+			channel.bind(new InetSocketAddress(InetAddress.getByAddress(wildcard), port));
+			channel.join(address, getMulticastInterface(address, port));
+			channel.configureBlocking(false);
+			selector = Selector.open();
+			channel.register(selector, SelectionKey.OP_READ);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Finds the network interface the system would send packets for the group through. This is the
+	 * interface a {@link java.net.MulticastSocket} joins when no interface has been set.
+	 */
+	private static NetworkInterface getMulticastInterface(InetAddress address, int port) throws IOException {
+		try (DatagramSocket probe = new DatagramSocket()) {
+			probe.connect(address, port);
+			NetworkInterface networkInterface = NetworkInterface.getByInetAddress(probe.getLocalAddress());
+			if (networkInterface != null) {
+				return networkInterface;
+			}
+		} catch (SocketException e) {
+			JDPClient.LOGGER.log(Level.FINE, "Could not find a route for " + address, e); //$NON-NLS-1$
+		}
+		for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+			if (networkInterface.isUp() && networkInterface.supportsMulticast()) {
+				return networkInterface;
+			}
+		}
+		throw new SocketException("No network interface available for listening to " + address); //$NON-NLS-1$
 	}
 
 	@Override
 	public void run() {
-		byte[] buffer = new byte[BUFFER_LENGTH];
-		DatagramPacket dgram = new DatagramPacket(buffer, buffer.length);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_LENGTH);
+		List<JDPPacket> batch = new ArrayList<>();
 
 		while (!shutdown) {
 			try {
-				socket.receive(dgram);
-			} catch (IOException e) {
+				selector.select();
+				selector.selectedKeys().clear();
+				for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+					buffer.clear();
+					if (channel.receive(buffer) == null) {
+						break;
+					}
+					buffer.flip();
+					byte[] data = new byte[buffer.remaining()];
+					buffer.get(data);
+					try {
+						batch.add(new JDPPacket(data));
+					} catch (Exception e) {
+						JDPClient.LOGGER.log(Level.WARNING, "Could not decode JDP packet. Skipping!", e); //$NON-NLS-1$
+					}
+				}
+			} catch (IOException | ClosedSelectorException e) {
 				if (!shutdown) {
 					JDPClient.LOGGER.log(Level.SEVERE, "Problem listening for JDP packets! Shutting down!", e); //$NON-NLS-1$
-					socket.close();
+					close();
 				}
 				return;
 			}
 
-			byte[] data = new byte[dgram.getLength()];
-			System.arraycopy(dgram.getData(), dgram.getOffset(), data, 0, dgram.getLength());
-			try {
-				JDPPacket packet = new JDPPacket(data);
-				packetProcessor.process(packet);
-			} catch (Exception e) {
-				JDPClient.LOGGER.log(Level.WARNING, "Could not decode JDP packet. Skipping!", e); //$NON-NLS-1$
+			if (!batch.isEmpty()) {
+				packetProcessor.process(batch);
+				batch.clear();
 			}
 		}
 	}
 
+	private void close() {
+		// Closing the selector wakes up the listener thread
+		try (DatagramChannel c = channel; Selector s = selector) {
+		} catch (IOException e) {
+			JDPClient.LOGGER.log(Level.FINE, "Problem closing the JDP channel", e); //$NON-NLS-1$
+		}
+	}
+
 	public void stop() {
 		shutdown = true;
-		socket.close();
+		close();
 	}
 
 	public boolean isAlive() {
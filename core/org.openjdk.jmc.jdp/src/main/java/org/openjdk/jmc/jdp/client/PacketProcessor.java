@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -33,62 +33,145 @@
 package org.openjdk.jmc.jdp.client;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
 
 import org.openjdk.jmc.jdp.client.DiscoveryEvent.Kind;
 import org.openjdk.jmc.jdp.common.JDPPacket;
 
 /**
  * The package private PacketProcessor will remember detected packets and transmit the appropriate
- * events (FOUND, CHANGED) to the registered listeners.
+ * events (FOUND, CHANGED, LOST) to the registered listeners.
+ * <p>
+ * The discoverables are also kept ordered by the time they will be considered lost, so that pruning
+ * only has to look at the ones that have actually expired.
  */
 final class PacketProcessor {
 	private static final String KEY_BROADCAST_PERIOD = "BROADCAST_INTERVAL"; //$NON-NLS-1$
+	// The sequence number keeps discoverables with the same deadline apart, even without a session id
+	private static final Comparator<DiscoverableInfo> BY_DEADLINE = Comparator
+			.comparingLong((DiscoverableInfo info) -> info.deadline).thenComparingLong(info -> info.sequence);
 
 	private final List<DiscoveryListener> listeners = new ArrayList<>();
-	final Map<String, DiscoverableInfo> infoMap = new HashMap<>();
+	private final Map<String, DiscoverableInfo> infoMap = new HashMap<>();
+	private final NavigableSet<DiscoverableInfo> expiryQueue = new TreeSet<>(BY_DEADLINE);
+	private long nextSequence;
+
+	/**
+	 * The maximum time to wait for the next heart beat, no matter what.
+	 */
+	private final int maxHBTime;
 
 	static class DiscoverableInfo {
+		// Unique per discoverable, in the order they were found
+		final long sequence;
 		// The timestamp the packet was last discovered.
 		long timestamp;
 		// The calculated heart beat interval
 		long heartBeat;
 		// Heart beat in packet?
 		boolean needToCalculateHeartBeat = true;
+		// The timestamp after which the service is considered down
+		long deadline;
 		// The packet discovered
 		JDPPacket packet;
+
+		DiscoverableInfo(long sequence) {
+			this.sequence = sequence;
+		}
 	}
 
-	public synchronized void process(JDPPacket packet) {
-		// Using same hb calculations as in the old JRMC client
-		DiscoverableInfo info = infoMap.get(packet.getSessionId());
+	PacketProcessor(int maxHBTime) {
+		this.maxHBTime = maxHBTime;
+	}
+
+	/**
+	 * Processes a batch of received packets. At most one event is sent per discoverable and batch,
+	 * so a service that is found and changed within the same batch is only reported as found, with
+	 * the latest data.
+	 *
+	 * @param packets
+	 *            the packets received, in the order they were received
+	 */
+	public synchronized void process(List<JDPPacket> packets) {
+		Map<String, DiscoveryEvent> events = new LinkedHashMap<>();
 		long now = System.currentTimeMillis();
+		for (JDPPacket packet : packets) {
+			try {
+				process(packet, now, events);
+			} catch (RuntimeException e) {
+				JDPClient.LOGGER.log(Level.WARNING, "Could not process JDP packet. Skipping!", e); //$NON-NLS-1$
+			}
+		}
+		for (DiscoveryEvent event : events.values()) {
+			fireEvent(event);
+		}
+	}
+
+	private void process(JDPPacket packet, long now, Map<String, DiscoveryEvent> events) {
+		// Using same hb calculations as in the old JRMC client
+		String sessionId = packet.getSessionId();
+		DiscoverableInfo info = infoMap.get(sessionId);
 
 		if (info == null) {
-			info = new DiscoverableInfo();
+			long broadcastPeriod = getBroadcastPeriodFromPayload(packet.getPayload());
+			info = new DiscoverableInfo(nextSequence++);
 			info.timestamp = now;
 			info.packet = packet;
-			infoMap.put(packet.getSessionId(), info);
-			long broadcastPeriod = getBroadcastPeriodFromPayload(packet.getPayload());
+			infoMap.put(sessionId, info);
 			if (broadcastPeriod > 0) {
 				info.heartBeat = broadcastPeriod;
 				info.needToCalculateHeartBeat = false;
 			}
 			JDPClient.LOGGER.fine("Found " + packet); //$NON-NLS-1$
-			fireEvent(new DiscoveryEvent(Kind.FOUND, packet));
-		} else if (!info.packet.equals(packet)) {
-			JDPClient.LOGGER.fine("Changed " + packet); //$NON-NLS-1$
-			fireEvent(new DiscoveryEvent(Kind.CHANGED, packet));
+			events.put(sessionId, new DiscoveryEvent(Kind.FOUND, packet));
+		} else {
+			// The deadline is part of the ordering, so the info must be reinserted once updated
+			expiryQueue.remove(info);
+			if (!info.packet.equals(packet)) {
+				info.packet = packet;
+				JDPClient.LOGGER.fine("Changed " + packet); //$NON-NLS-1$
+				DiscoveryEvent pending = events.get(sessionId);
+				Kind kind = pending != null ? pending.getKind() : Kind.CHANGED;
+				events.put(sessionId, new DiscoveryEvent(kind, packet));
+			}
 		}
 		if (info.needToCalculateHeartBeat) {
 			long newHB = now - info.timestamp;
 			info.heartBeat = (info.heartBeat == 0 ? newHB : (info.heartBeat + newHB) / 2);
 		}
 		info.timestamp = now;
+		if (info.heartBeat != 0) {
+			// If we miss a few heart beats, we consider it down.
+			info.deadline = now + (long) (info.heartBeat * Pruner.HB_MISSED_BEFORE_DOWN);
+		} else {
+			info.deadline = now + maxHBTime;
+		}
+		expiryQueue.add(info);
+	}
+
+	/**
+	 * Removes the discoverables that have not been heard from in time, and sends LOST events for
+	 * them.
+	 *
+	 * @param now
+	 *            the current time
+	 */
+	synchronized void pruneExpired(long now) {
+		while (!expiryQueue.isEmpty() && expiryQueue.first().deadline < now) {
+			DiscoverableInfo info = expiryQueue.pollFirst();
+			infoMap.remove(info.packet.getSessionId());
+			JDPClient.LOGGER.fine("Lost " + info.packet); //$NON-NLS-1$
+			fireEvent(new DiscoveryEvent(Kind.LOST, info.packet));
+		}
 	}
 
 	private long getBroadcastPeriodFromPayload(Map<String, String> payload) {
@@ -100,7 +183,11 @@ final class PacketProcessor {
 
 	synchronized void fireEvent(DiscoveryEvent event) {
 		for (DiscoveryListener listener : listeners) {
-			listener.onDiscovery(event);
+			try {
+				listener.onDiscovery(event);
+			} catch (RuntimeException e) {
+				JDPClient.LOGGER.log(Level.WARNING, "JDP discovery listener failed", e); //$NON-NLS-1$
+			}
 		}
 	}
 
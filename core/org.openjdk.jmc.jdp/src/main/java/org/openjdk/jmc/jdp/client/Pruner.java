@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,11 +32,6 @@
  */
 package org.openjdk.jmc.jdp.client;
 
-import java.util.Collection;
-
-import org.openjdk.jmc.jdp.client.DiscoveryEvent.Kind;
-import org.openjdk.jmc.jdp.client.PacketProcessor.DiscoverableInfo;
-
 /**
  * This package private class prunes packets that have timed out, discovering lost services. This
  * class is responsible for emitting {@link DiscoveryEvent.Type} LOST events.
@@ -48,15 +43,10 @@ final class Pruner implements Runnable {
 	final static long PRUNING_INTERVAL = 3000L;
 
 	/**
-	 * @see maxHBTime
+	 * The default maximum time to wait for the next heart beat, no matter what.
 	 */
 	final static int DEFAULT_MAX_HB_TIME = 12000;
 
-	/**
-	 * The maximum time to wait for the next heart beat, no matter what.
-	 */
-	final int maxHBTime;
-
 	/**
 	 * This is how many heart beats to wait before considering the service down.
 	 */
@@ -65,9 +55,8 @@ final class Pruner implements Runnable {
 	private volatile boolean isRunning;
 	private final PacketProcessor processor;
 
-	public Pruner(PacketProcessor processor, int maxHBTime) {
+	public Pruner(PacketProcessor processor) {
 		this.processor = processor;
-		this.maxHBTime = maxHBTime;
 	}
 
 	@Override
@@ -80,40 +69,12 @@ final class Pruner implements Runnable {
 			} catch (InterruptedException e) {
 				// Ignore - don't mind being interrupted.
 			}
-			checkPackets();
+			JDPClient.LOGGER.finer("JDP prune checking..."); //$NON-NLS-1$
+			processor.pruneExpired(System.currentTimeMillis());
 		}
 		JDPClient.LOGGER.info("JDP prune thread shutting down!"); //$NON-NLS-1$
 	}
 
-	private void checkPackets() {
-		JDPClient.LOGGER.finer("JDP prune checking..."); //$NON-NLS-1$
-		long now = System.currentTimeMillis();
-		synchronized (processor) {
-			Collection<DiscoverableInfo> values = processor.infoMap.values();
-			DiscoverableInfo[] discoverableInfos = values.toArray(new DiscoverableInfo[values.size()]);
-			for (PacketProcessor.DiscoverableInfo info : discoverableInfos) {
-				if (info.heartBeat != 0) {
-					// If we missed a few heart beats, we consider it down.
-					if (now - info.timestamp > (info.heartBeat * HB_MISSED_BEFORE_DOWN)) {
-						remove(info);
-					}
-				} else if ((now - info.timestamp) > maxHBTime) {
-					remove(info);
-				}
-			}
-		}
-	}
-
-	/**
-	 * @param key
-	 *            the descriptor to remove.
-	 */
-	private void remove(DiscoverableInfo info) {
-		processor.infoMap.remove(info.packet.getSessionId());
-		JDPClient.LOGGER.fine("Lost " + info.packet); //$NON-NLS-1$
-		processor.fireEvent(new DiscoveryEvent(Kind.LOST, info.packet));
-	}
-
 	public void stop() {
 		isRunning = false;
 	}
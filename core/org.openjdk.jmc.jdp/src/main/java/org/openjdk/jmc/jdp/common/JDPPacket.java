@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -42,6 +42,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 
 import org.openjdk.jmc.jdp.client.Discoverable;
 
@@ -203,7 +204,8 @@ public final class JDPPacket implements Discoverable {
 
 	@Override
 	public int hashCode() {
-		return sessionId.hashCode();
+		// Packets without a session id can still be received
+		return Objects.hashCode(sessionId);
 	}
 
 	@Override
@@ -218,7 +220,7 @@ public final class JDPPacket implements Discoverable {
 			return false;
 		}
 		JDPPacket other = (JDPPacket) obj;
-		if (!sessionId.equals(other.sessionId)) {
+		if (!Objects.equals(sessionId, other.sessionId)) {
 			return false;
 		}
 		if (!decoded.equals(other.decoded)) {
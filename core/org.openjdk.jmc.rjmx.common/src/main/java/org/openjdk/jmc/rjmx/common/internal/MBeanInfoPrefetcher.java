@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.rmi.UnmarshalException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.IntrospectionException;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.openjdk.jmc.rjmx.common.RJMXCorePlugin;
+import org.openjdk.jmc.rjmx.common.subscription.IMBeanHelperService;
+
+/**
+ * Retrieves the MBean information for many MBeans at once. Each MBean needs a round trip to the
+ * server, so the requests are spread over a few threads that each keep one request in flight. On
+ * servers with tens of thousands of MBeans this makes the difference between seconds and minutes.
+ * <p>
+ * The calling thread takes part in the work, so the information is retrieved even if the shared
+ * threads are busy with requests for other connections.
+ */
+public final class MBeanInfoPrefetcher implements Runnable {
+
+	private static final int PARALLELISM = 8;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+	private static final ThreadPoolExecutor FETCH_POOL = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 60,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+				Thread thread = new Thread(r, "RJMX MBean info fetcher " + THREAD_COUNT.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	static {
+		FETCH_POOL.allowCoreThreadTimeOut(true);
+	}
+
+	private final IMBeanHelperService service;
+	private final List<ObjectName> names;
+	private final Map<ObjectName, MBeanInfo> infos;
+	private final AtomicInteger skippedCount = new AtomicInteger();
+	// The fields below are guarded by this
+	private int nextIndex;
+	private int inFlightCount;
+	private Exception failure;
+
+	private MBeanInfoPrefetcher(IMBeanHelperService service, List<ObjectName> names) {
+		this.service = service;
+		this.names = names;
+		infos = new ConcurrentHashMap<>(names.size());
+	}
+
+	/**
+	 * Retrieve the MBean information for a number of MBeans. MBeans that can not be introspected,
+	 * for instance because they have been unregistered since their names were queried or their
+	 * information can not be unmarshalled, are left out.
+	 *
+	 * @param service
+	 *            the service to retrieve the information through, normally caching it
+	 * @param names
+	 *            the MBeans to retrieve the information for
+	 * @return a map with the ObjectNames and their associated MBeanInfos
+	 * @throws IOException
+	 *             if the connection failed or some other IO related problem occurred
+	 */
+	public static Map<ObjectName, MBeanInfo> fetch(IMBeanHelperService service, List<ObjectName> names)
+			throws IOException {
+		MBeanInfoPrefetcher prefetcher = new MBeanInfoPrefetcher(service, names);
+		int helperCount = Math.min(PARALLELISM, names.size()) - 1;
+		for (int i = 0; i < helperCount; i++) {
+			try {
+				FETCH_POOL.execute(prefetcher);
+			} catch (RejectedExecutionException e) {
+				// Let the calling thread do the work
+				break;
+			}
+		}
+		prefetcher.run();
+		prefetcher.awaitCompletion();
+		int skippedCount = prefetcher.skippedCount.get();
+		if (skippedCount > 0) {
+			RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING,
+					"Skipped " + skippedCount + " MBeans because their MBean info could not be retrieved."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return prefetcher.infos;
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			ObjectName name;
+			synchronized (this) {
+				if (failure != null || nextIndex >= names.size()) {
+					return;
+				}
+				name = names.get(nextIndex++);
+				inFlightCount++;
+			}
+			try {
+				fetch(name);
+			} catch (IOException | RuntimeException e) {
+				synchronized (this) {
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			} finally {
+				synchronized (this) {
+					if (--inFlightCount == 0) {
+						notifyAll();
+					}
+				}
+			}
+		}
+	}
+
+	private void fetch(ObjectName name) throws IOException {
+		try {
+			MBeanInfo info = service.getMBeanInfo(name);
+			if (info != null) {
+				infos.put(name, info);
+			}
+		} catch (NullPointerException e) {
+			/*
+			 * Skip problematic MBeans when connecting. Workaround implemented so that we can
+			 * connect to JBoss 4.2.3.
+			 */
+			RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " + name.toString() //$NON-NLS-1$
+					+ ". Could not retrieve the MBean info for the MBean. Set log level to fine for stacktrace!"); //$NON-NLS-1$
+			RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
+			skippedCount.incrementAndGet();
+		} catch (UnmarshalException e) {
+			RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " //$NON-NLS-1$
+					+ name.toString()
+					+ ". Could not retrieve the MBean info due to marshalling problems. Set log level to fine for stacktrace!"); //$NON-NLS-1$
+			RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
+			skippedCount.incrementAndGet();
+		} catch (InstanceNotFoundException e) {
+			/*
+			 * We may end up here if the MBean was unregistered between the call to getMBeanNames
+			 * and getMBeanInfo(). Should not be very common though.
+			 */
+			RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " + name.toString() //$NON-NLS-1$
+					+ ". It could not be found and may have been unregistered very recently. Set log level to fine to fine for stacktrace!"); //$NON-NLS-1$
+			RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
+		} catch (IntrospectionException | ReflectionException e) {
+			// A single broken MBean should not hide the information of all the others
+			RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " + name.toString() //$NON-NLS-1$
+					+ ". Could not introspect the MBean. Set log level to fine for stacktrace!"); //$NON-NLS-1$
+			RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
+			skippedCount.incrementAndGet();
+		}
+	}
+
+	private synchronized void awaitCompletion() throws IOException {
+		// The remaining names have been taken, wait for the requests still in flight on other threads
+		while (inFlightCount > 0) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while retrieving MBean information"); //$NON-NLS-1$
+			}
+		}
+		if (failure instanceof IOException) {
+			throw (IOException) failure;
+		} else if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -39,6 +39,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 import javax.management.Attribute;
@@ -74,6 +75,8 @@ public final class MCMBeanServerConnection implements MBeanServerConnection {
 	private final SyntheticAttributeRepository attributeRepository;
 	private final SyntheticNotificationRepository notificationRepository;
 	private final MBeanServerConnection delegate;
+	// Synthetic MBeans are only registered on creation, so their information never changes
+	private final ConcurrentHashMap<ObjectName, MBeanInfo> syntheticInfos = new ConcurrentHashMap<>();
 
 	public MCMBeanServerConnection(MBeanServerConnection delegate, List<SyntheticAttributeEntry> attributeEntries,
 			List<SyntheticNotificationEntry> notificationEntries) {
@@ -503,7 +506,12 @@ public final class MCMBeanServerConnection implements MBeanServerConnection {
 			return delegate.getMBeanInfo(name);
 		}
 
-		return unifyWithDelegateMBeanInfo(name, unifySyntheticMBeanInfo(name));
+		MBeanInfo syntheticInfo = syntheticInfos.get(name);
+		if (syntheticInfo == null) {
+			syntheticInfo = unifySyntheticMBeanInfo(name);
+			syntheticInfos.putIfAbsent(name, syntheticInfo);
+		}
+		return unifyWithDelegateMBeanInfo(name, syntheticInfo);
 	}
 
 	private MBeanInfo unifySyntheticMBeanInfo(ObjectName name)
@@ -518,10 +526,14 @@ public final class MCMBeanServerConnection implements MBeanServerConnection {
 
 	private MBeanInfo unifyWithDelegateMBeanInfo(ObjectName name, MBeanInfo syntheticMBeanInfo)
 			throws IOException, InstanceNotFoundException, IntrospectionException, ReflectionException {
-		if (!delegate.isRegistered(name)) {
+		MBeanInfo realMBeanInfo;
+		try {
+			// Saves a round trip compared to checking if the MBean is registered first
+			realMBeanInfo = delegate.getMBeanInfo(name);
+		} catch (InstanceNotFoundException e) {
 			return syntheticMBeanInfo;
 		}
-		return unifyMBeanInfo(syntheticMBeanInfo, delegate.getMBeanInfo(name));
+		return unifyMBeanInfo(syntheticMBeanInfo, realMBeanInfo);
 	}
 
 	private MBeanInfo unifyMBeanInfo(MBeanInfo synthetic, MBeanInfo real) {
@@ -583,6 +595,7 @@ public final class MCMBeanServerConnection implements MBeanServerConnection {
 	}
 
 	public void dispose() {
+		syntheticInfos.clear();
 		notificationRepository.dispose();
 		attributeRepository.dispose();
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -36,17 +36,17 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.net.MalformedURLException;
-import java.rmi.UnmarshalException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import javax.management.AttributeNotFoundException;
@@ -58,11 +58,9 @@ import javax.management.MBeanInfo;
 import javax.management.MBeanServerConnection;
 import javax.management.MBeanServerDelegate;
 import javax.management.MBeanServerNotification;
-import javax.management.MalformedObjectNameException;
 import javax.management.Notification;
 import javax.management.NotificationListener;
 import javax.management.ObjectName;
-import javax.management.QueryExp;
 import javax.management.ReflectionException;
 import javax.management.remote.JMXConnectionNotification;
 import javax.management.remote.JMXConnector;
@@ -124,9 +122,18 @@ public class RJMXConnection implements Closeable, IMBeanHelperService {
 	private long m_lastRecalibration;
 	private long m_remoteStartTime = REMOTE_START_TIME_UNDEFINED;
 
-	private boolean m_hasInitializedAllMBeans = false;
-	private final HashMap<ObjectName, MBeanInfo> m_cachedInfos = new HashMap<>();
-	private volatile Set<ObjectName> m_cachedMBeanNames = new HashSet<>();
+	/*
+	 * The MBean information is cached per MBean, and entries are dropped one at a time as MBeans
+	 * are registered and unregistered. Lookups do not lock, so that retrieving information for one
+	 * MBean does not hold up lookups of others.
+	 */
+	private final ConcurrentHashMap<ObjectName, MBeanInfo> m_cachedInfos = new ConcurrentHashMap<>();
+	// Incremented whenever cached information is dropped, before it is dropped
+	private final AtomicLong m_cacheInvalidations = new AtomicLong();
+	// Guards changes to the set of cached MBean names, but not reads of it
+	private final Object m_cachedNamesLock = new Object();
+	// Null until the names have been queried
+	private volatile Set<ObjectName> m_cachedMBeanNames;
 	private final Runnable m_onFailCallback;
 	private final CopyOnWriteArrayList<IMBeanServerChangeListener> m_mbeanListeners = new CopyOnWriteArrayList<>();
 	private final NotificationListener m_registrationListener = new NotificationListener() {
@@ -135,24 +142,22 @@ public class RJMXConnection implements Closeable, IMBeanHelperService {
 			if (notification instanceof MBeanServerNotification) {
 				ObjectName name = ((MBeanServerNotification) notification).getMBeanName();
 				if (notification.getType().equals(MBeanServerNotification.REGISTRATION_NOTIFICATION)) {
-					try {
-						synchronized (m_cachedInfos) {
-							getMBeanInfo(name);
-							if (m_cachedMBeanNames.size() > 0) {
-								m_cachedMBeanNames.add(name);
-							}
-						}
-						for (IMBeanServerChangeListener l : m_mbeanListeners) {
-							l.mbeanRegistered(name);
+					// The information is retrieved when first asked for, a previous MBean with the same name may be cached
+					invalidateMBeanInfo(name);
+					synchronized (m_cachedNamesLock) {
+						if (m_cachedMBeanNames != null) {
+							m_cachedMBeanNames.add(name);
 						}
-					} catch (Exception e) {
-						RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING,
-								"Could not retrieve MBean information for " + name + '!', e); //$NON-NLS-1$
+					}
+					for (IMBeanServerChangeListener l : m_mbeanListeners) {
+						l.mbeanRegistered(name);
 					}
 				} else if (notification.getType().equals(MBeanServerNotification.UNREGISTRATION_NOTIFICATION)) {
-					synchronized (m_cachedInfos) {
-						m_cachedInfos.remove(name);
-						m_cachedMBeanNames.remove(name);
+					invalidateMBeanInfo(name);
+					synchronized (m_cachedNamesLock) {
+						if (m_cachedMBeanNames != null) {
+							m_cachedMBeanNames.remove(name);
+						}
 					}
 					for (IMBeanServerChangeListener l : m_mbeanListeners) {
 						l.mbeanUnregistered(name);
@@ -285,37 +290,66 @@ public class RJMXConnection implements Closeable, IMBeanHelperService {
 
 	@Override
 	public Set<ObjectName> getMBeanNames() throws IOException {
-		synchronized (m_cachedInfos) {
-			if (m_cachedMBeanNames.size() == 0) {
-				MBeanServerConnection server = ensureConnected();
-				m_cachedMBeanNames = server.queryNames(null, null);
+		Set<ObjectName> names = m_cachedMBeanNames;
+		if (names == null) {
+			/*
+			 * Registration notifications wait for the query to complete, so that no MBean
+			 * registered or unregistered in the meantime is missed.
+			 */
+			synchronized (m_cachedNamesLock) {
+				names = m_cachedMBeanNames;
+				if (names == null) {
+					MBeanServerConnection server = ensureConnected();
+					names = ConcurrentHashMap.newKeySet();
+					names.addAll(server.queryNames(null, null));
+					m_cachedMBeanNames = names;
+				}
 			}
-			return new HashSet<>(m_cachedMBeanNames);
 		}
+		return new HashSet<>(names);
 	}
 
 	@Override
 	public HashMap<ObjectName, MBeanInfo> getMBeanInfos() throws IOException {
-		synchronized (m_cachedInfos) {
-			initializeMBeanInfos();
-			return new HashMap<>(m_cachedInfos);
+		Set<ObjectName> names = getMBeanNames();
+		HashMap<ObjectName, MBeanInfo> infos = new HashMap<>(names.size());
+		List<ObjectName> missingNames = new ArrayList<>();
+		for (ObjectName name : names) {
+			MBeanInfo mbeanInfo = m_cachedInfos.get(name);
+			if (mbeanInfo != null) {
+				infos.put(name, mbeanInfo);
+			} else {
+				missingNames.add(name);
+			}
+		}
+		if (!missingNames.isEmpty()) {
+			infos.putAll(MBeanInfoPrefetcher.fetch(this, missingNames));
 		}
+		return infos;
 	}
 
 	@Override
 	public MBeanInfo getMBeanInfo(ObjectName mbean)
 			throws InstanceNotFoundException, IntrospectionException, ReflectionException, IOException {
-		synchronized (m_cachedInfos) {
-			MBeanInfo mbeanInfo = m_cachedInfos.get(mbean);
-			if (mbeanInfo == null) {
-				MBeanServerConnection server = ensureConnected();
-				mbeanInfo = server.getMBeanInfo(mbean);
-				if (mbeanInfo != null) {
-					m_cachedInfos.put(mbean, mbeanInfo);
+		MBeanInfo mbeanInfo = m_cachedInfos.get(mbean);
+		if (mbeanInfo == null) {
+			long invalidations = m_cacheInvalidations.get();
+			MBeanServerConnection server = ensureConnected();
+			mbeanInfo = server.getMBeanInfo(mbean);
+			if (mbeanInfo != null) {
+				m_cachedInfos.putIfAbsent(mbean, mbeanInfo);
+				// The MBean may have been unregistered while its information was retrieved
+				if (m_cacheInvalidations.get() != invalidations) {
+					m_cachedInfos.remove(mbean, mbeanInfo);
 				}
 			}
-			return mbeanInfo;
 		}
+		return mbeanInfo;
+	}
+
+	private void invalidateMBeanInfo(ObjectName mbean) {
+		m_cacheInvalidations.incrementAndGet();
+		m_cachedInfos.remove(mbean);
 	}
 
 	@Override
@@ -392,10 +426,10 @@ public class RJMXConnection implements Closeable, IMBeanHelperService {
 	}
 
 	public void clearCache() {
-		synchronized (m_cachedInfos) {
+		synchronized (m_cachedNamesLock) {
+			m_cacheInvalidations.incrementAndGet();
 			m_cachedInfos.clear();
-			m_cachedMBeanNames.clear();
-			m_hasInitializedAllMBeans = false;
+			m_cachedMBeanNames = null;
 		}
 	}
 
@@ -450,75 +484,6 @@ public class RJMXConnection implements Closeable, IMBeanHelperService {
 		return m_server;
 	}
 
-	/**
-	 * Returns the bean information for the MBeans matching the domain and query.
-	 *
-	 * @param domain
-	 *            the domain for which to retrieve the information.
-	 * @param query
-	 *            a query to filter for which MBeans to retrieve the information.
-	 * @return a map with the ObjectNames and their associated MBeanInfos.
-	 * @throws IOException
-	 *             if the connection failed or some other IO related problem occurred.
-	 * @throws MalformedObjectNameException
-	 *             if a particularly malign (malformatted) domain was specified.
-	 */
-	private HashMap<ObjectName, MBeanInfo> getMBeanInfos(String domain, QueryExp query)
-			throws MalformedObjectNameException, IOException {
-		MBeanServerConnection server = ensureConnected();
-		ObjectName objectName = null;
-		int skippedMBeanCounter = 0;
-		if (domain != null) {
-			objectName = new ObjectName(domain + ":*"); //$NON-NLS-1$
-		}
-		Set<ObjectName> names = server.queryNames(objectName, query);
-		HashMap<ObjectName, MBeanInfo> infos = new HashMap<>(names.size());
-
-		Iterator<ObjectName> iter = names.iterator();
-		while (iter.hasNext()) {
-			ObjectName name = iter.next();
-			try {
-				infos.put(name, getMBeanInfo(name));
-			} catch (NullPointerException e) {
-				/*
-				 * Skip problematic MBeans when connecting. Workaround implemented so that we can
-				 * connect to JBoss 4.2.3.
-				 */
-				RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " + name.toString() //$NON-NLS-1$
-						+ ". Could not retrieve the MBean info for the MBean. Set log level to fine for stacktrace!"); //$NON-NLS-1$
-				RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
-				skippedMBeanCounter++;
-			} catch (UnmarshalException e) {
-				RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " //$NON-NLS-1$
-						+ name.toString()
-						+ ". Could not retrieve the MBean info due to marshalling problems. Set log level to fine for stacktrace!"); //$NON-NLS-1$
-				RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
-				skippedMBeanCounter++;
-			} catch (InstanceNotFoundException e) {
-				/*
-				 * We may end up here if the MBean was unregistered between the call to
-				 * getMBeanNames and getMBeanInfo(). Should not be very common though.
-				 */
-				RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING, "Skipping " + name.toString() //$NON-NLS-1$
-						+ ". It could not be found and may have been unregistered very recently. Set log level to fine to fine for stacktrace!"); //$NON-NLS-1$
-				RJMXCorePlugin.getDefault().getLogger().log(Level.FINE, e.getMessage(), e);
-			} catch (IntrospectionException e) {
-				IOException exception = new IOException("Error accessing the bean."); //$NON-NLS-1$
-				exception.initCause(e);
-				throw exception;
-			} catch (ReflectionException e) {
-				IOException exception = new IOException("Error accessing the bean."); //$NON-NLS-1$
-				exception.initCause(e);
-				throw exception;
-			}
-		}
-		if (skippedMBeanCounter > 0) {
-			RJMXCorePlugin.getDefault().getLogger().log(Level.WARNING,
-					"Skipped " + skippedMBeanCounter + " MBeans because of marshalling related issues."); //$NON-NLS-1$ //$NON-NLS-2$
-		}
-		return infos;
-	}
-
 	/**
 	 * Tries to add a dedicated notification listener that removes unloaded MBeans.
 	 */
@@ -533,25 +498,6 @@ public class RJMXConnection implements Closeable, IMBeanHelperService {
 		}
 	}
 
-	/**
-	 * Tries to populate the MBean information cache if it is empty.
-	 *
-	 * @throws IOException
-	 *             if the connection failed or some other IO related problem occurred.
-	 */
-	private void initializeMBeanInfos() throws IOException {
-		synchronized (m_cachedInfos) {
-			if (!m_hasInitializedAllMBeans) {
-				try {
-					getMBeanInfos(null, null);
-					m_hasInitializedAllMBeans = true;
-				} catch (MalformedObjectNameException e) {
-					assert (false); // Should not be able to get here!
-				}
-			}
-		}
-	}
-
 	private long fetchServerStartTime() throws IOException {
 		try {
 			return ConnectionToolkit.getRuntimeBean(ensureConnected()).getStartTime();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -34,9 +34,18 @@ package org.openjdk.jmc.rjmx.common.services.jfr.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import javax.management.openmbean.OpenDataException;
@@ -46,27 +55,53 @@ import org.openjdk.jmc.flightrecorder.configuration.IRecordingDescriptor;
 
 /**
  * Class representing an {@link InputStream} from an IRecordingDescriptor between two dates.
+ * <p>
+ * The recording is downloaded on a background thread, which reads ahead a bounded number of blocks
+ * while the consumer of the stream processes the previous ones. Larger blocks than the server
+ * default are requested, so that high latency links need fewer round trips.
+ * <p>
+ * If reading a block fails, the download is resumed on a new server side stream, starting at the
+ * recording chunk that was being read. The data that has already been read is skipped, so the
+ * consumer sees one uninterrupted stream.
  */
 // FIXME: If the invoke operations are folded into the IFlightRecorderService implementations then we can avoid having two versions of this stream class
 public final class JfrRecordingInputStreamV2 extends InputStream {
 	private final static String OPEN_STREAM = "openStream"; //$NON-NLS-1$
 	private final static String READ_STREAM = "readStream"; //$NON-NLS-1$
 	private final static String CLOSE_STREAM = "closeStream"; //$NON-NLS-1$
-	// FIXME: This seems to have no advantage over using null. Remove!
-	private final static Long UNKNOWN_STREAM = Long.valueOf(-1L);
+	private final static String BLOCK_SIZE_OPTION = "blockSize"; //$NON-NLS-1$
+	// The server default is 50000 bytes, which limits the throughput to 50 kB per round trip
+	private final static int BLOCK_SIZE = 1024 * 1024;
+	private final static int READ_AHEAD_BLOCKS = 4;
+	private final static int MAX_RESUME_ATTEMPTS = 3;
+	private final static long RESUME_DELAY_MS = 1000;
+	private final static long PROGRESS_LOG_INTERVAL_NS = TimeUnit.SECONDS.toNanos(10);
+	// Marks the end of the blocks, compared by identity
+	private final static byte[] END_OF_STREAM = new byte[0];
+	private final static AtomicInteger THREAD_COUNT = new AtomicInteger();
+	private final static ExecutorService DOWNLOADERS = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "JFR Recording Download " + THREAD_COUNT.incrementAndGet()); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private final IRecordingDescriptor recording;
 	private final IFlightRecorderCommunicationHelper helper;
 
 	private byte[] buf = new byte[0];
-	private int count = 0;
 	private int pos = 0;
-	private boolean closed = false;
+	private volatile boolean closed = false;
 	private boolean endOfStream = false;
 	private boolean removeOnClose = true;
 	private final Date startTime;
 	private final Date endTime;
-	private Long streamIdentifier = UNKNOWN_STREAM;
+	private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(READ_AHEAD_BLOCKS);
+	private final Object downloadLock = new Object();
+	private volatile Future<?> download;
+	private volatile IOException failure;
+	private volatile long downloadStartTime;
+	private volatile long bytesRead;
+	private volatile int resumeCount;
 
 	public JfrRecordingInputStreamV2(IFlightRecorderCommunicationHelper helper, IRecordingDescriptor recording,
 			Date startTime, Date endTime, boolean removeOnClose) {
@@ -88,38 +123,72 @@ public final class JfrRecordingInputStreamV2 extends InputStream {
 	@Override
 	public synchronized int read() throws IOException {
 		if (pos >= buf.length) {
-			if (closed || endOfStream) {
+			if (closed || endOfStream || !fill()) {
 				return -1;
 			}
-			fill();
-			if (endOfStream) {
+		}
+		bytesRead++;
+		return buf[pos++] & 0xff;
+	}
+
+	@Override
+	public synchronized int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		} else if (len == 0) {
+			return 0;
+		}
+		if (pos >= buf.length) {
+			if (closed || endOfStream || !fill()) {
 				return -1;
 			}
 		}
-		return buf[pos++] & 0xff;
+		int n = Math.min(len, buf.length - pos);
+		System.arraycopy(buf, pos, b, off, n);
+		pos += n;
+		bytesRead += n;
+		return n;
 	}
 
-	private void fill() throws IOException {
-		if (UNKNOWN_STREAM.equals(streamIdentifier)) {
-			readStreamIdentifier();
+	/**
+	 * Wait for the next block from the download.
+	 *
+	 * @return {@code false} if the end of the recording has been reached
+	 */
+	private boolean fill() throws IOException {
+		startDownload();
+		byte[] block;
+		try {
+			block = blocks.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while reading the recording"); //$NON-NLS-1$
 		}
-		buf = readStream(streamIdentifier);
-		if (buf != null) {
-			count += buf.length;
-			pos = 0;
-		} else {
-			pos = 0;
-			count = 0;
+		pos = 0;
+		if (block == END_OF_STREAM) {
 			buf = new byte[0];
 			endOfStream = true;
+			IOException e = failure;
+			if (e != null && !closed) {
+				try {
+					close();
+				} catch (IOException ioe2) {
+					// Don't care;
+				}
+				throw new IOException(e.getLocalizedMessage(), e);
+			}
+			return false;
 		}
+		buf = block;
+		return true;
 	}
 
-	private void readStreamIdentifier() throws IOException {
-		if (startTime == null) {
-			streamIdentifier = openStream(recording);
-		} else {
-			streamIdentifier = openStream(recording, startTime, endTime);
+	private void startDownload() {
+		synchronized (downloadLock) {
+			if (download == null && !closed) {
+				downloadStartTime = System.nanoTime();
+				download = DOWNLOADERS.submit(new Download());
+			}
 		}
 	}
 
@@ -132,18 +201,52 @@ public final class JfrRecordingInputStreamV2 extends InputStream {
 	@Override
 	public synchronized int available() throws IOException {
 		ensureOpen();
-		return count - pos;
+		return buf.length - pos;
+	}
+
+	/**
+	 * @return the number of bytes that have been read from this stream
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * @return the average number of bytes read per second since the download started
+	 */
+	public long getBytesPerSecond() {
+		long elapsed = System.nanoTime() - downloadStartTime;
+		return elapsed > 0 && download != null ? (long) (bytesRead * (double) TimeUnit.SECONDS.toNanos(1) / elapsed)
+				: 0;
+	}
+
+	/**
+	 * @return the number of times the download has been resumed after a failure
+	 */
+	public int getResumeCount() {
+		return resumeCount;
 	}
 
 	@Override
 	public void close() throws IOException {
-		if (closed == true) {
-			return;
+		Future<?> runningDownload;
+		synchronized (downloadLock) {
+			if (closed == true) {
+				return;
+			}
+			closed = true;
+			runningDownload = download;
 		}
-		closed = true;
-		if (!UNKNOWN_STREAM.equals(streamIdentifier)) {
-			closeStream(streamIdentifier);
+		// Make room for the download to notice that the stream is closed
+		blocks.clear();
+		if (runningDownload != null) {
+			// The download closes the server side stream, wait for it so that the recording can be closed
+			awaitDownload(runningDownload);
+			FlightRecorderServiceV1.LOGGER.log(Level.FINE, "Read " + bytesRead + " bytes from " + recording + " at " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ getBytesPerSecond() / 1024 + " KiB/s, resumed " + resumeCount + " times"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		// Wake up any reader waiting for a block
+		blocks.offer(END_OF_STREAM);
 		if (removeOnClose) {
 			try {
 				helper.closeRecording(recording);
@@ -155,19 +258,349 @@ public final class JfrRecordingInputStreamV2 extends InputStream {
 		}
 	}
 
-	private void closeStream(Long streamIdentifier) throws IOException {
-		invokeOperation(CLOSE_STREAM, streamIdentifier);
+	private static void awaitDownload(Future<?> runningDownload) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				runningDownload.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (ExecutionException e) {
+				FlightRecorderServiceV1.LOGGER.log(Level.WARNING, "Recording download failed", e.getCause()); //$NON-NLS-1$
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
-	private byte[] readStream(Long streamIdentifier) throws IOException {
-		return (byte[]) invokeOperation(READ_STREAM, streamIdentifier);
+	/**
+	 * Reads the blocks of the recording from the server into the read-ahead queue.
+	 */
+	private class Download implements Runnable {
+		private final ChunkTracker tracker = new ChunkTracker();
+		private ResumeFilter resumeFilter;
+		private boolean useBlockSize = true;
+		private boolean opened;
+		private long lastProgressLog = System.nanoTime();
+
+		@Override
+		public void run() {
+			Long streamIdentifier = null;
+			int failedAttempts = 0;
+			try {
+				while (!closed) {
+					byte[] block;
+					try {
+						if (streamIdentifier == null) {
+							streamIdentifier = openStream();
+							opened = true;
+						}
+						block = readStream(streamIdentifier);
+					} catch (IOException e) {
+						// Only resume streams that could be opened, other failures are unlikely to go away
+						if (closed || !opened || ++failedAttempts > MAX_RESUME_ATTEMPTS || !tracker.canResume()) {
+							throw e;
+						}
+						FlightRecorderServiceV1.LOGGER.log(Level.INFO, "Failed to read from " + recording //$NON-NLS-1$
+								+ ", will resume the download. Message was: " + e.getMessage()); //$NON-NLS-1$
+						if (streamIdentifier != null) {
+							closeStreamQuietly(streamIdentifier);
+							streamIdentifier = null;
+						}
+						resumeFilter = tracker.createResumeFilter();
+						resumeCount++;
+						TimeUnit.MILLISECONDS.sleep(RESUME_DELAY_MS * failedAttempts);
+						continue;
+					}
+					if (block == null) {
+						break;
+					}
+					// An in process server reuses the array for the next block, while this one is still queued
+					block = block.clone();
+					if (resumeFilter != null) {
+						block = resumeFilter.filter(block);
+						if (resumeFilter.isDone()) {
+							resumeFilter = null;
+						}
+					}
+					if (block.length > 0) {
+						failedAttempts = 0;
+						tracker.update(block);
+						put(block);
+						logProgress();
+					}
+				}
+				if (resumeFilter != null && !closed) {
+					throw new IOException("The recording ended before the download could be resumed"); //$NON-NLS-1$
+				}
+			} catch (IOException e) {
+				failure = e;
+			} catch (InterruptedException e) {
+				failure = new InterruptedIOException("Interrupted while downloading the recording"); //$NON-NLS-1$
+			} finally {
+				if (streamIdentifier != null) {
+					closeStreamQuietly(streamIdentifier);
+				}
+				put(END_OF_STREAM);
+			}
+		}
+
+		private void put(byte[] block) {
+			try {
+				while (!closed) {
+					if (blocks.offer(block, 100, TimeUnit.MILLISECONDS)) {
+						return;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void logProgress() {
+			long now = System.nanoTime();
+			if (now - lastProgressLog > PROGRESS_LOG_INTERVAL_NS
+					&& FlightRecorderServiceV1.LOGGER.isLoggable(Level.FINE)) {
+				lastProgressLog = now;
+				FlightRecorderServiceV1.LOGGER.log(Level.FINE, "Downloaded " + tracker.getPosition() + " bytes from " //$NON-NLS-1$ //$NON-NLS-2$
+						+ recording + ", read " + bytesRead + " bytes at " + getBytesPerSecond() / 1024 + " KiB/s"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		}
+
+		private Long openStream() throws IOException {
+			Date from = startTime;
+			if (resumeFilter != null && resumeFilter.getChunkStart() != ChunkTracker.NO_CHUNK) {
+				// Chunks overlapping the start time are included, so the chunk being read is included
+				from = new Date(TimeUnit.NANOSECONDS.toMillis(resumeFilter.getChunkStart()));
+			}
+			if (useBlockSize) {
+				try {
+					return JfrRecordingInputStreamV2.this.openStream(recording, from, endTime, true);
+				} catch (IOException e) {
+					// Servers that do not know the option reject it
+					FlightRecorderServiceV1.LOGGER.log(Level.FINE, "Could not set the block size for " + recording, e); //$NON-NLS-1$
+					useBlockSize = false;
+				}
+			}
+			return JfrRecordingInputStreamV2.this.openStream(recording, from, endTime, false);
+		}
 	}
 
-	private Long openStream(IRecordingDescriptor descriptor) throws IOException {
-		return openStream(descriptor, null, null);
+	/**
+	 * Keeps track of the chunks in the downloaded data. A recording is a sequence of chunks, each
+	 * starting with a header that gives the size of the chunk and its start time.
+	 */
+	public static final class ChunkTracker {
+		/**
+		 * Chunk start time used when no complete chunk header has been read.
+		 */
+		public static final long NO_CHUNK = Long.MIN_VALUE;
+		/**
+		 * The size of a chunk header: magic, version, size, constant pool offset, metadata offset,
+		 * start time and duration.
+		 */
+		public static final int HEADER_SIZE = 48;
+		static final int SIZE_OFFSET = 8;
+		static final int START_TIME_OFFSET = 32;
+		private static final int MAGIC = 0x464c5200; // "FLR\0"
+
+		private final byte[] header = new byte[HEADER_SIZE];
+		private long position;
+		private long chunkPosition;
+		private long chunkSize = Long.MAX_VALUE;
+		private long offsetInChunk;
+		private long chunkStart = NO_CHUNK;
+		private long chunkStartPosition;
+		private boolean valid = true;
+
+		/**
+		 * Track data that has been downloaded.
+		 *
+		 * @param data
+		 *            the data following the data previously tracked
+		 */
+		public void update(byte[] data) {
+			int off = 0;
+			while (off < data.length && valid) {
+				if (offsetInChunk < HEADER_SIZE) {
+					int n = (int) Math.min(data.length - off, HEADER_SIZE - offsetInChunk);
+					System.arraycopy(data, off, header, (int) offsetInChunk, n);
+					offsetInChunk += n;
+					off += n;
+					if (offsetInChunk == HEADER_SIZE) {
+						readHeader();
+					}
+				} else {
+					int n = (int) Math.min(data.length - off, chunkSize - offsetInChunk);
+					offsetInChunk += n;
+					off += n;
+				}
+				if (offsetInChunk == chunkSize) {
+					chunkPosition += chunkSize;
+					offsetInChunk = 0;
+					chunkSize = Long.MAX_VALUE;
+				}
+			}
+			position += data.length;
+		}
+
+		private void readHeader() {
+			chunkSize = readLong(header, SIZE_OFFSET);
+			if (readInt(header, 0) != MAGIC || chunkSize < HEADER_SIZE) {
+				// Not a recording in a known format, so it can not be resumed
+				valid = false;
+				return;
+			}
+			chunkStart = readLong(header, START_TIME_OFFSET);
+			chunkStartPosition = chunkPosition;
+		}
+
+		/**
+		 * @return the number of bytes tracked
+		 */
+		public long getPosition() {
+			return position;
+		}
+
+		/**
+		 * @return {@code true} if the data is a recording that a download can be resumed in
+		 */
+		public boolean canResume() {
+			return valid;
+		}
+
+		/**
+		 * @return a filter that skips the data that has been downloaded, in a new stream that
+		 *         starts at the last chunk with a complete header
+		 */
+		public ResumeFilter createResumeFilter() {
+			if (chunkStart == NO_CHUNK) {
+				return new ResumeFilter(NO_CHUNK, position);
+			}
+			return new ResumeFilter(chunkStart, position - chunkStartPosition);
+		}
+
+		static long readLong(byte[] data, int offset) {
+			return ((long) readInt(data, offset) << 32) | (readInt(data, offset + 4) & 0xffffffffL);
+		}
+
+		static int readInt(byte[] data, int offset) {
+			return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16) | ((data[offset + 2] & 0xff) << 8)
+					| (data[offset + 3] & 0xff);
+		}
 	}
 
-	private Long openStream(IRecordingDescriptor descriptor, Date startTime, Date endTime) throws IOException {
+	/**
+	 * Skips the data of a resumed stream that has already been downloaded. Chunks that start before
+	 * the chunk that was being read are skipped entirely, and then the bytes of that chunk, and
+	 * following chunks, that have already been downloaded.
+	 */
+	public static final class ResumeFilter {
+		private final long chunkStart;
+		private final long resumeSkip;
+		private final byte[] header = new byte[ChunkTracker.HEADER_SIZE];
+		private int headerFill;
+		private long discard;
+		private boolean chunkFound;
+
+		/**
+		 * @param chunkStart
+		 *            the start time of the chunk to resume at, or {@link ChunkTracker#NO_CHUNK} to
+		 *            resume at the start of the stream
+		 * @param resumeSkip
+		 *            the number of bytes to skip from the start of the chunk
+		 */
+		ResumeFilter(long chunkStart, long resumeSkip) {
+			this.chunkStart = chunkStart;
+			this.resumeSkip = resumeSkip;
+			if (chunkStart == ChunkTracker.NO_CHUNK) {
+				chunkFound = true;
+				discard = resumeSkip;
+			}
+		}
+
+		/**
+		 * @return the start time of the chunk to resume at, or {@link ChunkTracker#NO_CHUNK} to
+		 *         resume at the start of the stream
+		 */
+		public long getChunkStart() {
+			return chunkStart;
+		}
+
+		/**
+		 * @return {@code true} when all data that had already been downloaded has been skipped
+		 */
+		public boolean isDone() {
+			return chunkFound && discard == 0;
+		}
+
+		/**
+		 * Skip data of the resumed stream that has already been downloaded.
+		 *
+		 * @param data
+		 *            the next block of the resumed stream
+		 * @return the part of the block that has not been downloaded before
+		 * @throws IOException
+		 *             if the resumed stream does not contain the chunk to resume at
+		 */
+		public byte[] filter(byte[] data) throws IOException {
+			int off = 0;
+			while (off < data.length && !isDone()) {
+				if (discard > 0) {
+					int n = (int) Math.min(data.length - off, discard);
+					discard -= n;
+					off += n;
+				} else {
+					int n = Math.min(data.length - off, header.length - headerFill);
+					System.arraycopy(data, off, header, headerFill, n);
+					headerFill += n;
+					off += n;
+					if (headerFill == header.length) {
+						headerFill = 0;
+						readHeader();
+					}
+				}
+			}
+			if (off == 0) {
+				return data;
+			}
+			byte[] remaining = new byte[data.length - off];
+			System.arraycopy(data, off, remaining, 0, remaining.length);
+			return remaining;
+		}
+
+		private void readHeader() throws IOException {
+			long start = ChunkTracker.readLong(header, ChunkTracker.START_TIME_OFFSET);
+			long size = ChunkTracker.readLong(header, ChunkTracker.SIZE_OFFSET);
+			if (start == chunkStart) {
+				chunkFound = true;
+				discard = resumeSkip - header.length;
+			} else if (start < chunkStart && size >= header.length) {
+				// An earlier chunk that overlaps the start time of the resumed stream
+				discard = size - header.length;
+			} else {
+				throw new IOException("Could not find the chunk to resume the download at"); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private void closeStreamQuietly(Long streamIdentifier) {
+		try {
+			invokeOperation(CLOSE_STREAM, streamIdentifier);
+		} catch (IOException e) {
+			// Don't care;
+		}
+	}
+
+	private byte[] readStream(Long streamIdentifier) throws IOException {
+		return (byte[]) invokeOperation(READ_STREAM, streamIdentifier);
+	}
+
+	private Long openStream(IRecordingDescriptor descriptor, Date startTime, Date endTime, boolean setBlockSize)
+			throws IOException {
 		// FIXME: Replace with suitable IConstrainedMap.
 		Map<String, String> options = new HashMap<>();
 		if (startTime != null) {
@@ -176,6 +609,9 @@ public final class JfrRecordingInputStreamV2 extends InputStream {
 		if (endTime != null) {
 			options.put("endTime", Long.toString(endTime.getTime())); //$NON-NLS-1$
 		}
+		if (setBlockSize) {
+			options.put(BLOCK_SIZE_OPTION, Integer.toString(BLOCK_SIZE));
+		}
 		Long streamId;
 		try {
 			streamId = (Long) invokeOperation(OPEN_STREAM, descriptor.getId(),
@@ -184,25 +620,20 @@ public final class JfrRecordingInputStreamV2 extends InputStream {
 			throw new IOException(e);
 		}
 		if (streamId == null) {
-			return UNKNOWN_STREAM;
+			throw new IOException("Could not open a stream from " + descriptor); //$NON-NLS-1$
 		}
 		return streamId;
 	}
 
 	/**
-	 * If a method invocation fails, we will close the stream immediately.
+	 * Failures are left to the download to handle, which may resume on a new stream.
 	 */
 	private Object invokeOperation(String name, Object ... params) throws IOException {
 		try {
 			return helper.invokeOperation(name, params);
 		} catch (Exception ioe) {
-			FlightRecorderServiceV1.LOGGER.info("Failed to invoke operation " + name + ". Will now close! Message was: " //$NON-NLS-1$ //$NON-NLS-2$
+			FlightRecorderServiceV1.LOGGER.info("Failed to invoke operation " + name + ". Message was: " //$NON-NLS-1$ //$NON-NLS-2$
 					+ ioe.getMessage());
-			try {
-				close();
-			} catch (IOException ioe2) {
-				// Don't care;
-			}
 			IOException iot = new IOException(ioe.getLocalizedMessage());
 			iot.initCause(ioe);
 			throw iot;
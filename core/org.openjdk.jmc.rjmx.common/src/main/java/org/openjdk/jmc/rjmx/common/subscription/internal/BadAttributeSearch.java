@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServerConnection;
+
+import org.openjdk.jmc.rjmx.common.IConnectionHandle;
+import org.openjdk.jmc.rjmx.common.subscription.IMBeanHelperService;
+import org.openjdk.jmc.rjmx.common.subscription.MRI;
+import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
+
+/**
+ * Finds the attributes that can not be retrieved in a batch of attributes that failed to be
+ * retrieved. The batch is split in halves that are retrieved concurrently, and halves that fail are
+ * split again until the failing attributes have been isolated. This takes a number of round trips
+ * that grows with the logarithm of the batch size, rather than one round trip per attribute.
+ * <p>
+ * The values of the attributes in the halves that could be retrieved are kept, so that the healthy
+ * attributes do not miss a sample because of the failing ones.
+ */
+public final class BadAttributeSearch {
+
+	private static final int PARALLELISM = 4;
+	private static final ForkJoinPool PROBE_POOL = new ForkJoinPool(PARALLELISM);
+	private static final Comparator<MRI> MBEAN_ORDER = new Comparator<MRI>() {
+		@Override
+		public int compare(MRI o1, MRI o2) {
+			int result = o1.getObjectName().compareTo(o2.getObjectName());
+			return result != 0 ? result : o1.getDataPath().compareTo(o2.getDataPath());
+		}
+	};
+	private static final Comparator<MRIValueEvent> TIMESTAMP_ORDER = new Comparator<MRIValueEvent>() {
+		@Override
+		public int compare(MRIValueEvent o1, MRIValueEvent o2) {
+			return Long.compare(o1.getTimestamp(), o2.getTimestamp());
+		}
+	};
+
+	private final IConnectionHandle connectionHandle;
+	private final MBeanServerConnection server;
+	private final IMBeanHelperService helperService;
+	private final Queue<MRIValueEvent> events = new ConcurrentLinkedQueue<>();
+	private final Map<MRI, Exception> errors = new ConcurrentHashMap<>();
+	private final Set<MRI> missing = ConcurrentHashMap.newKeySet();
+
+	public BadAttributeSearch(IConnectionHandle connectionHandle, MBeanServerConnection server,
+			IMBeanHelperService helperService) {
+		this.connectionHandle = connectionHandle;
+		this.server = server;
+		this.helperService = helperService;
+	}
+
+	/**
+	 * Search a batch of attributes that failed to be retrieved for the attributes that can not be
+	 * retrieved. The search is stopped if the connection is lost.
+	 *
+	 * @param failedBatch
+	 *            the attributes to search
+	 */
+	public void search(List<MRI> failedBatch) {
+		List<MRI> attributes = new ArrayList<>(failedBatch);
+		// Keep the attributes of each MBean together, since each MBean is retrieved in a separate call
+		Collections.sort(attributes, MBEAN_ORDER);
+		PROBE_POOL.invoke(new Probe(attributes, true));
+	}
+
+	/**
+	 * @return the values of the attributes that could be retrieved, in timestamp order
+	 */
+	public List<MRIValueEvent> getEvents() {
+		// The probes complete in any order, but the values must be dispatched in timestamp order
+		List<MRIValueEvent> sortedEvents = new ArrayList<>(events);
+		Collections.sort(sortedEvents, TIMESTAMP_ORDER);
+		return sortedEvents;
+	}
+
+	/**
+	 * @return the attributes that could not be retrieved
+	 */
+	public List<MRI> getBadAttributes() {
+		List<MRI> badAttributes = new ArrayList<>(errors.keySet());
+		badAttributes.addAll(missing);
+		Collections.sort(badAttributes, MBEAN_ORDER);
+		return badAttributes;
+	}
+
+	/**
+	 * @param mri
+	 *            an attribute that could not be retrieved
+	 * @return the exception that was thrown when retrieving the attribute, or {@code null} if the
+	 *         attribute was just not returned
+	 */
+	public Exception getError(MRI mri) {
+		return errors.get(mri);
+	}
+
+	private class Probe extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final List<MRI> attributes;
+		private final boolean knownToFail;
+
+		Probe(List<MRI> attributes, boolean knownToFail) {
+			this.attributes = attributes;
+			this.knownToFail = knownToFail;
+		}
+
+		@Override
+		protected void compute() {
+			if (!connectionHandle.isConnected()) {
+				return;
+			}
+			if (attributes.size() == 1) {
+				probeAttribute(attributes.get(0));
+				return;
+			}
+			if (!knownToFail) {
+				try {
+					long before = System.currentTimeMillis();
+					Map<MRI, Object> batchValues = AttributeValueToolkit.getAttributes(server, attributes);
+					long timestamp = (System.currentTimeMillis() + before) / 2;
+					for (MRI mri : attributes) {
+						if (batchValues.containsKey(mri)) {
+							events.add(new MRIValueEvent(mri, timestamp, batchValues.get(mri)));
+						} else {
+							missing.add(mri);
+						}
+					}
+					return;
+				} catch (InstanceNotFoundException e) {
+					if (isSingleMBean()) {
+						// The MBean is gone, so none of its attributes can be retrieved
+						for (MRI mri : attributes) {
+							errors.put(mri, e);
+						}
+						return;
+					}
+				} catch (Exception e) {
+					// Split the batch to find the failing attributes
+				}
+			}
+			int middle = attributes.size() / 2;
+			invokeAll(new Probe(attributes.subList(0, middle), false),
+					new Probe(attributes.subList(middle, attributes.size()), false));
+		}
+
+		private boolean isSingleMBean() {
+			return attributes.get(0).getObjectName().equals(attributes.get(attributes.size() - 1).getObjectName());
+		}
+
+		private void probeAttribute(MRI mri) {
+			try {
+				long before = System.currentTimeMillis();
+				Object value = helperService.getAttributeValue(mri);
+				events.add(new MRIValueEvent(mri, (System.currentTimeMillis() + before) / 2, value));
+			} catch (Exception e) {
+				errors.put(mri, e);
+			}
+		}
+	}
+}
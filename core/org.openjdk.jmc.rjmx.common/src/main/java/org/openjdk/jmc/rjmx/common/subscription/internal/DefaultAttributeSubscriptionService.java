@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -67,7 +67,7 @@ public final class DefaultAttributeSubscriptionService
 	private final Map<MRI, AbstractAttributeSubscription> activeSubscriptions;
 	// value is either an attribute descriptor or a set of them
 	private final Map<IMRIValueListener, Object> activeListeners;
-	private final DefaultAttributeSubscriptionThread subscriptionThread;
+	private final DefaultAttributeSubscriptionTask subscriptionTask;
 	private final DefaultNotificationSubscriptionManager notificationManager;
 
 	public DefaultAttributeSubscriptionService(IConnectionHandle handle)
@@ -75,31 +75,46 @@ public final class DefaultAttributeSubscriptionService
 		this.handle = handle;
 		activeSubscriptions = new HashMap<>();
 		activeListeners = new HashMap<>();
-		subscriptionThread = new DefaultAttributeSubscriptionThread(handle);
-		subscriptionThread.start();
+		subscriptionTask = new DefaultAttributeSubscriptionTask(handle);
+		subscriptionTask.start();
 		notificationManager = new DefaultNotificationSubscriptionManager(handle);
 	}
 
 	@Override
 	public void collectDebugInformation(boolean collect) {
-		subscriptionThread.collectDebugInformation(collect);
+		subscriptionTask.collectDebugInformation(collect);
 		notificationManager.collectDebugInformation(collect);
 	}
 
 	@Override
 	public void clearDebugInformation() {
-		subscriptionThread.clearDebugInformation();
+		subscriptionTask.clearDebugInformation();
 		notificationManager.clearDebugInformation();
 	}
 
 	@Override
 	public Collection<IMRISubscriptionDebugInformation> getDebugInformation() {
 		Collection<IMRISubscriptionDebugInformation> debugInformation = new HashSet<>();
-		debugInformation.addAll(subscriptionThread.getDebugInformation());
+		debugInformation.addAll(subscriptionTask.getDebugInformation());
 		debugInformation.addAll(notificationManager.getDebugInformation());
 		return debugInformation;
 	}
 
+	@Override
+	public long getSamplingLag() {
+		return subscriptionTask.getSamplingLag();
+	}
+
+	@Override
+	public long getMaxSamplingLag() {
+		return subscriptionTask.getMaxSamplingLag();
+	}
+
+	@Override
+	public long getSkippedSampleCount() {
+		return subscriptionTask.getSkippedSampleCount();
+	}
+
 	/**
 	 * Adds the given attribute to the given listener's set of attributes. The possible previous
 	 * values are null (no previous attributes), an {@link MRI} (only one attribute) or a
@@ -297,7 +312,7 @@ public final class DefaultAttributeSubscriptionService
 	private void destroyAttibuteSubscription(AbstractAttributeSubscription subscription) {
 		switch (subscription.getMRIMetadata().getMRI().getType()) {
 		case ATTRIBUTE:
-			subscriptionThread.unregisterAttributeSubscription(subscription);
+			subscriptionTask.unregisterAttributeSubscription(subscription);
 			break;
 		case NOTIFICATION:
 			notificationManager.unregisterNotificationAttributeSubscription(subscription);
@@ -345,10 +360,10 @@ public final class DefaultAttributeSubscriptionService
 	}
 
 	/**
-	 * Checks if we're connected. If we are, we will check if there is a subscription thread. If
-	 * there is one, the subscription will be registered with it, else a subscription thread will be
+	 * Checks if we're connected. If we are, we will check if there is a subscription task. If there
+	 * is one, the subscription will be registered with it, else a subscription task will be
 	 * created. If it is a notification based subscription, it will be registered with the
-	 * notification manager instead of the subscription thread.
+	 * notification manager instead of the subscription task.
 	 *
 	 * @param connectionHandle
 	 * @param subscription
@@ -362,7 +377,7 @@ public final class DefaultAttributeSubscriptionService
 		if (subscription.getMRIMetadata().getMRI().getType() == Type.NOTIFICATION) {
 			notificationManager.registerNotificationAttributeSubscription(subscription);
 		} else {
-			subscriptionThread.registerAttributeSubscription(subscription);
+			subscriptionTask.registerAttributeSubscription(subscription);
 		}
 	}
 
@@ -372,7 +387,7 @@ public final class DefaultAttributeSubscriptionService
 	}
 
 	/**
-	 * Will shut down all subscription threads and clear all subscriptions for the the specified
+	 * Will shut down all subscription tasks and clear all subscriptions for the the specified
 	 * connector model, and stop listening on changes in the connector model.
 	 * <p>
 	 * No more events will ever be sent from the subscriptions previously created and associated
@@ -380,7 +395,7 @@ public final class DefaultAttributeSubscriptionService
 	 */
 	@Override
 	public synchronized void dispose() {
-		subscriptionThread.shutdown();
+		subscriptionTask.shutdown();
 		notificationManager.shutdown();
 		activeSubscriptions.clear();
 		activeListeners.clear();
@@ -406,6 +421,6 @@ public final class DefaultAttributeSubscriptionService
 
 	@Override
 	public boolean isMRIUnavailable(MRI attributeDescriptor) {
-		return subscriptionThread.isAttributeUnavailable(attributeDescriptor);
+		return subscriptionTask.isAttributeUnavailable(attributeDescriptor);
 	}
 }
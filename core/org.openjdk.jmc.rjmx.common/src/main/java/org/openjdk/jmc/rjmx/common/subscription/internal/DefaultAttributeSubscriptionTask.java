@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -46,6 +46,7 @@ import java.util.logging.Logger;
 
 import javax.management.InstanceNotFoundException;
 import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
 import javax.management.ReflectionException;
 
 import org.openjdk.jmc.rjmx.common.ConnectionException;
@@ -54,6 +55,7 @@ import org.openjdk.jmc.rjmx.common.ServiceNotAvailableException;
 import org.openjdk.jmc.rjmx.common.services.internal.IAttributeStorageService;
 import org.openjdk.jmc.rjmx.common.subscription.IMBeanHelperService;
 import org.openjdk.jmc.rjmx.common.subscription.IMRISubscription;
+import org.openjdk.jmc.rjmx.common.subscription.IUpdatePolicy;
 import org.openjdk.jmc.rjmx.common.subscription.MRI;
 import org.openjdk.jmc.rjmx.common.subscription.MRIValueEvent;
 import org.openjdk.jmc.rjmx.common.subscription.internal.IMRISubscriptionDebugInformation.SubscriptionState;
@@ -63,14 +65,20 @@ import org.openjdk.jmc.rjmx.common.subscription.internal.IMRISubscriptionDebugIn
  * of the AttributeSubscriptions, schedule calls for retrieving the current value of the
  * corresponding attribute.
  * <p>
- * Note that some attributes are not handled by this subscription thread, for instance notification
+ * The calls are not made from a dedicated thread per connection. Instead, the sampling is run as a
+ * task on the {@link SubscriptionScheduler} that is shared by all connections. The task is never
+ * run concurrently with itself, so the state of the subscriptions is only ever accessed by one
+ * thread at a time.
+ * <p>
+ * Note that some attributes are not handled by this subscription task, for instance notification
  * based ones.
  */
-public class DefaultAttributeSubscriptionThread extends Thread {
+public class DefaultAttributeSubscriptionTask implements SubscriptionScheduler.ITask {
 	// The logger.
 	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.rjmx.subscription"); //$NON-NLS-1$
 
 	private final IConnectionHandle connectionHandle;
+	private final String name;
 	private IAttributeStorageService attributeStorageService;
 	private final IMBeanHelperService helperService;
 	private final MBeanServerConnection server;
@@ -78,25 +86,33 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 
 	private final Map<IMRISubscription, SubscriptionStats> subscriptionStats = new HashMap<>();
 	private volatile boolean isRunning = true;
+	private SubscriptionScheduler.ScheduledTask scheduledTask;
+	private volatile Thread samplingThread;
 	private long lastTimestamp;
 	private final static long MAX_SLEEP_TIME = 2000;
 	private final static long MIN_SLEEP_TIME = 100;
 	private final Set<AbstractAttributeSubscription> recentlyAddedSubscriptions = new HashSet<>();
 	private final Set<AbstractAttributeSubscription> recentlyRemovedSubscriptions = new HashSet<>();
 	private final UnavailableSubscriptionsRepository unavailableSubscriptionsRepository;
+	// MBeans that were not found when their attributes were last retrieved
+	private final MBeanBackoffTracker badMBeans = new MBeanBackoffTracker();
 
 	private boolean sendNulls;
 
 	private volatile boolean collectDebugInfo;
 	private Map<MRI, DefaultSubscriptionDebugInformation> subscriptionDebugInfo;
 
+	private volatile long samplingLag;
+	private volatile long maxSamplingLag;
+	private volatile long skippedSampleCount;
+
 	public static class SubscriptionStats {
 		public long lastUpdate = Long.MIN_VALUE;
 	}
 
-	public DefaultAttributeSubscriptionThread(IConnectionHandle connectionHandle)
+	public DefaultAttributeSubscriptionTask(IConnectionHandle connectionHandle)
 			throws ConnectionException, ServiceNotAvailableException {
-		super("RJMX Subscription thread on " + connectionHandle.getServerDescriptor().getDisplayName()); //$NON-NLS-1$
+		name = "RJMX Subscription task on " + connectionHandle.getServerDescriptor().getDisplayName(); //$NON-NLS-1$
 		this.connectionHandle = connectionHandle;
 		helperService = connectionHandle.getServiceOrThrow(IMBeanHelperService.class);
 		server = connectionHandle.getServiceOrThrow(MBeanServerConnection.class);
@@ -105,29 +121,43 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 * This is where all the action is. Starting this thread will start the subscription of the
-	 * registered subscriptions.
+	 * Starts the subscription of the registered subscriptions by scheduling the sampling on the
+	 * shared scheduler.
+	 */
+	public synchronized void start() {
+		if (scheduledTask == null) {
+			scheduledTask = SubscriptionScheduler.getDefault().schedule(this, name);
+		}
+	}
+
+	/**
+	 * This is where all the action is. Called by the scheduler each time the subscriptions should
+	 * be sampled.
 	 */
 	@Override
-	public void run() {
-		while (isRunning) {
-			unregisterSubscriptionsQueuedForRemove();
-			reregisterPreviouslyBadSubscriptions();
-			registerSubscriptionsQueuedForAdd();
-			long sleepTime = retrieveAndDispatchValues();
-			try {
-				sleep(sleepTime);
-			} catch (InterruptedException e) {
-				// We were interrupted - close down shop.
-				isRunning = false;
+	public long run(long lag) {
+		samplingThread = Thread.currentThread();
+		try {
+			if (isRunning) {
+				recordSamplingLag(lag);
+				unregisterSubscriptionsQueuedForRemove();
+				reregisterPreviouslyBadSubscriptions();
+				registerSubscriptionsQueuedForAdd();
+				long sleepTime = retrieveAndDispatchValues();
+				if (isRunning) {
+					return sleepTime;
+				}
 			}
+			synchronized (recentlyRemovedSubscriptions) {
+				recentlyRemovedSubscriptions.addAll(attributeSubscriptions.values());
+				recentlyRemovedSubscriptions.addAll(unavailableSubscriptionsRepository.getAllSubscriptions());
+				unavailableSubscriptionsRepository.dispose();
+			}
+			unregisterSubscriptionsQueuedForRemove();
+			return -1;
+		} finally {
+			samplingThread = null;
 		}
-		synchronized (recentlyRemovedSubscriptions) {
-			recentlyRemovedSubscriptions.addAll(attributeSubscriptions.values());
-			recentlyRemovedSubscriptions.addAll(unavailableSubscriptionsRepository.getAllSubscriptions());
-			unavailableSubscriptionsRepository.dispose();
-		}
-		unregisterSubscriptionsQueuedForRemove();
 	}
 
 	private long retrieveAndDispatchValues() {
@@ -141,6 +171,9 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 			SubscriptionStats stats = subscriptionStats.get(subscription);
 			long targetTime = subscription.getUpdatePolicy().getNextUpdate(stats.lastUpdate);
 			if (targetTime <= now) {
+				if (stats.lastUpdate != Long.MIN_VALUE) {
+					recordSkippedSamples(subscription.getUpdatePolicy(), targetTime, now);
+				}
 				normalAttributes.add(subscription.getMRIMetadata().getMRI());
 				stats.lastUpdate = now;
 				targetTime = subscription.getUpdatePolicy().getNextUpdate(now);
@@ -165,11 +198,11 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 		} catch (ReflectionException e) {
 			searchAndRemoveBadAttributes(normalAttributes);
 		} catch (InvoluntaryDisconnectException e) {
-			LOGGER.warning("Subscription thread is terminating due to loss of connection!"); //$NON-NLS-1$
+			LOGGER.warning("Subscription task is terminating due to loss of connection!"); //$NON-NLS-1$
 			dispatchConnectionLostEvents();
 			shutdown();
 		} catch (ConnectException e) {
-			LOGGER.warning("Subscription thread is terminating due to loss of connection!"); //$NON-NLS-1$
+			LOGGER.warning("Subscription task is terminating due to loss of connection!"); //$NON-NLS-1$
 			dispatchConnectionLostEvents();
 			shutdown();
 		} catch (IOException e) {
@@ -178,7 +211,7 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 			if (isRunning) {
 				throw e;
 			} else {
-				LOGGER.fine("Failed to get attributes, probably since the subscription thread is terminating"); //$NON-NLS-1$
+				LOGGER.fine("Failed to get attributes, probably since the subscription task is terminating"); //$NON-NLS-1$
 			}
 		}
 	}
@@ -206,8 +239,37 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 		}
 	}
 
+	private void recordSamplingLag(long lag) {
+		samplingLag = lag;
+		maxSamplingLag = Math.max(maxSamplingLag, lag);
+	}
+
+	private void recordSkippedSamples(IUpdatePolicy policy, long targetTime, long now) {
+		skippedSampleCount += getSkippedSampleCount(policy, targetTime, now);
+	}
+
+	/**
+	 * @param policy
+	 *            the update policy of a subscription
+	 * @param targetTime
+	 *            the time that the subscription should have been sampled at
+	 * @param now
+	 *            the time that the subscription is actually sampled at
+	 * @return the number of whole update intervals that passed without the subscription being
+	 *         sampled, or 0 if the policy does not have an interval
+	 */
+	public static long getSkippedSampleCount(IUpdatePolicy policy, long targetTime, long now) {
+		if (policy instanceof IIntervalUpdatePolicy) {
+			int interval = ((IIntervalUpdatePolicy) policy).getIntervalTime();
+			if (interval > 0 && now - targetTime >= interval) {
+				return (now - targetTime) / interval;
+			}
+		}
+		return 0;
+	}
+
 	/**
-	 * @return the connection handle associated with this subscription thread.
+	 * @return the connection handle associated with this subscription task.
 	 */
 	public IConnectionHandle getConnectionHandle() {
 		return connectionHandle;
@@ -228,11 +290,11 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 * This method is only to be called from the subscription thread!
+	 * This method is only to be called while sampling!
 	 */
 	private void registerSubscriptionsQueuedForAdd() {
-		if (Thread.currentThread() != this) {
-			LOGGER.warning("registerQueuedSubscriptions abused in DefaultAttributeSubscriptionThread!"); //$NON-NLS-1$
+		if (Thread.currentThread() != samplingThread) {
+			LOGGER.warning("registerQueuedSubscriptions abused in DefaultAttributeSubscriptionTask!"); //$NON-NLS-1$
 		}
 
 		List<AbstractAttributeSubscription> recentlyAdded = new ArrayList<>();
@@ -256,11 +318,11 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 * This method is only to be called from the subscription thread!
+	 * This method is only to be called while sampling!
 	 */
 	private void unregisterSubscriptionsQueuedForRemove() {
-		if (Thread.currentThread() != this) {
-			LOGGER.warning("unregisterQueuedSubscriptions abused in DefaultAttributeSubscriptionThread!"); //$NON-NLS-1$
+		if (Thread.currentThread() != samplingThread) {
+			LOGGER.warning("unregisterQueuedSubscriptions abused in DefaultAttributeSubscriptionTask!"); //$NON-NLS-1$
 		}
 
 		List<AbstractAttributeSubscription> recentlyRemoved = new ArrayList<>();
@@ -276,6 +338,21 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 			recordDisconnected(subscription.getMRIMetadata().getMRI());
 			unavailableSubscriptionsRepository.remove(subscription);
 		}
+		pruneBadMBeans();
+	}
+
+	/**
+	 * Forget the backoff of MBeans that no longer have any unavailable subscriptions.
+	 */
+	private void pruneBadMBeans() {
+		if (badMBeans.size() == 0) {
+			return;
+		}
+		Set<ObjectName> subscribedMBeans = new HashSet<>();
+		for (AbstractAttributeSubscription subscription : unavailableSubscriptionsRepository.getAllSubscriptions()) {
+			subscribedMBeans.add(subscription.getMRIMetadata().getMRI().getObjectName());
+		}
+		badMBeans.retainAll(subscribedMBeans);
 	}
 
 	private void unregisterSubscription(AbstractAttributeSubscription subscription) {
@@ -302,21 +379,27 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	 * Check if we can now add back subscriptions gone bad.
 	 */
 	private void reregisterPreviouslyBadSubscriptions() {
+		long now = System.currentTimeMillis();
 		for (AbstractAttributeSubscription subscription : unavailableSubscriptionsRepository
 				.getBackoffedSubscriptions()) {
-			if (hasSubscriptionBecomeAvailable(subscription)) {
-				recordSucceededReconnection(subscription.getMRIMetadata().getMRI());
+			MRI mri = subscription.getMRIMetadata().getMRI();
+			if (badMBeans.isBackedOff(mri.getObjectName(), now)) {
+				// Do not test each attribute of an MBean that was recently found to be missing
+				continue;
+			}
+			Exception e = getBadAttributeError(mri);
+			if (e == null) {
+				badMBeans.remove(mri.getObjectName());
+				recordSucceededReconnection(mri);
 				registerSubscription(subscription);
 				unavailableSubscriptionsRepository.remove(subscription);
 				subscription.fireAttributeChange(new AttributeReregisteredEvent(subscription, getLastTimestamp()));
+			} else if (e instanceof InstanceNotFoundException) {
+				badMBeans.backoff(mri.getObjectName(), now);
 			}
 		}
 	}
 
-	private boolean hasSubscriptionBecomeAvailable(AbstractAttributeSubscription subscription) {
-		return getBadAttributeError(subscription.getMRIMetadata().getMRI()) == null;
-	}
-
 	/**
 	 * @param subscription
 	 *            the subscription to unregister.
@@ -332,32 +415,35 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 	}
 
 	/**
-	 *
+	 * Stops the subscription of all subscriptions. The subscriptions are unregistered the next time
+	 * the sampling is run, which is done as soon as any ongoing sampling has completed.
 	 */
-	public void shutdown() {
+	public synchronized void shutdown() {
 		isRunning = false;
-		interrupt();
+		if (scheduledTask != null) {
+			scheduledTask.runSoon();
+		}
 	}
 
 	/**
-	 * Tests each individual attribute in the list and removes any subscriptions that corresponds to
-	 * attributes that it fails to access.
+	 * Searches the list for attributes that can not be accessed, and removes any subscriptions that
+	 * corresponds to them. The values of the attributes that could be accessed are dispatched.
 	 *
 	 * @param attributesToFetch
 	 *            A list of MRI objects to test.
 	 */
 	private void searchAndRemoveBadAttributes(List<MRI> attributesToFetch) {
-		for (MRI mri : attributesToFetch) {
-			if (!getConnectionHandle().isConnected()) {
-				return;
-			}
-			Exception e = getBadAttributeError(mri);
-			if (e != null) {
-				recordConnectionLost(mri);
-				removeBadAttribute(mri, e);
-			} else {
-				recordEventPolled(mri);
+		BadAttributeSearch search = new BadAttributeSearch(getConnectionHandle(), server, helperService);
+		search.search(attributesToFetch);
+		dispatchEvents(search.getEvents());
+		long now = System.currentTimeMillis();
+		for (MRI mri : search.getBadAttributes()) {
+			Exception e = search.getError(mri);
+			if (e instanceof InstanceNotFoundException) {
+				badMBeans.backoff(mri.getObjectName(), now);
 			}
+			recordConnectionLost(mri);
+			removeBadAttribute(mri, e);
 		}
 	}
 
@@ -467,12 +553,38 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 
 	public void clearDebugInformation() {
 		subscriptionDebugInfo = new HashMap<>();
+		maxSamplingLag = samplingLag;
+		skippedSampleCount = 0;
 	}
 
 	public Collection<? extends IMRISubscriptionDebugInformation> getDebugInformation() {
 		return subscriptionDebugInfo.values();
 	}
 
+	/**
+	 * @return the number of milliseconds that the most recent sampling started later than it was
+	 *         scheduled to
+	 */
+	public long getSamplingLag() {
+		return samplingLag;
+	}
+
+	/**
+	 * @return the largest number of milliseconds that a sampling has started later than it was
+	 *         scheduled to, since the debug information was last cleared
+	 */
+	public long getMaxSamplingLag() {
+		return maxSamplingLag;
+	}
+
+	/**
+	 * @return the number of attribute values that were not sampled, because the sampling lagged
+	 *         behind by more than the update interval, since the debug information was last cleared
+	 */
+	public long getSkippedSampleCount() {
+		return skippedSampleCount;
+	}
+
 	private void recordConnected(MRI mri) {
 		if (collectDebugInfo) {
 			DefaultSubscriptionDebugInformation info = getDebugInformation(mri, SubscriptionState.SUBSCRIBED);
@@ -507,14 +619,6 @@ public class DefaultAttributeSubscriptionThread extends Thread {
 		return 0;
 	}
 
-	private void recordEventPolled(MRI mri) {
-		if (collectDebugInfo) {
-			DefaultSubscriptionDebugInformation info = getDebugInformation(mri, SubscriptionState.SUBSCRIBED);
-			info.m_eventCount += 1;
-			info.m_retainedEventCount = getRetainedLength(mri);
-		}
-	}
-
 	private void recordConnectionLost(MRI mri) {
 		if (collectDebugInfo) {
 			DefaultSubscriptionDebugInformation info = getDebugInformation(mri, SubscriptionState.LOST);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -44,4 +44,22 @@ public interface ISubscriptionDebugService {
 	public void clearDebugInformation();
 
 	public Collection<IMRISubscriptionDebugInformation> getDebugInformation();
+
+	/**
+	 * @return the number of milliseconds that the most recent sampling of attribute values started
+	 *         later than it was scheduled to
+	 */
+	public long getSamplingLag();
+
+	/**
+	 * @return the largest number of milliseconds that a sampling of attribute values has started
+	 *         later than it was scheduled to, since the debug information was last cleared
+	 */
+	public long getMaxSamplingLag();
+
+	/**
+	 * @return the number of attribute values that were not sampled because the sampling lagged
+	 *         behind by more than the update interval, since the debug information was last cleared
+	 */
+	public long getSkippedSampleCount();
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+/**
+ * Keeps track of MBeans that were not found when their attributes were last retrieved. Each MBean
+ * is backed off exponentially, so that its unavailable attributes are not probed one by one for
+ * reregistration too often.
+ * <p>
+ * This class is not thread safe. It is only used by the sampling task of a connection.
+ */
+public final class MBeanBackoffTracker {
+	static final long MIN_BACKOFF_TIME = 1000;
+	static final long MAX_BACKOFF_TIME = 60000;
+
+	private static class Backoff {
+		private long backoffTime = MIN_BACKOFF_TIME;
+		private long nextTestTime;
+	}
+
+	private final Map<ObjectName, Backoff> backoffs = new HashMap<>();
+
+	/**
+	 * Record that an MBean was not found. The first time the MBean is backed off for the minimum
+	 * backoff time. Each time it is still not found after the backoff time has passed, the backoff
+	 * time is doubled, up to the maximum backoff time.
+	 *
+	 * @param mbean
+	 *            the MBean that was not found
+	 * @param now
+	 *            the current time in milliseconds
+	 */
+	public void backoff(ObjectName mbean, long now) {
+		Backoff backoff = backoffs.get(mbean);
+		if (backoff == null) {
+			backoff = new Backoff();
+			backoffs.put(mbean, backoff);
+		} else if (backoff.nextTestTime <= now) {
+			backoff.backoffTime = Math.min(backoff.backoffTime * 2, MAX_BACKOFF_TIME);
+		}
+		backoff.nextTestTime = now + backoff.backoffTime;
+	}
+
+	/**
+	 * @param mbean
+	 *            the MBean to check
+	 * @param now
+	 *            the current time in milliseconds
+	 * @return {@code true} if the MBean should not be tested yet
+	 */
+	public boolean isBackedOff(ObjectName mbean, long now) {
+		Backoff backoff = backoffs.get(mbean);
+		return backoff != null && backoff.nextTestTime > now;
+	}
+
+	/**
+	 * @param mbean
+	 *            the MBean to check
+	 * @return the current backoff time of the MBean in milliseconds, or 0 if it is not backed off
+	 */
+	public long getBackoffTime(ObjectName mbean) {
+		Backoff backoff = backoffs.get(mbean);
+		return backoff == null ? 0 : backoff.backoffTime;
+	}
+
+	/**
+	 * Forget an MBean, for instance because it has been found again.
+	 *
+	 * @param mbean
+	 *            the MBean to forget
+	 */
+	public void remove(ObjectName mbean) {
+		backoffs.remove(mbean);
+	}
+
+	/**
+	 * Forget all MBeans except the given ones, for instance when subscriptions have been removed.
+	 *
+	 * @param mbeans
+	 *            the MBeans to keep track of
+	 */
+	public void retainAll(Collection<ObjectName> mbeans) {
+		backoffs.keySet().retainAll(mbeans);
+	}
+
+	/**
+	 * @return the number of MBeans that are tracked
+	 */
+	public int size() {
+		return backoffs.size();
+	}
+}
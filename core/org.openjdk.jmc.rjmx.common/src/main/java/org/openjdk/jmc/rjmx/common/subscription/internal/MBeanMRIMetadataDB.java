@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -81,7 +81,8 @@ public final class MBeanMRIMetadataDB implements IMRIService, IMBeanServerChange
 	public Set<MRI> getMRIs() {
 		Set<MRI> allMRIOnServer = new HashSet<>();
 		try {
-			for (ObjectName mbean : mbeanService.getMBeanNames()) {
+			// Retrieves the information for all MBeans in parallel, rather than one at a time below
+			for (ObjectName mbean : mbeanService.getMBeanInfos().keySet()) {
 				allMRIOnServer.addAll(getMBeanData(mbean).keySet());
 			}
 		} catch (Exception e) {
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schedules the periodic sampling of attribute values for all connections. A single timer thread
+ * keeps track of when each task should run next, using a hashed timing wheel, and hands the tasks
+ * that are due over to a bounded pool of worker threads. A connection with slow round trips will
+ * therefore only delay its own sampling, and the number of threads does not grow with the number of
+ * connections.
+ * <p>
+ * A task is never run concurrently with itself. When it has completed it is rescheduled using the
+ * delay that it returns.
+ */
+public final class SubscriptionScheduler {
+
+	/**
+	 * A periodically run task.
+	 */
+	public interface ITask {
+		/**
+		 * Run the task.
+		 *
+		 * @param lag
+		 *            the number of milliseconds that this run started later than it was scheduled
+		 *            to
+		 * @return the delay in milliseconds until the task should run again, or a negative value if
+		 *         it should not run again
+		 */
+		long run(long lag);
+	}
+
+	/**
+	 * Handle for a scheduled task.
+	 */
+	public final class ScheduledTask implements Runnable {
+		private final ITask task;
+		private final String name;
+		// The fields below are guarded by the scheduler
+		private long dueTime;
+		private long dueTick;
+		private boolean queued;
+		private boolean running;
+		private boolean cancelled;
+		private boolean failing;
+
+		private ScheduledTask(ITask task, String name) {
+			this.task = task;
+			this.name = name;
+		}
+
+		/**
+		 * Run the task as soon as possible, unless it is already running. The task is not run again
+		 * if it has been cancelled or has returned a negative delay.
+		 */
+		public void runSoon() {
+			synchronized (SubscriptionScheduler.this) {
+				if (queued && !running) {
+					unqueue(this);
+					enqueue(this, currentTime());
+				}
+			}
+		}
+
+		/**
+		 * Stop running the task. If the task is currently running, that run will be allowed to
+		 * complete.
+		 */
+		public void cancel() {
+			synchronized (SubscriptionScheduler.this) {
+				cancelled = true;
+				if (queued && !running) {
+					unqueue(this);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			long lag = Math.max(0, currentTime() - dueTime);
+			long delay;
+			try {
+				delay = task.run(lag);
+				failing = false;
+			} catch (RuntimeException e) {
+				// Keep sampling, the failure may well be transient. Only log the first of a series of
+				// failures as a warning, to avoid flooding the log.
+				LOGGER.log(failing ? Level.FINE : Level.WARNING,
+						"Subscription task " + name + " failed, retrying in " + FAILURE_RETRY_DELAY + " ms", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				failing = true;
+				delay = FAILURE_RETRY_DELAY;
+			}
+			synchronized (SubscriptionScheduler.this) {
+				running = false;
+				queued = false;
+				if (delay >= 0 && !cancelled) {
+					enqueue(this, currentTime() + delay);
+				}
+			}
+		}
+	}
+
+	private final static Logger LOGGER = Logger.getLogger("org.openjdk.jmc.rjmx.subscription"); //$NON-NLS-1$
+
+	// The resolution of the scheduling, less than the shortest delay used by the subscription tasks
+	private static final long TICK_TIME = 50;
+	// One turn of the wheel covers more than the longest delay used by the subscription tasks
+	private static final int WHEEL_SIZE = 64;
+	private static final int MAX_WORKER_COUNT = 16;
+	private static final long WORKER_KEEP_ALIVE_TIME = 60;
+	// The delay before a task that threw an exception is run again
+	private static final long FAILURE_RETRY_DELAY = 1000;
+
+	private static final long START_TIME = System.nanoTime();
+
+	private static SubscriptionScheduler defaultScheduler;
+
+	private final List<List<ScheduledTask>> wheel = new ArrayList<>(WHEEL_SIZE);
+	/*
+	 * The work queue of the workers is unbounded, but it can not grow without bound. A task is only
+	 * handed to the workers by the timer when it is due and not already running, and it is not put
+	 * back in the wheel until the run has completed. Each scheduled task, that is one per
+	 * connection, is therefore in the work queue at most once. Bounding the queue would instead
+	 * make the timer thread either block or drop samplings when all workers are busy.
+	 */
+	private final ThreadPoolExecutor workers;
+	// The fields below are guarded by this
+	private long currentTick;
+	private int queuedCount;
+	private Thread timerThread;
+
+	/**
+	 * Create a scheduler. Normally the scheduler shared by all connections, returned by
+	 * {@link #getDefault()}, should be used.
+	 *
+	 * @param maxWorkerCount
+	 *            the maximum number of tasks that are run concurrently
+	 */
+	public SubscriptionScheduler(int maxWorkerCount) {
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel.add(new ArrayList<ScheduledTask>());
+		}
+		workers = new ThreadPoolExecutor(maxWorkerCount, maxWorkerCount, WORKER_KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("RJMX Subscription worker ")); //$NON-NLS-1$
+		workers.allowCoreThreadTimeOut(true);
+		currentTick = currentTime() / TICK_TIME;
+	}
+
+	/**
+	 * @return the scheduler shared by all connections
+	 */
+	static synchronized SubscriptionScheduler getDefault() {
+		if (defaultScheduler == null) {
+			defaultScheduler = new SubscriptionScheduler(MAX_WORKER_COUNT);
+		}
+		return defaultScheduler;
+	}
+
+	/**
+	 * Schedule a task to run as soon as possible, and then repeatedly with the delays that it
+	 * returns.
+	 *
+	 * @param task
+	 *            the task to run
+	 * @param name
+	 *            a name for the task, used for logging
+	 * @return a handle for the scheduled task
+	 */
+	public synchronized ScheduledTask schedule(ITask task, String name) {
+		ScheduledTask scheduledTask = new ScheduledTask(task, name);
+		enqueue(scheduledTask, currentTime());
+		return scheduledTask;
+	}
+
+	private void enqueue(ScheduledTask task, long dueTime) {
+		task.dueTime = dueTime;
+		// Round up so that tasks are not run early, but never place a task in a tick that the timer
+		// has already passed
+		task.dueTick = Math.max((dueTime + TICK_TIME - 1) / TICK_TIME, currentTick + 1);
+		task.queued = true;
+		wheel.get((int) (task.dueTick % WHEEL_SIZE)).add(task);
+		if (queuedCount++ == 0) {
+			if (timerThread == null) {
+				timerThread = new Thread(this::runTimer, "RJMX Subscription timer"); //$NON-NLS-1$
+				timerThread.setDaemon(true);
+				timerThread.start();
+			}
+			notifyAll();
+		}
+	}
+
+	private void unqueue(ScheduledTask task) {
+		wheel.get((int) (task.dueTick % WHEEL_SIZE)).remove(task);
+		task.queued = false;
+		queuedCount--;
+	}
+
+	private synchronized void runTimer() {
+		while (true) {
+			try {
+				while (queuedCount == 0) {
+					wait();
+					// Do not process the ticks that passed while there was nothing to do
+					currentTick = Math.max(currentTick, currentTime() / TICK_TIME - 1);
+				}
+				long now = currentTime();
+				long nowTick = now / TICK_TIME;
+				if (nowTick <= currentTick) {
+					wait((currentTick + 1) * TICK_TIME - now);
+					continue;
+				}
+				// After a long pause, one turn of the wheel covers all tasks
+				long firstTick = Math.max(currentTick + 1, nowTick - WHEEL_SIZE + 1);
+				for (long tick = firstTick; tick <= nowTick; tick++) {
+					expireTick(tick, nowTick);
+				}
+				currentTick = nowTick;
+			} catch (InterruptedException e) {
+				// Keep going, the timer is shared by all connections
+			}
+		}
+	}
+
+	private void expireTick(long tick, long nowTick) {
+		Iterator<ScheduledTask> iterator = wheel.get((int) (tick % WHEEL_SIZE)).iterator();
+		while (iterator.hasNext()) {
+			ScheduledTask task = iterator.next();
+			// Tasks that are due in a later turn of the wheel stay
+			if (task.dueTick <= nowTick) {
+				iterator.remove();
+				queuedCount--;
+				task.running = true;
+				workers.execute(task);
+			}
+		}
+	}
+
+	private static long currentTime() {
+		// Use a monotonic clock so that changes to the system time do not stall the scheduling
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - START_TIME);
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final String namePrefix;
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		DaemonThreadFactory(String namePrefix) {
+			this.namePrefix = namePrefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -35,10 +35,10 @@ package org.openjdk.jmc.rjmx.common.subscription.storage.internal;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Observable;
 import java.util.Observer;
 
-import org.openjdk.jmc.common.collection.BoundedList;
 import org.openjdk.jmc.rjmx.common.services.IAttributeStorage;
 import org.openjdk.jmc.rjmx.common.services.MRIDataSeries;
 import org.openjdk.jmc.rjmx.common.subscription.IMRIValueListener;
@@ -49,7 +49,20 @@ import org.openjdk.jmc.common.xydata.DefaultTimestampedData;
 import org.openjdk.jmc.common.xydata.ITimestampedData;
 
 /**
- * Simple attribute storage that contains attribute events.
+ * Simple attribute storage that contains attribute events. The numerical values of the events are
+ * kept in a ring buffer of primitive values.
+ * <p>
+ * The raw values are only kept for a short time. Longer trends are kept as rollups with the
+ * minimum, maximum, average and count of the values in fixed size time buckets, at a few
+ * resolutions. The rollups are updated as values arrive, and a range query at a given resolution is
+ * served from the coarsest rollup that still gives at least one data point per requested point. A
+ * range query without a resolution is served from the raw values, and from the finest rollup that
+ * reaches further back for the part of the range where the raw values have been dropped.
+ * <p>
+ * The value of a rollup data point is the bucket average, so a chart that is drawn from the rollups
+ * shows the averages. A spike that is shorter than a bucket is flattened in such a chart, even if
+ * the chart draws the minimum and maximum of the data points in each pixel. The bucket minimum and
+ * maximum are available from {@link RollupTimestampedData}.
  * <p>
  * NOTE: You must synchronize on the storage if you use the dataseries iterator!
  */
@@ -60,12 +73,20 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 
 	private static int lookupRetainedEventValues() {
 		if (preferenceLookupCounter++ % 1000 == 0) {
-			currentRetainedEventValues = 7 * 24 * 3600;
+			currentRetainedEventValues = 3600;
 		}
 		return currentRetainedEventValues;
 	}
 
-	private final BoundedList<ITimestampedData> cache = new BoundedList<>(lookupRetainedEventValues());
+	private static final long SECOND = 1000 * 1000 * 1000L;
+
+	private final TimestampedDataRingBuffer cache = new TimestampedDataRingBuffer(lookupRetainedEventValues());
+	// Ordered from the finest to the coarsest resolution
+	private final RollupTier[] rollups = new RollupTier[] {new RollupTier(SECOND, 6 * 3600),
+			new RollupTier(10 * SECOND, 24 * 360), new RollupTier(60 * SECOND, 7 * 24 * 60),
+			new RollupTier(600 * SECOND, 30 * 24 * 6)};
+	// The timestamp of the first value, since the oldest rollup bucket may start before that
+	private volatile long firstTimestamp = Long.MAX_VALUE;
 	private final MRI mri;
 	private final ISubscriptionService subscriptionService;
 	private final IMRIValueListener valueListener = new IMRIValueListener() {
@@ -76,11 +97,17 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 				if (lookupRetainedEventValues() != cache.getMaxSize()) {
 					cache.setMaxSize(Math.max(lookupRetainedEventValues(), Math.max(cache.getSize() - 1000, 1)));
 				}
-				DefaultTimestampedData data = new DefaultTimestampedData(event.getTimestamp() * 1000 * 1000L,
-						((Number) value).doubleValue());
-				cache.add(data);
+				long timestamp = event.getTimestamp() * 1000 * 1000L;
+				double doubleValue = ((Number) value).doubleValue();
+				if (firstTimestamp == Long.MAX_VALUE) {
+					firstTimestamp = timestamp;
+				}
+				cache.add(timestamp, doubleValue);
+				for (RollupTier rollup : rollups) {
+					rollup.add(timestamp, doubleValue);
+				}
 				setChanged();
-				notifyObservers(data);
+				notifyObservers(new DefaultTimestampedData(timestamp, doubleValue));
 			}
 		}
 	};
@@ -93,7 +120,22 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 
 			@Override
 			public Iterator<ITimestampedData> createIterator(long min, long max) {
-				return cache.iterator();
+				long rawStart = cache.getFirstTimestamp();
+				RollupTier rollup = min < rawStart ? selectRollup(min, 0) : null;
+				if (rollup == null) {
+					return cache.iterator(min, max);
+				}
+				return new RollupThenRawIterator(rollup.iterator(min, Math.min(max, rawStart)), rawStart,
+						cache.iterator(min, max));
+			}
+
+			@Override
+			public Iterator<ITimestampedData> createIterator(long min, long max, int resolution) {
+				if (resolution <= 0 || max <= min) {
+					return createIterator(min, max);
+				}
+				RollupTier rollup = selectRollup(min, (max - min) / resolution);
+				return rollup != null ? rollup.iterator(min, max) : cache.iterator(min, max);
 			}
 
 			@Override
@@ -104,16 +146,46 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 
 	}
 
+	/**
+	 * Select the coarsest rollup with buckets that are no longer than the requested point width. If
+	 * that does not have data from the start of the range, a coarser rollup with older data is
+	 * selected instead.
+	 *
+	 * @param min
+	 *            the start of the range, in epoch ns
+	 * @param pointWidth
+	 *            the time covered by each requested data point, in ns
+	 * @return the rollup to use, or {@code null} if the raw values should be used
+	 */
+	private RollupTier selectRollup(long min, long pointWidth) {
+		int selected = -1;
+		while (selected + 1 < rollups.length && rollups[selected + 1].getResolution() <= pointWidth) {
+			selected++;
+		}
+		long dataStart = selected < 0 ? cache.getFirstTimestamp() : rollups[selected].getFirstTimestamp();
+		while (dataStart > min && selected + 1 < rollups.length) {
+			long coarserDataStart = rollups[selected + 1].getFirstTimestamp();
+			if (coarserDataStart >= dataStart) {
+				break;
+			}
+			selected++;
+			dataStart = coarserDataStart;
+		}
+		return selected < 0 ? null : rollups[selected];
+	}
+
 	@Override
 	public long getDataStart() {
-		ITimestampedData first = cache.getFirst();
-		return first != null ? first.getX() : Long.MAX_VALUE;
+		long dataStart = cache.getFirstTimestamp();
+		for (RollupTier rollup : rollups) {
+			dataStart = Math.min(dataStart, Math.max(rollup.getFirstTimestamp(), firstTimestamp));
+		}
+		return dataStart;
 	}
 
 	@Override
 	public long getDataEnd() {
-		ITimestampedData last = cache.getLast();
-		return last != null ? last.getX() : Long.MIN_VALUE;
+		return cache.getLastTimestamp();
 	}
 
 	@Override
@@ -144,4 +216,51 @@ public class BufferingAttributeStorage extends Observable implements IAttributeS
 	public int getRetainedLength() {
 		return cache.getSize();
 	}
+
+	/**
+	 * Iterates over the rollup data points from before the start of the raw values, followed by the
+	 * raw values.
+	 */
+	private static class RollupThenRawIterator implements Iterator<ITimestampedData> {
+		private Iterator<ITimestampedData> rollupIterator;
+		private final long rawStart;
+		private final Iterator<ITimestampedData> rawIterator;
+		private ITimestampedData nextRollup;
+
+		RollupThenRawIterator(Iterator<ITimestampedData> rollupIterator, long rawStart,
+				Iterator<ITimestampedData> rawIterator) {
+			this.rollupIterator = rollupIterator;
+			this.rawStart = rawStart;
+			this.rawIterator = rawIterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextRollup == null && rollupIterator != null) {
+				if (rollupIterator.hasNext()) {
+					ITimestampedData data = rollupIterator.next();
+					if (data.getX() < rawStart) {
+						nextRollup = data;
+						return true;
+					}
+				}
+				// The rollup data points are in timestamp order, so the rest overlap the raw values
+				rollupIterator = null;
+			}
+			return nextRollup != null || rawIterator.hasNext();
+		}
+
+		@Override
+		public ITimestampedData next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more elements!"); //$NON-NLS-1$
+			}
+			if (nextRollup != null) {
+				ITimestampedData data = nextRollup;
+				nextRollup = null;
+				return data;
+			}
+			return rawIterator.next();
+		}
+	}
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.storage.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+
+/**
+ * Keeps the minimum, maximum, average and count of timestamped values in fixed size time buckets,
+ * updated incrementally as values are added. A bounded number of buckets is kept, the oldest are
+ * dropped first. The arrays grow as buckets are added, so short sessions do not pay for the maximum
+ * size up front.
+ * <p>
+ * Adding values and creating iterators is thread safe. An iterator silently skips buckets that are
+ * dropped while it is in use.
+ */
+public final class RollupTier {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final long resolution;
+	private final int maxSize;
+	private long[] starts = new long[0];
+	private double[] mins = new double[0];
+	private double[] maxs = new double[0];
+	private double[] sums = new double[0];
+	private int[] counts = new int[0];
+	// Sequence numbers of the oldest bucket and the bucket after the newest. The bucket with sequence
+	// number n is kept at index n % starts.length.
+	private long first;
+	private long end;
+
+	/**
+	 * @param resolution
+	 *            the length of the buckets, in ns
+	 * @param maxSize
+	 *            the maximum number of buckets to keep
+	 */
+	public RollupTier(long resolution, int maxSize) {
+		this.resolution = resolution;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the length of the buckets, in ns
+	 */
+	public long getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Add a value to the bucket that it belongs to.
+	 *
+	 * @param timestamp
+	 *            the timestamp of the value, in epoch ns
+	 * @param value
+	 *            the value
+	 */
+	public synchronized void add(long timestamp, double value) {
+		long start = timestamp - Math.floorMod(timestamp, resolution);
+		if (first < end) {
+			int last = index(end - 1);
+			// A value that arrives out of order is added to the newest bucket
+			if (start <= starts[last]) {
+				mins[last] = Math.min(mins[last], value);
+				maxs[last] = Math.max(maxs[last], value);
+				sums[last] += value;
+				counts[last]++;
+				return;
+			}
+		}
+		if (end - first == starts.length && starts.length < maxSize) {
+			resize(Math.min(Math.max(starts.length * 2, INITIAL_CAPACITY), maxSize));
+		}
+		int index = index(end);
+		starts[index] = start;
+		mins[index] = value;
+		maxs[index] = value;
+		sums[index] = value;
+		counts[index] = 1;
+		end++;
+		if (end - first > maxSize) {
+			first++;
+		}
+	}
+
+	/**
+	 * @return the start of the oldest bucket, or {@link Long#MAX_VALUE} if there are no buckets
+	 */
+	public synchronized long getFirstTimestamp() {
+		return first < end ? starts[index(first)] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Get an iterator over the buckets in a time range. The closest buckets outside of the range,
+	 * if any, are also included so that the data can be drawn up to the edges of the range.
+	 *
+	 * @param min
+	 *            the start of the time range, in epoch ns
+	 * @param max
+	 *            the end of the time range, in epoch ns
+	 * @return an iterator over the buckets, in timestamp order, with the bucket midpoints as
+	 *         timestamps and the bucket averages as values
+	 */
+	public synchronized Iterator<ITimestampedData> iterator(long min, long max) {
+		long from = Math.max(first, findFirstAfter(toBucketStart(min)) - 1);
+		long to = Math.min(end, findFirstAfter(toBucketStart(max)) + 1);
+		return new RangeIterator(from, to);
+	}
+
+	private long toBucketStart(long midpoint) {
+		long start = midpoint - resolution / 2;
+		return start <= midpoint ? start : Long.MIN_VALUE;
+	}
+
+	/**
+	 * @return the sequence number of the first bucket with a start after the given timestamp, or
+	 *         the end of the tier if there is no such bucket
+	 */
+	private long findFirstAfter(long timestamp) {
+		long low = first;
+		long high = end;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (starts[index(middle)] <= timestamp) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int index(long sequence) {
+		return (int) (sequence % starts.length);
+	}
+
+	private void resize(int capacity) {
+		long[] newStarts = new long[capacity];
+		double[] newMins = new double[capacity];
+		double[] newMaxs = new double[capacity];
+		double[] newSums = new double[capacity];
+		int[] newCounts = new int[capacity];
+		for (long sequence = first; sequence < end; sequence++) {
+			int oldIndex = index(sequence);
+			int newIndex = (int) (sequence % capacity);
+			newStarts[newIndex] = starts[oldIndex];
+			newMins[newIndex] = mins[oldIndex];
+			newMaxs[newIndex] = maxs[oldIndex];
+			newSums[newIndex] = sums[oldIndex];
+			newCounts[newIndex] = counts[oldIndex];
+		}
+		starts = newStarts;
+		mins = newMins;
+		maxs = newMaxs;
+		sums = newSums;
+		counts = newCounts;
+	}
+
+	private class RangeIterator implements Iterator<ITimestampedData> {
+		private long next;
+		private final long end;
+
+		RangeIterator(long from, long to) {
+			next = from;
+			end = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			synchronized (RollupTier.this) {
+				// Skip buckets that have been dropped since the iterator was created
+				next = Math.max(next, first);
+				return next < end;
+			}
+		}
+
+		@Override
+		public ITimestampedData next() {
+			synchronized (RollupTier.this) {
+				if (!hasNext()) {
+					throw new NoSuchElementException("No more elements!"); //$NON-NLS-1$
+				}
+				int index = index(next++);
+				return new RollupTimestampedData(starts[index] + resolution / 2, sums[index] / counts[index],
+						mins[index], maxs[index], counts[index]);
+			}
+		}
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.rjmx.common.subscription.storage.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.openjdk.jmc.common.xydata.DefaultTimestampedData;
+import org.openjdk.jmc.common.xydata.ITimestampedData;
+
+/**
+ * A bounded buffer of timestamped numerical values, kept in primitive arrays. When the buffer is
+ * full, the oldest values are dropped. The arrays grow as values are added, so short sessions do
+ * not pay for the maximum size up front.
+ * <p>
+ * The timestamps are kept in non-decreasing order, which allows iterating over a time range without
+ * visiting the values outside of it. A value that is added with a timestamp before that of the
+ * newest value is kept at the timestamp of the newest value instead.
+ * <p>
+ * Adding values and creating iterators is thread safe. An iterator silently skips values that are
+ * dropped while it is in use.
+ */
+public final class TimestampedDataRingBuffer {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private long[] timestamps = new long[0];
+	private double[] values = new double[0];
+	private int maxSize;
+	// Sequence numbers of the oldest value and the value after the newest. The value with sequence
+	// number n is kept at index n % timestamps.length.
+	private long first;
+	private long end;
+
+	public TimestampedDataRingBuffer(int maxSize) {
+		setMaxSize(maxSize);
+	}
+
+	/**
+	 * Add a value. If the buffer is full, the oldest value is dropped. A value with a timestamp
+	 * before that of the newest value is added at the timestamp of the newest value, to keep the
+	 * timestamps in order. This can happen when values are timestamped by different clocks, for
+	 * instance when the connection is lost.
+	 *
+	 * @param timestamp
+	 *            the timestamp of the value, in epoch ns
+	 * @param value
+	 *            the value
+	 */
+	public synchronized void add(long timestamp, double value) {
+		if (first < end) {
+			timestamp = Math.max(timestamp, timestamps[index(end - 1)]);
+		}
+		if (end - first == timestamps.length && timestamps.length < maxSize) {
+			resize(Math.min(Math.max(timestamps.length * 2, INITIAL_CAPACITY), maxSize));
+		}
+		int index = index(end);
+		timestamps[index] = timestamp;
+		values[index] = value;
+		end++;
+		if (end - first > maxSize) {
+			first++;
+		}
+	}
+
+	public synchronized int getSize() {
+		return (int) (end - first);
+	}
+
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Set the maximum number of values to keep. The oldest values are dropped if there are more
+	 * values than that in the buffer.
+	 *
+	 * @param maxSize
+	 *            the maximum number of values to keep
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The maximum size must be at least 1!"); //$NON-NLS-1$
+		}
+		this.maxSize = maxSize;
+		first = Math.max(first, end - maxSize);
+		if (timestamps.length > maxSize) {
+			resize(maxSize);
+		}
+	}
+
+	/**
+	 * @return the timestamp of the oldest value, or {@link Long#MAX_VALUE} if the buffer is empty
+	 */
+	public synchronized long getFirstTimestamp() {
+		return first < end ? timestamps[index(first)] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return the timestamp of the newest value, or {@link Long#MIN_VALUE} if the buffer is empty
+	 */
+	public synchronized long getLastTimestamp() {
+		return first < end ? timestamps[index(end - 1)] : Long.MIN_VALUE;
+	}
+
+	/**
+	 * Get an iterator over the values in a time range. The closest values outside of the range, if
+	 * any, are also included so that the data can be drawn up to the edges of the range.
+	 *
+	 * @param min
+	 *            the start of the time range, in epoch ns
+	 * @param max
+	 *            the end of the time range, in epoch ns
+	 * @return an iterator over the values in the time range, in timestamp order
+	 */
+	public synchronized Iterator<ITimestampedData> iterator(long min, long max) {
+		long from = Math.max(first, findFirst(min, true) - 1);
+		long to = Math.min(end, findFirst(max, false) + 1);
+		return new RangeIterator(from, to);
+	}
+
+	/**
+	 * @return the sequence number of the first value with a timestamp after, or optionally equal
+	 *         to, the given timestamp, or the end of the buffer if there is no such value
+	 */
+	private long findFirst(long timestamp, boolean includeEqual) {
+		long low = first;
+		long high = end;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			long middleTimestamp = timestamps[index(middle)];
+			if (middleTimestamp < timestamp || (!includeEqual && middleTimestamp == timestamp)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int index(long sequence) {
+		return (int) (sequence % timestamps.length);
+	}
+
+	private void resize(int capacity) {
+		long[] newTimestamps = new long[capacity];
+		double[] newValues = new double[capacity];
+		for (long sequence = first; sequence < end; sequence++) {
+			newTimestamps[(int) (sequence % capacity)] = timestamps[index(sequence)];
+			newValues[(int) (sequence % capacity)] = values[index(sequence)];
+		}
+		timestamps = newTimestamps;
+		values = newValues;
+	}
+
+	private class RangeIterator implements Iterator<ITimestampedData> {
+		private long next;
+		private final long end;
+
+		RangeIterator(long from, long to) {
+			next = from;
+			end = to;
+		}
+
+		@Override
+		public boolean hasNext() {
+			synchronized (TimestampedDataRingBuffer.this) {
+				// Skip values that have been dropped since the iterator was created
+				next = Math.max(next, first);
+				return next < end;
+			}
+		}
+
+		@Override
+		public ITimestampedData next() {
+			synchronized (TimestampedDataRingBuffer.this) {
+				if (!hasNext()) {
+					throw new NoSuchElementException("No more elements!"); //$NON-NLS-1$
+				}
+				int index = index(next++);
+				return new DefaultTimestampedData(timestamps[index], values[index]);
+			}
+		}
+	}
+}
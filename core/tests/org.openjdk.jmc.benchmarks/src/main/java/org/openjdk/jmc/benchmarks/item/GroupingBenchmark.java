@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.benchmarks.item;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.GroupingAggregator;
+import org.openjdk.jmc.common.item.IAggregator;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Groupings like the ones used by the JDK rules, over all events of a recording. Build with
+ * {@code mvn package -P benchmarks} and run with {@code java -jar target/benchmarks.jar}, using
+ * {@code -p recording=<file>} to benchmark another recording.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("nls")
+public class GroupingBenchmark {
+
+	@Param("../org.openjdk.jmc.flightrecorder.rules.jdk.test/src/main/resources/jfr/wldf.jfr")
+	public String recording;
+
+	private IItemCollection events;
+	private IItemCollection allocations;
+
+	private static final IAggregator<IQuantity, ?> MAX_PER_THREAD = GroupingAggregator.buildMax("", null,
+			JfrAttributes.EVENT_THREAD, Aggregators.count());
+	private static final IAggregator<IQuantity, ?> MAX_PER_THREAD_ID = GroupingAggregator.buildMax("", null,
+			JdkAttributes.EVENT_THREAD_ID, Aggregators.count());
+	private static final IAggregator<IQuantity, ?> MAX_PER_STACK_TRACE = GroupingAggregator.buildMax("", null,
+			JfrAttributes.EVENT_STACKTRACE, Aggregators.count());
+	private static final IAggregator<IQuantity, ?> MAX_ALLOCATION_PER_CLASS = GroupingAggregator.buildMax("", null,
+			JdkAttributes.ALLOCATION_CLASS, Aggregators.sum(JdkAttributes.ALLOCATION_SIZE));
+	private static final IAggregator<IQuantity, ?> DISTINCT_STACK_TRACES = Aggregators.countDistinct("", null,
+			JfrAttributes.EVENT_STACKTRACE);
+
+	@Setup
+	public void setup() throws IOException, CouldNotLoadRecordingException {
+		events = JfrLoaderToolkit.loadEvents(new File(recording));
+		allocations = events.apply(JdkFilters.ALLOC_ALL);
+	}
+
+	@Benchmark
+	public IQuantity groupByThread() {
+		return events.getAggregate(MAX_PER_THREAD);
+	}
+
+	@Benchmark
+	public IQuantity groupByThreadId() {
+		return events.getAggregate(MAX_PER_THREAD_ID);
+	}
+
+	@Benchmark
+	public IQuantity groupByStackTrace() {
+		return events.getAggregate(MAX_PER_STACK_TRACE);
+	}
+
+	@Benchmark
+	public IQuantity groupAllocationsByClass() {
+		return allocations.getAggregate(MAX_ALLOCATION_PER_CLASS);
+	}
+
+	@Benchmark
+	public IQuantity countDistinctStackTraces() {
+		return events.getAggregate(DISTINCT_STACK_TRACES);
+	}
+}
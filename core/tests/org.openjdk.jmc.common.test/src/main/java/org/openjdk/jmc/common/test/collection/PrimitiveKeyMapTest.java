@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.common.test.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.openjdk.jmc.common.collection.IdentityKeyMap;
+import org.openjdk.jmc.common.collection.LongKeyMap;
+
+@SuppressWarnings("nls")
+public class PrimitiveKeyMapTest {
+
+	@Test
+	public void testPutAndGet() {
+		LongKeyMap<String> map = new LongKeyMap<>(4);
+		long[] keys = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, 1};
+		for (int i = 0; i < 10000; i++) {
+			map.put(i * 31L, "v" + i);
+		}
+		for (long key : keys) {
+			map.put(key, "k" + key);
+		}
+		assertEquals("k0", map.get(0));
+		assertEquals("k" + Long.MIN_VALUE, map.get(Long.MIN_VALUE));
+		assertEquals("v2", map.get(62));
+		assertNull(map.get(32));
+		// 0 and 31 were replaced
+		assertEquals(10000 + keys.length - 1, map.size());
+		Set<String> values = new HashSet<>();
+		map.forEach(values::add);
+		assertEquals(map.size(), values.size());
+	}
+
+	@Test
+	public void testIdentityKeys() {
+		IdentityKeyMap<String, Integer> map = new IdentityKeyMap<>(4);
+		String[] keys = new String[1000];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new String("key");
+			map.put(keys[i], i);
+		}
+		assertEquals(keys.length, map.size());
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i, map.get(keys[i]).intValue());
+		}
+		assertNull(map.get("key"));
+		map.put(keys[0], -1);
+		assertEquals(-1, map.get(keys[0]).intValue());
+		assertEquals(keys.length, map.size());
+	}
+}
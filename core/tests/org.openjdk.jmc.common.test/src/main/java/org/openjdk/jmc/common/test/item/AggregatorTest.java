@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,13 +32,27 @@
  */
 package org.openjdk.jmc.common.test.item;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.openjdk.jmc.common.item.Aggregators;
 import org.openjdk.jmc.common.item.Aggregators.AdvancedMaxAggregator;
 import org.openjdk.jmc.common.item.Aggregators.AdvancedMinAggregator;
+import org.openjdk.jmc.common.item.Aggregators.CountConsumer;
+import org.openjdk.jmc.common.item.GroupingAggregator;
+import org.openjdk.jmc.common.item.GroupingAggregator.GroupEntry;
+import org.openjdk.jmc.common.item.IAccessorFactory;
+import org.openjdk.jmc.common.item.IAggregator;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.QuantityHistogram;
 import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
 import org.openjdk.jmc.test.MCTestCase;
 import org.openjdk.jmc.test.mock.item.MockAggregators;
 import org.openjdk.jmc.test.mock.item.MockAttributes;
@@ -206,6 +220,116 @@ public class AggregatorTest extends MCTestCase {
 		}
 	}
 
+	@Test
+	public void testPercentileAggregator() {
+		Number[] values = MockCollections.generateNumberArray(10000, 999);
+		IItemCollection mockCollection = MockCollections.getNumberCollection(values);
+		double[] sorted = Arrays.stream(values).mapToDouble(Number::doubleValue).sorted().toArray();
+		for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+			IQuantity aggregate = mockCollection
+					.getAggregate(Aggregators.percentile(MockAttributes.DOUBLE_VALUE, percentile));
+			double expected = sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+			Assert.assertEquals(expected, aggregate.doubleValue(), expected * 0.01);
+		}
+		Assert.assertEquals(sorted[0],
+				mockCollection.getAggregate(Aggregators.percentile(MockAttributes.DOUBLE_VALUE, 0)).doubleValue(),
+				EPSILON);
+		Assert.assertEquals(sorted[sorted.length - 1],
+				mockCollection.getAggregate(Aggregators.percentile(MockAttributes.DOUBLE_VALUE, 100)).doubleValue(),
+				EPSILON);
+	}
+
+	@Test
+	public void testPercentileAggregatorZeroElement() {
+		IItemCollection mockCollection = MockCollections.getNumberCollection(MockCollections.generateNumberArray(0, 1));
+		Assert.assertNull(mockCollection.getAggregate(Aggregators.percentile(MockAttributes.DOUBLE_VALUE, 99)));
+		Assert.assertNull(mockCollection.getAggregate(Aggregators.histogram(MockAttributes.DOUBLE_VALUE)));
+	}
+
+	@Test
+	public void testHistogramAggregatorMerge() {
+		Number[] values = MockCollections.generateNumberArray(5000, 999);
+		IAggregator<QuantityHistogram, ?> aggregator = Aggregators.histogram(MockAttributes.DOUBLE_VALUE);
+		QuantityHistogram all = MockCollections.getNumberCollection(values).getAggregate(aggregator);
+		QuantityHistogram first = MockCollections.getNumberCollection(Arrays.copyOfRange(values, 0, 2000))
+				.getAggregate(aggregator);
+		QuantityHistogram second = MockCollections.getNumberCollection(Arrays.copyOfRange(values, 2000, 5000))
+				.getAggregate(aggregator);
+		QuantityHistogram merged = first.add(second);
+		Assert.assertEquals(all.getTotalCount(), merged.getTotalCount());
+		Assert.assertEquals(all.getMin(), merged.getMin());
+		Assert.assertEquals(all.getMax(), merged.getMax());
+		for (double percentile = 0; percentile <= 100; percentile += 2.5) {
+			Assert.assertEquals(all.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+		}
+	}
+
+	@Test
+	public void testHistogramUnitConversion() {
+		QuantityHistogram seconds = new QuantityHistogram(UnitLookup.SECOND);
+		QuantityHistogram millis = new QuantityHistogram(UnitLookup.MILLISECOND);
+		for (int i = 1; i <= 100; i++) {
+			seconds.record(UnitLookup.SECOND.quantity(i));
+			millis.record(UnitLookup.MILLISECOND.quantity(i * 1000 + 500));
+		}
+		seconds.add(millis);
+		Assert.assertEquals(200, seconds.getTotalCount());
+		Assert.assertEquals(1.0, seconds.getMin().doubleValueIn(UnitLookup.SECOND), EPSILON);
+		Assert.assertEquals(100.5, seconds.getMax().doubleValueIn(UnitLookup.SECOND), EPSILON);
+		Assert.assertEquals(50.5, seconds.getValueAtPercentile(50).doubleValueIn(UnitLookup.SECOND), 50.5 * 0.01);
+	}
+
+	@Test
+	public void testGroupingByLongKeys() {
+		assertGroupCounts(index -> UnitLookup.NUMBER_UNITY.quantity(index % 7));
+		assertGroupCounts(index -> Long.valueOf(index % 7));
+	}
+
+	@Test
+	public void testGroupingByMixedKeys() {
+		// Starts out with integral keys, then gets keys that can not be held by a long keyed table
+		assertGroupCounts(index -> index < 500 ? UnitLookup.NUMBER_UNITY.quantity(index % 7) : "key" + (index % 5));
+		assertGroupCounts(index -> index < 500 ? UnitLookup.NUMBER_UNITY.quantity(index % 7)
+				: UnitLookup.NUMBER_UNITY.quantity(index % 7 + 0.5));
+		assertGroupCounts(index -> index % 2 == 0 ? Long.valueOf(index % 7) : Integer.valueOf((int) (index % 7)));
+	}
+
+	private static void assertGroupCounts(Function<Long, Object> keyFunction) {
+		IAccessorFactory<Object> keyField = new IAccessorFactory<Object>() {
+			@Override
+			public <T> IMemberAccessor<Object, T> getAccessor(IType<T> type) {
+				IMemberAccessor<IQuantity, T> indexAccessor = MockAttributes.INDEX_VALUE.getAccessor(type);
+				return indexAccessor == null ? null
+						: item -> keyFunction.apply(indexAccessor.getMember(item).longValue());
+			}
+		};
+		IAggregator<IQuantity, CountConsumer> count = Aggregators.count();
+		IAggregator<Map<Object, Long>, ?> grouping = GroupingAggregator.build("Group", null, keyField, count,
+				new GroupingAggregator.IGroupsFinisher<Map<Object, Long>, Object, CountConsumer>() {
+
+					@Override
+					public IType<Object> getValueType() {
+						return UnitLookup.UNKNOWN;
+					}
+
+					@Override
+					public Map<Object, Long> getValue(Iterable<? extends GroupEntry<Object, CountConsumer>> groups) {
+						Map<Object, Long> counts = new HashMap<>();
+						for (GroupEntry<Object, CountConsumer> group : groups) {
+							long groupCount = count.getValue(Arrays.asList(group.getConsumer()).iterator()).longValue();
+							Assert.assertNull(counts.put(group.getKey(), groupCount));
+						}
+						return counts;
+					}
+				});
+		Number[] values = MockCollections.generateNumberArray(2000, 999);
+		Map<Object, Long> expected = new HashMap<>();
+		for (long index = 0; index < values.length; index++) {
+			expected.merge(keyFunction.apply(index), 1L, Long::sum);
+		}
+		Assert.assertEquals(expected, MockCollections.getNumberCollection(values).getAggregate(grouping));
+	}
+
 	public static void main(String[] args) {
 		System.out.println(MockCollections.generateFullPrecisionString(MockCollections.generateNumberArray(400, 999)));
 	}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.binary.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.ItemCollectionToolkit;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.JfrAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+import org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarReader;
+import org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarReader.Batch;
+import org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarReader.Frame;
+import org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarReader.StackTrace;
+import org.openjdk.jmc.flightrecorder.serializers.binary.ColumnarSerializer;
+import org.openjdk.jmc.flightrecorder.serializers.json.IItemCollectionJsonSerializer;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+import org.openjdk.jmc.test.TestToolkit;
+
+public class ColumnarSerializerTest {
+
+	private static IItemCollection testRecording;
+	private static byte[] serialized;
+
+	@BeforeClass
+	public static void beforeAll() throws IOException, CouldNotLoadRecordingException {
+		testRecording = RecordingToolkit.getFlightRecording(
+				TestToolkit.getNamedResource(ColumnarSerializerTest.class, "recordings", "hotmethods.jfr"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ColumnarSerializer.serialize(testRecording, out);
+		serialized = out.toByteArray();
+	}
+
+	@Test
+	public void testEventCounts() throws IOException {
+		assertEquals(countEvents(testRecording), countRows(serialized));
+	}
+
+	@Test
+	public void testEmptyIterables() throws IOException {
+		// Filtered collections keep the iterables of the filtered types, even if no items match. The
+		// schema of the empty sample iterables must still be written for the samples that follow.
+		IItemCollection empty = testRecording.apply(ItemFilters.and(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE),
+				ItemFilters.more(JfrAttributes.START_TIME, UnitLookup.EPOCH_NS.quantity(Long.MAX_VALUE))));
+		IItemCollection cpuLoad = testRecording.apply(ItemFilters.type(JdkTypeIDs.CPU_LOAD));
+		IItemCollection samples = testRecording.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE));
+		IItemCollection merged = ItemCollectionToolkit.merge(() -> Stream.of(empty, cpuLoad, samples));
+		assertTrue(empty.iterator().hasNext());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ColumnarSerializer.serialize(merged, out);
+		Map<String, Long> expected = countEvents(merged);
+		assertEquals(2, expected.size());
+		assertEquals(expected, countRows(out.toByteArray()));
+	}
+
+	@Test
+	public void testStartTimesAndStackTraces() throws IOException {
+		IItemCollection samples = testRecording.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE));
+		List<IQuantity> expectedTimes = new ArrayList<>();
+		List<IMCStackTrace> expectedStackTraces = new ArrayList<>();
+		for (IItemIterable iterable : samples) {
+			IMemberAccessor<IQuantity, IItem> startTime = JfrAttributes.START_TIME.getAccessor(iterable.getType());
+			IMemberAccessor<IMCStackTrace, IItem> stackTrace = JfrAttributes.EVENT_STACKTRACE
+					.getAccessor(iterable.getType());
+			for (IItem item : iterable) {
+				expectedTimes.add(startTime.getMember(item));
+				expectedStackTraces.add(stackTrace.getMember(item));
+			}
+		}
+		assertFalse(expectedTimes.isEmpty());
+
+		int index = 0;
+		try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(serialized))) {
+			for (Batch batch = reader.next(); batch != null; batch = reader.next()) {
+				if (!batch.getSchema().getTypeIdentifier().equals(JdkTypeIDs.EXECUTION_SAMPLE)) {
+					continue;
+				}
+				int startTime = batch.getSchema().indexOf(JfrAttributes.START_TIME.getIdentifier());
+				int stackTrace = batch.getSchema().indexOf(JfrAttributes.EVENT_STACKTRACE.getIdentifier());
+				for (int row = 0; row < batch.size(); row++, index++) {
+					assertEquals(expectedTimes.get(index), batch.getQuantity(startTime, row));
+					assertStackTraceEquals(expectedStackTraces.get(index), batch.getStackTrace(stackTrace, row));
+				}
+			}
+		}
+		assertEquals(expectedTimes.size(), index);
+	}
+
+	@Test
+	public void testSmallerThanJson() throws IOException {
+		StringWriter json = new StringWriter();
+		IItemCollectionJsonSerializer.toJson(testRecording, json);
+		assertTrue(serialized.length * 4 < json.toString().length());
+	}
+
+	@Test
+	public void testStopped() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertFalse(ColumnarSerializer.serialize(testRecording, out, () -> true));
+		assertTrue(
+				ColumnarSerializer.serialize(testRecording.apply(ItemFilters.type("no.such.type")), out, () -> true));
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidDocument() throws IOException {
+		new ColumnarReader(new ByteArrayInputStream("{}\n\n\n".getBytes())).close();
+	}
+
+	private static Map<String, Long> countEvents(IItemCollection items) {
+		Map<String, Long> counts = new HashMap<>();
+		for (IItemIterable iterable : items) {
+			if (iterable.getItemCount() > 0) {
+				counts.merge(iterable.getType().getIdentifier(), iterable.getItemCount(), Long::sum);
+			}
+		}
+		return counts;
+	}
+
+	private static Map<String, Long> countRows(byte[] document) throws IOException {
+		Map<String, Long> counts = new HashMap<>();
+		try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(document))) {
+			for (Batch batch = reader.next(); batch != null; batch = reader.next()) {
+				counts.merge(batch.getSchema().getTypeIdentifier(), (long) batch.size(), Long::sum);
+			}
+		}
+		return counts;
+	}
+
+	private static void assertStackTraceEquals(IMCStackTrace expected, StackTrace actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		assertNotNull(actual);
+		assertEquals(expected.getFrames().size(), actual.getFrames().size());
+		for (int i = 0; i < actual.getFrames().size(); i++) {
+			IMCFrame expectedFrame = expected.getFrames().get(i);
+			Frame actualFrame = actual.getFrames().get(i);
+			assertEquals(expectedFrame.getMethod().getType().getFullName(), actualFrame.getTypeName());
+			assertEquals(expectedFrame.getMethod().getMethodName(), actualFrame.getMethodName());
+			assertEquals(expectedFrame.getMethod().getFormalDescriptor(), actualFrame.getDescriptor());
+			assertEquals(expectedFrame.getFrameLineNumber(), actualFrame.getLineNumber());
+			assertEquals(expectedFrame.getBCI(), actualFrame.getBCI());
+		}
+	}
+}
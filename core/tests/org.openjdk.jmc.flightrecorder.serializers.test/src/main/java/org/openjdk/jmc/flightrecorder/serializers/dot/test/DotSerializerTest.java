@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -34,16 +34,25 @@
 package org.openjdk.jmc.flightrecorder.serializers.dot.test;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.openjdk.jmc.common.item.IItemCollection;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
 import org.openjdk.jmc.flightrecorder.serializers.dot.DotSerializer;
+import org.openjdk.jmc.flightrecorder.serializers.dot.DotSerializer.ConfigurationKey;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
 import org.openjdk.jmc.flightrecorder.stacktrace.graph.StacktraceGraphModel;
 import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
 import org.openjdk.jmc.test.TestToolkit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -62,4 +71,60 @@ public class DotSerializerTest {
 		assertTrue("Dot file should contain a link between N1 and N2", dot.contains("N1 -> N2"));
 	}
 
+	@Test
+	public void testReducedGraph() throws IOException, CouldNotLoadRecordingException {
+		IItemCollection collection = RecordingToolkit.getFlightRecording(
+				TestToolkit.getNamedResource(DotSerializerTest.class, "recordings", "hotmethods.jfr"));
+		StacktraceGraphModel model = new StacktraceGraphModel(
+				new FrameSeparator(FrameSeparator.FrameCategorization.METHOD, false), collection, null);
+		String dot = DotSerializer.toDot(model, Integer.MAX_VALUE, DotSerializer.getDefaultConfiguration());
+
+		Map<ConfigurationKey, String> configuration = DotSerializer.getDefaultConfiguration();
+		configuration.put(ConfigurationKey.CollapseChains, "true");
+		configuration.put(ConfigurationKey.OtherNodeFraction, "0.05");
+		String reduced = DotSerializer.toDot(model, Integer.MAX_VALUE, configuration);
+		assertTrue("Reduced graph should have fewer nodes", countNodes(reduced) < countNodes(dot));
+		assertEquals("Samples should be kept when reducing", sumSamples(dot), sumSamples(reduced));
+	}
+
+	@Test
+	public void testStableNodeNames() throws IOException, CouldNotLoadRecordingException {
+		IItemCollection collection = RecordingToolkit.getFlightRecording(
+				TestToolkit.getNamedResource(DotSerializerTest.class, "recordings", "hotmethods.jfr"));
+		FrameSeparator separator = new FrameSeparator(FrameSeparator.FrameCategorization.METHOD, false);
+		Map<ConfigurationKey, String> configuration = DotSerializer.getDefaultConfiguration();
+		configuration.put(ConfigurationKey.StableNodeNames, "true");
+		String all = DotSerializer.toDot(new StacktraceGraphModel(separator, collection, null), Integer.MAX_VALUE,
+				configuration);
+		String samples = DotSerializer.toDot(
+				new StacktraceGraphModel(separator, collection.apply(JdkFilters.EXECUTION_SAMPLE), null),
+				Integer.MAX_VALUE, configuration);
+		Set<String> allNodes = nodeNamesByLabel(all);
+		Set<String> sampleNodes = nodeNamesByLabel(samples);
+		assertTrue("Sample nodes should exist", !sampleNodes.isEmpty());
+		assertTrue("Frames should keep their names between models", allNodes.containsAll(sampleNodes));
+	}
+
+	private static int countNodes(String dot) {
+		return (int) Stream.of(dot.split("\\n")).filter(line -> line.matches("N\\w+ \\[label=.*")).count();
+	}
+
+	private static long sumSamples(String dot) {
+		long samples = 0;
+		Matcher matcher = Pattern.compile("Samples: (\\d+)").matcher(dot);
+		while (matcher.find()) {
+			samples += Long.parseLong(matcher.group(1));
+		}
+		return samples;
+	}
+
+	private static Set<String> nodeNamesByLabel(String dot) {
+		Set<String> names = new HashSet<>();
+		Matcher matcher = Pattern.compile("(?m)^(N\\w+) \\[label=\"([^\\\\]*)").matcher(dot);
+		while (matcher.find()) {
+			names.add(matcher.group(1) + " " + matcher.group(2));
+		}
+		return names;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -35,6 +35,8 @@ package org.openjdk.jmc.flightrecorder.serializers.json.test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -48,6 +50,8 @@ import org.openjdk.jmc.flightrecorder.test.util.StacktraceTestToolkit;
 import org.openjdk.jmc.test.io.IOResourceSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class IItemCollectionJsonSerializerTest {
 
@@ -68,6 +72,40 @@ public class IItemCollectionJsonSerializerTest {
 		assertEquals(expected.replaceAll("\\r\\n", "\n"), actual.replaceAll("\\r\\n", "\n"));
 	}
 
+	@Test
+	public void testStreamKnownRecording() throws IOException {
+		String expected = readResource("/iitemcollection.json");
+
+		StringWriter writer = new StringWriter();
+		assertTrue(IItemCollectionJsonSerializer.toJson(testRecording, writer, () -> false));
+
+		assertEquals(expected.replaceAll("\\r\\n", "\n"), writer.toString().replaceAll("\\r\\n", "\n"));
+	}
+
+	@Test
+	public void testStreamStopped() throws IOException {
+		StringWriter writer = new StringWriter();
+		assertFalse(IItemCollectionJsonSerializer.toJson(testRecording, writer, () -> true));
+		assertEquals("", IItemCollectionJsonSerializer.toJsonString(testRecording, () -> true));
+	}
+
+	@Test
+	public void testStringStoppedHalfway() throws IOException {
+		AtomicInteger checks = new AtomicInteger();
+		IItemCollectionJsonSerializer.toJson(testRecording, new StringWriter(), () -> checks.incrementAndGet() < 0);
+		// Stop well after the first parts of the output have been handed to the writer
+		int stopAfter = checks.get() * 3 / 4;
+		checks.set(0);
+		StringWriter writer = new StringWriter();
+		assertFalse(IItemCollectionJsonSerializer.toJson(testRecording, writer,
+				() -> checks.incrementAndGet() > stopAfter));
+		assertTrue(writer.getBuffer().length() > 0);
+
+		checks.set(0);
+		assertEquals("",
+				IItemCollectionJsonSerializer.toJsonString(testRecording, () -> checks.incrementAndGet() > stopAfter));
+	}
+
 	private String readResource(String resourcePath) throws IOException {
 		try (InputStream is = FlameGraphJsonSerializer.class.getResourceAsStream(resourcePath)) {
 			if (is == null) {
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.serializers.pprof.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jmc.common.item.Aggregators;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.jdk.JdkFilters;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
+import org.openjdk.jmc.flightrecorder.serializers.pprof.PprofSerializer;
+import org.openjdk.jmc.flightrecorder.stacktrace.tree.Node;
+import org.openjdk.jmc.flightrecorder.stacktrace.tree.StacktraceTreeModel;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+import org.openjdk.jmc.test.TestToolkit;
+
+public class PprofSerializerTest {
+
+	private static IItemCollection testRecording;
+
+	@BeforeClass
+	public static void beforeAll() throws IOException, CouldNotLoadRecordingException {
+		testRecording = RecordingToolkit.getFlightRecording(
+				TestToolkit.getNamedResource(PprofSerializerTest.class, "recordings", "hotmethods.jfr"));
+	}
+
+	@Test
+	public void testSerializeItems() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PprofSerializer.toPprof(testRecording, out);
+		Profile profile = Profile.read(out.toByteArray());
+
+		assertEquals("", profile.strings.get(0));
+		assertEquals(5, profile.sampleTypes);
+		assertEquals("samples", profile.strings.get((int) profile.defaultSampleType));
+		assertTrue(profile.timeNanos > 0);
+		long executionSamples = testRecording.apply(JdkFilters.EXECUTION_SAMPLE).getAggregate(Aggregators.count())
+				.longValue();
+		assertEquals(executionSamples, profile.valueSums[0]);
+		assertTrue(profile.samples >= executionSamples);
+		assertTrue(profile.locationIds.containsAll(profile.referencedLocations));
+		assertTrue(profile.strings.contains("thread"));
+	}
+
+	@Test
+	public void testSerializeTree() throws IOException {
+		StacktraceTreeModel model = new StacktraceTreeModel(
+				testRecording.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PprofSerializer.toPprof(model, out);
+		Profile profile = Profile.read(out.toByteArray());
+
+		assertEquals(1, profile.sampleTypes);
+		// The root node itself does not carry any weight
+		long total = 0;
+		for (Node child : model.getRoot().getChildren()) {
+			total += Math.round(child.getCumulativeWeight());
+		}
+		assertEquals(total, profile.valueSums[0]);
+		assertTrue(profile.locationIds.containsAll(profile.referencedLocations));
+	}
+
+	@Test
+	public void testStopped() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertFalse(PprofSerializer.toPprof(testRecording, out, () -> true));
+		assertEquals(0, Profile.read(out.toByteArray()).samples);
+	}
+
+	/**
+	 * Decodes the parts of a profile needed by the tests.
+	 */
+	private static class Profile {
+		final List<String> strings = new ArrayList<>();
+		final Set<Long> locationIds = new HashSet<>();
+		final Set<Long> referencedLocations = new HashSet<>();
+		final long[] valueSums = new long[5];
+		int sampleTypes;
+		int samples;
+		long defaultSampleType;
+		long timeNanos;
+
+		static Profile read(byte[] gzipped) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+				in.transferTo(bytes);
+			}
+			Profile profile = new Profile();
+			Reader reader = new Reader(bytes.toByteArray());
+			while (reader.hasMore()) {
+				long key = reader.varint();
+				int field = (int) (key >>> 3);
+				if ((key & 7) == 0) {
+					long value = reader.varint();
+					if (field == 9) {
+						profile.timeNanos = value;
+					} else if (field == 14) {
+						profile.defaultSampleType = value;
+					}
+					continue;
+				}
+				Reader message = reader.message();
+				switch (field) {
+				case 1:
+					profile.sampleTypes++;
+					break;
+				case 2:
+					profile.samples++;
+					profile.readSample(message);
+					break;
+				case 4:
+					message.varint();
+					profile.locationIds.add(message.varint());
+					break;
+				case 6:
+					profile.strings.add(new String(message.bytes, message.position, message.limit - message.position,
+							StandardCharsets.UTF_8));
+					break;
+				default:
+					break;
+				}
+			}
+			return profile;
+		}
+
+		private void readSample(Reader sample) {
+			while (sample.hasMore()) {
+				int field = (int) (sample.varint() >>> 3);
+				Reader values = sample.message();
+				for (int i = 0; values.hasMore(); i++) {
+					long value = values.varint();
+					if (field == 1) {
+						referencedLocations.add(value);
+					} else if (field == 2) {
+						valueSums[i] += value;
+					}
+				}
+			}
+		}
+	}
+
+	private static class Reader {
+		final byte[] bytes;
+		int position;
+		final int limit;
+
+		Reader(byte[] bytes) {
+			this(bytes, 0, bytes.length);
+		}
+
+		Reader(byte[] bytes, int position, int limit) {
+			this.bytes = bytes;
+			this.position = position;
+			this.limit = limit;
+		}
+
+		boolean hasMore() {
+			return position < limit;
+		}
+
+		long varint() {
+			long value = 0;
+			for (int shift = 0;; shift += 7) {
+				byte b = bytes[position++];
+				value |= (long) (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+		}
+
+		Reader message() {
+			int length = (int) varint();
+			Reader message = new Reader(bytes, position, position + length);
+			position += length;
+			return message;
+		}
+	}
+}
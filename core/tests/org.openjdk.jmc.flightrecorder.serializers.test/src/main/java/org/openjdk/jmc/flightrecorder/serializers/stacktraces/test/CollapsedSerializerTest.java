@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2021, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2021, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -34,9 +34,11 @@
 package org.openjdk.jmc.flightrecorder.serializers.stacktraces.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.IOException;
+import java.io.StringWriter;
 
 import org.junit.Test;
 import org.openjdk.jmc.common.item.IItemCollection;
@@ -68,4 +70,16 @@ public class CollapsedSerializerTest {
 				lines[14]);
 	}
 
+	@Test
+	public void testStreamKnownRecording() throws IOException, CouldNotLoadRecordingException {
+		IItemCollection collection = RecordingToolkit.getFlightRecording(
+				TestToolkit.getNamedResource(FlameGraphJsonSerializerTest.class, "recordings", "hotmethods.jfr"));
+		StacktraceTreeModel model = new StacktraceTreeModel(collection,
+				new FrameSeparator(FrameSeparator.FrameCategorization.METHOD, false));
+		StringWriter writer = new StringWriter();
+		CollapsedSerializer.toCollapsed(model, writer);
+		assertEquals(CollapsedSerializer.toCollapsed(model), writer.toString());
+		assertFalse(CollapsedSerializer.toCollapsed(model, new StringWriter(), () -> true));
+	}
+
 }
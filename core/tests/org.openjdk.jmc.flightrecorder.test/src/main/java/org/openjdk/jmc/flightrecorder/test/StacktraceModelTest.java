@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -32,17 +32,27 @@
  */
 package org.openjdk.jmc.flightrecorder.test;
 
+import java.io.IOException;
+
 import org.junit.Test;
+import org.openjdk.jmc.common.IMCStackTrace;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
+import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
+import org.openjdk.jmc.flightrecorder.jdk.JdkTypeIDs;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator.FrameCategorization;
 import org.openjdk.jmc.flightrecorder.stacktrace.StacktraceModel;
 import org.openjdk.jmc.flightrecorder.stacktrace.StacktraceModel.Branch;
 import org.openjdk.jmc.flightrecorder.stacktrace.StacktraceModel.Fork;
 import org.openjdk.jmc.flightrecorder.test.util.MockStacktraceGenerator;
+import org.openjdk.jmc.flightrecorder.test.util.RecordingToolkit;
+import org.openjdk.jmc.test.TestToolkit;
 import org.openjdk.jmc.test.mock.item.MockCollections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -181,4 +191,59 @@ public class StacktraceModelTest {
 		Fork root = smModel.getRootFork();
 		assertEquals(2, root.getBranchCount());
 	}
+
+	@Test
+	public void testBranchesSortedByItemCount() {
+		IMCStackTrace[] traces = MockStacktraceGenerator.generateTraces(TRUNCATED_FALSE, RECURSIVE_FALSE, 2,
+				FrameCategorization.METHOD, DISTINGUISH_FRAMES_BY_OPTIMIZATION_FALSE);
+		// Two items share the long trace, one item has a trace that separates after the first frame
+		IItemCollection items = MockCollections
+				.getStackTraceCollection(new IMCStackTrace[] {traces[1], traces[0], traces[0]});
+		StacktraceModel smModel = new StacktraceModel(THREAD_ROOT_ON_TOP_FALSE,
+				new FrameSeparator(FrameCategorization.METHOD, DISTINGUISH_FRAMES_BY_OPTIMIZATION_FALSE), items);
+		Fork root = smModel.getRootFork();
+		assertEquals(1, root.getBranchCount());
+		assertEquals(3, root.getItemsInFork());
+		Branch branch = root.getBranch(0);
+		assertEquals(3, branch.getFirstFrame().getItemCount());
+		assertEquals(0, branch.getTailFrames().length);
+
+		Fork fork = branch.getEndFork();
+		assertEquals(2, fork.getBranchCount());
+		assertEquals(3, fork.getItemsInFork());
+		Branch first = fork.getBranch(0);
+		Branch second = fork.getBranch(1);
+		assertEquals(2, first.getFirstFrame().getItemCount());
+		assertEquals(1, first.getTailFrames().length);
+		assertEquals(traces[0].getFrames().get(2), first.getLastFrame().getFrame());
+		assertEquals(1, second.getFirstFrame().getItemCount());
+		assertFalse(second.hasTail());
+		assertEquals(2, second.getItemOffsetInFork());
+		assertEquals(2, second.getEndFork().getItemOffset());
+		assertEquals(0, second.getEndFork().getBranchCount());
+	}
+
+	@Test
+	public void testAttributeMissingInSomeTypes() throws IOException, CouldNotLoadRecordingException {
+		IItemCollection recording = RecordingToolkit.getFlightRecording(
+				TestToolkit.getNamedResource(StacktraceModelTest.class, "recordings", "metadata_new.jfr"));
+		IItemCollection allocations = recording.apply(ItemFilters.type(JdkTypeIDs.ALLOC_INSIDE_TLAB));
+		IItemCollection samples = recording.apply(ItemFilters.type(JdkTypeIDs.EXECUTION_SAMPLE));
+		FrameSeparator separator = new FrameSeparator(FrameCategorization.METHOD,
+				DISTINGUISH_FRAMES_BY_OPTIMIZATION_FALSE);
+		Fork allocationRoot = new StacktraceModel(THREAD_ROOT_ON_TOP_FALSE, separator, allocations,
+				JdkAttributes.TLAB_SIZE).getRootFork();
+		Fork sampleRoot = new StacktraceModel(THREAD_ROOT_ON_TOP_FALSE, separator, samples, JdkAttributes.TLAB_SIZE)
+				.getRootFork();
+		// Execution samples have no TLAB size, they are counted instead
+		Fork mixedRoot = new StacktraceModel(THREAD_ROOT_ON_TOP_FALSE, separator,
+				recording.apply(ItemFilters.type(JdkTypeIDs.ALLOC_INSIDE_TLAB, JdkTypeIDs.EXECUTION_SAMPLE)),
+				JdkAttributes.TLAB_SIZE).getRootFork();
+		assertTrue(allocationRoot.getItemsInFork() > 0);
+		assertTrue(sampleRoot.getItemsInFork() > 0);
+		assertEquals(allocationRoot.getItemsInFork() + sampleRoot.getItemsInFork(), mixedRoot.getItemsInFork());
+		assertEquals(sampleRoot.getItemsInFork(), sampleRoot.getAggregateItemsInFork());
+		assertEquals(allocationRoot.getAggregateItemsInFork() + sampleRoot.getItemsInFork(),
+				mixedRoot.getAggregateItemsInFork());
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2026, Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019, 2025, Datadog, Inc. All rights reserved.
  *
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
@@ -39,10 +39,12 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.ItemCollectionToolkit;
 import org.openjdk.jmc.flightrecorder.CouldNotLoadRecordingException;
 import org.openjdk.jmc.flightrecorder.jdk.JdkAttributes;
 import org.openjdk.jmc.flightrecorder.stacktrace.FrameSeparator;
@@ -54,6 +56,8 @@ import org.openjdk.jmc.test.io.IOResourceSet;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 public class StacktraceTreeModelTest {
 
@@ -108,6 +112,31 @@ public class StacktraceTreeModelTest {
 		}
 	}
 
+	@Test
+	public void testTreeModelProgressSnapshots() {
+		IItemCollection repeated = ItemCollectionToolkit.merge(() -> Stream.generate(() -> testRecording).limit(200));
+		List<Node> snapshots = new ArrayList<>();
+		StacktraceTreeModel model = new StacktraceTreeModel(repeated, separator, false, null, () -> false, 0,
+				snapshots::add);
+		double total = totalWeight(model.getRoot());
+		assertEquals(200 * totalWeight(new StacktraceTreeModel(testRecording, separator).getRoot()), total, 0.0);
+
+		// snapshots are independent copies with weights growing towards the final ones
+		assertTrue(snapshots.size() > 1);
+		double previous = 0;
+		for (Node snapshot : snapshots) {
+			assertNotSame(model.getRoot(), snapshot);
+			double weight = totalWeight(snapshot);
+			assertTrue(weight >= previous);
+			assertTrue(weight <= total);
+			previous = weight;
+		}
+	}
+
+	private static double totalWeight(Node root) {
+		return root.getChildren().stream().mapToDouble(Node::getCumulativeWeight).sum();
+	}
+
 	@Test
 	public void testTreeModelWithAttributeInvertedStacks() {
 		StacktraceTreeModel model = new StacktraceTreeModel(testRecording, separator, true,
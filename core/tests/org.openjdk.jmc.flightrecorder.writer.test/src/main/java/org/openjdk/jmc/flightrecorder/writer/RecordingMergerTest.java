@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.flightrecorder.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmc.common.IMCFrame;
+import org.openjdk.jmc.common.IMCStackTrace;
+import org.openjdk.jmc.common.IMCThread;
+import org.openjdk.jmc.common.item.Attribute;
+import org.openjdk.jmc.common.item.IAccessorKey;
+import org.openjdk.jmc.common.item.IItem;
+import org.openjdk.jmc.common.item.IItemCollection;
+import org.openjdk.jmc.common.item.IItemIterable;
+import org.openjdk.jmc.common.item.IMemberAccessor;
+import org.openjdk.jmc.common.item.IType;
+import org.openjdk.jmc.common.item.ItemFilters;
+import org.openjdk.jmc.common.util.LabeledIdentifier;
+import org.openjdk.jmc.common.unit.IQuantity;
+import org.openjdk.jmc.common.unit.UnitLookup;
+import org.openjdk.jmc.flightrecorder.JfrLoaderToolkit;
+import org.openjdk.jmc.flightrecorder.writer.api.MergeStatistics;
+import org.openjdk.jmc.flightrecorder.writer.api.Recording;
+import org.openjdk.jmc.flightrecorder.writer.api.RecordingMerger;
+import org.openjdk.jmc.flightrecorder.writer.api.Recordings;
+import org.openjdk.jmc.flightrecorder.writer.api.Type;
+import org.openjdk.jmc.flightrecorder.writer.api.Types;
+
+@SuppressWarnings("restriction")
+class RecordingMergerTest {
+	private static final String EVENT_TYPE = "test.MergeEvent";
+	private static final String RECORDING = "/recordings/hotmethods.jfr";
+	private static final String[] COMPARED_TYPES = {"jdk.ActiveSetting", "jdk.ExecutionSample", "jdk.ThreadCPULoad"};
+
+	private final List<Path> files = new ArrayList<>();
+	private Path first;
+	private Path second;
+
+	@BeforeEach
+	void setup() throws Exception {
+		first = writeRecording(1_000_000_000L, 0, 10);
+		second = writeRecording(2_000_000_000L, 10, 5);
+	}
+
+	@AfterEach
+	void teardown() throws Exception {
+		for (Path file : files) {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	void mergeDistinctRecordings() throws Exception {
+		Path target = createTempFile();
+		MergeStatistics stats = RecordingMerger.merge(toFiles(first, second), target.toFile());
+
+		assertEquals(2, stats.getInputFileCount());
+		assertEquals(2, stats.getChunkCount());
+		assertEquals(0, stats.getDuplicateChunkCount());
+		assertEquals(Files.size(target), stats.getOutputBytes());
+		assertEquals(15, countValues(target, 0, 15));
+	}
+
+	@Test
+	void mergeSkipsDuplicateChunks() throws Exception {
+		Path target = createTempFile();
+		MergeStatistics stats = RecordingMerger.merge(toFiles(first, second, first), target.toFile());
+
+		assertEquals(3, stats.getChunkCount());
+		assertEquals(1, stats.getDuplicateChunkCount());
+		assertEquals(Files.size(first), stats.getDuplicateBytes());
+		assertTrue(stats.getBytesSaved() >= stats.getDuplicateBytes());
+		assertEquals(15, countValues(target, 0, 15));
+	}
+
+	@Test
+	void mergeKeepsEventValues() throws Exception {
+		Path source = createTempFile();
+		try (InputStream in = RecordingMergerTest.class.getResourceAsStream(RECORDING)) {
+			Files.copy(in, source, StandardCopyOption.REPLACE_EXISTING);
+		}
+		Path target = createTempFile();
+		RecordingMerger.merge(toFiles(source), target.toFile());
+
+		IItemCollection expected = JfrLoaderToolkit.loadEvents(source.toFile());
+		IItemCollection actual = JfrLoaderToolkit.loadEvents(target.toFile());
+		for (String type : COMPARED_TYPES) {
+			Map<String, Integer> expectedEvents = describeEvents(expected, type);
+			assertTrue(expectedEvents.size() > 1, "Too few distinct " + type + " events in " + RECORDING);
+			assertEquals(expectedEvents, describeEvents(actual, type), type);
+		}
+	}
+
+	private Path writeRecording(long startNanos, int firstValue, int count) throws Exception {
+		Path file = createTempFile();
+		try (Recording recording = Recordings.newRecording(file, settings -> settings.withTimestamp(startNanos)
+				.withStartTicks(startNanos).withDuration(1_000_000L).withJdkTypeInitialization())) {
+			Type eventType = recording.registerEventType(EVENT_TYPE, builder -> {
+				builder.addField("value", Types.Builtin.LONG).addField("label", Types.Builtin.STRING);
+			});
+			for (int i = 0; i < count; i++) {
+				long value = firstValue + i;
+				recording.writeEvent(eventType.asValue(builder -> {
+					builder.putField("startTime", startNanos + value).putField("value", value).putField("label",
+							"value " + value);
+				}));
+			}
+		}
+		return file;
+	}
+
+	private Path createTempFile() throws Exception {
+		Path file = Files.createTempFile("jfr-writer-test-merge-", ".jfr");
+		files.add(file);
+		return file;
+	}
+
+	private static List<File> toFiles(Path ... paths) {
+		List<File> result = new ArrayList<>();
+		for (Path path : paths) {
+			result.add(path.toFile());
+		}
+		return result;
+	}
+
+	private static int countValues(Path recording, int firstValue, int count) throws Exception {
+		IItemCollection events = JfrLoaderToolkit.loadEvents(recording.toFile()).apply(ItemFilters.type(EVENT_TYPE));
+		boolean[] seen = new boolean[count];
+		int total = 0;
+		for (IItemIterable iterable : events) {
+			IMemberAccessor<Number, IItem> accessor = Attribute.attr("value", "value", UnitLookup.RAW_NUMBER)
+					.getAccessor(iterable.getType());
+			for (IItem item : iterable) {
+				int value = accessor.getMember(item).intValue();
+				assertTrue(!seen[value - firstValue], "Duplicate event " + value);
+				seen[value - firstValue] = true;
+				total++;
+			}
+		}
+		assertTrue(Arrays.equals(seen, filled(count)));
+		return total;
+	}
+
+	/**
+	 * @return the number of events of the given type for each distinct combination of field values
+	 */
+	private static Map<String, Integer> describeEvents(IItemCollection events, String type) {
+		Map<String, Integer> result = new HashMap<>();
+		for (IItemIterable iterable : events.apply(ItemFilters.type(type))) {
+			IType<IItem> itemType = iterable.getType();
+			Map<String, IMemberAccessor<?, IItem>> accessors = new TreeMap<>();
+			for (IAccessorKey<?> key : itemType.getAccessorKeys().keySet()) {
+				accessors.put(key.getIdentifier(), itemType.getAccessor(key));
+			}
+			for (IItem item : iterable) {
+				StringBuilder description = new StringBuilder();
+				for (Map.Entry<String, IMemberAccessor<?, IItem>> entry : accessors.entrySet()) {
+					description.append(entry.getKey()).append('=')
+							.append(describeValue(entry.getValue().getMember(item))).append(';');
+				}
+				result.merge(description.toString(), 1, Integer::sum);
+			}
+		}
+		return result;
+	}
+
+	private static String describeValue(Object value) {
+		if (value instanceof IMCStackTrace) {
+			StringBuilder frames = new StringBuilder("[");
+			for (IMCFrame frame : ((IMCStackTrace) value).getFrames()) {
+				frames.append(frame.getMethod().getType().getFullName()).append('.')
+						.append(frame.getMethod().getMethodName()).append(frame.getMethod().getFormalDescriptor())
+						.append(':').append(frame.getFrameLineNumber()).append(' ').append(frame.getType())
+						.append(", ");
+			}
+			return frames.append(']').toString();
+		} else if (value instanceof IMCThread) {
+			IMCThread thread = (IMCThread) value;
+			return thread.getThreadName() + '#' + thread.getThreadId();
+		} else if (value instanceof IQuantity && ((IQuantity) value).getType() == UnitLookup.TIMESPAN) {
+			// Durations are read in ticks from the source but written in nanoseconds
+			return ((IQuantity) value).clampedLongValueIn(UnitLookup.NANOSECOND) + " ns";
+		} else if (value instanceof LabeledIdentifier) {
+			return ((LabeledIdentifier) value).getInterfaceId();
+		}
+		return String.valueOf(value);
+	}
+
+	private static boolean[] filled(int count) {
+		boolean[] result = new boolean[count];
+		Arrays.fill(result, true);
+		return result;
+	}
+}
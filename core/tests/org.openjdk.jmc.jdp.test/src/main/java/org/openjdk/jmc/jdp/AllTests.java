@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2025, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2026, Oracle and/or its affiliates. All rights reserved.
  * 
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -40,12 +40,14 @@ import org.openjdk.jmc.jdp.client.JDPClientTest;
 import org.openjdk.jmc.jdp.client.JDPJMXTest;
 import org.openjdk.jmc.jdp.client.JDPPacketTest;
 import org.openjdk.jmc.jdp.client.JDPServerTest;
+import org.openjdk.jmc.jdp.client.PacketProcessorTest;
 
 /**
  * The test suite for all the tests related to the JDP component.
  */
 @RunWith(Suite.class)
-@SuiteClasses({JDPClientTest.class, JDPJMXTest.class, JDPPacketTest.class, JDPServerTest.class})
+@SuiteClasses({JDPClientTest.class, JDPJMXTest.class, JDPPacketTest.class, JDPServerTest.class,
+		PacketProcessorTest.class})
 public class AllTests {
 
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ *
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The contents of this file are subject to the terms of either the Universal Permissive License
+ * v 1.0 as shown at https://oss.oracle.com/licenses/upl
+ *
+ * or the following license:
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted
+ * provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this list of conditions
+ * and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of
+ * conditions and the following disclaimer in the documentation and/or other materials provided with
+ * the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its contributors may be used to
+ * endorse or promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY
+ * WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.openjdk.jmc.jdp.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openjdk.jmc.jdp.client.DiscoveryEvent.Kind;
+import org.openjdk.jmc.jdp.common.JDPPacket;
+
+@SuppressWarnings("nls")
+public class PacketProcessorTest {
+	private static final String KEY_SESSION_ID = "DISCOVERABLE_SESSION_UUID";
+	private static final String KEY_BROADCAST_INTERVAL = "BROADCAST_INTERVAL";
+	private static final int MAX_HEART_BEAT = 60000;
+
+	private final List<DiscoveryEvent> events = new ArrayList<>();
+	private PacketProcessor processor;
+
+	@Before
+	public void setUp() {
+		processor = new PacketProcessor(MAX_HEART_BEAT);
+		processor.addDiscoveryListener(events::add);
+	}
+
+	@Test
+	public void testFoundOncePerBatch() {
+		JDPPacket packet = createPacket("a", "1");
+		processor.process(Arrays.asList(packet, packet, packet));
+		assertEquals(1, events.size());
+		assertEvent(Kind.FOUND, packet, events.get(0));
+	}
+
+	@Test
+	public void testFoundAndChangedInOneBatchIsFoundWithLatestData() {
+		JDPPacket first = createPacket("a", "1");
+		JDPPacket second = createPacket("a", "2");
+		processor.process(Arrays.asList(first, second));
+		assertEquals(1, events.size());
+		assertEvent(Kind.FOUND, second, events.get(0));
+		assertEquals(Collections.singleton(second), processor.getDiscoverables());
+	}
+
+	@Test
+	public void testChangedInLaterBatch() {
+		JDPPacket first = createPacket("a", "1");
+		JDPPacket second = createPacket("a", "2");
+		JDPPacket third = createPacket("a", "3");
+		processor.process(Collections.singletonList(first));
+		processor.process(Arrays.asList(second, third));
+		assertEquals(2, events.size());
+		assertEvent(Kind.CHANGED, third, events.get(1));
+	}
+
+	@Test
+	public void testUnchangedPacketSendsNoEvent() {
+		processor.process(Collections.singletonList(createPacket("a", "1")));
+		processor.process(Collections.singletonList(createPacket("a", "1")));
+		assertEquals(1, events.size());
+	}
+
+	@Test
+	public void testEventsAreSentInReceiveOrder() {
+		JDPPacket a = createPacket("a", "1");
+		JDPPacket b = createPacket("b", "1");
+		JDPPacket c = createPacket("c", "1");
+		processor.process(Arrays.asList(c, a, b, a));
+		assertEquals(3, events.size());
+		assertSame(c, events.get(0).getDiscoverable());
+		assertSame(a, events.get(1).getDiscoverable());
+		assertSame(b, events.get(2).getDiscoverable());
+	}
+
+	@Test
+	public void testLostAfterDeadline() {
+		long before = System.currentTimeMillis();
+		JDPPacket packet = createPacket("a", "1", 1000);
+		processor.process(Collections.singletonList(packet));
+		long after = System.currentTimeMillis();
+		// Lost when 2.5 broadcast intervals have passed without a packet
+		processor.pruneExpired(before + 2500);
+		assertEquals(1, events.size());
+		processor.pruneExpired(after + 2501);
+		assertEquals(2, events.size());
+		assertEvent(Kind.LOST, packet, events.get(1));
+		assertTrue(processor.getDiscoverables().isEmpty());
+	}
+
+	@Test
+	public void testLostAfterMaxHeartBeatWithoutBroadcastInterval() {
+		long before = System.currentTimeMillis();
+		processor.process(Collections.singletonList(createPacket("a", "1")));
+		long after = System.currentTimeMillis();
+		processor.pruneExpired(before + MAX_HEART_BEAT);
+		assertEquals(1, events.size());
+		processor.pruneExpired(after + MAX_HEART_BEAT + 1);
+		assertEquals(Kind.LOST, events.get(1).getKind());
+	}
+
+	@Test
+	public void testNewPacketExtendsDeadline() {
+		JDPPacket packet = createPacket("a", "1", 1000);
+		processor.process(Collections.singletonList(packet));
+		long firstDeadline = System.currentTimeMillis() + 2500;
+		waitUntilAfter(System.currentTimeMillis() + 20);
+		processor.process(Collections.singletonList(packet));
+		processor.pruneExpired(firstDeadline + 1);
+		assertEquals(1, events.size());
+	}
+
+	@Test
+	public void testOnlyExpiredAreLost() {
+		JDPPacket shortInterval = createPacket("a", "1", 1000);
+		JDPPacket longInterval = createPacket("b", "1", 100000);
+		processor.process(Arrays.asList(longInterval, shortInterval));
+		processor.pruneExpired(System.currentTimeMillis() + 10000);
+		assertEquals(3, events.size());
+		assertEvent(Kind.LOST, shortInterval, events.get(2));
+		assertEquals(Collections.singleton(longInterval), processor.getDiscoverables());
+	}
+
+	@Test
+	public void testSameDeadlineDifferentDiscoverables() {
+		List<JDPPacket> packets = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			packets.add(createPacket("id" + i, "1"));
+		}
+		// All packets in a batch get the same deadline
+		processor.process(packets);
+		assertEquals(100, processor.getDiscoverables().size());
+		processor.pruneExpired(System.currentTimeMillis() + MAX_HEART_BEAT + 1);
+		assertEquals(200, events.size());
+		assertTrue(processor.getDiscoverables().isEmpty());
+	}
+
+	@Test
+	public void testPacketWithoutSessionId() {
+		JDPPacket withoutId = new JDPPacket(new HashMap<String, String>());
+		JDPPacket withId = createPacket("a", "1");
+		processor.process(Arrays.asList(withoutId, withId, withoutId));
+		assertEquals(2, events.size());
+		assertNull(events.get(0).getDiscoverable().getSessionId());
+		assertEquals(2, processor.getDiscoverables().size());
+		processor.pruneExpired(System.currentTimeMillis() + MAX_HEART_BEAT + 1);
+		assertEquals(4, events.size());
+		assertTrue(processor.getDiscoverables().isEmpty());
+	}
+
+	@Test
+	public void testFailingListenerDoesNotStopOthers() {
+		List<DiscoveryEvent> otherEvents = new ArrayList<>();
+		processor = new PacketProcessor(MAX_HEART_BEAT);
+		processor.addDiscoveryListener(event -> {
+			throw new IllegalStateException("Listener failure");
+		});
+		processor.addDiscoveryListener(otherEvents::add);
+		processor.process(Collections.singletonList(createPacket("a", "1")));
+		assertEquals(1, otherEvents.size());
+	}
+
+	private static void assertEvent(Kind kind, JDPPacket packet, DiscoveryEvent event) {
+		assertEquals(kind, event.getKind());
+		assertSame(packet, event.getDiscoverable());
+	}
+
+	private static JDPPacket createPacket(String sessionId, String value) {
+		return new JDPPacket(createPayload(sessionId, value));
+	}
+
+	private static JDPPacket createPacket(String sessionId, String value, long broadcastInterval) {
+		Map<String, String> payload = createPayload(sessionId, value);
+		payload.put(KEY_BROADCAST_INTERVAL, Long.toString(broadcastInterval));
+		return new JDPPacket(payload);
+	}
+
+	private static Map<String, String> createPayload(String sessionId, String value) {
+		Map<String, String> payload = new HashMap<>();
+		payload.put(KEY_SESSION_ID, sessionId);
+		payload.put("Value", value);
+		return payload;
+	}
+
+	private static void waitUntilAfter(long time) {
+		while (System.currentTimeMillis() <= time) {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+}